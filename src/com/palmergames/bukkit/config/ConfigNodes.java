@@ -841,6 +841,24 @@ public enum ConfigNodes {
 			"",
 			"# When true Towny will use a background task to gather UUIDs for residents who do not have UUIDs.",
 			"# This process will greatly improve your database's ability to convert from playernames to UUIDs in the future."),
+	PLUGIN_DATABASE_GATHER_RESIDENT_UUIDS_INTERVAL("plugin.database.gather_resident_uuids_interval",
+			"40",
+			"",
+			"# How many ticks the background task waits between looking up batches of UUIDs.",
+			"# Each batch looks up as many as 10 names from Mojang in one request.",
+			"# However often it runs, the task sends no more requests than gather_resident_uuids_request_limit allows."),
+	PLUGIN_DATABASE_GATHER_RESIDENT_UUIDS_REQUEST_LIMIT("plugin.database.gather_resident_uuids_request_limit",
+			"600",
+			"",
+			"# How many requests the background task sends to Mojang every 10 minutes at most.",
+			"# Residents who were last online long ago are looked up one request each, as many per run as this allows.",
+			"# Mojang allows 600 requests every 10 minutes, lower this if other plugins on the server also look up players."),
+	PLUGIN_DATABASE_FLATFILE_TOWNBLOCK_STORAGE("plugin.database.flatfile_townblock_storage",
+			"files",
+			"",
+			"# How the flatfile database stores townblocks. Valid entries are: files, regions.",
+			"# files keeps one file per townblock, regions packs the townblocks of every 32x32 area into a single region file.",
+			"# Existing townblocks are converted from one to the other the next time Towny loads."),
 
 	PLUGIN_DATABASE_SQL_HEADER(
 			"plugin.database.sql",
@@ -854,6 +872,17 @@ public enum ConfigNodes {
 	PLUGIN_DATABASE_USERNAME("plugin.database.sql.username", "root"),
 	PLUGIN_DATABASE_PASSWORD("plugin.database.sql.password", ""),
 	PLUGIN_DATABASE_FLAGS("plugin.database.sql.flags", "?verifyServerCertificate=false&useSSL=false&useUnicode=true&characterEncoding=utf-8"),
+	PLUGIN_DATABASE_SQL_LAZY_RESIDENTS("plugin.database.sql.lazy_resident_loading",
+			"false",
+			"",
+			"# When true only the residents of towns and online players are kept in memory.",
+			"# Every other resident is loaded from the database when it is needed and unloaded again",
+			"# once it has not been used for a while. Meant for servers with a very large number of old residents.",
+			"# Every resident is loaded while converting from one database to another."),
+	PLUGIN_DATABASE_SQL_LAZY_RESIDENT_CACHE("plugin.database.sql.lazy_resident_cache_size",
+			"2000",
+			"",
+			"# How many residents loaded on demand are kept in memory before the least recently used are unloaded."),
 
 	PLUGIN_DAILY_BACKUPS_HEADER(
 			"plugin.database.daily_backups",
@@ -890,6 +919,13 @@ public enum ConfigNodes {
 			"# This will first attempt to use Vault or Reserve to bridge your economy plugin with Towny.",
 			"# If Reserve/Vault is not present it will attempt to find a supported economy plugin.",
 			"# If neither Vault/Reserve or supported economy are present it will not be possible to create towns or do any operations that require money."),
+	PLUGIN_PLACEHOLDER_CACHE_TIME(
+			"plugin.interfacing.placeholder_cache_time",
+			"5s",
+			"",
+			"# How long Towny's PlaceholderAPI placeholders are remembered for each player before they are worked out again.",
+			"# Cached placeholders are thrown away early when a town/nation is renamed, residents join or leave, balances change or the player changes plots.",
+			"# Set to 0 to disable caching."),
 
 	PLUGIN_DAY_HEADER("plugin.day_timer", "", ""),
 	PLUGIN_DAY_INTERVAL(
@@ -930,6 +966,13 @@ public enum ConfigNodes {
 			"false",
 			"",
 			"# Lots of messages to tell you what's going on in the server with time taken for events."),
+	PLUGIN_PERFORMANCE_REPORT_INTERVAL(
+			"plugin.performance_report_interval",
+			"0m",
+			"",
+			"# How often the report shown by /ta perf is written to the log.",
+			"# It includes database load times, listener latencies, save and regen queue sizes and the PlayerCache hit ratio.",
+			"# Set to 0m to only show the report with /ta perf."),
 	PLUGIN_INFO_TOOL(
 			"plugin.info_tool",
 			"BRICK",
@@ -1126,6 +1169,13 @@ public enum ConfigNodes {
 			"# The maximum amount of time a mob could be inside a town's boundaries before being sent to the void.",
 			"# Lower values will check all entities more often at the risk of heavier burden and resource use.",
 			"# NEVER set below 1."),
+	PROT_MOB_REMOVE_MODE(
+			"protection.mob_removal_mode",
+			"sweep",
+			"",
+			"# How mobs are removed. Valid entries are: sweep, spawn.",
+			"# sweep: stops mobs spawning and regularly checks every loaded chunk, spreading the check over the mob_removal_speed.",
+			"# spawn: only stops mobs spawning. Mobs which wander in or are already there are left alone."),
 	PROT_MOB_TYPES(
 			"protection.mob_types",
 			"Animals,WaterMob,NPC,Snowman,ArmorStand,Villager",
@@ -1721,6 +1771,22 @@ public enum ConfigNodes {
 			"# Eg: The money taken during Daily Taxes is just removed. With this on, the amount taken would be funneled into an account.",
 			"#     This also applies when a player collects money, like when the player is refunded money when a delayed teleport fails."),
 
+	ECO_BALANCE_CACHE("economy.balance_cache", "", ""),
+	ECO_BALANCE_CACHE_ENABLED(
+			"economy.balance_cache.enabled",
+			"false",
+			"",
+			"# When true, Towny will remember account balances it has looked up for a short time,",
+			"# instead of asking the economy plugin for every single balance check.",
+			"# Deposits and withdrawals made through Towny are always sent straight to the economy plugin",
+			"# and the remembered balance is forgotten, so the next check looks it up again.",
+			"# Set this to false if other plugins change town/nation/player balances and you need Towny to see it instantly."),
+	ECO_BALANCE_CACHE_TTL(
+			"economy.balance_cache.ttl",
+			"2s",
+			"",
+			"# How long a remembered balance is trusted before it is looked up again."),
+
 	ECO_DAILY_TAXES("economy.daily_taxes", "", ""),
 	ECO_DAILY_TAXES_ENABLED(
 			"economy.daily_taxes.enabled",
@@ -44,6 +44,56 @@ public class ChunkNotification {
 	public static String plotTypeNotificationFormat = Colors.Gold + "[%s]";	
 	public static String groupNotificationFormat = Colors.White + "[%s]";
 
+	// Changed whenever the formats are loaded, so plot fragments made with older formats are built again.
+	private static volatile int formatVersion = 0;
+
+	/**
+	 * The parts of a plot's notification which only depend on the plot itself.
+	 * Cached on the TownBlock so that the price isn't formatted by the economy
+	 * plugin every time someone walks into the plot.
+	 */
+	public static class PlotFragments {
+		final int version;
+		final String forSale;
+		final String plotType;
+		final String group;
+
+		PlotFragments(TownBlock townBlock) {
+			version = formatVersion;
+			if (townBlock.hasPlotObjectGroup()) {
+				PlotGroup plotGroup = townBlock.getPlotObjectGroup();
+				forSale = plotGroup.getPrice() != -1 ? String.format(forSaleNotificationFormat, TownyEconomyHandler.getFormattedBalance(plotGroup.getPrice())) : null;
+				group = String.format(groupNotificationFormat, plotGroup.getName());
+			} else {
+				forSale = townBlock.getPlotPrice() != -1 ? String.format(forSaleNotificationFormat, TownyEconomyHandler.getFormattedBalance(townBlock.getPlotPrice())) : null;
+				group = null;
+			}
+			plotType = townBlock.getType() != null ? String.format(plotTypeNotificationFormat, townBlock.getType().toString()) : null;
+		}
+	}
+
+	/**
+	 * Get the cached parts of a plot's notification, building them if needed.
+	 * 
+	 * @param townBlock - TownBlock being entered.
+	 * @return the PlotFragments of the townblock.
+	 */
+	public static PlotFragments getPlotFragments(TownBlock townBlock) {
+		PlotFragments fragments = townBlock.getNotificationFragments();
+		if (fragments == null || fragments.version != formatVersion) {
+			fragments = new PlotFragments(townBlock);
+			townBlock.setNotificationFragments(fragments);
+		}
+		return fragments;
+	}
+
+	/**
+	 * Build the parts of every plot's notification again when they are next shown.
+	 */
+	public static void clearPlotFragments() {
+		formatVersion++;
+	}
+
 	/**
 	 * Called on Config load.
 	 * Specifically: TownySettings.loadConfig()
@@ -65,6 +115,7 @@ public class ChunkNotification {
 		forSaleNotificationFormat = Colors.translateColorCodes(TownySettings.getString(ConfigNodes.NOTIFICATION_PLOT_FORSALE));
 		plotTypeNotificationFormat = Colors.translateColorCodes(TownySettings.getString(ConfigNodes.NOTIFICATION_PLOT_TYPE));
 		groupNotificationFormat = Colors.translateColorCodes(TownySettings.getString(ConfigNodes.NOTIFICATION_GROUP));
+		clearPlotFragments();
 	}
 
 	WorldCoord from, to;
@@ -206,11 +257,16 @@ public class ChunkNotification {
 					Player player = BukkitTools.getPlayer(resident.getName());
 					TownyWorld toWorld = this.to.getTownyWorld();
 					try {
-						if (PlayerCacheUtil.getTownBlockStatus(player, this.to).equals(TownBlockStatus.NATION_ZONE) && PlayerCacheUtil.getTownBlockStatus(player, this.from).equals(TownBlockStatus.UNCLAIMED_ZONE)) {
+						// Each status can mean a search for the nearest nation town, so each is only worked out once.
+						TownBlockStatus toStatus = PlayerCacheUtil.getTownBlockStatus(player, this.to);
+						if (toStatus != TownBlockStatus.NATION_ZONE && toStatus != TownBlockStatus.UNCLAIMED_ZONE)
+							return null;
+						TownBlockStatus fromStatus = PlayerCacheUtil.getTownBlockStatus(player, this.from);
+						if (toStatus == TownBlockStatus.NATION_ZONE && fromStatus == TownBlockStatus.UNCLAIMED_ZONE) {
 							Town nearestTown = null; 
 							nearestTown = toWorld.getClosestTownWithNationFromCoord(this.to.getCoord(), nearestTown);
 							return String.format(areaWildernessNotificationFormat, Translation.of("nation_zone_this_area_under_protection_of", toWorld.getUnclaimedZoneName(), nearestTown.getNation().getName()));
-						} else if (PlayerCacheUtil.getTownBlockStatus(player, this.to).equals(TownBlockStatus.UNCLAIMED_ZONE) && PlayerCacheUtil.getTownBlockStatus(player, this.from).equals(TownBlockStatus.NATION_ZONE)) {
+						} else if (toStatus == TownBlockStatus.UNCLAIMED_ZONE && fromStatus == TownBlockStatus.NATION_ZONE) {
 							return String.format(areaWildernessNotificationFormat, to.getTownyWorld().getUnclaimedZoneName());
 						}
 					} catch (NotRegisteredException ignored) {
@@ -330,23 +386,23 @@ public class ChunkNotification {
 
 		// Were heading to a plot group do some things differently
 		if (toForSale && toPlotGroupBlock && (fromPlotGroup != toPlotGroup))
-			return String.format(forSaleNotificationFormat, TownyEconomyHandler.getFormattedBalance(toTownBlock.getPlotObjectGroup().getPrice()));
+			return getPlotFragments(toTownBlock).forSale;
 		
 		if (toForSale && !toPlotGroupBlock)
-			return String.format(forSaleNotificationFormat, TownyEconomyHandler.getFormattedBalance(toTownBlock.getPlotPrice()));
+			return getPlotFragments(toTownBlock).forSale;
 		return null;
 	}
 	
 	public String getGroupNotification() {
 		if (toPlotGroupBlock && (fromPlotGroup != toPlotGroup))
-			return String.format(groupNotificationFormat, toTownBlock.getPlotObjectGroup().getName());
+			return getPlotFragments(toTownBlock).group;
 		return null;
 	}
 
 	public String getPlotTypeNotification() {
 
 		if (fromPlotType != toPlotType && toPlotType != null && toPlotType != TownBlockType.RESIDENTIAL)
-			return String.format(plotTypeNotificationFormat, toPlotType.toString());
+			return getPlotFragments(toTownBlock).plotType;
 		return null;
 	}
 }
@@ -0,0 +1,167 @@
+package com.palmergames.bukkit.towny;
+
+import com.palmergames.bukkit.towny.object.Coord;
+import com.palmergames.bukkit.towny.object.TownBlock;
+import com.palmergames.bukkit.towny.object.WorldCoord;
+import org.bukkit.Bukkit;
+import org.bukkit.Chunk;
+import org.bukkit.Location;
+import org.bukkit.World;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Holds the TownBlocks of every loaded chunk in an array, so the TownBlock
+ * at a Location can be found without creating a WorldCoord.
+ *
+ * A chunk is added when it loads (or the first time it is looked up on the
+ * main thread) and dropped when it unloads. Claiming or unclaiming a
+ * townblock drops the chunks which overlap it, they are rebuilt on the next
+ * lookup.
+ */
+public class TownBlockChunkCache {
+
+	private final TownyUniverse universe;
+	private final Map<String, Map<Long, ChunkCells>> worlds = new ConcurrentHashMap<>();
+	// Changed whenever a townblock is added or removed, used to throw away chunks built from an older state.
+	private final AtomicLong modifications = new AtomicLong();
+
+	/**
+	 * The cells which overlap one chunk, null where there is wilderness.
+	 */
+	private static class ChunkCells {
+		final int minCellX;
+		final int minCellZ;
+		final int width;
+		final TownBlock[] cells;
+
+		ChunkCells(int minCellX, int minCellZ, int width, TownBlock[] cells) {
+			this.minCellX = minCellX;
+			this.minCellZ = minCellZ;
+			this.width = width;
+			this.cells = cells;
+		}
+
+		TownBlock get(int cellX, int cellZ) {
+			return cells[(cellX - minCellX) * width + (cellZ - minCellZ)];
+		}
+	}
+
+	TownBlockChunkCache(TownyUniverse universe) {
+		this.universe = universe;
+	}
+
+	private static long key(int chunkX, int chunkZ) {
+		return ((long) chunkX << 32) | (chunkZ & 0xFFFFFFFFL);
+	}
+
+	/**
+	 * Get the TownBlock at a Location, using the loaded chunk when it is cached.
+	 *
+	 * @param location Location to look up.
+	 * @return the TownBlock or null in the wilderness.
+	 */
+	@Nullable
+	public TownBlock getTownBlock(Location location) {
+		World world = location.getWorld();
+		int x = location.getBlockX();
+		int z = location.getBlockZ();
+		if (world == null)
+			return null;
+
+		Map<Long, ChunkCells> chunks = worlds.get(world.getName());
+		ChunkCells chunk = chunks == null ? null : chunks.get(key(x >> 4, z >> 4));
+		if (chunk == null) {
+			// Only build chunks we will hear the unload of.
+			if (Bukkit.isPrimaryThread() && world.isChunkLoaded(x >> 4, z >> 4))
+				chunk = load(world.getName(), x >> 4, z >> 4);
+			else
+				return universe.getTownBlockOrNull(new WorldCoord(world.getName(), Coord.toCell(x), Coord.toCell(z)));
+		}
+		return chunk.get(Coord.toCell(x), Coord.toCell(z));
+	}
+
+	/**
+	 * Cache the cells of a chunk which has loaded.
+	 *
+	 * @param chunk Chunk which has loaded.
+	 */
+	public void loadChunk(Chunk chunk) {
+		load(chunk.getWorld().getName(), chunk.getX(), chunk.getZ());
+	}
+
+	/**
+	 * Forget a chunk which has unloaded.
+	 *
+	 * @param chunk Chunk which has unloaded.
+	 */
+	public void unloadChunk(Chunk chunk) {
+		Map<Long, ChunkCells> chunks = worlds.get(chunk.getWorld().getName());
+		if (chunks != null)
+			chunks.remove(key(chunk.getX(), chunk.getZ()));
+	}
+
+	/**
+	 * Forget every chunk of a world which has unloaded.
+	 *
+	 * @param worldName Name of the world.
+	 */
+	public void unloadWorld(String worldName) {
+		worlds.remove(worldName);
+	}
+
+	private ChunkCells load(String worldName, int chunkX, int chunkZ) {
+		long modification = modifications.get();
+
+		int minCellX = Coord.toCell(chunkX << 4);
+		int maxCellX = Coord.toCell((chunkX << 4) + 15);
+		int minCellZ = Coord.toCell(chunkZ << 4);
+		int maxCellZ = Coord.toCell((chunkZ << 4) + 15);
+		int width = maxCellZ - minCellZ + 1;
+		TownBlock[] cells = new TownBlock[(maxCellX - minCellX + 1) * width];
+		for (int cellX = minCellX; cellX <= maxCellX; cellX++)
+			for (int cellZ = minCellZ; cellZ <= maxCellZ; cellZ++)
+				cells[(cellX - minCellX) * width + (cellZ - minCellZ)] = universe.getTownBlockOrNull(new WorldCoord(worldName, cellX, cellZ));
+
+		ChunkCells chunk = new ChunkCells(minCellX, minCellZ, width, cells);
+		Map<Long, ChunkCells> chunks = worlds.computeIfAbsent(worldName, k -> new ConcurrentHashMap<>());
+		Long key = key(chunkX, chunkZ);
+		chunks.put(key, chunk);
+		// A townblock changed while the cells were read, don't keep what may be out of date.
+		if (modifications.get() != modification)
+			chunks.remove(key, chunk);
+		return chunk;
+	}
+
+	/**
+	 * Drop the chunks which overlap a townblock which has been added or removed.
+	 *
+	 * @param worldCoord WorldCoord of the townblock.
+	 */
+	public void invalidate(WorldCoord worldCoord) {
+		modifications.incrementAndGet();
+		Map<Long, ChunkCells> chunks = worlds.get(worldCoord.getWorldName());
+		if (chunks == null)
+			return;
+
+		int cellSize = Coord.getCellSize();
+		int minChunkX = (worldCoord.getX() * cellSize) >> 4;
+		int maxChunkX = (worldCoord.getX() * cellSize + cellSize - 1) >> 4;
+		int minChunkZ = (worldCoord.getZ() * cellSize) >> 4;
+		int maxChunkZ = (worldCoord.getZ() * cellSize + cellSize - 1) >> 4;
+		for (int chunkX = minChunkX; chunkX <= maxChunkX; chunkX++)
+			for (int chunkZ = minChunkZ; chunkZ <= maxChunkZ; chunkZ++)
+				chunks.remove(key(chunkX, chunkZ));
+	}
+
+	/**
+	 * Forget every chunk, used when the townblocks are reloaded.
+	 */
+	public void clear() {
+		modifications.incrementAndGet();
+		worlds.clear();
+	}
+}
@@ -38,6 +38,7 @@ import com.palmergames.bukkit.towny.permissions.GroupManagerSource;
 import com.palmergames.bukkit.towny.permissions.TownyPerms;
 import com.palmergames.bukkit.towny.permissions.VaultPermSource;
 import com.palmergames.bukkit.towny.regen.TownyRegenAPI;
+import com.palmergames.bukkit.towny.tasks.ClaimExecutor;
 import com.palmergames.bukkit.towny.tasks.OnPlayerLogin;
 import com.palmergames.bukkit.towny.utils.PlayerCacheUtil;
 import com.palmergames.bukkit.towny.utils.SpawnUtil;
@@ -220,6 +221,9 @@ public class Towny extends JavaPlugin {
 
 		TownyRegenAPI.cancelProtectionRegenTasks();
 
+		// Let any running claims finish before the database is closed.
+		ClaimExecutor.shutdown();
+
 		playerCache.clear();
 		
 		try {
@@ -324,7 +328,9 @@ public class Towny extends JavaPlugin {
 
 		test = getServer().getPluginManager().getPlugin("PlaceholderAPI");
 		if (test != null) {
-            new TownyPlaceholderExpansion(this).register();
+            TownyPlaceholderExpansion placeholderExpansion = new TownyPlaceholderExpansion(this);
+            placeholderExpansion.register();
+            getServer().getPluginManager().registerEvents(placeholderExpansion, this);
             addons.add(String.format("%s v%s", "PlaceholderAPI", test.getDescription().getVersion()));
 		}
 
@@ -407,6 +413,7 @@ public class Towny extends JavaPlugin {
 		TownyTimerHandler.toggleDrawSmokeTask(true);
 		if (!TownySettings.getUUIDPercent().equals("100%") && TownySettings.isGatheringResidentUUIDS())
 			TownyTimerHandler.toggleGatherResidentUUIDTask(true);
+		TownyTimerHandler.togglePerformanceReport(TownySettings.getPerformanceReportInterval() > 0);
 	}
 	
 	private void toggleTimersOff() {
@@ -420,6 +427,7 @@ public class Towny extends JavaPlugin {
 		TownyTimerHandler.toggleTeleportWarmup(false);
 		TownyTimerHandler.toggleCooldownTimer(false);
 		TownyTimerHandler.toggleDrawSmokeTask(false);
+		TownyTimerHandler.togglePerformanceReport(false);
 	}
 
 	private void registerEvents() {
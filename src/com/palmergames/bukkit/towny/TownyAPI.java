@@ -205,7 +205,8 @@ public class TownyAPI {
      * @return true if the {@link Location} is in the wilderness, false otherwise.
      */
     public boolean isWilderness(Location location) {
-        return isWilderness(WorldCoord.parseWorldCoord(location));
+        TownBlock townBlock = getTownBlock(location);
+        return townBlock == null || !townBlock.hasTown();
     }
     
     /**
@@ -308,15 +309,8 @@ public class TownyAPI {
      * @return {@link TownBlock} at this {@link Location}, or {@code null} for none.
      */
     public TownBlock getTownBlock(Location location) {
-        try {
-            WorldCoord worldCoord = WorldCoord.parseWorldCoord(location);
-            if (worldCoord.hasTownBlock())
-            	return worldCoord.getTownBlock();
-        } catch (NotRegisteredException ignore) {
-        }
-
-		// No data so return null
-		return null;
+		// Null when there is no data. Loaded chunks are answered from the chunk cache.
+		return TownyUniverse.getInstance().getTownBlockChunkCache().getTownBlock(location);
     }
     
     /**
@@ -3,6 +3,7 @@ package com.palmergames.bukkit.towny;
 import com.palmergames.bukkit.config.ConfigNodes;
 import com.palmergames.bukkit.towny.event.TownyPreTransactionEvent;
 import com.palmergames.bukkit.towny.event.TownyTransactionEvent;
+import com.palmergames.bukkit.towny.object.economy.adapter.CachingEconomyAdapter;
 import com.palmergames.bukkit.towny.object.economy.adapter.ReserveEconomyAdapter;
 import com.palmergames.bukkit.towny.object.Transaction;
 import com.palmergames.bukkit.towny.object.TransactionType;
@@ -95,7 +96,7 @@ public class TownyEconomyHandler {
 				/*
 				 * Flag as using Vault hooks
 				 */
-				economy = new VaultEconomyAdapter(vaultEcoProvider.getProvider());
+				economy = wrapWithCache(new VaultEconomyAdapter(vaultEcoProvider.getProvider()));
 				setVersion(String.format("%s %s", vaultEcoProvider.getProvider().getName(), "via Vault" ));
 				Type = EcoType.VAULT;
 				return true;
@@ -111,7 +112,7 @@ public class TownyEconomyHandler {
 			/*
 			 * Flat as using Reserve Hooks.
 			 */
-			economy = new ReserveEconomyAdapter(((Reserve) economyProvider).economy());
+			economy = wrapWithCache(new ReserveEconomyAdapter(((Reserve) economyProvider).economy()));
 			setVersion(String.format("%s %s", ((Reserve) economyProvider).economy().name(), "via Reserve" ));
 			Type = EcoType.RESERVE;
 			return true;
@@ -123,6 +124,30 @@ public class TownyEconomyHandler {
 		return false;
 	}
 
+
+	/**
+	 * Wraps the economy adapter in a short-lived balance cache, when enabled in the config.
+	 * 
+	 * @param adapter The adapter talking to the economy plugin.
+	 * @return The adapter Towny should use.
+	 */
+	private static EconomyAdapter wrapWithCache(EconomyAdapter adapter) {
+		if (!TownySettings.isEcoBalanceCacheEnabled() || TownySettings.getEcoBalanceCacheTTL() <= 0)
+			return adapter;
+
+		return new CachingEconomyAdapter(adapter, TownySettings.getEcoBalanceCacheTTL() * 1000);
+	}
+
+	/**
+	 * Forget any cached balance for the given account, so that the next
+	 * lookup goes to the economy plugin.
+	 * 
+	 * @param accountName name of the economy account
+	 */
+	public static void invalidateBalance(String accountName) {
+		if (economy instanceof CachingEconomyAdapter)
+			((CachingEconomyAdapter) economy).invalidate(accountName);
+	}
 	
 	// This was removed because:
 	// 1.) Only we should handle concrete account classes
@@ -240,7 +265,9 @@ public class TownyEconomyHandler {
 			return false;
 		}
 		
-		if (economy.subtract(accountName, amount, world)) {
+		boolean success = economy.subtract(accountName, amount, world);
+		invalidateBalance(accountName);
+		if (success) {
 			BukkitTools.getPluginManager().callEvent(event);
 			return true;
 		}
@@ -266,7 +293,9 @@ public class TownyEconomyHandler {
 			return false;
 		}
 
-		if (economy.add(accountName, amount, world)) {
+		boolean success = economy.add(accountName, amount, world);
+		invalidateBalance(accountName);
+		if (success) {
 			BukkitTools.getPluginManager().callEvent(event);
 			return true;
 		}
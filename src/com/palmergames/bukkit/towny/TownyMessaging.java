@@ -292,10 +292,11 @@ public class TownyMessaging {
 		for (String line : lines) {
 			LOGGER.info(ChatTools.stripColour("[Global Msg] " + line));
 		}
+		String[] messages = prefixLines(Translation.of("default_towny_prefix"), lines);
 		for (Player player : BukkitTools.getOnlinePlayers()) {
 			if (player != null) {
-				for (String line : lines) {
-					player.sendMessage(Translation.of("default_towny_prefix") + line);
+				for (String message : messages) {
+					player.sendMessage(message);
 				}
 			}
 		}
@@ -309,11 +310,12 @@ public class TownyMessaging {
 	 */
 	public static void sendGlobalMessage(String line) {
 		LOGGER.info(ChatTools.stripColour("[Global Message] " + line));
+		String message = Translation.of("default_towny_prefix") + line;
 		for (Player player : BukkitTools.getOnlinePlayers()) {
 			if (player != null)
 				try {
 					if (TownyUniverse.getInstance().getDataSource().getWorld(player.getLocation().getWorld().getName()).isUsingTowny())
-						player.sendMessage(Translation.of("default_towny_prefix") + line);
+						player.sendMessage(message);
 				} catch (NotRegisteredException e) {
 					e.printStackTrace();
 				}
@@ -409,8 +411,9 @@ public class TownyMessaging {
 	 */
 	public static void sendTownMessagePrefixed(Town town, String line) {
 		LOGGER.info(ChatTools.stripColour(line));
+		String message = Translation.of("default_towny_prefix") + line;
 		for (Player player : TownyAPI.getInstance().getOnlinePlayers(town))
-			player.sendMessage(Translation.of("default_towny_prefix") + line);
+			player.sendMessage(message);
 	}
 
 	/**
@@ -422,8 +425,9 @@ public class TownyMessaging {
 	 */
 	public static void sendPrefixedTownMessage(Town town, String line) {
 		LOGGER.info(ChatTools.stripColour("[Town Msg] " + town.getName() + ": " + line));
+		String message = Translation.of("default_town_prefix", town.getName()) + line;
 		for (Player player : TownyAPI.getInstance().getOnlinePlayers(town))
-			player.sendMessage(Translation.of("default_town_prefix", town.getName()) + line);
+			player.sendMessage(message);
 	}
 
 	/**
@@ -437,9 +441,10 @@ public class TownyMessaging {
 		for (String line : lines) {
 			LOGGER.info(ChatTools.stripColour(line));
 		}
+		String[] messages = prefixLines(Translation.of("default_town_prefix", town.getName()), lines);
 		for (Player player : TownyAPI.getInstance().getOnlinePlayers(town))
-			for (String line : lines) {
-				player.sendMessage(Translation.of("default_town_prefix", town.getName()) + line);
+			for (String message : messages) {
+				player.sendMessage(message);
 			}
 	}
 	
@@ -506,8 +511,9 @@ public class TownyMessaging {
 	 */
 	public static void sendPrefixedNationMessage(Nation nation, String line) {
 		LOGGER.info(ChatTools.stripColour("[Nation Msg] " + nation.getName() + ": " + line));
+		String message = Translation.of("default_nation_prefix", nation.getName()) + line;
 		for (Player player : TownyAPI.getInstance().getOnlinePlayers(nation))
-			player.sendMessage(Translation.of("default_nation_prefix", nation.getName()) + line);
+			player.sendMessage(message);
 	}
 
 	/**
@@ -532,9 +538,10 @@ public class TownyMessaging {
 		for (String line : lines) {
 			LOGGER.info(ChatTools.stripColour("[Nation Msg] " + nation.getName() + ": " + line));
 		}
+		String[] messages = prefixLines(Translation.of("default_nation_prefix", nation.getName()), lines);
 		for (Player player : TownyAPI.getInstance().getOnlinePlayers(nation)) {
-			for (String line : lines) {
-				player.sendMessage(Translation.of("default_nation_prefix", nation.getName()) + line);
+			for (String message : messages) {
+				player.sendMessage(message);
 			}
 		}
 	}
@@ -548,8 +555,9 @@ public class TownyMessaging {
 	 */
 	public static void sendNationMessagePrefixed(Nation nation, String line) {
 		LOGGER.info(ChatTools.stripColour("[Nation Msg] " + nation.getName() + ": " + line));
+		String message = Translation.of("default_towny_prefix") + line;
 		for (Player player : TownyAPI.getInstance().getOnlinePlayers(nation))
-			player.sendMessage(Translation.of("default_towny_prefix") + line);
+			player.sendMessage(message);
 	}
 	
 	/**
@@ -563,12 +571,27 @@ public class TownyMessaging {
 		for (String line : lines) {
 			LOGGER.info(ChatTools.stripColour("[Nation Msg] " + nation.getName() + ": " + line));
 		}
+		String[] messages = prefixLines(Translation.of("default_towny_prefix"), lines.toArray(new String[0]));
 		for (Player player : TownyAPI.getInstance().getOnlinePlayers(nation))
-			for (String line : lines) {
-				player.sendMessage(Translation.of("default_towny_prefix") + line);
+			for (String message : messages) {
+				player.sendMessage(message);
 			}
 	}
 
+	/**
+	 * Prefix every line of a broadcast once, rather than once per recipient.
+	 * 
+	 * @param prefix the prefix to put in front of each line
+	 * @param lines the lines of the message
+	 * @return the prefixed lines
+	 */
+	private static String[] prefixLines(String prefix, String[] lines) {
+		String[] messages = new String[lines.length];
+		for (int i = 0; i < lines.length; i++)
+			messages[i] = prefix + lines[i];
+		return messages;
+	}
+
 	/**
 	 * Send the town board to a player (in yellow)
 	 *
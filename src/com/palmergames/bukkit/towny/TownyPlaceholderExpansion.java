@@ -1,8 +1,32 @@
 package com.palmergames.bukkit.towny;
 
+import com.palmergames.bukkit.towny.event.BankTransactionEvent;
+import com.palmergames.bukkit.towny.event.DeleteNationEvent;
+import com.palmergames.bukkit.towny.event.DeleteTownEvent;
+import com.palmergames.bukkit.towny.event.GovernmentTagChangeEvent;
+import com.palmergames.bukkit.towny.event.NationAddTownEvent;
+import com.palmergames.bukkit.towny.event.NationRemoveTownEvent;
+import com.palmergames.bukkit.towny.event.NewDayEvent;
+import com.palmergames.bukkit.towny.event.PlayerChangePlotEvent;
+import com.palmergames.bukkit.towny.event.PlotChangeOwnerEvent;
+import com.palmergames.bukkit.towny.event.PlotChangeTypeEvent;
+import com.palmergames.bukkit.towny.event.RenameNationEvent;
+import com.palmergames.bukkit.towny.event.RenameTownEvent;
+import com.palmergames.bukkit.towny.event.TownAddResidentEvent;
+import com.palmergames.bukkit.towny.event.TownAddResidentRankEvent;
+import com.palmergames.bukkit.towny.event.TownBlockSettingsChangedEvent;
+import com.palmergames.bukkit.towny.event.TownClaimEvent;
+import com.palmergames.bukkit.towny.event.TownRemoveResidentEvent;
+import com.palmergames.bukkit.towny.event.TownRemoveResidentRankEvent;
+import com.palmergames.bukkit.towny.event.TownUnclaimEvent;
+import com.palmergames.bukkit.towny.event.TownyTransactionEvent;
 import com.palmergames.bukkit.towny.object.TownBlock;
 import com.palmergames.bukkit.towny.object.Translation;
 import org.bukkit.entity.Player;
+import org.bukkit.event.EventHandler;
+import org.bukkit.event.EventPriority;
+import org.bukkit.event.Listener;
+import org.bukkit.event.player.PlayerQuitEvent;
 
 import com.palmergames.bukkit.towny.exceptions.NotRegisteredException;
 import com.palmergames.bukkit.towny.object.Resident;
@@ -10,11 +34,21 @@ import com.palmergames.util.StringMgmt;
 
 import me.clip.placeholderapi.expansion.PlaceholderExpansion;
 
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
 /**
  * This class will be registered through the register-method in the plugins
  * onEnable-method.
+ * 
+ * Resolved values are cached per player, and thrown away when the
+ * Towny events which could change them are fired.
  */
-public class TownyPlaceholderExpansion extends PlaceholderExpansion {
+public class TownyPlaceholderExpansion extends PlaceholderExpansion implements Listener {
 
 	final String nomad = Translation.of("nomad_sing");
 	final String res = Translation.of("res_sing");
@@ -23,6 +57,45 @@ public class TownyPlaceholderExpansion extends PlaceholderExpansion {
 	
 	private final Towny plugin;
 
+	/*
+	 * Placeholders which depend on where the player is standing.
+	 */
+	private static final Set<String> LOCATION_PLACEHOLDERS = new HashSet<>(Arrays.asList(
+		"player_plot_type", "player_plot_owner"));
+
+	/*
+	 * Placeholders which read an economy balance.
+	 */
+	private static final Set<String> BALANCE_PLACEHOLDERS = new HashSet<>(Arrays.asList(
+		"town_balance", "nation_balance"));
+
+	/*
+	 * Placeholders which can change without any Towny event being fired,
+	 * these are never cached for longer than a second.
+	 */
+	private static final Set<String> VOLATILE_PLACEHOLDERS = new HashSet<>(Arrays.asList(
+		"town_residents_online", "nation_residents_online", "player_jailed"));
+
+	private static final long VOLATILE_TTL = 1000;
+
+	private final Map<UUID, Map<String, CachedPlaceholder>> cache = new ConcurrentHashMap<>();
+	private volatile int generation = 0;
+	private volatile int balanceGeneration = 0;
+
+	private static class CachedPlaceholder {
+		final String value;
+		final long expires;
+		final int generation;
+		final int balanceGeneration;
+
+		CachedPlaceholder(String value, long expires, int generation, int balanceGeneration) {
+			this.value = value;
+			this.expires = expires;
+			this.generation = generation;
+			this.balanceGeneration = balanceGeneration;
+		}
+	}
+
 	/**
 	 * Since we register the expansion inside our own plugin, we can simply use this
 	 * method here to get an instance of our plugin.
@@ -110,13 +183,63 @@ public class TownyPlaceholderExpansion extends PlaceholderExpansion {
 		if (player == null) {
 			return "";
 		}
-		Resident resident;
-		try {
-			resident = TownyAPI.getInstance().getDataSource().getResident(player.getName());
-		} catch (NotRegisteredException e) {
+
+		long ttl = getCacheTime(identifier);
+		if (ttl <= 0)
+			return resolvePlaceholder(player, identifier);
+
+		long now = System.currentTimeMillis();
+		Map<String, CachedPlaceholder> values = cache.computeIfAbsent(player.getUniqueId(), uuid -> new ConcurrentHashMap<>());
+		CachedPlaceholder cached = values.get(identifier);
+		if (cached != null && cached.expires > now && cached.generation == generation
+				&& (!BALANCE_PLACEHOLDERS.contains(identifier) || cached.balanceGeneration == balanceGeneration))
+			return cached.value;
+
+		// Read the generations first, so an invalidation during resolving is not missed.
+		int currentGeneration = generation;
+		int currentBalanceGeneration = balanceGeneration;
+		String value = resolvePlaceholder(player, identifier);
+		if (value != null)
+			values.put(identifier, new CachedPlaceholder(value, now + ttl, currentGeneration, currentBalanceGeneration));
+		return value;
+	}
+
+	/**
+	 * How long a resolved placeholder may be reused for.
+	 * 
+	 * @param identifier A String containing the identifier/value.
+	 * @return time in milliseconds, 0 when it should not be cached.
+	 */
+	private long getCacheTime(String identifier) {
+		long ttl = TownySettings.getPAPICacheTime() * 1000;
+		if (VOLATILE_PLACEHOLDERS.contains(identifier))
+			return Math.min(ttl, VOLATILE_TTL);
+		return ttl;
+	}
+
+	/**
+	 * Throw away every cached placeholder.
+	 */
+	public void invalidateAll() {
+		generation++;
+	}
+
+	private void invalidateBalances() {
+		balanceGeneration++;
+	}
+
+	private void invalidateLocation(Player player) {
+		Map<String, CachedPlaceholder> values = cache.get(player.getUniqueId());
+		if (values != null)
+			values.keySet().removeAll(LOCATION_PLACEHOLDERS);
+	}
+
+	private String resolvePlaceholder(Player player, String identifier) {
+		Resident resident = TownyUniverse.getInstance().getResident(player);
+		if (resident == null)
 			return null;
-		}
-		TownBlock townblock = TownyAPI.getInstance().getTownBlock(player.getLocation());
+		// Only placeholders about the player's plot need the townblock they stand in.
+		TownBlock townblock = LOCATION_PLACEHOLDERS.contains(identifier) ? TownyAPI.getInstance().getTownBlock(player.getLocation()) : null;
 		String town = "";
 		String nation = "";
 		String balance = "";
@@ -553,4 +676,109 @@ public class TownyPlaceholderExpansion extends PlaceholderExpansion {
 			return null;
 		}
 	}
+
+	@EventHandler(priority = EventPriority.MONITOR)
+	public void onPlayerQuit(PlayerQuitEvent event) {
+		cache.remove(event.getPlayer().getUniqueId());
+	}
+
+	@EventHandler(priority = EventPriority.MONITOR)
+	public void onPlayerChangePlot(PlayerChangePlotEvent event) {
+		invalidateLocation(event.getPlayer());
+	}
+
+	@EventHandler(priority = EventPriority.MONITOR)
+	public void onTownyTransaction(TownyTransactionEvent event) {
+		invalidateBalances();
+	}
+
+	@EventHandler(priority = EventPriority.MONITOR)
+	public void onBankTransaction(BankTransactionEvent event) {
+		invalidateBalances();
+	}
+
+	@EventHandler(priority = EventPriority.MONITOR)
+	public void onNewDay(NewDayEvent event) {
+		invalidateAll();
+	}
+
+	@EventHandler(priority = EventPriority.MONITOR)
+	public void onTownRename(RenameTownEvent event) {
+		invalidateAll();
+	}
+
+	@EventHandler(priority = EventPriority.MONITOR)
+	public void onNationRename(RenameNationEvent event) {
+		invalidateAll();
+	}
+
+	@EventHandler(priority = EventPriority.MONITOR)
+	public void onTagChange(GovernmentTagChangeEvent event) {
+		invalidateAll();
+	}
+
+	@EventHandler(priority = EventPriority.MONITOR)
+	public void onTownAddResident(TownAddResidentEvent event) {
+		invalidateAll();
+	}
+
+	@EventHandler(priority = EventPriority.MONITOR)
+	public void onTownRemoveResident(TownRemoveResidentEvent event) {
+		invalidateAll();
+	}
+
+	@EventHandler(priority = EventPriority.MONITOR)
+	public void onTownAddResidentRank(TownAddResidentRankEvent event) {
+		invalidateAll();
+	}
+
+	@EventHandler(priority = EventPriority.MONITOR)
+	public void onTownRemoveResidentRank(TownRemoveResidentRankEvent event) {
+		invalidateAll();
+	}
+
+	@EventHandler(priority = EventPriority.MONITOR)
+	public void onNationAddTown(NationAddTownEvent event) {
+		invalidateAll();
+	}
+
+	@EventHandler(priority = EventPriority.MONITOR)
+	public void onNationRemoveTown(NationRemoveTownEvent event) {
+		invalidateAll();
+	}
+
+	@EventHandler(priority = EventPriority.MONITOR)
+	public void onTownDelete(DeleteTownEvent event) {
+		invalidateAll();
+	}
+
+	@EventHandler(priority = EventPriority.MONITOR)
+	public void onNationDelete(DeleteNationEvent event) {
+		invalidateAll();
+	}
+
+	@EventHandler(priority = EventPriority.MONITOR)
+	public void onTownClaim(TownClaimEvent event) {
+		invalidateAll();
+	}
+
+	@EventHandler(priority = EventPriority.MONITOR)
+	public void onTownUnclaim(TownUnclaimEvent event) {
+		invalidateAll();
+	}
+
+	@EventHandler(priority = EventPriority.MONITOR)
+	public void onPlotChangeOwner(PlotChangeOwnerEvent event) {
+		invalidateAll();
+	}
+
+	@EventHandler(priority = EventPriority.MONITOR)
+	public void onPlotChangeType(PlotChangeTypeEvent event) {
+		invalidateAll();
+	}
+
+	@EventHandler(priority = EventPriority.MONITOR)
+	public void onTownBlockSettingsChanged(TownBlockSettingsChangedEvent event) {
+		invalidateAll();
+	}
 }
\ No newline at end of file
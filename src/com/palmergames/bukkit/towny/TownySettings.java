@@ -21,6 +21,7 @@ import com.palmergames.bukkit.towny.war.common.WarZoneConfig;
 import com.palmergames.bukkit.towny.war.flagwar.FlagWarConfig;
 import com.palmergames.bukkit.util.Colors;
 import com.palmergames.bukkit.util.ItemLists;
+import com.palmergames.bukkit.util.MaterialClassifier;
 import com.palmergames.util.FileMgmt;
 import com.palmergames.util.StringMgmt;
 import com.palmergames.util.TimeTools;
@@ -313,6 +314,8 @@ public class TownySettings {
 				ItemUseMaterials.add(matName);
 			}
 		}
+
+		MaterialClassifier.load(SwitchUseMaterials, ItemUseMaterials);
 	}
 
 	public static void loadPlayerMap(String filepath) {
@@ -859,11 +862,26 @@ public class TownySettings {
 		return getString(ConfigNodes.PLUGIN_DATABASE_SAVE);
 	}
 
+	public static boolean isFlatFileTownBlockRegions() {
+
+		return getString(ConfigNodes.PLUGIN_DATABASE_FLATFILE_TOWNBLOCK_STORAGE).equalsIgnoreCase("regions");
+	}
+
 	public static boolean isGatheringResidentUUIDS() {
 		
 		return getBoolean(ConfigNodes.PLUGIN_DATABASE_GATHER_RESIDENT_UUIDS);
 	}
 
+	public static int getGatherResidentUUIDsInterval() {
+
+		return Math.max(1, getInt(ConfigNodes.PLUGIN_DATABASE_GATHER_RESIDENT_UUIDS_INTERVAL));
+	}
+
+	public static int getGatherResidentUUIDsRequestLimit() {
+
+		return Math.max(1, getInt(ConfigNodes.PLUGIN_DATABASE_GATHER_RESIDENT_UUIDS_REQUEST_LIMIT));
+	}
+
 	// SQL
 	public static String getSQLHostName() {
 
@@ -900,6 +918,16 @@ public class TownySettings {
 		return getString(ConfigNodes.PLUGIN_DATABASE_FLAGS);
 	}
 
+	public static boolean isSQLLazyResidentLoading() {
+
+		return getBoolean(ConfigNodes.PLUGIN_DATABASE_SQL_LAZY_RESIDENTS);
+	}
+
+	public static int getSQLLazyResidentCacheSize() {
+
+		return getInt(ConfigNodes.PLUGIN_DATABASE_SQL_LAZY_RESIDENT_CACHE);
+	}
+
 	public static int getMaxTownBlocks(Town town) {
 
 		int ratio = getTownBlockRatio();
@@ -1016,6 +1044,11 @@ public class TownySettings {
 
 		return getBoolean(ConfigNodes.PLUGIN_DEBUG_MODE);
 	}
+
+	public static long getPerformanceReportInterval() {
+
+		return getSeconds(ConfigNodes.PLUGIN_PERFORMANCE_REPORT_INTERVAL);
+	}
 	
 	public static String getTool() {
 
@@ -1201,6 +1234,11 @@ public class TownySettings {
 		return getSeconds(ConfigNodes.PROT_MOB_REMOVE_SPEED);
 	}
 
+	public static boolean isMobRemovalOnlyOnSpawn() {
+
+		return getString(ConfigNodes.PROT_MOB_REMOVE_MODE).equalsIgnoreCase("spawn");
+	}
+
 	public static long getHealthRegenSpeed() {
 
 		return getSeconds(ConfigNodes.GTOWN_SETTINGS_REGEN_SPEED);
@@ -1341,12 +1379,12 @@ public class TownySettings {
 
 	public static List<String> getSwitchMaterials() {
 
-		return SwitchUseMaterials;
+		return Collections.unmodifiableList(SwitchUseMaterials);
 	}
 	
 	public static List<String> getItemUseMaterials() {
 
-		return ItemUseMaterials;
+		return Collections.unmodifiableList(ItemUseMaterials);
 	}
 	
 	public static boolean isSwitchMaterial(String mat) {
@@ -1354,10 +1392,20 @@ public class TownySettings {
 		return SwitchUseMaterials.contains(mat);
 	}
 
+	public static boolean isSwitchMaterial(Material mat) {
+
+		return MaterialClassifier.is(mat, MaterialClassifier.SWITCH);
+	}
+
 	public static boolean isItemUseMaterial(String mat) {
 
 		return ItemUseMaterials.contains(mat);
 	}
+
+	public static boolean isItemUseMaterial(Material mat) {
+
+		return MaterialClassifier.is(mat, MaterialClassifier.ITEM_USE);
+	}
 	
 	public static List<String> getFireSpreadBypassMaterials() {
 		
@@ -1636,6 +1684,16 @@ public class TownySettings {
 		return getBoolean(ConfigNodes.ECO_CLOSED_ECONOMY_ENABLED);
 	}
 	
+	public static boolean isEcoBalanceCacheEnabled() {
+
+		return getBoolean(ConfigNodes.ECO_BALANCE_CACHE_ENABLED);
+	}
+
+	public static long getEcoBalanceCacheTTL() {
+
+		return getSeconds(ConfigNodes.ECO_BALANCE_CACHE_TTL);
+	}
+
 	public static boolean isJailingAttackingEnemies() {
 		
 		return getBoolean(ConfigNodes.JAIL_IS_JAILING_ATTACKING_ENEMIES);
@@ -2711,6 +2769,10 @@ public class TownySettings {
 		return getStrArr(ConfigNodes.JAIL_BLACKLISTED_COMMANDS);
 	}
 	
+	public static long getPAPICacheTime() {
+		return getSeconds(ConfigNodes.PLUGIN_PLACEHOLDER_CACHE_TIME);
+	}
+
 	public static String getPAPIFormattingBoth() {
 		return getString(ConfigNodes.FILTERS_PAPI_CHAT_FORMATTING_BOTH);
 	}
@@ -2819,7 +2881,7 @@ public class TownySettings {
 	}
 
 	public static String getUUIDPercent() {
-		double fraction = Double.valueOf(uuidCount) / TownyUniverse.getInstance().getDataSource().getResidents().size();
+		double fraction = Double.valueOf(uuidCount) / TownyUniverse.getInstance().getDataSource().getResidentCount();
 		
 		if (fraction == 1.00)
 			return "100%";
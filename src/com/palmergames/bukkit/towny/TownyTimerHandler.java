@@ -43,6 +43,7 @@ public class TownyTimerHandler{
 	private static int cooldownTimerTask = -1;
 	private static int drawSmokeTask = -1;
 	private static int gatherResidentUUIDTask = -1;
+	private static int performanceReportTask = -1;
 
 	public static void newDay() {
 
@@ -80,8 +81,12 @@ public class TownyTimerHandler{
 
 	public static void toggleMobRemoval(boolean on) {
 
-		if (on && !isMobRemovalRunning()) {
-			mobRemoveTask = BukkitTools.scheduleSyncRepeatingTask(new MobRemovalTimerTask(plugin, BukkitTools.getServer()), 0, TimeTools.convertToTicks(TownySettings.getMobRemovalSpeed()));
+		if (on && TownySettings.isMobRemovalOnlyOnSpawn()) {
+			// Mobs are only stopped from spawning, by the TownyEntityListener.
+			MobRemovalTimerTask.loadEntityTables();
+		} else if (on && !isMobRemovalRunning()) {
+			// The sweep is spread out, a bucket of chunks every tick.
+			mobRemoveTask = BukkitTools.scheduleSyncRepeatingTask(new MobRemovalTimerTask(plugin, BukkitTools.getServer()), 0, 1);
 			if (mobRemoveTask == -1)
 				TownyMessaging.sendErrorMsg("Could not schedule mob removal loop.");
 		} else if (!on && isMobRemovalRunning()) {
@@ -187,17 +192,34 @@ public class TownyTimerHandler{
 	
 	public static void toggleGatherResidentUUIDTask(boolean on) {
 		if (on && !isGatherResidentUUIDTaskRunning()) {
-			gatherResidentUUIDTask = BukkitTools.scheduleAsyncRepeatingTask(new GatherResidentUUIDTask(plugin) , 1200, 40);
+			gatherResidentUUIDTask = BukkitTools.scheduleAsyncRepeatingTask(new GatherResidentUUIDTask(plugin) , 1200, TownySettings.getGatherResidentUUIDsInterval());
 			TownyMessaging.sendDebugMsg("Starting GatherResidentUUIDTask in 60 seconds.");
 			if (gatherResidentUUIDTask == -1)
 				TownyMessaging.sendErrorMsg("Could not schedule gather resident UUID loop");
 		} else if (!on && isGatherResidentUUIDTaskRunning()) {
 			BukkitTools.getScheduler().cancelTask(gatherResidentUUIDTask);
 			gatherResidentUUIDTask = -1;
+			GatherResidentUUIDTask.saveCache();
 			TownyMessaging.sendDebugMsg("Shutting down GatherResidentUUIDTask.");
 		}
 	}
 
+	public static void togglePerformanceReport(boolean on) {
+		if (on && !isPerformanceReportRunning()) {
+			long ticks = TimeTools.convertToTicks(TownySettings.getPerformanceReportInterval());
+			// Run on the main thread, the report reads the regen queues which are not thread-safe.
+			performanceReportTask = BukkitTools.scheduleSyncRepeatingTask(() -> {
+				for (String line : TownyTimings.getReport())
+					TownyMessaging.sendMsg("Performance: " + line);
+			}, ticks, ticks);
+			if (performanceReportTask == -1)
+				TownyMessaging.sendErrorMsg("Could not schedule performance report.");
+		} else if (!on && isPerformanceReportRunning()) {
+			BukkitTools.getScheduler().cancelTask(performanceReportTask);
+			performanceReportTask = -1;
+		}
+	}
+
 	public static boolean isTownyRepeatingTaskRunning() {
 
 		return townyRepeatingTask != -1;
@@ -248,6 +270,11 @@ public class TownyTimerHandler{
 		
 		return gatherResidentUUIDTask != -1;
 	}
+
+	public static boolean isPerformanceReportRunning() {
+
+		return performanceReportTask != -1;
+	}
 	
 	/**
 	 * Calculates the time in seconds until the next new day event.
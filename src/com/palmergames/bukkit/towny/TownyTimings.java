@@ -0,0 +1,184 @@
+package com.palmergames.bukkit.towny;
+
+import com.palmergames.bukkit.towny.db.TownyDataSource;
+import com.palmergames.bukkit.towny.regen.TownyRegenAPI;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.BooleanSupplier;
+
+/**
+ * Timings of Towny's subsystems, shown with /ta perf and written to the log
+ * every plugin.performance_report_interval.
+ *
+ * Listener latencies are counted into buckets which double in width, so
+ * recording an event costs a nanoTime call and a few LongAdder increments.
+ * Percentiles are read back as the upper bound of the bucket they fall in.
+ */
+public class TownyTimings {
+
+	// Bucket 0 holds events under 1us, bucket i holds events under 2^i us, the last bucket holds everything slower.
+	private static final int BUCKETS = 24;
+
+	/**
+	 * The listeners whose latency is recorded.
+	 */
+	public enum Handler {
+		MOVE("move"),
+		INTERACT("interact"),
+		DAMAGE("damage"),
+		EXPLODE("explode");
+
+		private final String name;
+		private final LongAdder count = new LongAdder();
+		private final LongAdder totalNanos = new LongAdder();
+		private final LongAdder[] buckets = new LongAdder[BUCKETS];
+
+		Handler(String name) {
+			this.name = name;
+			for (int i = 0; i < BUCKETS; i++)
+				buckets[i] = new LongAdder();
+		}
+
+		/**
+		 * Record one event handled by this listener.
+		 *
+		 * @param startNanos - System#nanoTime() when the listener was called.
+		 */
+		public void record(long startNanos) {
+			long nanos = System.nanoTime() - startNanos;
+			count.increment();
+			totalNanos.add(nanos);
+			buckets[Math.min(BUCKETS - 1, 64 - Long.numberOfLeadingZeros(nanos / 1000))].increment();
+		}
+
+		/**
+		 * @param percentile - Percentile between 0 and 100.
+		 * @return the upper bound in us of the bucket holding the percentile, or 0 when nothing has been recorded.
+		 */
+		public long getPercentileMicros(double percentile) {
+			long[] counts = new long[BUCKETS];
+			long total = 0;
+			for (int i = 0; i < BUCKETS; i++)
+				total += counts[i] = buckets[i].sum();
+			if (total == 0)
+				return 0;
+
+			long rank = (long) Math.ceil(total * percentile / 100);
+			long seen = 0;
+			for (int i = 0; i < BUCKETS; i++) {
+				seen += counts[i];
+				if (seen >= rank)
+					return 1L << i;
+			}
+			return 1L << (BUCKETS - 1);
+		}
+
+		private void reset() {
+			count.reset();
+			totalNanos.reset();
+			for (LongAdder bucket : buckets)
+				bucket.reset();
+		}
+	}
+
+	private static final Map<String, Long> loadTimings = new LinkedHashMap<>();
+	private static final LongAdder cacheHits = new LongAdder();
+	private static final LongAdder cacheMisses = new LongAdder();
+	private static volatile long lastNewDayMillis = -1;
+
+	/**
+	 * Run one phase of loading the database and record how long it took.
+	 *
+	 * @param phase - Name of the phase, ie: loadWorldList.
+	 * @param step - The phase to run.
+	 * @return the result of the phase.
+	 */
+	public static boolean timeLoad(String phase, BooleanSupplier step) {
+		long start = System.nanoTime();
+		boolean result = step.getAsBoolean();
+		synchronized (loadTimings) {
+			loadTimings.put(phase, System.nanoTime() - start);
+		}
+		return result;
+	}
+
+	/**
+	 * Forget the timings of the last database load, called before the database is loaded again.
+	 */
+	public static void clearLoadTimings() {
+		synchronized (loadTimings) {
+			loadTimings.clear();
+		}
+	}
+
+	public static void recordCacheHit() {
+		cacheHits.increment();
+	}
+
+	public static void recordCacheMiss() {
+		cacheMisses.increment();
+	}
+
+	public static void recordNewDay(long millis) {
+		lastNewDayMillis = millis;
+	}
+
+	/**
+	 * Forget the listener and PlayerCache counts, the database load timings are kept.
+	 */
+	public static void reset() {
+		for (Handler handler : Handler.values())
+			handler.reset();
+		cacheHits.reset();
+		cacheMisses.reset();
+	}
+
+	/**
+	 * Must be called on the main thread, as the regen queues are read.
+	 * 
+	 * @return the lines of the performance report.
+	 */
+	public static List<String> getReport() {
+		List<String> out = new ArrayList<>();
+
+		synchronized (loadTimings) {
+			long total = 0;
+			for (long nanos : loadTimings.values())
+				total += nanos;
+			out.add("Database load: " + toMillis(total) + "ms");
+			for (Map.Entry<String, Long> phase : loadTimings.entrySet())
+				out.add("  " + phase.getKey() + ": " + toMillis(phase.getValue()) + "ms");
+		}
+
+		out.add("Listeners (events, avg, p50, p95, p99):");
+		for (Handler handler : Handler.values()) {
+			long count = handler.count.sum();
+			long avg = count == 0 ? 0 : handler.totalNanos.sum() / count / 1000;
+			out.add(String.format("  %s: %d, %dus, <%dus, <%dus, <%dus, %dms total", handler.name, count, avg,
+				handler.getPercentileMicros(50), handler.getPercentileMicros(95), handler.getPercentileMicros(99), toMillis(handler.totalNanos.sum())));
+		}
+
+		TownyDataSource dataSource = TownyUniverse.getInstance().getDataSource();
+		out.add("Queues: database " + (dataSource == null ? "-" : String.valueOf(dataSource.getQueueSize()))
+			+ ", plot regen " + TownyRegenAPI.getPlotChunks().size()
+			+ ", snapshots " + TownyRegenAPI.getWorldCoordCount()
+			+ ", townblock deletes " + TownyRegenAPI.getDeleteTownBlockIdQueueSize()
+			+ ", protection regen " + TownyRegenAPI.getProtectionRegenTaskCount());
+
+		long hits = cacheHits.sum();
+		long lookups = hits + cacheMisses.sum();
+		out.add(String.format("PlayerCache: %.1f%% hits (%d of %d lookups)", lookups == 0 ? 0.0 : hits * 100.0 / lookups, hits, lookups));
+
+		if (lastNewDayMillis >= 0)
+			out.add("Last new day: " + lastNewDayMillis + "ms");
+		return out;
+	}
+
+	private static long toMillis(long nanos) {
+		return nanos / 1000000;
+	}
+}
@@ -2,6 +2,7 @@ package com.palmergames.bukkit.towny;
 
 import com.palmergames.annotations.Unmodifiable;
 import com.palmergames.bukkit.config.migration.ConfigMigrator;
+import com.palmergames.bukkit.towny.db.DatabaseMigration;
 import com.palmergames.bukkit.towny.db.TownyDataSource;
 import com.palmergames.bukkit.towny.db.TownyDatabaseHandler;
 import com.palmergames.bukkit.towny.db.TownyFlatFileSource;
@@ -31,6 +32,7 @@ import com.palmergames.bukkit.util.Version;
 import com.palmergames.util.Trie;
 import org.apache.commons.lang.Validate;
 import org.bukkit.World;
+import org.bukkit.entity.Player;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
@@ -60,6 +62,8 @@ public class TownyUniverse {
     
     private final Map<String, Resident> residents = new ConcurrentHashMap<>();
     private final Trie residentsTrie = new Trie();
+    // The residents of online players, by player UUID.
+    private final Map<UUID, Resident> onlineResidents = new ConcurrentHashMap<>();
     
     private final Map<String, Town> townNameMap = new ConcurrentHashMap<>();
     private final Map<UUID, Town> townUUIDMap = new ConcurrentHashMap<>();
@@ -71,6 +75,7 @@ public class TownyUniverse {
     private final Map<String, TownyWorld> worlds = new ConcurrentHashMap<>();
     private final Map<String, CustomDataField<?>> registeredMetadata = new HashMap<>();
 	private final Map<WorldCoord, TownBlock> townBlocks = new ConcurrentHashMap<>();
+	private final TownBlockChunkCache townBlockChunkCache = new TownBlockChunkCache(this);
 	private CompletableFuture<Void> backupFuture;
     
     private final List<Resident> jailedResidents = new ArrayList<>();
@@ -183,7 +188,12 @@ public class TownyUniverse {
         townNameMap.clear();
         townUUIDMap.clear();
         residents.clear();
+        onlineResidents.clear();
         townBlocks.clear();
+        townBlockChunkCache.clear();
+        residentsTrie.clear();
+        townsTrie.clear();
+        nationsTrie.clear();
     }
     
     /**
@@ -269,6 +279,10 @@ public class TownyUniverse {
             if (TownySettings.getLoadDatabase().equalsIgnoreCase(saveDbType)) {
                 // Update all Worlds data files
                 dataSource.saveAllWorlds();                
+            } else if (dataSource instanceof TownySQLSource) {
+                // Formats are different, stream everything into the database.
+                return new DatabaseMigration(towny, (TownySQLSource) dataSource, null).run()
+                    && dataSource.saveRegenList() && dataSource.saveSnapshotList();
             } else {
                 //Formats are different so save ALL data.
                 dataSource.saveAll();
@@ -349,6 +363,93 @@ public class TownyUniverse {
         return jailedResidents;
     }
 
+	// =========== Online Resident Methods ===========
+
+	/**
+	 * Get the Resident of an online player, kept by UUID from when the player logged in,
+	 * so no name has to be filtered and looked up. Players which are not kept are looked
+	 * up by name, only logging in adds a player to the online residents.
+	 * 
+	 * @param player - Player to get the Resident of.
+	 * @return the Resident, or null if the player has no Resident (like an NPC.)
+	 */
+	@Nullable
+	public Resident getResident(@NotNull Player player) {
+		Resident resident = onlineResidents.get(player.getUniqueId());
+		if (resident != null)
+			return resident;
+
+		try {
+			return dataSource.getResident(player.getName());
+		} catch (NotRegisteredException e) {
+			return null;
+		}
+	}
+
+	/**
+	 * Get the Town of an online player.
+	 * 
+	 * @param player - Player to get the Town of.
+	 * @return the Town, or null if the player has no Resident or Town.
+	 */
+	@Nullable
+	public Town getResidentTown(@NotNull Player player) {
+		Resident resident = getResident(player);
+		if (resident == null || !resident.hasTown())
+			return null;
+		try {
+			return resident.getTown();
+		} catch (NotRegisteredException e) {
+			return null;
+		}
+	}
+
+	/**
+	 * Get the Nation of an online player.
+	 * 
+	 * @param player - Player to get the Nation of.
+	 * @return the Nation, or null if the player has no Resident, Town or Nation.
+	 */
+	@Nullable
+	public Nation getResidentNation(@NotNull Player player) {
+		Town town = getResidentTown(player);
+		if (town == null || !town.hasNation())
+			return null;
+		try {
+			return town.getNation();
+		} catch (NotRegisteredException e) {
+			return null;
+		}
+	}
+
+	/**
+	 * Keep the Resident of a player who has logged in.
+	 * 
+	 * @param player - Player who has logged in.
+	 * @param resident - the player's Resident.
+	 */
+	public void addOnlineResident(@NotNull Player player, @NotNull Resident resident) {
+		onlineResidents.put(player.getUniqueId(), resident);
+	}
+
+	/**
+	 * Forget the Resident of a player who has logged out.
+	 * 
+	 * @param player - Player who has logged out.
+	 */
+	public void removeOnlineResident(@NotNull Player player) {
+		onlineResidents.remove(player.getUniqueId());
+	}
+
+	/**
+	 * Forget a Resident which is being deleted, if its player is online.
+	 * 
+	 * @param resident - Resident being deleted.
+	 */
+	public void removeOnlineResident(@NotNull Resident resident) {
+		onlineResidents.values().remove(resident);
+	}
+
 	// =========== Town Methods ===========
 	
 	public boolean hasTown(@NotNull String townName) {
@@ -696,6 +797,17 @@ public class TownyUniverse {
 			throw new NotRegisteredException();
 	}
 
+	/**
+	 * Get a TownBlock with a single lookup, without throwing an exception.
+	 * 
+	 * @param worldCoord we are testing for a townblock.
+	 * @return townblock if it exists, otherwise null.
+	 */
+	@Nullable
+	public TownBlock getTownBlockOrNull(WorldCoord worldCoord) {
+		return townBlocks.get(worldCoord);
+	}
+
 	/**
 	 * Get Universe-wide ConcurrentHashMap of WorldCoords and their TownBlocks.
 	 * Populated at load time from townblocks folder's files.
@@ -711,6 +823,29 @@ public class TownyUniverse {
 		if (hasTownBlock(townBlock.getWorldCoord()))
 			return;
 		townBlocks.put(townBlock.getWorldCoord(), townBlock);
+		townBlockChunkCache.invalidate(townBlock.getWorldCoord());
+	}
+
+	/**
+	 * Add a townblock only if no townblock exists at its WorldCoord, as one atomic step.
+	 * 
+	 * @param townBlock to add.
+	 * @return true if the townblock was added, false if the WorldCoord was already taken.
+	 */
+	public boolean reserveTownBlock(TownBlock townBlock) {
+		if (townBlocks.putIfAbsent(townBlock.getWorldCoord(), townBlock) != null)
+			return false;
+		townBlockChunkCache.invalidate(townBlock.getWorldCoord());
+		return true;
+	}
+
+	/**
+	 * Get the cache of TownBlocks per loaded chunk, used for fast lookups by Location.
+	 * 
+	 * @return the TownBlockChunkCache.
+	 */
+	public TownBlockChunkCache getTownBlockChunkCache() {
+		return townBlockChunkCache;
 	}
 
 	/**
@@ -759,7 +894,10 @@ public class TownyUniverse {
 	 */
 	private boolean removeTownBlock(WorldCoord worldCoord) {
 
-		return townBlocks.remove(worldCoord) != null;
+		if (townBlocks.remove(worldCoord) == null)
+			return false;
+		townBlockChunkCache.invalidate(worldCoord);
+		return true;
 	}
 
 	/*
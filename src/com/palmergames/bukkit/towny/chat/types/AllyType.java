@@ -1,7 +1,6 @@
 package com.palmergames.bukkit.towny.chat.types;
 
 import com.palmergames.bukkit.towny.TownyUniverse;
-import com.palmergames.bukkit.towny.exceptions.NotRegisteredException;
 import com.palmergames.bukkit.towny.object.Nation;
 import net.tnemc.tnc.core.common.chat.ChatType;
 import org.bukkit.entity.Player;
@@ -19,32 +18,25 @@ public class AllyType extends ChatType {
 
 	@Override
 	public boolean canChat(Player player) {
-		try {
-			return TownyUniverse.getInstance().getDataSource().getResident(player.getName()).hasTown() && TownyUniverse.getInstance().getDataSource().getResident(player.getName()).getTown().hasNation();
-		} catch(NotRegisteredException ignore) {
-
-		}
-		return false;
+		return TownyUniverse.getInstance().getResidentNation(player) != null;
 	}
 
 	@Override
 	public Collection<Player> getRecipients(Collection<Player> recipients, Player player) {
 		TownyUniverse townyUniverse = TownyUniverse.getInstance();
-		try {
-			final Nation nation = townyUniverse.getDataSource().getResident(player.getName()).getTown().getNation();
+		final Nation nation = townyUniverse.getResidentNation(player);
+		if (nation == null)
+			return recipients;
 
-			Collection<Player> newRecipients = new HashSet<>();
+		Collection<Player> newRecipients = new HashSet<>();
 
-			for(Player p : recipients) {
-				if (!townyUniverse.getDataSource().getResident(p.getName()).getTown().getNation().getUuid().equals(nation.getUuid())
-						&& !townyUniverse.getDataSource().getResident(p.getName()).getTown().getNation().hasAlly(nation)) {
-					continue;
-				}
-				newRecipients.add(p);
+		for(Player p : recipients) {
+			Nation recipientNation = townyUniverse.getResidentNation(p);
+			if (recipientNation == null || (recipientNation != nation && !recipientNation.hasAlly(nation))) {
+				continue;
 			}
-			return newRecipients;
-		} catch(NotRegisteredException ignore) {
+			newRecipients.add(p);
 		}
-		return recipients;
+		return newRecipients;
 	}
 }
\ No newline at end of file
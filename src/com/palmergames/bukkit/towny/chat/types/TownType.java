@@ -1,13 +1,12 @@
 package com.palmergames.bukkit.towny.chat.types;
 
 import com.palmergames.bukkit.towny.TownyUniverse;
-import com.palmergames.bukkit.towny.exceptions.NotRegisteredException;
+import com.palmergames.bukkit.towny.object.Town;
 import net.tnemc.tnc.core.common.chat.ChatType;
 import org.bukkit.entity.Player;
 
 import java.util.Collection;
 import java.util.HashSet;
-import java.util.UUID;
 
 /**
  * @author creatorfromhell
@@ -19,31 +18,23 @@ public class TownType extends ChatType {
 
 	@Override
 	public boolean canChat(Player player) {
-		try {
-			return TownyUniverse.getInstance().getDataSource().getResident(player.getName()).hasTown();
-		} catch(NotRegisteredException ignore) {
-
-		}
-		return false;
+		return TownyUniverse.getInstance().getResidentTown(player) != null;
 	}
 
 	@Override
 	public Collection<Player> getRecipients(Collection<Player> recipients, Player player) {
 		TownyUniverse townyUniverse = TownyUniverse.getInstance();
-		try {
-			final UUID town = townyUniverse.getDataSource().getResident(player.getName()).getTown().getUUID();
+		final Town town = townyUniverse.getResidentTown(player);
+		if (town == null)
+			return recipients;
 
-			Collection<Player> newRecipients = new HashSet<>();
+		Collection<Player> newRecipients = new HashSet<>();
 
-			for(Player p : recipients) {
-				if(townyUniverse.getDataSource().getResident(p.getName()).getTown().getUUID().equals(town)) {
-					newRecipients.add(p);
-				}
+		for(Player p : recipients) {
+			if(townyUniverse.getResidentTown(p) == town) {
+				newRecipients.add(p);
 			}
-			return newRecipients;
-		} catch(NotRegisteredException e) {
-			e.printStackTrace();
 		}
-		return recipients;
+		return newRecipients;
 	}
 }
\ No newline at end of file
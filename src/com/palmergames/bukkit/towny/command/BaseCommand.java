@@ -82,7 +82,7 @@ public class BaseCommand implements TabCompleter{
 		TownyUniverse townyUniverse = TownyUniverse.getInstance();
 
 		if (type.contains("r")) {
-			matches.addAll(townyUniverse.getResidentsTrie().getStringsFromKey(arg));
+			matches.addAll(townyUniverse.getDataSource().getResidentNamesStartingWith(arg));
 		}
 
 		if (type.contains("t")) {
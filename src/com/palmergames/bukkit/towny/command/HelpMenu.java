@@ -63,6 +63,7 @@ public enum HelpMenu {
 				.add("database [save/load]", "")
 				.add("newday", Translation.of("admin_panel_3"))
 				.add("purge [number of days]", "")
+				.add("perf {reset}", "")
 				.add("delete [] .. []", "delete a residents data files.");
 		}
 	},
@@ -30,6 +30,7 @@ import com.palmergames.bukkit.towny.object.Translation;
 import com.palmergames.bukkit.towny.object.WorldCoord;
 import com.palmergames.bukkit.towny.permissions.PermissionNodes;
 import com.palmergames.bukkit.towny.regen.TownyRegenAPI;
+import com.palmergames.bukkit.towny.tasks.ClaimExecutor;
 import com.palmergames.bukkit.towny.tasks.CooldownTimerTask;
 import com.palmergames.bukkit.towny.tasks.PlotClaim;
 import com.palmergames.bukkit.towny.tasks.CooldownTimerTask.CooldownType;
@@ -276,7 +277,7 @@ public class PlotCommand extends BaseCommand implements CommandExecutor {
 										group.getTownBlocks().forEach((tb) -> coords.add(tb.getWorldCoord()));
 
 										// Execute the plot claim.
-										new PlotClaim(Towny.getPlugin(), player, resident, coords, true, false, true).start();
+										ClaimExecutor.submit(new PlotClaim(Towny.getPlugin(), player, resident, coords, true, false, true));
 									})
 									.setTitle(Translation.of("msg_plot_group_claim_confirmation", group.getTownBlocks().size()) + " " + TownyEconomyHandler.getFormattedBalance(group.getPrice()) + ". " + Translation.of("are_you_sure_you_want_to_continue"))
 									.sendTo(player);
@@ -315,13 +316,13 @@ public class PlotCommand extends BaseCommand implements CommandExecutor {
 							final List<WorldCoord> finalSelection = selection;
 							Confirmation.runOnAccept(() ->  {	
 								// Start the claim task
-								new PlotClaim(plugin, player, resident, finalSelection, true, false, false).start();
+								ClaimExecutor.submit(new PlotClaim(plugin, player, resident, finalSelection, true, false, false));
 							})
 							.setTitle(title)
 							.sendTo(player);
 						} else {
 							// Start the claim task
-							new PlotClaim(plugin, player, resident, selection, true, false, false).start();
+							ClaimExecutor.submit(new PlotClaim(plugin, player, resident, selection, true, false, false));
 						}
 					} else {
 						player.sendMessage(Translation.of("msg_err_empty_area_selection"));
@@ -394,7 +395,7 @@ public class PlotCommand extends BaseCommand implements CommandExecutor {
 
 					if (split.length == 2 && split[1].equalsIgnoreCase("all")) {
 						// Start the unclaim task
-						new PlotClaim(plugin, player, resident, null, false, false, false).start();
+						ClaimExecutor.submit(new PlotClaim(plugin, player, resident, null, false, false, false));
 
 					} else {
 						
@@ -408,7 +409,7 @@ public class PlotCommand extends BaseCommand implements CommandExecutor {
 
 								if (!block.hasPlotObjectGroup()) {
 									// Start the unclaim task
-									new PlotClaim(plugin, player, resident, selection, false, false, false).start();
+									ClaimExecutor.submit(new PlotClaim(plugin, player, resident, selection, false, false, false));
 									return true;
 								}
 								
@@ -420,7 +421,7 @@ public class PlotCommand extends BaseCommand implements CommandExecutor {
 								
 								// Create confirmation.
 								Confirmation.runOnAccept(() -> {
-									new PlotClaim(Towny.getPlugin(), player, resident, groupSelection, false, false, false).start();
+									ClaimExecutor.submit(new PlotClaim(Towny.getPlugin(), player, resident, groupSelection, false, false, false));
 								})
 								.setTitle(Translation.of("msg_plot_group_unclaim_confirmation", block.getPlotObjectGroup().getTownBlocks().size()) + " " + Translation.of("are_you_sure_you_want_to_continue"))
 								.sendTo(player);
@@ -53,6 +53,7 @@ import com.palmergames.bukkit.towny.permissions.PermissionNodes;
 import com.palmergames.bukkit.towny.permissions.TownyPerms;
 import com.palmergames.bukkit.towny.regen.PlotBlockData;
 import com.palmergames.bukkit.towny.regen.TownyRegenAPI;
+import com.palmergames.bukkit.towny.tasks.ClaimExecutor;
 import com.palmergames.bukkit.towny.tasks.CooldownTimerTask;
 import com.palmergames.bukkit.towny.tasks.CooldownTimerTask.CooldownType;
 import com.palmergames.bukkit.towny.tasks.TownClaim;
@@ -3514,7 +3515,7 @@ public class TownCommand extends BaseCommand implements CommandExecutor, TabComp
 				/*
 				 * Actually start the claiming process.
 				 */
-				new TownClaim(plugin, player, town, selection, outpost, true, false).start();
+				ClaimExecutor.submit(new TownClaim(plugin, player, town, selection, outpost, true, false));
 
 			} catch (TownyException x) {
 				TownyMessaging.sendErrorMsg(player, x.getMessage());
@@ -3551,7 +3552,7 @@ public class TownCommand extends BaseCommand implements CommandExecutor, TabComp
 				if (split.length == 1 && split[0].equalsIgnoreCase("all")) {
 					if (!townyUniverse.getPermissionSource().testPermission(player, PermissionNodes.TOWNY_COMMAND_TOWN_UNCLAIM_ALL.getNode()))
 						throw new TownyException(Translation.of("msg_err_command_disable"));
-					new TownClaim(plugin, player, town, null, false, false, false).start();
+					ClaimExecutor.submit(new TownClaim(plugin, player, town, null, false, false, false));
 					// townUnclaimAll(town);
 					// If the unclaim code knows its an outpost or not, doesnt matter its only used once the world deletes the townblock, where it takes the value from the townblock.
 					// Which is why in AreaSelectionUtil, since outpost is not parsed in the main claiming of a section, it is parsed in the unclaiming with the circle, rect & all options.
@@ -3570,7 +3571,7 @@ public class TownCommand extends BaseCommand implements CommandExecutor, TabComp
 					}
 					
 					// Set the area to unclaim
-					new TownClaim(plugin, player, town, selection, false, false, false).start();
+					ClaimExecutor.submit(new TownClaim(plugin, player, town, selection, false, false, false));
 
 					TownyMessaging.sendMsg(player, Translation.of("msg_abandoned_area", Arrays.toString(selection.toArray(new WorldCoord[0]))));
 				}
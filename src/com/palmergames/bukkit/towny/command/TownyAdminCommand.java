@@ -8,10 +8,13 @@ import com.palmergames.bukkit.towny.TownyLogger;
 import com.palmergames.bukkit.towny.TownyMessaging;
 import com.palmergames.bukkit.towny.TownySettings;
 import com.palmergames.bukkit.towny.TownyTimerHandler;
+import com.palmergames.bukkit.towny.TownyTimings;
 import com.palmergames.bukkit.towny.TownyUniverse;
 import com.palmergames.bukkit.towny.confirmations.Confirmation;
+import com.palmergames.bukkit.towny.db.DatabaseMigration;
 import com.palmergames.bukkit.towny.db.TownyDataSource;
 import com.palmergames.bukkit.towny.db.TownyFlatFileSource;
+import com.palmergames.bukkit.towny.db.TownySQLSource;
 import com.palmergames.bukkit.towny.event.NationPreRenameEvent;
 import com.palmergames.bukkit.towny.event.TownPreRenameEvent;
 import com.palmergames.bukkit.towny.exceptions.AlreadyRegisteredException;
@@ -34,6 +37,7 @@ import com.palmergames.bukkit.towny.object.metadata.CustomDataField;
 import com.palmergames.bukkit.towny.permissions.PermissionNodes;
 import com.palmergames.bukkit.towny.permissions.TownyPerms;
 import com.palmergames.bukkit.towny.tasks.BackupTask;
+import com.palmergames.bukkit.towny.tasks.ClaimExecutor;
 import com.palmergames.bukkit.towny.tasks.PlotClaim;
 import com.palmergames.bukkit.towny.tasks.ResidentPurge;
 import com.palmergames.bukkit.towny.tasks.TownClaim;
@@ -62,7 +66,9 @@ import java.io.IOException;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.UUID;
 import java.util.concurrent.CompletableFuture;
@@ -97,7 +103,8 @@ public class TownyAdminCommand extends BaseCommand implements CommandExecutor {
 		"mysqldump",
 		"tpplot",
 		"database",
-		"depositall"
+		"depositall",
+		"perf"
 	);
 
 	private static final List<String> adminTownTabCompletes = Arrays.asList(
@@ -156,7 +163,8 @@ public class TownyAdminCommand extends BaseCommand implements CommandExecutor {
 	
 	private static final List<String> adminDatabaseTabCompletes = Arrays.asList(
 		"save",
-		"load"
+		"load",
+		"migrate"
 	);
 	
 	private static final List<String> adminResidentTabCompletes = Arrays.asList(
@@ -562,6 +570,10 @@ public class TownyAdminCommand extends BaseCommand implements CommandExecutor {
 				
 				parseAdminDepositAllCommand(StringMgmt.remFirstArg(split));
 				
+			} else if (split[0].equalsIgnoreCase("perf")) {
+				
+				parseAdminPerfCommand(StringMgmt.remFirstArg(split));
+				
 			}  else {
 				TownyMessaging.sendErrorMsg(getSender(), Translation.of("msg_err_invalid_sub"));
 				return false;
@@ -571,12 +583,31 @@ public class TownyAdminCommand extends BaseCommand implements CommandExecutor {
 		return true;
 	}
 
+	private void parseAdminPerfCommand(String[] split) {
+
+		if (split.length > 0 && split[0].equalsIgnoreCase("reset")) {
+			TownyTimings.reset();
+			TownyMessaging.sendMsg(getSender(), "Performance counters reset.");
+			return;
+		} else if (split.length > 0) {
+			sender.sendMessage(ChatTools.formatTitle("/townyadmin perf"));
+			sender.sendMessage(ChatTools.formatCommand(Translation.of("admin_sing"), "/townyadmin perf", "", ""));
+			sender.sendMessage(ChatTools.formatCommand(Translation.of("admin_sing"), "/townyadmin perf", "reset", ""));
+			return;
+		}
+
+		sender.sendMessage(ChatTools.formatTitle("Towny Performance"));
+		for (String line : TownyTimings.getReport())
+			sender.sendMessage(Colors.Green + line);
+	}
+
 	private void parseAdminDatabaseCommand(String[] split) {
 	
 		if (split.length == 0 || split.length > 2 || split[0].equalsIgnoreCase("?")) {
 			sender.sendMessage(ChatTools.formatTitle("/townyadmin database"));
 			sender.sendMessage(ChatTools.formatCommand(Translation.of("admin_sing"), "/townyadmin database", "save", ""));
 			sender.sendMessage(ChatTools.formatCommand(Translation.of("admin_sing"), "/townyadmin database", "load", ""));
+			sender.sendMessage(ChatTools.formatCommand(Translation.of("admin_sing"), "/townyadmin database", "migrate [mysql|h2|sqlite]", ""));
 			return;
 		}
 		
@@ -588,6 +619,22 @@ public class TownyAdminCommand extends BaseCommand implements CommandExecutor {
 			TownyUniverse.getInstance().clearAllObjects();			
 			TownyUniverse.getInstance().getDataSource().loadAll();
 			TownyMessaging.sendMsg(getSender(), Translation.of("msg_load_success"));			
+
+		} else if (split[0].equalsIgnoreCase("migrate")) {
+			if (split.length < 2 || !Arrays.asList("mysql", "h2", "sqlite").contains(split[1].toLowerCase())) {
+				TownyMessaging.sendErrorMsg(getSender(), "Migrations can only be made into mysql, h2 or sqlite.");
+				return;
+			}
+			if (split[1].equalsIgnoreCase(TownySettings.getSaveDatabase())) {
+				TownyMessaging.sendErrorMsg(getSender(), "Towny is already saving to " + split[1].toLowerCase() + ".");
+				return;
+			}
+			// A migration which is not resuming an interrupted one empties the tables of the database first.
+			final String type = split[1].toLowerCase();
+			final CommandSender migrationSender = getSender();
+			Confirmation.runOnAccept(() -> new DatabaseMigration(plugin, new TownySQLSource(plugin, TownyUniverse.getInstance(), type), migrationSender).start())
+				.setTitle("Migrating into " + type + " empties its Towny tables first, unless an interrupted migration is resumed. " + Translation.of("are_you_sure_you_want_to_continue"))
+				.sendTo(migrationSender);
 		}
 	}
 
@@ -633,7 +680,7 @@ public class TownyAdminCommand extends BaseCommand implements CommandExecutor {
 			selection.add(new WorldCoord(world, Coord.parseCoord(player)));
 
 			if (resident != null) {
-				new PlotClaim(plugin, player, resident, selection, true, true, false).start();
+				ClaimExecutor.submit(new PlotClaim(plugin, player, resident, selection, true, true, false));
 			}
 		}
 		
@@ -764,7 +811,13 @@ public class TownyAdminCommand extends BaseCommand implements CommandExecutor {
 				selection = AreaSelectionUtil.selectWorldCoordArea(null, new WorldCoord(player.getWorld().getName(), Coord.parseCoord(player)), split);
 				selection = AreaSelectionUtil.filterOutWildernessBlocks(selection);
 
-				new TownClaim(plugin, player, null, selection, false, false, true).start();
+				// Unclaim each town's part of the selection on its own, so the towns are unclaimed side by side.
+				Map<Town, List<WorldCoord>> selectionByTown = new LinkedHashMap<>();
+				for (WorldCoord worldCoord : selection)
+					selectionByTown.computeIfAbsent(worldCoord.getTownBlock().getTown(), k -> new ArrayList<>()).add(worldCoord);
+
+				for (Map.Entry<Town, List<WorldCoord>> townSelection : selectionByTown.entrySet())
+					ClaimExecutor.submit(new TownClaim(plugin, player, townSelection.getKey(), townSelection.getValue(), false, false, true));
 
 			} catch (TownyException x) {
 				TownyMessaging.sendErrorMsg(player, x.getMessage());
@@ -1559,7 +1612,7 @@ public class TownyAdminCommand extends BaseCommand implements CommandExecutor {
 				selection = AreaSelectionUtil.filterOutTownOwnedBlocks(selection);
 				TownyMessaging.sendDebugMsg("Admin Initiated townClaim: Post-Filter Selection ["+selection.size()+"] " + Arrays.toString(selection.toArray(new WorldCoord[0])));
 				
-				new TownClaim(plugin, player, town, selection, false, true, false).start();
+				ClaimExecutor.submit(new TownClaim(plugin, player, town, selection, false, true, false));
 
 			}
 		} else {
@@ -1668,15 +1721,21 @@ public class TownyAdminCommand extends BaseCommand implements CommandExecutor {
 		if (split.length == 0) {
 			// command was '/townyadmin purge'
 			sender.sendMessage(ChatTools.formatTitle("/townyadmin purge"));
-			sender.sendMessage(ChatTools.formatCommand("", "/townyadmin purge", "[number of days] {townless}", ""));
+			sender.sendMessage(ChatTools.formatCommand("", "/townyadmin purge", "[number of days] {townless} {dryrun}", ""));
 			sender.sendMessage(ChatTools.formatCommand("", "", "Removes offline residents not seen for this duration.", ""));
 			sender.sendMessage(ChatTools.formatCommand("", "", "Optional {townless} flag limits purge to only people that have no town.", ""));
+			sender.sendMessage(ChatTools.formatCommand("", "", "Optional {dryrun} flag only reports who would be removed.", ""));
 			return;
 		}
 		String days = "";
-		if (split.length == 2 && split[1].equalsIgnoreCase("townless")) {
-			days += "townless";
+		boolean dryRun = false;
+		for (int i = 1; i < split.length; i++) {
+			if (split[i].equalsIgnoreCase("townless"))
+				days = "townless";
+			else if (split[i].equalsIgnoreCase("dryrun"))
+				dryRun = true;
 		}
+		final boolean finalDryRun = dryRun;
 
 		try {
 			days += String.valueOf(split[0]);
@@ -1716,7 +1775,7 @@ public class TownyAdminCommand extends BaseCommand implements CommandExecutor {
 					numDays = Integer.parseInt(finalDays);
 				}
 
-				new ResidentPurge(plugin, player, TimeTools.getMillis(numDays + "d"), townless).start();
+				new ResidentPurge(plugin, player, TimeTools.getMillis(numDays + "d"), townless).setDryRun(finalDryRun).start();
 			};
 			
 			if (sender != null) {
@@ -1735,7 +1794,7 @@ public class TownyAdminCommand extends BaseCommand implements CommandExecutor {
 					numDays = Integer.parseInt(finalDays);
 				}
 
-				new ResidentPurge(plugin, null, TimeTools.getMillis(numDays + "d"), townless).start();
+				new ResidentPurge(plugin, null, TimeTools.getMillis(numDays + "d"), townless).setDryRun(finalDryRun).start();
 			})
 			.sendTo(sender);
 		}
@@ -0,0 +1,824 @@
+package com.palmergames.bukkit.towny.db;
+
+import com.palmergames.bukkit.towny.Towny;
+import com.palmergames.bukkit.towny.TownyMessaging;
+import com.palmergames.bukkit.towny.TownyUniverse;
+import com.palmergames.bukkit.towny.exceptions.TownyException;
+import com.palmergames.bukkit.towny.object.Nation;
+import com.palmergames.bukkit.towny.object.PlotGroup;
+import com.palmergames.bukkit.towny.object.Resident;
+import com.palmergames.bukkit.towny.object.Town;
+import com.palmergames.bukkit.towny.object.TownBlock;
+import com.palmergames.bukkit.towny.object.TownyWorld;
+import org.bukkit.command.CommandSender;
+import org.bukkit.scheduler.BukkitRunnable;
+
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.zip.CRC32;
+
+/**
+ * Copies everything Towny has loaded into an SQL database.
+ *
+ * The tables are read from the loaded towny objects one at a time, a
+ * batch of rows at a time, and written by a few writer threads which
+ * each have their own connection and insert a whole batch at once.
+ * Only a handful of batches are ever waiting to be written, so the
+ * rows of a table are never all held in memory. Residents which an
+ * SQL database has not loaded are copied from its stored rows.
+ *
+ * Progress is kept in the MIGRATION table of the database, so that a
+ * migration which was interrupted carries on from where it stopped the
+ * next time it is started. The keys of each batch are kept in the
+ * MIGRATION_KEYS table as it is written, so a resumed migration builds
+ * the batches already written from the same objects. Once everything has
+ * been written the number of rows and a checksum of their contents are
+ * compared for every table.
+ */
+public class DatabaseMigration {
+
+	private static final int BATCH_SIZE = 500;
+	// Keys read each time a table is asked for its next batch, before its first batch is built.
+	private static final int KEY_CHUNK = 2000;
+	// Batches built ahead of the writers, which bounds how many rows are held in memory.
+	private static final int QUEUED_BATCHES = 8;
+	// Longest time spent building batches each tick, when the server is running.
+	private static final long TICK_BUDGET = TimeUnit.MILLISECONDS.toNanos(20);
+
+	private final Towny plugin;
+	private final TownySQLSource target;
+	private final CommandSender sender;
+	private final String prefix;
+	private final List<Table<?>> tables = new ArrayList<>();
+	private final BlockingQueue<Batch> queue = new ArrayBlockingQueue<>(QUEUED_BATCHES);
+	private final List<Thread> writers = new ArrayList<>();
+	private Connection control;
+	private int tableIndex = 0;
+	private volatile String failure = null;
+
+	private interface RowBuilder<T> {
+		HashMap<String, Object> build(T object) throws TownyException;
+	}
+
+	/*
+	 * Where the objects of a table are read from.
+	 */
+	private interface ObjectSource<T> {
+		/*
+		 * Read up to max more keys, returning false once every key has been read.
+		 */
+		boolean readKeys(List<String> keys, int max) throws SQLException;
+
+		/*
+		 * The objects of the given keys, objects which no longer exist are left out.
+		 */
+		Map<String, T> get(List<String> keys) throws SQLException;
+
+		void close();
+	}
+
+	/*
+	 * Objects Towny has loaded, read a chunk of keys at a time.
+	 */
+	private static class LoadedObjects<T> implements ObjectSource<T> {
+		private final Supplier<Collection<T>> source;
+		private final Function<T, String> key;
+		private Iterator<T> pending = null;
+		private Map<String, T> objects = new HashMap<>();
+
+		LoadedObjects(Supplier<Collection<T>> source, Function<T, String> key) {
+			this.source = source;
+			this.key = key;
+		}
+
+		@Override
+		public boolean readKeys(List<String> keys, int max) {
+			if (pending == null)
+				pending = source.get().iterator();
+
+			for (int i = 0; i < max && pending.hasNext(); i++) {
+				T object = pending.next();
+				String objectKey = key.apply(object);
+				objects.put(objectKey, object);
+				keys.add(objectKey);
+			}
+			return pending.hasNext();
+		}
+
+		@Override
+		public Map<String, T> get(List<String> keys) {
+			Map<String, T> found = new HashMap<>();
+			for (String objectKey : keys)
+				if (objects.containsKey(objectKey))
+					found.put(objectKey, objects.get(objectKey));
+			return found;
+		}
+
+		@Override
+		public void close() {
+			pending = null;
+			objects = null;
+		}
+	}
+
+	/*
+	 * Rows of a resident table of an SQL database which loads residents lazily.
+	 * Residents it has loaded are built from memory, as they may have changes
+	 * which are still waiting to be saved, everyone else is copied from the row
+	 * it has stored. Only the columns the target writes are copied.
+	 */
+	private class StoredResidents implements ObjectSource<HashMap<String, Object>> {
+		private final TownySQLSource source;
+		private final String table;
+		private final String keyColumn;
+		private final RowBuilder<Resident> rowBuilder;
+		private final Map<String, String> columns = new HashMap<>();
+		private Connection connection = null;
+		private String lastKey = null;
+
+		StoredResidents(TownySQLSource source, String table, String keyColumn, RowBuilder<Resident> rowBuilder) {
+			this.source = source;
+			this.table = table;
+			this.keyColumn = keyColumn;
+			this.rowBuilder = rowBuilder;
+		}
+
+		private Connection connection() throws SQLException {
+			if (connection == null) {
+				connection = source.newConnection();
+				try {
+					// The columns the target writes, so that stored column names are written the way it spells them.
+					for (String column : rowBuilder.build(new Resident("migration")).keySet())
+						columns.put(column.toLowerCase(), column);
+				} catch (TownyException e) {
+					throw new SQLException(e.getMessage());
+				}
+			}
+			return connection;
+		}
+
+		@Override
+		public boolean readKeys(List<String> keys, int max) throws SQLException {
+			// Read in key order from after the last key read, so no result set is held open between ticks.
+			String sql = "SELECT " + keyColumn + " FROM " + source.getTablePrefix() + table
+					+ (lastKey == null ? "" : " WHERE " + keyColumn + " > ?") + " ORDER BY " + keyColumn + " LIMIT " + max;
+			int read = 0;
+			try (PreparedStatement ps = connection().prepareStatement(sql)) {
+				if (lastKey != null)
+					ps.setString(1, lastKey);
+				try (ResultSet rs = ps.executeQuery()) {
+					while (rs.next()) {
+						lastKey = rs.getString(1);
+						keys.add(lastKey);
+						read++;
+					}
+				}
+			}
+			return read == max;
+		}
+
+		@Override
+		public Map<String, HashMap<String, Object>> get(List<String> keys) throws SQLException {
+			Map<String, HashMap<String, Object>> found = new HashMap<>();
+			List<String> stored = new ArrayList<>();
+			for (String objectKey : keys) {
+				Resident loaded = TownyUniverse.getInstance().getResidentMap().get(objectKey.toLowerCase());
+				if (loaded == null) {
+					stored.add(objectKey);
+					continue;
+				}
+				try {
+					found.put(objectKey, rowBuilder.build(loaded));
+				} catch (TownyException e) {
+					message("Skipped " + table + " " + objectKey + ": " + e.getMessage());
+				}
+			}
+			if (stored.isEmpty())
+				return found;
+
+			String sql = "SELECT * FROM " + source.getTablePrefix() + table + " WHERE " + keyColumn
+					+ " IN (" + String.join(",", Collections.nCopies(stored.size(), "?")) + ")";
+			try (PreparedStatement ps = connection().prepareStatement(sql)) {
+				for (int i = 0; i < stored.size(); i++)
+					ps.setString(i + 1, stored.get(i));
+				try (ResultSet rs = ps.executeQuery()) {
+					ResultSetMetaData meta = rs.getMetaData();
+					while (rs.next()) {
+						HashMap<String, Object> row = new HashMap<>();
+						for (int i = 1; i <= meta.getColumnCount(); i++) {
+							String column = columns.get(meta.getColumnLabel(i).toLowerCase());
+							if (column != null)
+								row.put(column, rs.getObject(i));
+						}
+						found.put(rs.getString(keyColumn), row);
+					}
+				}
+			}
+			return found;
+		}
+
+		@Override
+		public void close() {
+			if (connection == null)
+				return;
+			try {
+				connection.close();
+			} catch (SQLException ignored) {
+			}
+			connection = null;
+		}
+	}
+
+	private static class Batch {
+		static final Batch END = new Batch(null, -1, Collections.emptyList(), Collections.emptyList());
+
+		final Table<?> table;
+		final int index;
+		final List<String> keys;
+		final List<HashMap<String, Object>> rows;
+
+		Batch(Table<?> table, int index, List<String> keys, List<HashMap<String, Object>> rows) {
+			this.table = table;
+			this.index = index;
+			this.keys = keys;
+			this.rows = rows;
+		}
+	}
+
+	private class Table<T> {
+		final String name;
+		final List<String> keyColumns;
+		final ObjectSource<T> source;
+		final RowBuilder<T> rowBuilder;
+
+		// Keys of the batches written before the migration was interrupted, in the order they were written.
+		final List<String> snapshot = new ArrayList<>();
+		List<String> keys = null;
+		// Keys in the snapshot, while the keys are still being read.
+		Set<String> snapshotKeys = null;
+		boolean keysRead = false;
+		// Columns other than the keys which are checksummed, those of the first row built.
+		List<String> contentColumns = Collections.emptyList();
+		int nextBatch = 0;
+		// Batches known to be in the database, those before writtenBatches and any in written.
+		int writtenBatches = 0;
+		final Set<Integer> written = new HashSet<>();
+		int totalBatches = 0;
+		// What the database should hold once the table is written.
+		int rows = 0;
+		long checksum = 0;
+
+		Table(String name, List<String> keyColumns, ObjectSource<T> source, RowBuilder<T> rowBuilder) {
+			this.name = name;
+			this.keyColumns = keyColumns;
+			this.source = source;
+			this.rowBuilder = rowBuilder;
+		}
+
+		Table(String name, List<String> keyColumns, Supplier<Collection<T>> source, Function<T, String> key, RowBuilder<T> rowBuilder) {
+			this(name, keyColumns, new LoadedObjects<>(source, key), rowBuilder);
+		}
+
+		/*
+		 * Read the next chunk of keys, or build the next batch of this table and queue it for the writers.
+		 * Returns false once every batch of the table has been built.
+		 */
+		boolean produce() throws InterruptedException {
+			try {
+				if (!keysRead) {
+					readKeys();
+					return true;
+				}
+
+				if (nextBatch >= totalBatches) {
+					keys = Collections.emptyList();
+					source.close();
+					return false;
+				}
+
+				produceBatch();
+			} catch (SQLException e) {
+				source.close();
+				fail("Could not read " + name + ": " + e.getMessage());
+			}
+			return true;
+		}
+
+		/*
+		 * The batches already written keep the keys they were written with, anything else follows in the order it is read.
+		 * The order of the keys which follow does not matter, the keys of every batch are kept as it is written.
+		 */
+		private void readKeys() throws SQLException {
+			if (keys == null) {
+				keys = new ArrayList<>(snapshot);
+				snapshotKeys = new HashSet<>(snapshot);
+			}
+
+			List<String> chunk = new ArrayList<>();
+			boolean more = source.readKeys(chunk, KEY_CHUNK);
+			for (String objectKey : chunk)
+				if (!snapshotKeys.contains(objectKey))
+					keys.add(objectKey);
+			if (more)
+				return;
+
+			keysRead = true;
+			snapshotKeys = null;
+			totalBatches = (keys.size() + BATCH_SIZE - 1) / BATCH_SIZE;
+			message("Migrating " + name + ": " + keys.size() + " rows.");
+		}
+
+		private void produceBatch() throws SQLException, InterruptedException {
+			int index = nextBatch++;
+			boolean alreadyWritten;
+			synchronized (this) {
+				alreadyWritten = index < writtenBatches || written.contains(index);
+			}
+
+			// Rows of batches already written are still built, so their contents are part of the checksum.
+			List<String> batchKeys = new ArrayList<>(keys.subList(index * BATCH_SIZE, Math.min((index + 1) * BATCH_SIZE, keys.size())));
+			Map<String, T> objects = source.get(batchKeys);
+			List<HashMap<String, Object>> batchRows = new ArrayList<>();
+			for (String objectKey : batchKeys) {
+				T object = objects.get(objectKey);
+				// Deleted since an interrupted migration wrote it, verifying finds the row left behind.
+				if (object == null)
+					continue;
+
+				HashMap<String, Object> row;
+				try {
+					row = rowBuilder.build(object);
+				} catch (TownyException e) {
+					message("Skipped " + name + " " + objectKey + ": " + e.getMessage());
+					continue;
+				}
+				if (rows == 0) {
+					contentColumns = new ArrayList<>(row.keySet());
+					contentColumns.removeAll(keyColumns);
+					Collections.sort(contentColumns);
+				}
+				rows++;
+				checksum += checksum(objectKey, contentColumns, row);
+				batchRows.add(row);
+			}
+
+			if (!alreadyWritten)
+				enqueue(new Batch(this, index, batchKeys, batchRows));
+		}
+
+		/*
+		 * Record a batch as written, returning how many batches from the start are now written.
+		 */
+		synchronized int batchWritten(int index) {
+			written.add(index);
+			while (written.remove(writtenBatches))
+				writtenBatches++;
+			return writtenBatches;
+		}
+	}
+
+	/**
+	 * @param plugin - Towny.
+	 * @param target - The SQL database to copy everything into.
+	 * @param sender - Who to tell about the progress, or null for the console.
+	 */
+	public DatabaseMigration(Towny plugin, TownySQLSource target, CommandSender sender) {
+
+		this.plugin = plugin;
+		this.target = target;
+		this.sender = sender;
+		this.prefix = target.getTablePrefix();
+
+		TownyDataSource source = TownyUniverse.getInstance().getDataSource();
+		tables.add(new Table<TownyWorld>("WORLDS", Collections.singletonList("name"), source::getWorlds, TownyWorld::getName, target::getWorldRow));
+		tables.add(new Table<Nation>("NATIONS", Collections.singletonList("name"), source::getNations, Nation::getName, target::getNationRow));
+		tables.add(new Table<Town>("TOWNS", Collections.singletonList("name"), source::getTowns, Town::getName, target::getTownRow));
+		if (source != target && source instanceof TownySQLSource && ((TownySQLSource) source).isLoadingResidentsLazily()) {
+			// Only some of its residents are loaded, the rest are copied from its tables.
+			TownySQLSource sqlSource = (TownySQLSource) source;
+			tables.add(new Table<>("RESIDENTS", Collections.singletonList("name"), new StoredResidents(sqlSource, "RESIDENTS", "name", target::getResidentRow), row -> row));
+			tables.add(new Table<>("RESIDENT_NAMES", Collections.singletonList("lowername"), new StoredResidents(sqlSource, "RESIDENT_NAMES", "lowername", target::getResidentNameRow), row -> row));
+		} else {
+			tables.add(new Table<Resident>("RESIDENTS", Collections.singletonList("name"), source::getResidents, Resident::getName, target::getResidentRow));
+			tables.add(new Table<Resident>("RESIDENT_NAMES", Collections.singletonList("lowername"), source::getResidents, resident -> resident.getName().toLowerCase(), target::getResidentNameRow));
+		}
+		tables.add(new Table<TownBlock>("TOWNBLOCKS", Arrays.asList("world", "x", "z"), source::getAllTownBlocks,
+				townBlock -> townBlock.getWorld().getName() + "#" + townBlock.getX() + "#" + townBlock.getZ(), target::getTownBlockRow));
+		tables.add(new Table<PlotGroup>("PLOTGROUPS", Collections.singletonList("groupID"), source::getAllPlotGroups, group -> group.getID().toString(), target::getPlotGroupRow));
+	}
+
+	/**
+	 * Run the whole migration on this thread, for when the server is not running yet.
+	 *
+	 * @return true if everything was written, even if the verification found differences.
+	 */
+	public boolean run() {
+
+		if (!prepare())
+			return false;
+
+		try {
+			while (failure == null && produceNext()) {
+				// Each call queues another batch.
+			}
+		} catch (InterruptedException e) {
+			fail("Migration interrupted.");
+		}
+		return finish();
+	}
+
+	/**
+	 * Start the migration, building a few batches on the main thread each tick.
+	 */
+	public void start() {
+
+		if (!prepare()) {
+			target.finishTasks();
+			return;
+		}
+
+		new BukkitRunnable() {
+			@Override
+			public void run() {
+				long deadline = System.nanoTime() + TICK_BUDGET;
+				try {
+					while (failure == null && queue.remainingCapacity() > 0 && System.nanoTime() < deadline) {
+						if (!produceNext()) {
+							cancel();
+							CompletableFuture.runAsync(DatabaseMigration.this::finishInBackground);
+							return;
+						}
+					}
+				} catch (InterruptedException e) {
+					fail("Migration interrupted.");
+				}
+
+				if (failure != null) {
+					cancel();
+					CompletableFuture.runAsync(DatabaseMigration.this::finishInBackground);
+				}
+			}
+		}.runTaskTimer(plugin, 1, 1);
+	}
+
+	/*
+	 * Read any progress left by an interrupted migration, or empty the tables
+	 * when starting afresh, then start the writers.
+	 */
+	private boolean prepare() {
+
+		try {
+			control = target.newConnection();
+			try (Statement s = control.createStatement()) {
+				s.executeUpdate("CREATE TABLE IF NOT EXISTS " + prefix + "MIGRATION ("
+						+ "`tbl` VARCHAR(32) NOT NULL,"
+						+ "`batches` INT NOT NULL,"
+						+ "`total` INT NOT NULL,"
+						+ "PRIMARY KEY (`tbl`)"
+						+ ")");
+				s.executeUpdate("CREATE TABLE IF NOT EXISTS " + prefix + "MIGRATION_KEYS ("
+						+ "`tbl` VARCHAR(32) NOT NULL,"
+						+ "`idx` INT NOT NULL,"
+						+ "`objkey` VARCHAR(255) NOT NULL,"
+						+ "PRIMARY KEY (`tbl`, `idx`)"
+						+ ")");
+
+				boolean resuming = false;
+				try (ResultSet rs = s.executeQuery("SELECT `tbl`, `batches` FROM " + prefix + "MIGRATION")) {
+					while (rs.next()) {
+						resuming = true;
+						for (Table<?> table : tables)
+							if (table.name.equals(rs.getString("tbl")))
+								table.writtenBatches = rs.getInt("batches");
+					}
+				}
+
+				if (resuming) {
+					message("Resuming the migration into " + target.getType() + ".");
+					for (Table<?> table : tables)
+						loadSnapshot(table);
+				} else {
+					message("Migrating into " + target.getType() + ", emptying its tables first.");
+					for (Table<?> table : tables)
+						s.executeUpdate("DELETE FROM " + prefix + table.name);
+					s.executeUpdate("DELETE FROM " + prefix + "MIGRATION_KEYS");
+				}
+			}
+		} catch (SQLException e) {
+			message("Migration could not start: " + e.getMessage());
+			return false;
+		}
+
+		// Embedded databases only allow one writer at a time.
+		int writerCount = target.getType().equals("mysql") ? 4 : 1;
+		for (int i = 0; i < writerCount; i++) {
+			Thread writer = new Thread(this::write, "Towny-Migration-" + i);
+			writers.add(writer);
+			writer.start();
+		}
+		return true;
+	}
+
+	/*
+	 * Read the keys of the batches of a table which were written before the migration was interrupted.
+	 * Keys of batches written after a batch which was not are dropped, those batches are written again.
+	 */
+	private void loadSnapshot(Table<?> table) throws SQLException {
+
+		int writtenKeys = table.writtenBatches * BATCH_SIZE;
+		try (PreparedStatement ps = control.prepareStatement("SELECT `objkey` FROM " + prefix + "MIGRATION_KEYS WHERE `tbl` = ? AND `idx` < ? ORDER BY `idx`")) {
+			ps.setString(1, table.name);
+			ps.setInt(2, writtenKeys);
+			try (ResultSet rs = ps.executeQuery()) {
+				while (rs.next())
+					table.snapshot.add(rs.getString("objkey"));
+			}
+		}
+		try (PreparedStatement ps = control.prepareStatement("DELETE FROM " + prefix + "MIGRATION_KEYS WHERE `tbl` = ? AND `idx` >= ?")) {
+			ps.setString(1, table.name);
+			ps.setInt(2, writtenKeys);
+			ps.executeUpdate();
+		}
+	}
+
+	private boolean produceNext() throws InterruptedException {
+
+		while (tableIndex < tables.size()) {
+			if (tables.get(tableIndex).produce())
+				return true;
+			tableIndex++;
+		}
+		return false;
+	}
+
+	private void enqueue(Batch batch) throws InterruptedException {
+
+		while (!queue.offer(batch, 1, TimeUnit.SECONDS)) {
+			if (writers.stream().noneMatch(Thread::isAlive)) {
+				fail("Every migration writer has stopped.");
+				return;
+			}
+		}
+	}
+
+	/*
+	 * Wait for the writers, then verify what they wrote. Runs off the main thread when the server is running.
+	 */
+	private boolean finish() {
+
+		for (Table<?> table : tables)
+			table.source.close();
+
+		try {
+			for (int i = 0; i < writers.size(); i++)
+				enqueue(Batch.END);
+			for (Thread writer : writers)
+				writer.join();
+		} catch (InterruptedException e) {
+			fail("Migration interrupted.");
+		}
+
+		boolean written = failure == null;
+		if (written) {
+			verify();
+			message("Migration into " + target.getType() + " finished.");
+		} else {
+			message("Migration stopped: " + failure + " Run it again to carry on from where it stopped.");
+		}
+
+		try {
+			control.close();
+		} catch (SQLException ignored) {
+		}
+		return written;
+	}
+
+	/*
+	 * When the server is running the target was only opened for the migration, so it is closed afterwards.
+	 */
+	private void finishInBackground() {
+
+		finish();
+		target.finishTasks();
+	}
+
+	/*
+	 * Writer thread, writes batches until it is handed the END batch.
+	 */
+	private void write() {
+
+		try (Connection connection = target.newConnection()) {
+			connection.setAutoCommit(false);
+
+			while (true) {
+				Batch batch = queue.take();
+				if (batch == Batch.END)
+					return;
+				// Keep taking batches after a failure, so the producer is never stuck waiting on a full queue.
+				if (failure != null)
+					continue;
+
+				try {
+					writeBatch(connection, batch);
+					try (PreparedStatement ps = connection.prepareStatement(upsert("MIGRATION_KEYS", Arrays.asList("tbl", "idx", "objkey"), Arrays.asList("tbl", "idx")))) {
+						for (int i = 0; i < batch.keys.size(); i++) {
+							ps.setString(1, batch.table.name);
+							ps.setInt(2, batch.index * BATCH_SIZE + i);
+							ps.setString(3, batch.keys.get(i));
+							ps.addBatch();
+						}
+						ps.executeBatch();
+					}
+					int writtenBatches = batch.table.batchWritten(batch.index);
+					setProgress(connection, batch.table, writtenBatches);
+					connection.commit();
+				} catch (SQLException e) {
+					connection.rollback();
+					fail("Could not write " + batch.table.name + ": " + e.getMessage());
+				}
+			}
+		} catch (SQLException e) {
+			fail("Migration writer could not connect: " + e.getMessage());
+		} catch (InterruptedException e) {
+			fail("Migration interrupted.");
+		}
+	}
+
+	private void writeBatch(Connection connection, Batch batch) throws SQLException {
+
+		// Rows only share a statement when they have the same columns.
+		Map<List<String>, PreparedStatement> statements = new HashMap<>();
+		try {
+			for (HashMap<String, Object> row : batch.rows) {
+				List<String> columns = new ArrayList<>(row.keySet());
+				Collections.sort(columns);
+
+				PreparedStatement ps = statements.get(columns);
+				if (ps == null) {
+					ps = connection.prepareStatement(upsert(batch.table.name, columns, batch.table.keyColumns));
+					statements.put(columns, ps);
+				}
+
+				for (int i = 0; i < columns.size(); i++) {
+					Object value = row.get(columns.get(i));
+					if (value == null)
+						ps.setString(i + 1, null);
+					else
+						TownySQLSource.setParameter(ps, i + 1, value);
+				}
+				ps.addBatch();
+			}
+
+			for (PreparedStatement ps : statements.values())
+				ps.executeBatch();
+		} finally {
+			for (PreparedStatement ps : statements.values())
+				ps.close();
+		}
+	}
+
+	/*
+	 * Compare the number of rows and the checksum of their contents with what was read from Towny.
+	 * A table which does not match is emptied and marked as unwritten, so that running the migration again rewrites it.
+	 */
+	private void verify() {
+
+		boolean verified = true;
+		for (Table<?> table : tables) {
+			List<String> columns = new ArrayList<>(table.keyColumns);
+			columns.addAll(table.contentColumns);
+			int rows = 0;
+			long checksum = 0;
+			try (Statement s = control.createStatement()) {
+				try (ResultSet rs = s.executeQuery("SELECT `" + String.join("`, `", columns) + "` FROM " + prefix + table.name)) {
+					while (rs.next()) {
+						StringBuilder key = new StringBuilder();
+						for (int i = 1; i <= table.keyColumns.size(); i++)
+							key.append(i == 1 ? "" : "#").append(rs.getString(i));
+						Map<String, Object> row = new HashMap<>();
+						for (String column : table.contentColumns)
+							row.put(column, rs.getObject(column));
+						rows++;
+						checksum += checksum(key.toString(), table.contentColumns, row);
+					}
+				}
+
+				if (rows == table.rows && checksum == table.checksum) {
+					message("Verified " + table.name + ": " + rows + " rows.");
+					continue;
+				}
+
+				verified = false;
+				message("Verification failed for " + table.name + ": expected " + table.rows + " rows, found " + rows
+						+ (checksum == table.checksum ? "." : " with different contents."));
+				s.executeUpdate("DELETE FROM " + prefix + table.name);
+				try (PreparedStatement ps = control.prepareStatement("DELETE FROM " + prefix + "MIGRATION_KEYS WHERE `tbl` = ?")) {
+					ps.setString(1, table.name);
+					ps.executeUpdate();
+				}
+				setProgress(control, table, 0);
+			} catch (SQLException e) {
+				verified = false;
+				message("Could not verify " + table.name + ": " + e.getMessage());
+			}
+		}
+
+		// A migration which checks out leaves nothing to resume.
+		if (verified) {
+			try (Statement s = control.createStatement()) {
+				s.executeUpdate("DELETE FROM " + prefix + "MIGRATION");
+				s.executeUpdate("DELETE FROM " + prefix + "MIGRATION_KEYS");
+			} catch (SQLException e) {
+				message("Could not clear the migration progress: " + e.getMessage());
+			}
+		}
+	}
+
+	private void setProgress(Connection connection, Table<?> table, int writtenBatches) throws SQLException {
+
+		try (PreparedStatement ps = connection.prepareStatement(upsert("MIGRATION", Arrays.asList("tbl", "batches", "total"), Collections.singletonList("tbl")))) {
+			ps.setString(1, table.name);
+			ps.setInt(2, writtenBatches);
+			ps.setInt(3, table.totalBatches);
+			ps.executeUpdate();
+		}
+	}
+
+	/*
+	 * REPLACE INTO is only understood by MySQL and SQLite, H2 merges rows on their key columns instead.
+	 */
+	private String upsert(String table, List<String> columns, List<String> keyColumns) {
+
+		String code = (target.getType().equals("h2") ? "MERGE INTO " : "REPLACE INTO ") + prefix + table
+				+ " (`" + String.join("`, `", columns) + "`)";
+		if (target.getType().equals("h2"))
+			code += " KEY (`" + String.join("`, `", keyColumns) + "`)";
+		return code + " VALUES (" + String.join(",", Collections.nCopies(columns.size(), "?")) + ")";
+	}
+
+	/*
+	 * Checksum of a row's key and the given columns, with the values as they read back from the database.
+	 */
+	private static long checksum(String key, List<String> columns, Map<String, Object> row) {
+
+		CRC32 crc = new CRC32();
+		crc.update(key.getBytes(StandardCharsets.UTF_8));
+		for (String column : columns) {
+			crc.update(0);
+			crc.update(canonical(row.get(column)).getBytes(StandardCharsets.UTF_8));
+		}
+		return crc.getValue();
+	}
+
+	/*
+	 * Booleans are stored as numbers, and float columns keep only a float's precision.
+	 */
+	private static String canonical(Object value) {
+
+		if (value == null)
+			return "";
+		if (value instanceof Boolean)
+			return (Boolean) value ? "1" : "0";
+		if (value instanceof Float || value instanceof Double || value instanceof BigDecimal) {
+			float f = ((Number) value).floatValue();
+			return f == (long) f ? Long.toString((long) f) : Float.toString(f);
+		}
+		return value.toString();
+	}
+
+	private void fail(String reason) {
+
+		if (failure == null)
+			failure = reason;
+	}
+
+	private void message(String msg) {
+
+		if (this.sender != null)
+			TownyMessaging.sendMessage(this.sender, msg);
+		else
+			TownyMessaging.sendMsg(msg);
+	}
+}
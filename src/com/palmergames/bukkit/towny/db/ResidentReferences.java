@@ -0,0 +1,68 @@
+package com.palmergames.bukkit.towny.db;
+
+import com.palmergames.bukkit.towny.object.Resident;
+import com.palmergames.bukkit.towny.object.Town;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Which towns outlaw and which residents befriend each resident, looked
+ * up once so that removing many residents does not have to go through
+ * every town and resident again for each resident removed. Friends and
+ * outlaws may be added at any time, so it is looked up again before each
+ * batch of residents is removed.
+ *
+ * Towns and residents are remembered by name, as a database which loads
+ * residents lazily may unload and reload them while a purge runs.
+ */
+public class ResidentReferences {
+
+	private final Map<String, List<String>> outlawedBy = new HashMap<>();
+	private final Map<String, List<String>> befriendedBy = new HashMap<>();
+
+	/**
+	 * @param towns Towns whose outlaws are looked up.
+	 * @param residents Residents whose friends are looked up.
+	 */
+	public ResidentReferences(Collection<Town> towns, Collection<Resident> residents) {
+
+		for (Town town : towns)
+			for (Resident outlaw : town.getOutlaws())
+				outlawedBy.computeIfAbsent(outlaw.getName().toLowerCase(), k -> new ArrayList<>()).add(town.getName());
+
+		for (Resident resident : residents)
+			for (Resident friend : resident.getFriends())
+				befriendedBy.computeIfAbsent(friend.getName().toLowerCase(), k -> new ArrayList<>()).add(resident.getName());
+	}
+
+	/**
+	 * @param resident The resident to look up.
+	 * @return the names of the towns which have the resident as an outlaw.
+	 */
+	public List<String> getOutlawedBy(Resident resident) {
+		return outlawedBy.getOrDefault(resident.getName().toLowerCase(), Collections.emptyList());
+	}
+
+	/**
+	 * @param resident The resident to look up.
+	 * @return the names of the residents which have the resident as a friend.
+	 */
+	public List<String> getBefriendedBy(Resident resident) {
+		return befriendedBy.getOrDefault(resident.getName().toLowerCase(), Collections.emptyList());
+	}
+
+	/**
+	 * Forget a resident which has been removed.
+	 *
+	 * @param resident The removed resident.
+	 */
+	public void forget(Resident resident) {
+		outlawedBy.remove(resident.getName().toLowerCase());
+		befriendedBy.remove(resident.getName().toLowerCase());
+	}
+}
@@ -184,6 +184,16 @@ public class SQL_Schema {
 		return columns;
 	}
 
+    private static String getRESIDENT_NAMES() {
+
+        return "CREATE TABLE IF NOT EXISTS " + tb_prefix + "RESIDENT_NAMES ("
+                + "`lowername` VARCHAR(16) NOT NULL,"
+                + "`name` VARCHAR(16) NOT NULL,"
+                + "`uuid` VARCHAR(36) DEFAULT NULL,"
+                + "PRIMARY KEY (`lowername`)"
+                + ")";
+    }
+
     private static String getTOWNBLOCKS() {
 
         return "CREATE TABLE IF NOT EXISTS " + tb_prefix + "TOWNBLOCKS ("
@@ -364,6 +374,32 @@ public class SQL_Schema {
 		}
 		TownyMessaging.sendDebugMsg("Table RESIDENTS is updated!");
 
+		/*
+		 *  Fetch RESIDENT_NAMES Table schema, the name index used when residents are loaded lazily.
+		 */
+		String resident_names_create = SQL_Schema.getRESIDENT_NAMES();
+
+		try {
+
+			Statement s = cntx.createStatement();
+			s.executeUpdate(resident_names_create);
+			TownyMessaging.sendDebugMsg("Table RESIDENT_NAMES is ok!");
+
+		} catch (SQLException ee) {
+
+			TownyMessaging.sendErrorMsg("Error Creating table RESIDENT_NAMES :" + ee.getMessage());
+
+		}
+
+		try {
+
+			Statement s = cntx.createStatement();
+			s.executeUpdate("CREATE INDEX " + tb_prefix + "RESIDENT_NAMES_UUID ON " + tb_prefix + "RESIDENT_NAMES (`uuid`)");
+
+		} catch (SQLException ignored) {
+			// The index already exists.
+		}
+
 		/*
          *  Fetch TOWNBLOCKS Table schema.
 		 */
@@ -11,6 +11,8 @@ public class SQL_Task {
 	public final String tb_name;
 	public final HashMap<String, Object> args;
 	public final List<String> keys;
+	// Full set of columns to INSERT if an UPDATE of only some columns finds no row.
+	public final HashMap<String, Object> insertArgs;
 
 	/**
 	 * Constructor for a Delete task
@@ -33,16 +35,37 @@ public class SQL_Task {
 	 */
 	public SQL_Task(String tb_name, HashMap<String, Object> args, List<String> keys) {
 
-		this(true, tb_name, args, keys);
+		this(true, tb_name, args, keys, args);
+
+	}
+
+	/**
+	 * Constructor for an UPDATE task which only writes some columns.
+	 * 
+	 * @param tb_name - Table Name.
+	 * @param args - Changed columns and keys.
+	 * @param keys - Keys to add to table.
+	 * @param insertArgs - Every column, used if the row has to be inserted.
+	 */
+	public SQL_Task(String tb_name, HashMap<String, Object> args, List<String> keys, HashMap<String, Object> insertArgs) {
+
+		this(true, tb_name, args, keys, insertArgs);
 
 	}
 
 	private SQL_Task(boolean update, String tb_name, HashMap<String, Object> args, List<String> keys) {
 
+		this(update, tb_name, args, keys, args);
+
+	}
+
+	private SQL_Task(boolean update, String tb_name, HashMap<String, Object> args, List<String> keys, HashMap<String, Object> insertArgs) {
+
 		this.update = update;
 		this.tb_name = tb_name;
 		this.args = args;
 		this.keys = keys;
+		this.insertArgs = insertArgs;
 
 	}
 
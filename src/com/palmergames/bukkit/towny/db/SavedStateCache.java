@@ -0,0 +1,191 @@
+package com.palmergames.bukkit.towny.db;
+
+import java.math.BigDecimal;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Remembers what was last saved for each object, so that a data source
+ * can skip saves which would not change anything, or only write the
+ * fields which did change.
+ *
+ * Entries are keyed by whatever uniquely identifies the saved object
+ * in its data source (a filename, or a table and primary key.) Only
+ * 64 bit hashes of the saved values are kept, not the values themselves.
+ * Entries are primed with what was read when the object was loaded, so
+ * the first save after a load is compared against the stored data too.
+ */
+public class SavedStateCache {
+
+	private static final long FNV_OFFSET = 0xcbf29ce484222325L;
+	private static final long FNV_PRIME = 0x100000001b3L;
+
+	private final Map<String, Object> saved = new ConcurrentHashMap<>();
+	// Every row of a table has the same columns, so the sorted column names are shared between entries.
+	private final Map<List<String>, String[]> layouts = new ConcurrentHashMap<>();
+
+	/**
+	 * Hashes of each field of a saved row, in the order of the field names.
+	 */
+	private static class FieldHashes {
+		private final String[] names;
+		private final long[] hashes;
+
+		private FieldHashes(String[] names, long[] hashes) {
+			this.names = names;
+			this.hashes = hashes;
+		}
+
+		private long get(String name) {
+			int index = Arrays.binarySearch(names, name.toLowerCase());
+			return index < 0 ? 0 : hashes[index];
+		}
+
+		private boolean has(String name) {
+			return Arrays.binarySearch(names, name.toLowerCase()) >= 0;
+		}
+	}
+
+	/**
+	 * Checks whether the lines about to be written differ from
+	 * those last written, and remembers them if they do.
+	 *
+	 * @param key - Key of the saved object.
+	 * @param lines - Lines which would be written.
+	 * @return true if the lines need to be written.
+	 */
+	public boolean hasChanged(String key, List<String> lines) {
+		long hash = 0;
+		for (String line : lines) {
+			line = line.trim();
+			if (line.isEmpty() || line.startsWith("#") || line.startsWith("!"))
+				continue;
+
+			int split = 0;
+			while (split < line.length() && "=: \t".indexOf(line.charAt(split)) < 0)
+				split++;
+			String value = line.substring(split).trim();
+			if (!value.isEmpty() && (value.charAt(0) == '=' || value.charAt(0) == ':'))
+				value = value.substring(1).trim();
+			hash += hashEntry(line.substring(0, split), value);
+		}
+
+		Object previous = saved.put(key, hash);
+		return !Long.valueOf(hash).equals(previous);
+	}
+
+	/**
+	 * Remember the contents of a file as it was read, so an unchanged
+	 * object is not written back on its first save.
+	 *
+	 * @param key - Key of the saved object.
+	 * @param values - Keys and values read from the file.
+	 */
+	public void primeLines(String key, Map<String, String> values) {
+		long hash = 0;
+		for (Map.Entry<String, String> entry : values.entrySet())
+			hash += hashEntry(entry.getKey().trim(), entry.getValue().trim());
+		saved.put(key, hash);
+	}
+
+	/**
+	 * Works out which fields differ from those last saved, and remembers
+	 * the new values.
+	 *
+	 * @param key - Key of the saved object.
+	 * @param fields - Every field of the object.
+	 * @param keyFields - Fields which identify the object, always included.
+	 * @return the fields to write, the full map if nothing was saved before, or null if nothing changed.
+	 */
+	public HashMap<String, Object> getChangedFields(String key, HashMap<String, Object> fields, List<String> keyFields) {
+		Object previous = saved.put(key, hashFields(fields));
+		if (!(previous instanceof FieldHashes))
+			return fields;
+
+		FieldHashes before = (FieldHashes) previous;
+		HashMap<String, Object> changed = new HashMap<>();
+		for (Map.Entry<String, Object> entry : fields.entrySet())
+			if (!before.has(entry.getKey()) || before.get(entry.getKey()) != hash(canonical(entry.getValue())))
+				changed.put(entry.getKey(), entry.getValue());
+
+		if (changed.isEmpty())
+			return null;
+
+		for (String keyField : keyFields)
+			changed.put(keyField, fields.get(keyField));
+		return changed;
+	}
+
+	/**
+	 * Remember the columns of a row as it was read, so an unchanged
+	 * object is not written back on its first save.
+	 *
+	 * @param key - Key of the saved object.
+	 * @param fields - Columns read from the row.
+	 */
+	public void primeFields(String key, Map<String, Object> fields) {
+		saved.put(key, hashFields(fields));
+	}
+
+	/**
+	 * Forget what was saved for an object, so the next save writes everything.
+	 *
+	 * @param key - Key of the saved object.
+	 */
+	public void forget(String key) {
+		saved.remove(key);
+	}
+
+	public void clear() {
+		saved.clear();
+	}
+
+	private FieldHashes hashFields(Map<String, Object> fields) {
+		String[] names = new String[fields.size()];
+		int i = 0;
+		for (String name : fields.keySet())
+			names[i++] = name.toLowerCase();
+		Arrays.sort(names);
+		names = layouts.computeIfAbsent(Arrays.asList(names), list -> list.toArray(new String[0]));
+
+		long[] hashes = new long[names.length];
+		for (Map.Entry<String, Object> entry : fields.entrySet())
+			hashes[Arrays.binarySearch(names, entry.getKey().toLowerCase())] = hash(canonical(entry.getValue()));
+		return new FieldHashes(names, hashes);
+	}
+
+	/**
+	 * The same value may be written as one type and read back as another,
+	 * ie: a boolean read back as a number, or a double read back as a float.
+	 */
+	private static String canonical(Object value) {
+		if (value == null)
+			return "";
+		if (value instanceof Boolean)
+			return (Boolean) value ? "1" : "0";
+		if (value instanceof BigDecimal && ((BigDecimal) value).signum() != 0
+				&& ((BigDecimal) value).stripTrailingZeros().scale() <= 0)
+			return ((BigDecimal) value).toBigInteger().toString();
+		if (value instanceof Float || value instanceof Double || value instanceof BigDecimal) {
+			float f = ((Number) value).floatValue();
+			return f == Math.rint(f) && !Float.isInfinite(f) ? String.valueOf((long) f) : String.valueOf(f);
+		}
+		return value.toString();
+	}
+
+	private static long hashEntry(String name, String value) {
+		return hash(name + '\u0000' + value);
+	}
+
+	private static long hash(String value) {
+		long hash = FNV_OFFSET;
+		for (int i = 0; i < value.length(); i++) {
+			hash ^= value.charAt(i);
+			hash *= FNV_PRIME;
+		}
+		return hash;
+	}
+}
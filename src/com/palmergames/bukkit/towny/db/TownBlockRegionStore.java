@@ -0,0 +1,442 @@
+package com.palmergames.bukkit.towny.db;
+
+import com.palmergames.bukkit.towny.TownyMessaging;
+import com.palmergames.util.FileMgmt;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Packs the flatfile townblocks of a world into region files, each of
+ * which holds the townblocks of a 32x32 area of cells, instead of
+ * keeping a file per townblock.
+ *
+ * A region file starts with a header and an offset table giving the
+ * offset and length of every cell's record, followed by the records.
+ * Saving a townblock only rewrites its own region, and loading reads
+ * each region file in one go.
+ *
+ * Region files are kept in towny\data\townblocks\worldname\regions\.
+ */
+public class TownBlockRegionStore {
+
+	public static final int REGION_SHIFT = 5;
+	public static final int REGION_SIZE = 1 << REGION_SHIFT;
+	private static final int CELLS = REGION_SIZE * REGION_SIZE;
+
+	private static final int MAGIC = 0x54424C52; // "TBLR"
+	private static final int VERSION = 1;
+	private static final int HEADER_SIZE = 8 + CELLS * 8;
+
+	private static final int OUTPOST = 1;
+	private static final int CHANGED = 2;
+	private static final int LOCKED = 4;
+
+	// Marks a cell whose record is to be removed from its region.
+	private static final byte[] DELETED = new byte[0];
+
+	/**
+	 * Receives the records of a region as they are read.
+	 */
+	public interface RecordConsumer {
+		void accept(int x, int z, HashMap<String, String> keys);
+	}
+
+	private final File folder;
+	private final int townBlockSize;
+	private final Map<File, Map<Integer, byte[]>> pending = new HashMap<>();
+	// Regions whose changes could not be written, they are kept pending and the next change queues another flush.
+	private final Set<File> failed = new HashSet<>();
+	private final Object ioLock = new Object();
+
+	/**
+	 * @param folder - The townblocks folder.
+	 * @param townBlockSize - The town_block_size the region files are written for.
+	 */
+	public TownBlockRegionStore(File folder, int townBlockSize) {
+		this.folder = folder;
+		this.townBlockSize = townBlockSize;
+	}
+
+	public File getRegionFolder(String worldName) {
+		return new File(folder, worldName + File.separator + "regions");
+	}
+
+	public File getRegionFile(String worldName, int x, int z) {
+		return new File(getRegionFolder(worldName), "r." + (x >> REGION_SHIFT) + "." + (z >> REGION_SHIFT) + "_" + townBlockSize + ".tbr");
+	}
+
+	/**
+	 * @param worldName - Name of the world.
+	 * @param x - X of the townblock.
+	 * @param z - Z of the townblock.
+	 * @return a description of where the townblock is stored, for log messages.
+	 */
+	public String describe(String worldName, int x, int z) {
+		return getRegionFile(worldName, x, z).getPath() + " (" + x + "," + z + ")";
+	}
+
+	/**
+	 * @param worldName - Name of the world.
+	 * @return true if the world has a regions folder.
+	 */
+	public boolean hasRegions(String worldName) {
+		return getRegionFolder(worldName).isDirectory();
+	}
+
+	/**
+	 * Queue a townblock's record to be written into its region.
+	 *
+	 * @param worldName - Name of the world.
+	 * @param x - X of the townblock.
+	 * @param z - Z of the townblock.
+	 * @param keys - The townblock's keys, as they would be saved to a townblock file.
+	 * @return the region file if it needs a {@link #flush(File)} queued, or null if one is already queued.
+	 */
+	public File queueWrite(String worldName, int x, int z, Map<String, String> keys) {
+		return queue(worldName, x, z, encode(keys));
+	}
+
+	/**
+	 * Queue a townblock's record to be removed from its region.
+	 *
+	 * @param worldName - Name of the world.
+	 * @param x - X of the townblock.
+	 * @param z - Z of the townblock.
+	 * @return the region file if it needs a {@link #flush(File)} queued, or null if one is already queued.
+	 */
+	public File queueDelete(String worldName, int x, int z) {
+		return queue(worldName, x, z, DELETED);
+	}
+
+	private File queue(String worldName, int x, int z, byte[] record) {
+		File regionFile = getRegionFile(worldName, x, z);
+		synchronized (pending) {
+			Map<Integer, byte[]> changes = pending.get(regionFile);
+			boolean queued = changes != null && !failed.remove(regionFile);
+			if (!queued) {
+				changes = new HashMap<>();
+				pending.put(regionFile, changes);
+			}
+			changes.put(slot(x, z), record);
+			return queued ? null : regionFile;
+		}
+	}
+
+	/**
+	 * Writes every queued change to a region file, rewriting only that region.
+	 * Changes which could not be written stay queued, and are written along
+	 * with the next change to the region.
+	 *
+	 * @param regionFile - The region file to update.
+	 */
+	public void flush(File regionFile) {
+		synchronized (ioLock) {
+			Map<Integer, byte[]> changes;
+			synchronized (pending) {
+				changes = pending.remove(regionFile);
+				failed.remove(regionFile);
+			}
+			if (changes == null)
+				return;
+
+			try {
+				byte[][] records = regionFile.exists() ? readRegion(regionFile) : new byte[CELLS][];
+				for (Map.Entry<Integer, byte[]> change : changes.entrySet())
+					records[change.getKey()] = change.getValue() == DELETED ? null : change.getValue();
+				writeRegion(regionFile, records);
+			} catch (IOException e) {
+				TownyMessaging.sendErrorMsg("Error saving region file " + regionFile.getPath() + ": " + e.getMessage() + ", its changes will be written with the region's next save.");
+				synchronized (pending) {
+					Map<Integer, byte[]> newer = pending.get(regionFile);
+					// Changes queued since are newer, and a flush has already been queued for them.
+					if (newer != null)
+						changes.putAll(newer);
+					else
+						failed.add(regionFile);
+					pending.put(regionFile, changes);
+				}
+			}
+		}
+	}
+
+	/**
+	 * Reads every region file of a world.
+	 *
+	 * @param worldName - Name of the world.
+	 * @param consumer - Receives every townblock record.
+	 * @return the number of records read.
+	 */
+	public int readWorld(String worldName, RecordConsumer consumer) {
+		File[] regionFiles = getRegionFolder(worldName).listFiles((file) -> file.getName().endsWith("_" + townBlockSize + ".tbr"));
+		if (regionFiles == null)
+			return 0;
+
+		int total = 0;
+		for (File regionFile : regionFiles) {
+			String[] coords = regionFile.getName().split("[._]");
+			int regionX = Integer.parseInt(coords[1]) << REGION_SHIFT;
+			int regionZ = Integer.parseInt(coords[2]) << REGION_SHIFT;
+
+			byte[][] records;
+			try {
+				records = readRegion(regionFile);
+			} catch (IOException e) {
+				TownyMessaging.sendErrorMsg("Error reading region file " + regionFile.getPath() + ": " + e.getMessage());
+				continue;
+			}
+
+			for (int slot = 0; slot < CELLS; slot++) {
+				if (records[slot] == null)
+					continue;
+				try {
+					consumer.accept(regionX + (slot & (REGION_SIZE - 1)), regionZ + (slot >> REGION_SHIFT), decode(records[slot]));
+					total++;
+				} catch (IOException e) {
+					TownyMessaging.sendErrorMsg("Error reading a townblock from region file " + regionFile.getPath() + ": " + e.getMessage());
+				}
+			}
+		}
+		return total;
+	}
+
+	/**
+	 * Packs the townblock files of a world into region files. The converted
+	 * townblock files are moved into the world's converted folder.
+	 *
+	 * @param worldName - Name of the world.
+	 * @return the number of townblocks converted.
+	 * @throws IOException if a region file could not be written.
+	 */
+	public int convertFromFiles(String worldName) throws IOException {
+		File worldFolder = new File(folder, worldName);
+		File[] townBlockFiles = worldFolder.listFiles((file) -> file.getName().endsWith("_" + townBlockSize + ".data"));
+		if (townBlockFiles == null || townBlockFiles.length == 0)
+			return 0;
+
+		Map<File, byte[][]> regions = new HashMap<>();
+		for (File townBlockFile : townBlockFiles) {
+			String[] coords = townBlockFile.getName().split("_");
+			int x = Integer.parseInt(coords[0]);
+			int z = Integer.parseInt(coords[1]);
+			regions.computeIfAbsent(getRegionFile(worldName, x, z), (file) -> new byte[CELLS][])[slot(x, z)] = encode(FileMgmt.loadFileIntoHashMap(townBlockFile));
+		}
+
+		for (Map.Entry<File, byte[][]> region : regions.entrySet())
+			writeRegion(region.getKey(), region.getValue());
+
+		FileMgmt.checkOrCreateFolder(worldFolder.getPath() + File.separator + "converted");
+		for (File townBlockFile : townBlockFiles)
+			FileMgmt.moveFile(townBlockFile, "converted");
+
+		return townBlockFiles.length;
+	}
+
+	/**
+	 * Unpacks the region files of a world back into townblock files. The
+	 * regions folder is renamed out of the way afterwards.
+	 *
+	 * @param worldName - Name of the world.
+	 * @return the number of townblocks converted.
+	 */
+	public int convertToFiles(String worldName) {
+		File worldFolder = new File(folder, worldName);
+		int total = readWorld(worldName, (x, z, keys) -> {
+			List<String> lines = new ArrayList<>();
+			for (Map.Entry<String, String> key : keys.entrySet())
+				lines.add(key.getKey() + "=" + key.getValue());
+			FileMgmt.listToFile(lines, worldFolder.getPath() + File.separator + x + "_" + z + "_" + townBlockSize + ".data");
+		});
+
+		File regionFolder = getRegionFolder(worldName);
+		if (!regionFolder.renameTo(new File(worldFolder, "regions-converted-" + System.currentTimeMillis())))
+			TownyMessaging.sendErrorMsg("Could not move " + regionFolder.getPath() + " out of the way, remove it before switching back to region storage.");
+		return total;
+	}
+
+	private static int slot(int x, int z) {
+		return ((z & (REGION_SIZE - 1)) << REGION_SHIFT) | (x & (REGION_SIZE - 1));
+	}
+
+	/*
+	 * Region files
+	 */
+
+	private static byte[][] readRegion(File regionFile) throws IOException {
+		ByteBuffer buffer = ByteBuffer.wrap(Files.readAllBytes(regionFile.toPath()));
+		if (buffer.remaining() < HEADER_SIZE || buffer.getInt() != MAGIC)
+			throw new IOException("not a townblock region file");
+		int version = buffer.getInt();
+		if (version != VERSION)
+			throw new IOException("unsupported region file version " + version);
+
+		byte[][] records = new byte[CELLS][];
+		for (int slot = 0; slot < CELLS; slot++) {
+			int offset = buffer.getInt(8 + slot * 8);
+			int length = buffer.getInt(12 + slot * 8);
+			if (length == 0)
+				continue;
+			if (offset < HEADER_SIZE || offset + length > buffer.capacity())
+				throw new IOException("corrupt offset table");
+			records[slot] = new byte[length];
+			System.arraycopy(buffer.array(), offset, records[slot], 0, length);
+		}
+		return records;
+	}
+
+	private static void writeRegion(File regionFile, byte[][] records) throws IOException {
+		int size = HEADER_SIZE;
+		for (byte[] record : records)
+			if (record != null)
+				size += record.length;
+
+		if (size == HEADER_SIZE) {
+			// Nothing left in this region.
+			Files.deleteIfExists(regionFile.toPath());
+			return;
+		}
+
+		ByteBuffer buffer = ByteBuffer.allocate(size);
+		buffer.putInt(MAGIC);
+		buffer.putInt(VERSION);
+		int offset = HEADER_SIZE;
+		for (byte[] record : records) {
+			buffer.putInt(record == null ? 0 : offset);
+			buffer.putInt(record == null ? 0 : record.length);
+			if (record != null)
+				offset += record.length;
+		}
+		for (byte[] record : records)
+			if (record != null)
+				buffer.put(record);
+
+		// Write next to the region and swap it in, so a crash never leaves half a region behind.
+		FileMgmt.checkOrCreateFolder(regionFile.getParent());
+		File temp = new File(regionFile.getPath() + ".tmp");
+		Files.write(temp.toPath(), buffer.array());
+		try {
+			Files.move(temp.toPath(), regionFile.toPath(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+		} catch (AtomicMoveNotSupportedException e) {
+			Files.move(temp.toPath(), regionFile.toPath(), StandardCopyOption.REPLACE_EXISTING);
+		}
+	}
+
+	/*
+	 * Records
+	 */
+
+	private static byte[] encode(Map<String, String> keys) {
+		ByteArrayOutputStream bytes = new ByteArrayOutputStream(64);
+		try (DataOutputStream out = new DataOutputStream(bytes)) {
+			int flags = 0;
+			if (Boolean.parseBoolean(keys.get("outpost")))
+				flags |= OUTPOST;
+			if (Boolean.parseBoolean(keys.get("changed")))
+				flags |= CHANGED;
+			if (Boolean.parseBoolean(keys.get("locked")))
+				flags |= LOCKED;
+			out.writeByte(flags);
+			writeVarInt(out, parseInt(keys.get("type")));
+			out.writeDouble(parseDouble(keys.get("price")));
+			writeString(out, keys.get("town"));
+			writeString(out, keys.get("name"));
+			writeString(out, keys.get("resident"));
+			writeString(out, keys.get("permissions"));
+			writeString(out, keys.get("metadata"));
+			writeString(out, keys.get("groupID"));
+		} catch (IOException ignored) {
+			// Writing to a byte array can not fail.
+		}
+		return bytes.toByteArray();
+	}
+
+	private static HashMap<String, String> decode(byte[] record) throws IOException {
+		HashMap<String, String> keys = new HashMap<>();
+		try (DataInputStream in = new DataInputStream(new ByteArrayInputStream(record))) {
+			int flags = in.readUnsignedByte();
+			keys.put("outpost", String.valueOf((flags & OUTPOST) != 0));
+			keys.put("changed", String.valueOf((flags & CHANGED) != 0));
+			keys.put("locked", String.valueOf((flags & LOCKED) != 0));
+			keys.put("type", String.valueOf(readVarInt(in)));
+			keys.put("price", String.valueOf(in.readDouble()));
+			keys.put("town", readString(in));
+			keys.put("name", readString(in));
+			putIfNotEmpty(keys, "resident", readString(in));
+			putIfNotEmpty(keys, "permissions", readString(in));
+			keys.put("metadata", readString(in));
+			keys.put("groupID", readString(in));
+		}
+		return keys;
+	}
+
+	private static void putIfNotEmpty(Map<String, String> keys, String key, String value) {
+		if (!value.isEmpty())
+			keys.put(key, value);
+	}
+
+	private static int parseInt(String value) {
+		try {
+			return value == null ? 0 : Integer.parseInt(value.trim());
+		} catch (NumberFormatException e) {
+			return 0;
+		}
+	}
+
+	private static double parseDouble(String value) {
+		try {
+			return value == null ? 0 : Double.parseDouble(value.trim());
+		} catch (NumberFormatException e) {
+			return 0;
+		}
+	}
+
+	private static void writeString(DataOutputStream out, String value) throws IOException {
+		byte[] bytes = value == null ? new byte[0] : value.getBytes(StandardCharsets.UTF_8);
+		writeVarInt(out, bytes.length);
+		out.write(bytes);
+	}
+
+	private static String readString(DataInputStream in) throws IOException {
+		byte[] bytes = new byte[readVarInt(in)];
+		in.readFully(bytes);
+		return new String(bytes, StandardCharsets.UTF_8);
+	}
+
+	private static void writeVarInt(OutputStream out, int value) throws IOException {
+		while ((value & ~0x7F) != 0) {
+			out.write((value & 0x7F) | 0x80);
+			value >>>= 7;
+		}
+		out.write(value);
+	}
+
+	private static int readVarInt(InputStream in) throws IOException {
+		int value = 0;
+		for (int shift = 0; shift < 35; shift += 7) {
+			int b = in.read();
+			if (b < 0)
+				throw new IOException("truncated record");
+			value |= (b & 0x7F) << shift;
+			if ((b & 0x80) == 0)
+				return value;
+		}
+		throw new IOException("malformed record");
+	}
+}
@@ -3,6 +3,7 @@ package com.palmergames.bukkit.towny.db;
 import com.palmergames.bukkit.towny.Towny;
 import com.palmergames.bukkit.towny.TownyMessaging;
 import com.palmergames.bukkit.towny.TownySettings;
+import com.palmergames.bukkit.towny.TownyTimings;
 import com.palmergames.bukkit.towny.TownyUniverse;
 import com.palmergames.bukkit.towny.exceptions.AlreadyRegisteredException;
 import com.palmergames.bukkit.towny.exceptions.NotRegisteredException;
@@ -19,6 +20,7 @@ import org.bukkit.entity.Player;
 
 import java.io.IOException;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.List;
 import java.util.Set;
 import java.util.UUID;
@@ -55,7 +57,21 @@ public abstract class TownyDataSource {
 
 	public boolean loadAll() {
 
-		return loadWorldList() && loadNationList() && loadTownList() && loadPlotGroupList() && loadResidentList() && loadTownBlockList() && loadWorlds() && loadResidents() && loadTowns() && loadNations() && loadTownBlocks() && loadPlotGroups() && loadRegenList() && loadSnapshotList();
+		TownyTimings.clearLoadTimings();
+		return TownyTimings.timeLoad("loadWorldList", this::loadWorldList)
+			&& TownyTimings.timeLoad("loadNationList", this::loadNationList)
+			&& TownyTimings.timeLoad("loadTownList", this::loadTownList)
+			&& TownyTimings.timeLoad("loadPlotGroupList", this::loadPlotGroupList)
+			&& TownyTimings.timeLoad("loadResidentList", this::loadResidentList)
+			&& TownyTimings.timeLoad("loadTownBlockList", this::loadTownBlockList)
+			&& TownyTimings.timeLoad("loadWorlds", this::loadWorlds)
+			&& TownyTimings.timeLoad("loadResidents", this::loadResidents)
+			&& TownyTimings.timeLoad("loadTowns", this::loadTowns)
+			&& TownyTimings.timeLoad("loadNations", this::loadNations)
+			&& TownyTimings.timeLoad("loadTownBlocks", this::loadTownBlocks)
+			&& TownyTimings.timeLoad("loadPlotGroups", this::loadPlotGroups)
+			&& TownyTimings.timeLoad("loadRegenList", this::loadRegenList)
+			&& TownyTimings.timeLoad("loadSnapshotList", this::loadSnapshotList);
 	}
 
 	public boolean saveAll() {
@@ -75,6 +91,11 @@ public abstract class TownyDataSource {
 
 	abstract public void finishTasks();
 
+	/**
+	 * @return the number of saves and deletes waiting to be written to the database.
+	 */
+	abstract public int getQueueSize();
+
 	abstract public boolean loadTownBlockList();
 
 	abstract public boolean loadResidentList();
@@ -258,6 +279,47 @@ public abstract class TownyDataSource {
 		return true;
 	}
 
+	/**
+	 * Finds the residents which a database loading residents lazily has not
+	 * loaded, and which have not been online since the given time. They are
+	 * read straight from the database without being registered, only their
+	 * name, UUID, registration and last online time are filled in.
+	 * May be called off the main thread.
+	 * 
+	 * @param lastOnlineBefore the time, in ms, residents must not have been online since.
+	 * @param townless only find residents without a town.
+	 * @return the residents, empty when every resident is loaded.
+	 */
+	public List<Resident> getOldUnloadedResidents(long lastOnlineBefore, boolean townless) {
+
+		return Collections.emptyList();
+	}
+
+	/**
+	 * Removes residents found by {@link #getOldUnloadedResidents(long, boolean)}
+	 * without loading them. Residents which have been loaded since are skipped,
+	 * they have to be removed with {@link #removeResidents(Collection)}. So are
+	 * residents which the database shows have been online since, or have joined
+	 * a town when only townless residents are removed.
+	 * 
+	 * @param residents Residents to remove.
+	 * @param lastOnlineBefore the time, in ms, residents must not have been online since.
+	 * @param townless only remove residents without a town.
+	 * @return the number of residents which were removed.
+	 */
+	public int removeUnloadedResidents(Collection<Resident> residents, long lastOnlineBefore, boolean townless) {
+
+		return 0;
+	}
+
+	/**
+	 * @return the number of residents, including those which are not loaded.
+	 */
+	public int getResidentCount() {
+
+		return getResidents().size();
+	}
+
 	// Database functions
 	abstract public List<Resident> getResidents(Player player, String[] names);
 
@@ -269,6 +331,14 @@ public abstract class TownyDataSource {
 
 	abstract public Resident getResident(String name) throws NotRegisteredException;
 
+	abstract public Resident getResident(UUID uuid) throws NotRegisteredException;
+
+	/**
+	 * @param prefix the start of the names to look for.
+	 * @return the names of residents starting with the prefix, used for tab completion.
+	 */
+	abstract public List<String> getResidentNamesStartingWith(String prefix);
+
 	abstract public void removeNation(Nation nation);
 
 	abstract public boolean hasResident(String name);
@@ -320,6 +390,32 @@ public abstract class TownyDataSource {
 
 	abstract public void removeResident(Resident resident);
 
+	/**
+	 * Removes many residents at once, saving each town or resident which
+	 * referred to them only once.
+	 * 
+	 * @param residents Residents to remove.
+	 */
+	abstract public void removeResidents(Collection<Resident> residents);
+
+	/**
+	 * Looks up which towns and residents refer to each resident, so that
+	 * many calls to {@link #removeResidents(Collection, ResidentReferences)}
+	 * do not each have to go through every town and resident.
+	 * 
+	 * @return the references between currently loaded towns and residents.
+	 */
+	abstract public ResidentReferences getResidentReferences();
+
+	/**
+	 * Removes many residents at once, using references which were looked up earlier.
+	 * 
+	 * @param residents Residents to remove.
+	 * @param references References from {@link #getResidentReferences()}, updated as residents are removed.
+	 * @return the number of residents which were removed, residents which were already removed are skipped.
+	 */
+	abstract public int removeResidents(Collection<Resident> residents, ResidentReferences references);
+
 	abstract public void removeTownBlock(TownBlock townBlock);
 
 	abstract public void removeTownBlocks(Town town);
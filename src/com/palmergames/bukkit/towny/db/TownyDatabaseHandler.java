@@ -56,8 +56,11 @@ import java.nio.charset.StandardCharsets;
 import java.text.SimpleDateFormat;
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.ConcurrentModificationException;
+import java.util.HashSet;
 import java.util.Iterator;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Queue;
@@ -79,6 +82,7 @@ public abstract class TownyDatabaseHandler extends TownyDataSource {
 	final String backupFolderPath;
 	
 	protected final Queue<Runnable> queryQueue = new ConcurrentLinkedQueue<>();
+	protected final SavedStateCache savedStates = new SavedStateCache();
 	private final BukkitTask task;
 	
 	public TownyDatabaseHandler(Towny plugin, TownyUniverse universe) {
@@ -112,6 +116,12 @@ public abstract class TownyDatabaseHandler extends TownyDataSource {
 		}, 5L, 5L);
 	}
 	
+	@Override
+	public int getQueueSize() {
+		
+		return queryQueue.size();
+	}
+	
 	@Override
 	public void finishTasks() {
 		
@@ -371,6 +381,22 @@ public abstract class TownyDatabaseHandler extends TownyDataSource {
 
 	}
 
+	@Override
+	public Resident getResident(UUID uuid) throws NotRegisteredException {
+
+		for (Resident resident : universe.getResidentMap().values())
+			if (resident.hasUUID() && resident.getUUID().equals(uuid))
+				return resident;
+
+		throw new NotRegisteredException(String.format("The resident with uuid '%s' is not registered.", uuid));
+	}
+
+	@Override
+	public List<String> getResidentNamesStartingWith(String prefix) {
+
+		return universe.getResidentsTrie().getStringsFromKey(prefix);
+	}
+
 	@Override
 	public List<Resident> getResidentsWithoutTown() {
 
@@ -568,51 +594,125 @@ public abstract class TownyDatabaseHandler extends TownyDataSource {
 	
 	@Override
 	public void removeResident(Resident resident) {
+		
+		removeResidents(Collections.singletonList(resident));
+	}
 
-		// Remove resident from towns' outlawlists.
-		for (Town townOutlaw : getTowns()) {
-			if (townOutlaw.hasOutlaw(resident)) {
-				townOutlaw.removeOutlaw(resident);
-				saveTown(townOutlaw);
+	@Override
+	public void removeResidents(Collection<Resident> residents) {
+
+		removeResidents(residents, getResidentReferences());
+	}
+
+	@Override
+	public ResidentReferences getResidentReferences() {
+
+		return new ResidentReferences(getTowns(), new ArrayList<>(universe.getResidentMap().values()));
+	}
+
+	@Override
+	public int removeResidents(Collection<Resident> residents, ResidentReferences references) {
+
+		// Residents which were already removed are skipped.
+		List<Resident> removing = new ArrayList<>();
+		Set<String> removingNames = new HashSet<>();
+		for (Resident resident : residents)
+			if (universe.getResidentMap().get(resident.getName().toLowerCase()) == resident && removingNames.add(resident.getName().toLowerCase()))
+				removing.add(resident);
+
+		Set<Town> outlawTowns = new LinkedHashSet<>();
+		Set<Resident> befrienders = new LinkedHashSet<>();
+		for (Resident resident : removing) {
+			for (String townName : references.getOutlawedBy(resident)) {
+				Town town = universe.getTown(townName);
+				if (town != null)
+					outlawTowns.add(town);
+			}
+			for (String residentName : references.getBefriendedBy(resident)) {
+				Resident befriender = universe.getResidentMap().get(residentName.toLowerCase());
+				if (befriender != null && !removingNames.contains(residentName.toLowerCase()))
+					befrienders.add(befriender);
 			}
 		}
 
-		// Remove resident from residents' friendslists.
-		List<Resident> toSave = new ArrayList<>();
-		for (Resident toCheck : universe.getResidentMap().values()) {		
-			TownyMessaging.sendDebugMsg("Checking friends of: " + toCheck.getName());
-			if (toCheck.hasFriend(resident)) {
-				TownyMessaging.sendDebugMsg("       - Removing Friend: " + resident.getName());
-				toCheck.removeFriend(resident);
-				toSave.add(toCheck);
+		// Remove residents from towns' outlawlists, saving each town once.
+		for (Town townOutlaw : outlawTowns) {
+			boolean changed = false;
+			for (Resident outlaw : new ArrayList<>(townOutlaw.getOutlaws())) {
+				if (removingNames.contains(outlaw.getName().toLowerCase())) {
+					townOutlaw.removeOutlaw(outlaw);
+					changed = true;
+				}
 			}
+			if (changed)
+				saveTown(townOutlaw);
 		}
-		for (Resident toCheck : toSave)
-			saveResident(toCheck);
-		
-		Town town = null;
 
-		if (resident.hasTown())
-			try {
-				town = resident.getTown();
-			} catch (NotRegisteredException e1) {
-				e1.printStackTrace();
+		// Remove residents from residents' friendslists, saving each resident once.
+		for (Resident toCheck : befrienders) {
+			boolean changed = false;
+			for (Resident friend : toCheck.getFriends()) {
+				if (removingNames.contains(friend.getName().toLowerCase())) {
+					TownyMessaging.sendDebugMsg("Removing Friend: " + friend.getName() + " from " + toCheck.getName());
+					toCheck.removeFriend(friend);
+					changed = true;
+				}
 			}
+			if (changed)
+				saveResident(toCheck);
+		}
 
-		if (town != null) {
-			resident.removeTown();
-			
-			// Delete the town if there are no more residents
-			if (town.getNumResidents() == 0) {
-				TownyUniverse.getInstance().getDataSource().removeTown(town);
+		// Towns are only deleted once all of their removed residents are gone.
+		Set<Town> emptiedTowns = new LinkedHashSet<>();
+		for (Resident resident : removing) {
+			Town town = null;
+
+			if (resident.hasTown())
+				try {
+					town = resident.getTown();
+				} catch (NotRegisteredException e1) {
+					e1.printStackTrace();
+				}
+
+			if (town != null) {
+				resident.removeTown();
+
+				if (town.getNumResidents() == 0)
+					emptiedTowns.add(town);
 			}
+
+			removeResidentRecord(resident);
+			references.forget(resident);
 		}
 
+		// Delete the towns which have no more residents.
+		for (Town town : emptiedTowns)
+			removeTown(town);
+
+		return removing.size();
+	}
+
+	/*
+	 * Removes a single resident's own data, once nothing refers to it anymore.
+	 */
+	private void removeResidentRecord(Resident resident) {
+
 		// Delete the residents file.
 		deleteResident(resident);
 		// Remove the residents record from memory.
 		universe.getResidentMap().remove(resident.getName().toLowerCase());
 		universe.getResidentsTrie().removeKey(resident.getName());
+		universe.removeOnlineResident(resident);
+
+		residentDeleted(resident);
+	}
+
+	/**
+	 * Clears what is kept outside of the database about a resident whose data has been deleted.
+	 * 
+	 * @param resident The deleted resident.
+	 */
+	protected void residentDeleted(Resident resident) {
 
 		// Clear accounts
 		if (TownySettings.isUsingEconomy() && TownySettings.isDeleteEcoAccount() && TownyEconomyHandler.isActive())
@@ -33,15 +33,22 @@ import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.StringJoiner;
 import java.util.UUID;
 
 public final class TownyFlatFileSource extends TownyDatabaseHandler {
 
 	private final String newLine = System.getProperty("line.separator");
+	private final TownBlockRegionStore regionStore;
+	private final boolean townBlockRegions;
+	// Townblock records read by loadTownBlockList, waiting for loadTownBlocks.
+	private final Map<TownBlock, HashMap<String, String>> regionRecords = new HashMap<>();
 	
 	public TownyFlatFileSource(Towny plugin, TownyUniverse universe) {
 		super(plugin, universe);
+		regionStore = new TownBlockRegionStore(new File(dataFolderPath + File.separator + "townblocks"), TownySettings.getTownBlockSize());
+		townBlockRegions = TownySettings.isFlatFileTownBlockRegions();
 		// Create files and folders if non-existent
 		if (!FileMgmt.checkOrCreateFolders(
 			rootFolderPath,
@@ -130,6 +137,29 @@ public final class TownyFlatFileSource extends TownyDatabaseHandler {
 					newWorld(worldName);
 					world = getWorld(worldName);
 				}
+
+				if (townBlockRegions) {
+					// Pack any townblock files left from before region storage was enabled.
+					if (!regionStore.hasRegions(worldName)) {
+						int converted = regionStore.convertFromFiles(worldName);
+						if (converted > 0)
+							TownyMessaging.sendMsg("World: " + worldName + " packed " + converted + " townblock files into region files, the old files were moved to the converted folder.");
+					}
+
+					final TownyWorld regionWorld = world;
+					int total = regionStore.readWorld(worldName, (x, z, keys) -> {
+						TownBlock townBlock = new TownBlock(x, z, regionWorld);
+						TownyUniverse.getInstance().addTownBlock(townBlock);
+						regionRecords.put(townBlock, keys);
+					});
+					TownyMessaging.sendDebugMsg("World: " + worldName + " loaded " + total + " townblocks.");
+					continue;
+				}
+
+				// Unpack region files left from when region storage was enabled.
+				if (regionStore.hasRegions(worldName))
+					TownyMessaging.sendMsg("World: " + worldName + " unpacked " + regionStore.convertToFiles(worldName) + " townblocks from region files.");
+
 				File worldFolder = new File(dataFolderPath + File.separator + "townblocks" + File.separator + worldName);
 				File[] townBlockFiles = worldFolder.listFiles((file)->file.getName().endsWith(".data"));
 				int total = 0;
@@ -394,6 +424,7 @@ public final class TownyFlatFileSource extends TownyDatabaseHandler {
 			TownyMessaging.sendDebugMsg("Loading Resident: " + resident.getName());
 			try {
 				HashMap<String, String> keys = FileMgmt.loadFileIntoHashMap(fileResident);
+				savedStates.primeLines(path, keys);
 				
 				resident.setLastOnline(Long.parseLong(keys.get("lastOnline")));
 				
@@ -498,6 +529,7 @@ public final class TownyFlatFileSource extends TownyDatabaseHandler {
 			TownyMessaging.sendDebugMsg("Loading Town: " + town.getName());
 			try {
 				HashMap<String, String> keys = FileMgmt.loadFileIntoHashMap(fileTown);
+				savedStates.primeLines(path, keys);
 
 				line = keys.get("mayor");
 				if (line != null)
@@ -829,6 +861,7 @@ public final class TownyFlatFileSource extends TownyDatabaseHandler {
 			TownyMessaging.sendDebugMsg("Loading Nation: " + nation.getName());
 			try {
 				HashMap<String, String> keys = FileMgmt.loadFileIntoHashMap(fileNation);
+				savedStates.primeLines(path, keys);
 				
 				line = keys.get("capital");
 				if (line != null) {
@@ -1344,13 +1377,13 @@ public final class TownyFlatFileSource extends TownyDatabaseHandler {
 		
 
 		for (TownBlock townBlock : getAllTownBlocks()) {
-			path = getTownBlockFilename(townBlock);
+			path = townBlockRegions ? regionStore.describe(townBlock.getWorld().getName(), townBlock.getX(), townBlock.getZ()) : getTownBlockFilename(townBlock);
 			
 			File fileTownBlock = new File(path);
-			if (fileTownBlock.exists() && fileTownBlock.isFile()) {
+			if (townBlockRegions ? regionRecords.containsKey(townBlock) : fileTownBlock.exists() && fileTownBlock.isFile()) {
 
 				try {
-					HashMap<String, String> keys = FileMgmt.loadFileIntoHashMap(fileTownBlock);			
+					HashMap<String, String> keys = townBlockRegions ? regionRecords.remove(townBlock) : FileMgmt.loadFileIntoHashMap(fileTownBlock);			
 
 					line = keys.get("town");
 					if (line != null) {
@@ -1468,6 +1501,7 @@ public final class TownyFlatFileSource extends TownyDatabaseHandler {
 				deleteTownBlock(townBlock);
 			}
 		}
+		regionRecords.clear();
 		
 		return true;
 	}
@@ -1562,7 +1596,8 @@ public final class TownyFlatFileSource extends TownyDatabaseHandler {
 		/*
 		 *  Make sure we only save in async
 		 */
-		this.queryQueue.add(new FlatFileSaveTask(list, getResidentFilename(resident)));
+		if (savedStates.hasChanged(getResidentFilename(resident), list))
+			this.queryQueue.add(new FlatFileSaveTask(list, getResidentFilename(resident)));
 
 		return true;
 
@@ -1675,7 +1710,8 @@ public final class TownyFlatFileSource extends TownyDatabaseHandler {
 		/*
 		 *  Make sure we only save in async
 		 */
-		this.queryQueue.add(new FlatFileSaveTask(list, getTownFilename(town)));
+		if (savedStates.hasChanged(getTownFilename(town), list))
+			this.queryQueue.add(new FlatFileSaveTask(list, getTownFilename(town)));
 
 		return true;
 
@@ -1753,7 +1789,8 @@ public final class TownyFlatFileSource extends TownyDatabaseHandler {
 		/*
 		 *  Make sure we only save in async
 		 */
-		this.queryQueue.add(new FlatFileSaveTask(list, getNationFilename(nation)));
+		if (savedStates.hasChanged(getNationFilename(nation), list))
+			this.queryQueue.add(new FlatFileSaveTask(list, getNationFilename(nation)));
 
 		return true;
 
@@ -1902,7 +1939,8 @@ public final class TownyFlatFileSource extends TownyDatabaseHandler {
 	@Override
 	public boolean saveTownBlock(TownBlock townBlock) {
 
-		FileMgmt.checkOrCreateFolder(dataFolderPath + File.separator + "townblocks" + File.separator + townBlock.getWorld().getName());
+		if (!townBlockRegions)
+			FileMgmt.checkOrCreateFolder(dataFolderPath + File.separator + "townblocks" + File.separator + townBlock.getWorld().getName());
 
 		List<String> list = new ArrayList<>();
 
@@ -1963,12 +2001,29 @@ public final class TownyFlatFileSource extends TownyDatabaseHandler {
 		/*
 		 *  Make sure we only save in async
 		 */
-		this.queryQueue.add(new FlatFileSaveTask(list, getTownBlockFilename(townBlock)));
+		if (townBlockRegions) {
+			HashMap<String, String> keys = new HashMap<>();
+			for (String line : list) {
+				int split = line.indexOf('=');
+				keys.put(line.substring(0, split), line.substring(split + 1));
+			}
+			queueRegionFlush(regionStore.queueWrite(townBlock.getWorld().getName(), townBlock.getX(), townBlock.getZ(), keys));
+		} else
+			this.queryQueue.add(new FlatFileSaveTask(list, getTownBlockFilename(townBlock)));
 
 		return true;
 
 	}
 
+	/*
+	 * Many saves to one region between two runs of the queue are written with one rewrite.
+	 */
+	private void queueRegionFlush(File regionFile) {
+		if (regionFile != null)
+			this.queryQueue.add(() -> regionStore.flush(regionFile));
+
+	}
+
 	private String serializeMetadata(TownyObject obj) {
 		if (!obj.hasMeta())
 			return "";
@@ -1987,18 +2042,21 @@ public final class TownyFlatFileSource extends TownyDatabaseHandler {
 	
 	@Override
 	public void deleteResident(Resident resident) {
+		savedStates.forget(getResidentFilename(resident));
 		File file = new File(getResidentFilename(resident));
 		queryQueue.add(new DeleteFileTask(file, false));
 	}
 
 	@Override
 	public void deleteTown(Town town) {
+		savedStates.forget(getTownFilename(town));
 		File file = new File(getTownFilename(town));
 		queryQueue.add(new DeleteFileTask(file, false));
 	}
 
 	@Override
 	public void deleteNation(Nation nation) {
+		savedStates.forget(getNationFilename(nation));
 		File file = new File(getNationFilename(nation));
 		queryQueue.add(new DeleteFileTask(file, false));
 	}
@@ -2012,6 +2070,11 @@ public final class TownyFlatFileSource extends TownyDatabaseHandler {
 	@Override
 	public void deleteTownBlock(TownBlock townBlock) {
 
+		if (townBlockRegions) {
+			queueRegionFlush(regionStore.queueDelete(townBlock.getWorld().getName(), townBlock.getX(), townBlock.getZ()));
+			return;
+		}
+
 		File file = new File(getTownBlockFilename(townBlock));
 		
 		queryQueue.add(() -> {
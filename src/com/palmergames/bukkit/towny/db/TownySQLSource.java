@@ -11,6 +11,7 @@ import com.palmergames.bukkit.towny.TownySettings;
 import com.palmergames.bukkit.towny.TownyUniverse;
 import com.palmergames.bukkit.towny.exceptions.AlreadyRegisteredException;
 import com.palmergames.bukkit.towny.exceptions.EmptyNationException;
+import com.palmergames.bukkit.towny.exceptions.InvalidNameException;
 import com.palmergames.bukkit.towny.exceptions.NotRegisteredException;
 import com.palmergames.bukkit.towny.exceptions.TownyException;
 import com.palmergames.bukkit.towny.object.Nation;
@@ -24,10 +25,12 @@ import com.palmergames.bukkit.towny.object.metadata.CustomDataField;
 import com.palmergames.bukkit.towny.tasks.GatherResidentUUIDTask;
 import com.palmergames.bukkit.towny.utils.MapUtil;
 import com.palmergames.bukkit.util.BukkitTools;
+import com.palmergames.bukkit.util.NameValidation;
 import com.palmergames.util.FileMgmt;
 import com.palmergames.util.StringMgmt;
 import org.bukkit.Location;
 import org.bukkit.World;
+import org.bukkit.entity.Player;
 import org.bukkit.scheduler.BukkitTask;
 
 import java.io.File;
@@ -36,17 +39,22 @@ import java.sql.Driver;
 import java.sql.DriverManager;
 import java.sql.PreparedStatement;
 import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
 import java.sql.SQLException;
 import java.sql.Statement;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collection;
 import java.util.Collections;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Queue;
 import java.util.Set;
+import java.util.TreeSet;
 import java.util.UUID;
 import java.util.concurrent.ConcurrentLinkedQueue;
 
@@ -64,9 +72,37 @@ public final class TownySQLSource extends TownyDatabaseHandler {
 	private Connection cntx = null;
 	private final String type;
 
+	/*
+	 * When residents are loaded lazily only the residents of towns and online
+	 * players are loaded up front, everyone else is loaded the first time
+	 * they are asked for and kept in this cache, least recently used first.
+	 */
+	private final boolean lazyResidents;
+	private final int lazyResidentCacheSize;
+	private final LinkedHashMap<String, Resident> lazyResidentCache = new LinkedHashMap<>(16, 0.75f, true);
+	/*
+	 * Names recently looked up which no resident has, so names which aren't
+	 * registered are not all looked up in the database again.
+	 */
+	private final Set<String> missingResidentNames = Collections.newSetFromMap(new LinkedHashMap<String, Boolean>(16, 0.75f, true) {
+		@Override
+		protected boolean removeEldestEntry(Map.Entry<String, Boolean> eldest) {
+			return size() > lazyResidentCacheSize;
+		}
+	});
+	/*
+	 * Friends who are not loaded are kept by name, and linked to the
+	 * residents who are waiting for them when they are loaded.
+	 */
+	private final Map<Resident, Set<String>> unloadedFriends = new HashMap<>();
+	private final Map<String, Set<Resident>> residentsAwaitingFriend = new HashMap<>();
+
 	public TownySQLSource(Towny plugin, TownyUniverse universe, String type) {
 		super(plugin, universe);
 		this.type = type;
+		// Converting into another database saves every resident, so they are all loaded.
+		this.lazyResidents = TownySettings.isSQLLazyResidentLoading() && TownySettings.getLoadDatabase().equalsIgnoreCase(TownySettings.getSaveDatabase());
+		this.lazyResidentCacheSize = Math.max(1, TownySettings.getSQLLazyResidentCacheSize());
 		if (!FileMgmt.checkOrCreateFolders(rootFolderPath, dataFolderPath,
 				dataFolderPath + File.separator + "plot-block-data")
 				|| !FileMgmt.checkOrCreateFiles(dataFolderPath + File.separator + "regen.txt",
@@ -146,7 +182,7 @@ public final class TownySQLSource extends TownyDatabaseHandler {
 				SQL_Task query = TownySQLSource.this.queryQueue.poll();
 
 				if (query.update) {
-					TownySQLSource.this.QueueUpdateDB(query.tb_name, query.args, query.keys);
+					TownySQLSource.this.QueueUpdateDB(query.tb_name, query.args, query.keys, query.insertArgs);
 				} else {
 					TownySQLSource.this.QueueDeleteDB(query.tb_name, query.args);
 				}
@@ -156,17 +192,24 @@ public final class TownySQLSource extends TownyDatabaseHandler {
 		}, 5L, 5L);
 	}
 
+	@Override
+	public int getQueueSize() {
+
+		return queryQueue.size() + super.getQueueSize();
+	}
+
 	@Override
 	public void finishTasks() {
-		// Cancel the repeating task as its not needed anymore.
-		task.cancel();
+		// Cancel the repeating task as its not needed anymore, there is none if the database could not be reached.
+		if (task != null)
+			task.cancel();
 
 		// Make sure that *all* tasks are saved before shutting down.
 		while (!queryQueue.isEmpty()) {
 			SQL_Task query = TownySQLSource.this.queryQueue.poll();
 
 			if (query.update) {
-				TownySQLSource.this.QueueUpdateDB(query.tb_name, query.args, query.keys);
+				TownySQLSource.this.QueueUpdateDB(query.tb_name, query.args, query.keys, query.insertArgs);
 			} else {
 				TownySQLSource.this.QueueDeleteDB(query.tb_name, query.args);
 			}
@@ -219,6 +262,69 @@ public final class TownySQLSource extends TownyDatabaseHandler {
 		return false;
 	}
 
+	/**
+	 * Open a further connection to the database, separate from the one used for loading and saving.
+	 *
+	 * @return the new connection.
+	 * @throws SQLException if the connection cannot be made.
+	 */
+	Connection newConnection() throws SQLException {
+
+		if ((this.username.equalsIgnoreCase("")) && (this.password.equalsIgnoreCase("")))
+			return DriverManager.getConnection(this.dsn);
+
+		return DriverManager.getConnection(this.dsn, this.username, this.password);
+	}
+
+	/**
+	 * @return the type of database: mysql, h2 or sqlite.
+	 */
+	String getType() {
+
+		return type;
+	}
+
+	/**
+	 * @return true if residents are loaded from the database only when they are needed.
+	 */
+	boolean isLoadingResidentsLazily() {
+
+		return lazyResidents;
+	}
+
+	/**
+	 * @return the prefix of every table name.
+	 */
+	String getTablePrefix() {
+
+		return tb_prefix;
+	}
+
+	/**
+	 * Set a parameter of a statement the same way for every query.
+	 *
+	 * @param stmt    - The statement.
+	 * @param index   - The index of the parameter, from 1.
+	 * @param element - The value of the parameter.
+	 * @throws SQLException if the parameter could not be set.
+	 */
+	static void setParameter(PreparedStatement stmt, int index, Object element) throws SQLException {
+
+		if (element instanceof String) {
+
+			stmt.setString(index, (String) element);
+
+		} else if (element instanceof Boolean) {
+
+			stmt.setString(index, ((Boolean) element) ? "1" : "0");
+
+		} else {
+
+			stmt.setObject(index, element.toString());
+
+		}
+	}
+
 	/**
 	 * Build the SQL string and execute to INSERT/UPDATE
 	 *
@@ -239,13 +345,65 @@ public final class TownySQLSource extends TownyDatabaseHandler {
 
 	}
 
+	/**
+	 * Queue an UPDATE of only the columns which changed since this
+	 * object was last saved. Nothing is queued when no column changed.
+	 *
+	 * @param tb_name - Database Table name.
+	 * @param args    - Every column of the row.
+	 * @param key     - The primary key column.
+	 * @return true if anything was queued.
+	 */
+	public boolean UpdateChangedDB(String tb_name, HashMap<String, Object> args, String key) {
+
+		List<String> keys = Collections.singletonList(key);
+		HashMap<String, Object> changed = savedStates.getChangedFields(tb_name + ":" + args.get(key), args, keys);
+		if (changed == null)
+			return false;
+
+		this.queryQueue.add(new SQL_Task(tb_name, changed, keys, args));
+
+		return true;
+
+	}
+
+	/**
+	 * Remember the row an object was loaded from, so saving the object
+	 * unchanged does not write the row back.
+	 *
+	 * @param tb_name - Database Table name.
+	 * @param name    - Name of the loaded object.
+	 * @param rs      - The row the object was loaded from.
+	 * @throws SQLException if the row could not be read.
+	 */
+	private void primeSavedState(String tb_name, String name, ResultSet rs) throws SQLException {
+
+		ResultSetMetaData meta = rs.getMetaData();
+		Map<String, Object> fields = new HashMap<>();
+		for (int i = 1; i <= meta.getColumnCount(); i++) {
+			Object value = rs.getObject(i);
+			fields.put(meta.getColumnLabel(i), value instanceof Number || value instanceof Boolean ? value : rs.getString(i));
+		}
+		savedStates.primeFields(tb_name + ":" + name, fields);
+
+	}
+
 	public boolean QueueUpdateDB(String tb_name, HashMap<String, Object> args, List<String> keys) {
 
+		return QueueUpdateDB(tb_name, args, keys, args);
+
+	}
+
+	public boolean QueueUpdateDB(String tb_name, HashMap<String, Object> args, List<String> keys, HashMap<String, Object> insertArgs) {
+
 		/*
 		 * Attempt to get a database connection.
 		 */
-		if (!getContext())
+		if (!getContext()) {
+			if (keys != null && keys.size() == 1)
+				savedStates.forget(tb_name + ":" + args.get(keys.get(0)));
 			return false;
+		}
 
 		StringBuilder code;
 		PreparedStatement stmt = null;
@@ -337,25 +495,8 @@ public final class TownySQLSource extends TownyDatabaseHandler {
 
 			stmt = cntx.prepareStatement(code.toString());
 
-			for (int count = 0; count < parameters.size(); count++) {
-
-				Object element = parameters.get(count);
-
-				if (element instanceof String) {
-
-					stmt.setString(count + 1, (String) element);
-
-				} else if (element instanceof Boolean) {
-
-					stmt.setString(count + 1, ((Boolean) element) ? "1" : "0");
-
-				} else {
-
-					stmt.setObject(count + 1, element.toString());
-
-				}
-
-			}
+			for (int count = 0; count < parameters.size(); count++)
+				setParameter(stmt, count + 1, parameters.get(count));
 
 			rs = stmt.executeUpdate();
 
@@ -363,6 +504,10 @@ public final class TownySQLSource extends TownyDatabaseHandler {
 
 			TownyMessaging.sendErrorMsg("SQL: " + e.getMessage() + " --> " + stmt.toString());
 
+			// The next save of this row has to write every column again.
+			if (keys != null && keys.size() == 1)
+				savedStates.forget(tb_name + ":" + args.get(keys.get(0)));
+
 		} finally {
 
 			try {
@@ -372,7 +517,7 @@ public final class TownySQLSource extends TownyDatabaseHandler {
 				}
 
 				if (rs == 0) // if entry doesn't exist then try to insert
-					return UpdateDB(tb_name, args, null);
+					return UpdateDB(tb_name, insertArgs, null);
 
 			} catch (SQLException e) {
 				TownyMessaging.sendErrorMsg("SQL closing: " + e.getMessage() + " --> " + stmt.toString());
@@ -496,6 +641,11 @@ public final class TownySQLSource extends TownyDatabaseHandler {
 		TownyMessaging.sendDebugMsg("Loading Resident List");
 		if (!getContext())
 			return false;
+
+		// The names stay in the database, only the residents which are needed get registered.
+		if (lazyResidents)
+			return updateResidentNameIndex();
+
 		try {
 			Statement s = cntx.createStatement();
 			ResultSet rs = s.executeQuery("SELECT name FROM " + tb_prefix + "RESIDENTS");
@@ -649,12 +799,19 @@ public final class TownySQLSource extends TownyDatabaseHandler {
 
 		if (!getContext())
 			return false;
+
+		String query = "SELECT * FROM " + tb_prefix + "RESIDENTS";
+		if (lazyResidents)
+			query += " WHERE `town` IS NOT NULL AND `town` <> ''";
+
 		try (Statement s = cntx.createStatement();
-				ResultSet rs = s.executeQuery("SELECT * FROM " + tb_prefix + "RESIDENTS")) {
+				ResultSet rs = s.executeQuery(query)) {
 
 			while (rs.next()) {
 				Resident resident;
 				try {
+					if (lazyResidents && !super.hasResident(rs.getString("name")))
+						newResident(rs.getString("name"));
 					resident = getResident(rs.getString("name"));
 				} catch (Exception e) {
 					System.out.println("[Towny] Loading Error: Could not fetch a resident by name.");
@@ -676,9 +833,472 @@ public final class TownySQLSource extends TownyDatabaseHandler {
 			TownyMessaging.sendErrorMsg("SQL: Load resident sql error : " + e.getMessage());
 		}
 
+		if (lazyResidents) {
+			gatherUnloadedResidentUUIDs();
+
+			// Players who are online through a reload are needed straight away.
+			for (Player player : BukkitTools.getOnlinePlayers())
+				loadResidentOnDemand(player.getName());
+		}
+
 		return true;
 	}
 
+	/*
+	 * Lazily loaded residents.
+	 */
+
+	/**
+	 * Bring the RESIDENT_NAMES index up to date with the RESIDENTS table.
+	 * It is kept up to date as residents are saved, so it is only rebuilt
+	 * when it has fallen out of step (the first time lazy loading is used).
+	 *
+	 * @return true if the index is usable.
+	 */
+	private boolean updateResidentNameIndex() {
+
+		try (Statement s = cntx.createStatement()) {
+			if (countRows(s, "RESIDENTS") == countRows(s, "RESIDENT_NAMES"))
+				return true;
+
+			TownyMessaging.sendMsg("Rebuilding the resident name index...");
+			s.executeUpdate("DELETE FROM " + tb_prefix + "RESIDENT_NAMES");
+			s.executeUpdate("INSERT INTO " + tb_prefix + "RESIDENT_NAMES (`lowername`, `name`, `uuid`) SELECT LOWER(`name`), `name`, `uuid` FROM " + tb_prefix + "RESIDENTS");
+			return true;
+		} catch (SQLException e) {
+			TownyMessaging.sendErrorMsg("SQL: Resident name index error : " + e.getMessage());
+		}
+		return false;
+	}
+
+	/*
+	 * Count the stored UUIDs of the residents who weren't loaded, and queue
+	 * those without one to be looked up by the GatherResidentUUIDTask.
+	 */
+	private void gatherUnloadedResidentUUIDs() {
+
+		try (Statement s = cntx.createStatement();
+				ResultSet rs = s.executeQuery("SELECT `name`, `uuid` FROM " + tb_prefix + "RESIDENT_NAMES")) {
+			while (rs.next()) {
+				String name = rs.getString("name");
+				if (universe.getResidentMap().containsKey(name.toLowerCase()))
+					continue;
+
+				String uuid = rs.getString("uuid");
+				if (uuid != null && !uuid.isEmpty())
+					TownySettings.incrementUUIDCount();
+				else
+					GatherResidentUUIDTask.addResidentName(name);
+			}
+		} catch (SQLException e) {
+			TownyMessaging.sendErrorMsg("SQL: Resident name index error : " + e.getMessage());
+		}
+	}
+
+	private long countRows(Statement s, String table) throws SQLException {
+
+		try (ResultSet rs = s.executeQuery("SELECT COUNT(*) FROM " + tb_prefix + table)) {
+			return rs.next() ? rs.getLong(1) : 0;
+		}
+	}
+
+	/**
+	 * Find a resident in memory, or load them from the database if
+	 * they exist but have not been loaded yet.
+	 *
+	 * @param name - Name of the resident, in any case.
+	 * @return the resident, or null if there is no such resident.
+	 */
+	private Resident loadResidentOnDemand(String name) {
+
+		String key;
+		try {
+			key = NameValidation.checkAndFilterPlayerName(name).toLowerCase();
+		} catch (InvalidNameException e) {
+			return null;
+		}
+
+		synchronized (this) {
+			Resident resident = universe.getResidentMap().get(key);
+			if (resident != null) {
+				// Marks the resident as recently used.
+				lazyResidentCache.get(key);
+				return resident;
+			}
+
+			// Names recently found not to be registered are answered without asking the database again.
+			if (missingResidentNames.contains(key) || !getContext())
+				return null;
+
+			try (PreparedStatement ps = cntx.prepareStatement("SELECT r.* FROM " + tb_prefix + "RESIDENTS r INNER JOIN "
+					+ tb_prefix + "RESIDENT_NAMES n ON r.`name` = n.`name` WHERE n.`lowername` = ?")) {
+				ps.setString(1, key);
+
+				try (ResultSet rs = ps.executeQuery()) {
+					if (!rs.next()) {
+						missingResidentNames.add(key);
+						return null;
+					}
+
+					resident = registerResident(key, rs);
+				}
+			} catch (SQLException | AlreadyRegisteredException | NotRegisteredException e) {
+				TownyMessaging.sendErrorMsg("SQL: Load resident on demand error : " + e.getMessage());
+				return universe.getResidentMap().get(key);
+			}
+
+			TownyMessaging.sendDebugMsg("Loaded resident on demand " + resident.getName());
+			trimResidentCache();
+			return resident;
+		}
+	}
+
+	/*
+	 * Register the resident of a row of the RESIDENTS table and add them to the cache.
+	 */
+	private synchronized Resident registerResident(String key, ResultSet rs) throws AlreadyRegisteredException, NotRegisteredException {
+
+		newResident(rs.getString("name"));
+		Resident resident = universe.getResidentMap().get(key);
+		lazyResidentCache.put(key, resident);
+		loadResident(resident, rs);
+		return resident;
+	}
+
+	/*
+	 * Unload the least recently used residents once the cache has grown a tenth over its size.
+	 * Residents with a town, who are online, jailed, own plots or are outlawed by a town are
+	 * skipped, as something else holds on to them. Residents who have them as a friend keep
+	 * their name until they are loaded again.
+	 */
+	private synchronized void trimResidentCache() {
+
+		if (lazyResidentCache.size() <= lazyResidentCacheSize + lazyResidentCacheSize / 10)
+			return;
+
+		Set<Resident> outlaws = new HashSet<>();
+		for (Town town : universe.getTownsMap().values())
+			outlaws.addAll(town.getOutlaws());
+
+		Set<Resident> unloading = new HashSet<>();
+		int excess = lazyResidentCache.size() - lazyResidentCacheSize;
+		Iterator<Resident> it = lazyResidentCache.values().iterator();
+		while (unloading.size() < excess && it.hasNext()) {
+			Resident resident = it.next();
+			if (resident.hasTown() || resident.isJailed() || !resident.getTownBlocks().isEmpty()
+					|| outlaws.contains(resident) || BukkitTools.isOnline(resident.getName()))
+				continue;
+
+			it.remove();
+			unloading.add(resident);
+			forgetUnloadedFriends(resident);
+			universe.getResidentMap().remove(resident.getName().toLowerCase());
+			universe.getResidentsTrie().removeKey(resident.getName());
+			savedStates.forget("RESIDENTS:" + resident.getName());
+			savedStates.forget("RESIDENT_NAMES:" + resident.getName().toLowerCase());
+		}
+
+		// One pass over the residents still loaded, which only holds the active players and residents of towns.
+		for (Resident friendOf : universe.getResidentMap().values())
+			for (Resident friend : friendOf.getFriends())
+				if (unloading.contains(friend)) {
+					friendOf.removeFriend(friend);
+					addUnloadedFriend(friendOf, friend.getName());
+				}
+	}
+
+	/*
+	 * Add the friends of a resident who are loaded, and keep the names of the rest
+	 * so they are linked when they are loaded instead of loading them now.
+	 */
+	private synchronized void linkFriends(Resident resident, String[] names) {
+
+		forgetUnloadedFriends(resident);
+		List<String> unloaded = new ArrayList<>();
+		for (String name : names) {
+			Resident friend = universe.getResidentMap().get(name.toLowerCase());
+			try {
+				if (friend != null)
+					resident.addFriend(friend);
+				else if (!name.isEmpty() && !missingResidentNames.contains(name.toLowerCase()))
+					unloaded.add(name);
+			} catch (AlreadyRegisteredException ignored) {
+			}
+		}
+		// Friends who have since been deleted are dropped.
+		for (String name : getStoredResidentNames(unloaded))
+			addUnloadedFriend(resident, name);
+
+		// Residents already loaded who have this resident as a friend.
+		for (Resident friendOf : forgetUnloadedFriend(resident.getName())) {
+			try {
+				friendOf.addFriend(resident);
+			} catch (AlreadyRegisteredException ignored) {
+			}
+		}
+	}
+
+	/*
+	 * @return the names, as stored, of those given which belong to a resident in the database.
+	 */
+	private List<String> getStoredResidentNames(List<String> names) {
+
+		List<String> stored = new ArrayList<>();
+		if (names.isEmpty() || !getContext())
+			return stored;
+
+		StringBuilder in = new StringBuilder();
+		for (int i = 0; i < names.size(); i++)
+			in.append(i == 0 ? "?" : ", ?");
+		try (PreparedStatement ps = cntx.prepareStatement("SELECT `name` FROM " + tb_prefix + "RESIDENT_NAMES WHERE `lowername` IN (" + in + ")")) {
+			for (int i = 0; i < names.size(); i++)
+				ps.setString(i + 1, names.get(i).toLowerCase());
+
+			try (ResultSet rs = ps.executeQuery()) {
+				while (rs.next())
+					stored.add(rs.getString("name"));
+			}
+		} catch (SQLException e) {
+			TownyMessaging.sendErrorMsg("SQL: Resident name index error : " + e.getMessage());
+		}
+		return stored;
+	}
+
+	private void addUnloadedFriend(Resident resident, String name) {
+
+		unloadedFriends.computeIfAbsent(resident, k -> new TreeSet<>(String.CASE_INSENSITIVE_ORDER)).add(name);
+		residentsAwaitingFriend.computeIfAbsent(name.toLowerCase(), k -> new HashSet<>()).add(resident);
+	}
+
+	private void forgetUnloadedFriends(Resident resident) {
+
+		Set<String> names = unloadedFriends.remove(resident);
+		if (names == null)
+			return;
+		for (String name : names) {
+			Set<Resident> awaiting = residentsAwaitingFriend.get(name.toLowerCase());
+			if (awaiting != null && awaiting.remove(resident) && awaiting.isEmpty())
+				residentsAwaitingFriend.remove(name.toLowerCase());
+		}
+	}
+
+	/*
+	 * Stop keeping a name as the friend of the residents who are waiting for it to be loaded.
+	 *
+	 * @return the residents who had the name as a friend.
+	 */
+	private synchronized Set<Resident> forgetUnloadedFriend(String name) {
+
+		Set<Resident> awaiting = residentsAwaitingFriend.remove(name.toLowerCase());
+		if (awaiting == null)
+			return Collections.emptySet();
+		for (Resident friendOf : awaiting) {
+			Set<String> names = unloadedFriends.get(friendOf);
+			if (names != null && names.remove(name) && names.isEmpty())
+				unloadedFriends.remove(friendOf);
+		}
+		return awaiting;
+	}
+
+	/*
+	 * @return the names of a resident's friends, including those who are not loaded.
+	 */
+	private synchronized List<String> getFriendNames(Resident resident) {
+
+		List<String> names = new ArrayList<>();
+		for (Resident friend : resident.getFriends())
+			names.add(friend.getName());
+		names.addAll(unloadedFriends.getOrDefault(resident, Collections.emptySet()));
+		return names;
+	}
+
+	@Override
+	public boolean hasResident(String name) {
+
+		if (super.hasResident(name))
+			return true;
+
+		return lazyResidents && loadResidentOnDemand(name) != null;
+	}
+
+	@Override
+	public int removeResidents(Collection<Resident> residents, ResidentReferences references) {
+
+		int removed = super.removeResidents(residents, references);
+
+		// Not done when the resident is deleted, as renaming a resident deletes them before saving them again.
+		if (lazyResidents)
+			synchronized (this) {
+				for (Resident resident : residents)
+					forgetUnloadedFriends(resident);
+			}
+		return removed;
+	}
+
+	@Override
+	public int getResidentCount() {
+
+		if (!lazyResidents || !getContext())
+			return super.getResidentCount();
+
+		try (Statement s = cntx.createStatement()) {
+			return (int) countRows(s, "RESIDENT_NAMES");
+		} catch (SQLException e) {
+			TownyMessaging.sendErrorMsg("SQL: Resident name index error : " + e.getMessage());
+		}
+		return super.getResidentCount();
+	}
+
+	@Override
+	public List<Resident> getOldUnloadedResidents(long lastOnlineBefore, boolean townless) {
+
+		List<Resident> residents = new ArrayList<>();
+		if (!lazyResidents || !getContext())
+			return residents;
+
+		String query = "SELECT `name`, `uuid`, `registered`, `lastOnline`, `isNPC` FROM " + tb_prefix + "RESIDENTS WHERE `lastOnline` < ?";
+		if (townless)
+			query += " AND (`town` IS NULL OR `town` = '')";
+
+		// Only the columns needed are read, the residents are not registered.
+		try (PreparedStatement ps = cntx.prepareStatement(query)) {
+			ps.setLong(1, lastOnlineBefore);
+
+			try (ResultSet rs = ps.executeQuery()) {
+				while (rs.next()) {
+					String name = rs.getString("name");
+					if (rs.getBoolean("isNPC") || universe.getResidentMap().containsKey(name.toLowerCase()))
+						continue;
+
+					Resident resident = new Resident(name);
+					String uuid = rs.getString("uuid");
+					try {
+						if (uuid != null && !uuid.isEmpty())
+							resident.setUUID(UUID.fromString(uuid));
+					} catch (IllegalArgumentException ignored) {
+					}
+					resident.setRegistered(rs.getLong("registered"));
+					resident.setLastOnline(rs.getLong("lastOnline"));
+					residents.add(resident);
+				}
+			}
+		} catch (SQLException e) {
+			TownyMessaging.sendErrorMsg("SQL: Load resident sql error : " + e.getMessage());
+		}
+		return residents;
+	}
+
+	@Override
+	public int removeUnloadedResidents(Collection<Resident> residents, long lastOnlineBefore, boolean townless) {
+
+		if (!lazyResidents || residents.isEmpty())
+			return 0;
+
+		Set<String> stillOld = getOldResidentNames(residents, lastOnlineBefore, townless);
+		int removed = 0;
+		for (Resident resident : residents) {
+			String key = resident.getName().toLowerCase();
+			Set<Resident> befriendedBy;
+			synchronized (this) {
+				// Loaded since it was found, so it has to go through removeResidents.
+				if (universe.getResidentMap().containsKey(key) || !stillOld.contains(key))
+					continue;
+
+				befriendedBy = forgetUnloadedFriend(resident.getName());
+				deleteResident(resident);
+				missingResidentNames.add(key);
+			}
+
+			// Residents waiting for them as a friend no longer save their name.
+			for (Resident friendOf : befriendedBy)
+				saveResident(friendOf);
+
+			residentDeleted(resident);
+			removed++;
+		}
+		return removed;
+	}
+
+	/*
+	 * The lower case names of those residents whose stored rows still show them as old enough to remove.
+	 */
+	private Set<String> getOldResidentNames(Collection<Resident> residents, long lastOnlineBefore, boolean townless) {
+
+		Set<String> names = new HashSet<>();
+		if (!getContext())
+			return names;
+
+		String query = "SELECT `name` FROM " + tb_prefix + "RESIDENTS WHERE `lastOnline` < ?";
+		if (townless)
+			query += " AND (`town` IS NULL OR `town` = '')";
+		query += " AND `name` IN (" + String.join(",", Collections.nCopies(residents.size(), "?")) + ")";
+
+		try (PreparedStatement ps = cntx.prepareStatement(query)) {
+			ps.setLong(1, lastOnlineBefore);
+			int index = 2;
+			for (Resident resident : residents)
+				ps.setString(index++, resident.getName());
+
+			try (ResultSet rs = ps.executeQuery()) {
+				while (rs.next())
+					names.add(rs.getString("name").toLowerCase());
+			}
+		} catch (SQLException e) {
+			TownyMessaging.sendErrorMsg("SQL: Load resident sql error : " + e.getMessage());
+		}
+		return names;
+	}
+
+	@Override
+	public Resident getResident(UUID uuid) throws NotRegisteredException {
+
+		if (!lazyResidents)
+			return super.getResident(uuid);
+
+		// Residents which are loaded are found without asking the database.
+		try {
+			return super.getResident(uuid);
+		} catch (NotRegisteredException ignored) {
+		}
+
+		if (!getContext())
+			throw new NotRegisteredException(String.format("The resident with uuid '%s' is not registered.", uuid));
+
+		try (PreparedStatement ps = cntx.prepareStatement("SELECT `name` FROM " + tb_prefix + "RESIDENT_NAMES WHERE `uuid` = ?")) {
+			ps.setString(1, uuid.toString());
+
+			try (ResultSet rs = ps.executeQuery()) {
+				if (rs.next())
+					return getResident(rs.getString("name"));
+			}
+		} catch (SQLException e) {
+			TownyMessaging.sendErrorMsg("SQL: Resident name index error : " + e.getMessage());
+		}
+		throw new NotRegisteredException(String.format("The resident with uuid '%s' is not registered.", uuid));
+	}
+
+	@Override
+	public List<String> getResidentNamesStartingWith(String prefix) {
+
+		if (!lazyResidents || !getContext())
+			return super.getResidentNamesStartingWith(prefix);
+
+		List<String> names = new ArrayList<>();
+		try (PreparedStatement ps = cntx.prepareStatement("SELECT `name` FROM " + tb_prefix
+				+ "RESIDENT_NAMES WHERE `lowername` LIKE ? ESCAPE '!' ORDER BY `lowername` LIMIT 100")) {
+			ps.setString(1, prefix.toLowerCase().replace("!", "!!").replace("%", "!%").replace("_", "!_") + "%");
+
+			try (ResultSet rs = ps.executeQuery()) {
+				while (rs.next())
+					names.add(rs.getString("name"));
+			}
+		} catch (SQLException e) {
+			TownyMessaging.sendErrorMsg("SQL: Resident name index error : " + e.getMessage());
+			return super.getResidentNamesStartingWith(prefix);
+		}
+		return names;
+	}
+
 	@Override
 	public boolean loadResident(Resident resident) {
 
@@ -705,6 +1325,7 @@ public final class TownySQLSource extends TownyDatabaseHandler {
 	private boolean loadResident(Resident resident, ResultSet rs) {
 		try {
 			String search;
+			primeSavedState("RESIDENTS", resident.getName(), rs);
 
 			try {
 				if (rs.getString("uuid") != null && !rs.getString("uuid").isEmpty())
@@ -752,7 +1373,10 @@ public final class TownySQLSource extends TownyDatabaseHandler {
 			String line;
 			try {
 				line = rs.getString("friends");
-				if (line != null) {
+				if (lazyResidents) {
+					// Friends are linked when they are loaded, rather than loading all of them now.
+					linkFriends(resident, line == null || line.isEmpty() ? new String[0] : line.split(line.contains("#") ? "#" : ","));
+				} else if (line != null) {
 					search = (line.contains("#")) ? "#" : ",";
 					List<Resident> friends = getResidents(line.split(search));
 					for (Resident friend : friends) {
@@ -882,6 +1506,7 @@ public final class TownySQLSource extends TownyDatabaseHandler {
 			}
 			
 			name = town.getName();
+			primeSavedState("TOWNS", name, rs);
 
 			TownyMessaging.sendDebugMsg("Loading town " + name);
 
@@ -1134,6 +1759,7 @@ public final class TownySQLSource extends TownyDatabaseHandler {
 		try {
 			Nation nation = getNation(rs.getString("name"));
 			name = nation.getName();
+			primeSavedState("NATIONS", name, rs);
 
 			TownyMessaging.sendDebugMsg("Loading nation " + nation.getName());
 
@@ -1768,6 +2394,320 @@ public final class TownySQLSource extends TownyDatabaseHandler {
 		return true;
 	}
 
+	/*
+	 * Rows of towny objects, shared by saving and the DatabaseMigration.
+	 */
+
+	/**
+	 * @param resident - The resident to build the row of.
+	 * @return the columns of its row in the RESIDENTS table.
+	 * @throws TownyException if the resident refers to something which no longer exists.
+	 */
+	HashMap<String, Object> getResidentRow(Resident resident) throws TownyException {
+
+		HashMap<String, Object> res_hm = new HashMap<>();
+		res_hm.put("name", resident.getName());
+		res_hm.put("uuid", resident.hasUUID() ? resident.getUUID().toString() : "");
+		res_hm.put("lastOnline", resident.getLastOnline());
+		res_hm.put("registered", resident.getRegistered());
+		res_hm.put("isNPC", resident.isNPC());
+		res_hm.put("isJailed", resident.isJailed());
+		res_hm.put("JailSpawn", resident.getJailSpawn());
+		res_hm.put("JailDays", resident.getJailDays());
+		res_hm.put("JailTown", resident.getJailTown());
+		res_hm.put("title", resident.getTitle());
+		res_hm.put("surname", resident.getSurname());
+		res_hm.put("town", resident.hasTown() ? resident.getTown().getName() : "");
+		res_hm.put("town-ranks", resident.hasTown() ? StringMgmt.join(resident.getTownRanks(), "#") : "");
+		res_hm.put("nation-ranks", resident.hasTown() ? StringMgmt.join(resident.getNationRanks(), "#") : "");
+		res_hm.put("friends", StringMgmt.join(getFriendNames(resident), "#"));
+		res_hm.put("protectionStatus", resident.getPermissions().toString().replaceAll(",", "#"));
+
+		if (resident.hasMeta())
+			res_hm.put("metadata", StringMgmt.join(new ArrayList<CustomDataField<?>>(resident.getMetadata()), ";"));
+		else
+			res_hm.put("metadata", "");
+		return res_hm;
+	}
+
+	/**
+	 * @param resident - The resident to build the row of.
+	 * @return the columns of its row in the RESIDENT_NAMES table.
+	 */
+	HashMap<String, Object> getResidentNameRow(Resident resident) {
+
+		HashMap<String, Object> names_hm = new HashMap<>();
+		names_hm.put("lowername", resident.getName().toLowerCase());
+		names_hm.put("name", resident.getName());
+		names_hm.put("uuid", resident.hasUUID() ? resident.getUUID().toString() : "");
+		return names_hm;
+	}
+
+	/**
+	 * @param town - The town to build the row of.
+	 * @return the columns of its row in the TOWNS table.
+	 * @throws TownyException if the town refers to something which no longer exists.
+	 */
+	HashMap<String, Object> getTownRow(Town town) throws TownyException {
+
+		HashMap<String, Object> twn_hm = new HashMap<>();
+		twn_hm.put("name", town.getName());
+		twn_hm.put("outlaws", StringMgmt.join(town.getOutlaws(), "#"));
+		twn_hm.put("mayor", town.hasMayor() ? town.getMayor().getName() : "");
+		twn_hm.put("nation", town.hasNation() ? town.getNation().getName() : "");
+		twn_hm.put("assistants", StringMgmt.join(town.getRank("assistant"), "#"));
+		twn_hm.put("townBoard", town.getBoard());
+		twn_hm.put("tag", town.getTag());
+		twn_hm.put("protectionStatus", town.getPermissions().toString().replaceAll(",", "#"));
+		twn_hm.put("bonus", town.getBonusBlocks());
+		twn_hm.put("purchased", town.getPurchasedBlocks());
+		twn_hm.put("commercialPlotPrice", town.getCommercialPlotPrice());
+		twn_hm.put("commercialPlotTax", town.getCommercialPlotTax());
+		twn_hm.put("embassyPlotPrice", town.getEmbassyPlotPrice());
+		twn_hm.put("embassyPlotTax", town.getEmbassyPlotTax());
+		twn_hm.put("spawnCost", town.getSpawnCost());
+		twn_hm.put("plotPrice", town.getPlotPrice());
+		twn_hm.put("plotTax", town.getPlotTax());
+		twn_hm.put("taxes", town.getTaxes());
+		twn_hm.put("hasUpkeep", town.hasUpkeep());
+		twn_hm.put("taxpercent", town.isTaxPercentage());
+		twn_hm.put("open", town.isOpen());
+		twn_hm.put("public", town.isPublic());
+		twn_hm.put("conquered", town.isConquered());
+		twn_hm.put("conqueredDays", town.getConqueredDays());
+		twn_hm.put("admindisabledpvp", town.isAdminDisabledPVP());
+		twn_hm.put("adminenabledpvp", town.isAdminEnabledPVP());
+		if (town.hasMeta())
+			twn_hm.put("metadata", StringMgmt.join(town.getMetadata(), ";"));
+		else
+			twn_hm.put("metadata", "");
+
+		twn_hm.put("homeblock",
+				town.hasHomeBlock()
+						? town.getHomeBlock().getWorld().getName() + "#" + town.getHomeBlock().getX() + "#"
+								+ town.getHomeBlock().getZ()
+						: "");
+		twn_hm.put("spawn",
+				town.hasSpawn()
+						? town.getSpawn().getWorld().getName() + "#" + town.getSpawn().getX() + "#"
+								+ town.getSpawn().getY() + "#" + town.getSpawn().getZ() + "#"
+								+ town.getSpawn().getPitch() + "#" + town.getSpawn().getYaw()
+						: "");
+		// Outpost Spawns
+		StringBuilder outpostArray = new StringBuilder();
+		if (town.hasOutpostSpawn())
+			for (Location spawn : new ArrayList<>(town.getAllOutpostSpawns())) {
+				outpostArray.append(spawn.getWorld().getName()).append("#").append(spawn.getX()).append("#")
+						.append(spawn.getY()).append("#").append(spawn.getZ()).append("#").append(spawn.getPitch())
+						.append("#").append(spawn.getYaw()).append(";");
+			}
+		twn_hm.put("outpostSpawns", outpostArray.toString());
+		StringBuilder jailArray = new StringBuilder();
+		if (town.hasJailSpawn())
+			for (Location spawn : new ArrayList<>(town.getAllJailSpawns())) {
+				jailArray.append(spawn.getWorld().getName()).append("#").append(spawn.getX()).append("#")
+						.append(spawn.getY()).append("#").append(spawn.getZ()).append("#").append(spawn.getPitch())
+						.append("#").append(spawn.getYaw()).append(";");
+			}
+		twn_hm.put("jailSpawns", jailArray.toString());
+		if (town.hasValidUUID()) {
+			twn_hm.put("uuid", town.getUUID());
+		} else {
+			twn_hm.put("uuid", UUID.randomUUID());
+		}
+		twn_hm.put("registered", town.getRegistered());
+		return twn_hm;
+	}
+
+	/**
+	 * @param group - The group to build the row of.
+	 * @return the columns of its row in the PLOTGROUPS table.
+	 */
+	HashMap<String, Object> getPlotGroupRow(PlotGroup group) {
+
+		HashMap<String, Object> pltgrp_hm = new HashMap<>();
+		pltgrp_hm.put("groupName", group.getName());
+		pltgrp_hm.put("groupID", group.getID());
+		pltgrp_hm.put("groupPrice", group.getPrice());
+		pltgrp_hm.put("town", group.getTown().toString());
+		return pltgrp_hm;
+	}
+
+	/**
+	 * @param nation - The nation to build the row of.
+	 * @return the columns of its row in the NATIONS table.
+	 */
+	HashMap<String, Object> getNationRow(Nation nation) {
+
+		HashMap<String, Object> nat_hm = new HashMap<>();
+		nat_hm.put("name", nation.getName());
+		nat_hm.put("capital", nation.hasCapital() ? nation.getCapital().getName() : "");
+		nat_hm.put("nationBoard", nation.getBoard());
+		nat_hm.put("mapColorHexCode", nation.getMapColorHexCode());
+		nat_hm.put("tag", nation.hasTag() ? nation.getTag() : "");
+		nat_hm.put("allies", StringMgmt.join(nation.getAllies(), "#"));
+		nat_hm.put("enemies", StringMgmt.join(nation.getEnemies(), "#"));
+		nat_hm.put("taxes", nation.getTaxes());
+		nat_hm.put("spawnCost", nation.getSpawnCost());
+		nat_hm.put("neutral", nation.isNeutral());
+		nat_hm.put("nationSpawn",
+				nation.hasSpawn()
+						? nation.getSpawn().getWorld().getName() + "#" + nation.getSpawn().getX() + "#"
+								+ nation.getSpawn().getY() + "#" + nation.getSpawn().getZ() + "#"
+								+ nation.getSpawn().getPitch() + "#" + nation.getSpawn().getYaw()
+						: "");
+		if (nation.hasValidUUID()) {
+			nat_hm.put("uuid", nation.getUuid());
+		} else {
+			nat_hm.put("uuid", UUID.randomUUID());
+		}
+		nat_hm.put("registered", nation.getRegistered());
+		nat_hm.put("isPublic", nation.isPublic());
+		nat_hm.put("isOpen", nation.isOpen());
+
+		if (nation.hasMeta())
+			nat_hm.put("metadata", StringMgmt.join(nation.getMetadata(), ";"));
+		else
+			nat_hm.put("metadata", "");
+		return nat_hm;
+	}
+
+	/**
+	 * @param world - The world to build the row of.
+	 * @return the columns of its row in the WORLDS table.
+	 */
+	HashMap<String, Object> getWorldRow(TownyWorld world) {
+
+		HashMap<String, Object> nat_hm = new HashMap<>();
+
+		nat_hm.put("name", world.getName());
+
+		// PvP
+		nat_hm.put("pvp", world.isPVP());
+		// Force PvP
+		nat_hm.put("forcepvp", world.isForcePVP());
+		// Friendly Fire
+		nat_hm.put("friendlyFire", world.isFriendlyFireEnabled());
+		// Claimable
+		nat_hm.put("claimable", world.isClaimable());
+		// has monster spawns
+		nat_hm.put("worldmobs", world.hasWorldMobs());
+		// has wilderness monster spawns
+		nat_hm.put("wildernessmobs", world.hasWildernessMobs());
+		// force town mob spawns
+		nat_hm.put("forcetownmobs", world.isForceTownMobs());
+		// has firespread enabled
+		nat_hm.put("firespread", world.isFire());
+		nat_hm.put("forcefirespread", world.isForceFire());
+		// has explosions enabled
+		nat_hm.put("explosions", world.isExpl());
+		nat_hm.put("forceexplosions", world.isForceExpl());
+		// Enderman block protection
+		nat_hm.put("endermanprotect", world.isEndermanProtect());
+		// PlayerTrample
+		nat_hm.put("disableplayertrample", world.isDisablePlayerTrample());
+		// CreatureTrample
+		nat_hm.put("disablecreaturetrample", world.isDisableCreatureTrample());
+
+		// Unclaimed Zone Build
+		nat_hm.put("unclaimedZoneBuild", world.getUnclaimedZoneBuild());
+		// Unclaimed Zone Destroy
+		nat_hm.put("unclaimedZoneDestroy", world.getUnclaimedZoneDestroy());
+		// Unclaimed Zone Switch
+		nat_hm.put("unclaimedZoneSwitch", world.getUnclaimedZoneSwitch());
+		// Unclaimed Zone Item Use
+		nat_hm.put("unclaimedZoneItemUse", world.getUnclaimedZoneItemUse());
+		// Unclaimed Zone Name
+		if (world.getUnclaimedZoneName() != null)
+			nat_hm.put("unclaimedZoneName", world.getUnclaimedZoneName());
+
+		// Unclaimed Zone Ignore Ids
+		if (world.getUnclaimedZoneIgnoreMaterials() != null)
+			nat_hm.put("unclaimedZoneIgnoreIds", StringMgmt.join(world.getUnclaimedZoneIgnoreMaterials(), "#"));
+
+		// Using PlotManagement Delete
+		nat_hm.put("usingPlotManagementDelete", world.isUsingPlotManagementDelete());
+		// Plot Management Delete Ids
+		if (world.getPlotManagementDeleteIds() != null)
+			nat_hm.put("plotManagementDeleteIds", StringMgmt.join(world.getPlotManagementDeleteIds(), "#"));
+
+		// Using PlotManagement Mayor Delete
+		nat_hm.put("usingPlotManagementMayorDelete", world.isUsingPlotManagementMayorDelete());
+		// Plot Management Mayor Delete
+		if (world.getPlotManagementMayorDelete() != null)
+			nat_hm.put("plotManagementMayorDelete", StringMgmt.join(world.getPlotManagementMayorDelete(), "#"));
+
+		// Using PlotManagement Revert
+		nat_hm.put("usingPlotManagementRevert", world.isUsingPlotManagementRevert());
+
+		// Plot Management Ignore Ids
+		if (world.getPlotManagementIgnoreIds() != null)
+			nat_hm.put("plotManagementIgnoreIds", StringMgmt.join(world.getPlotManagementIgnoreIds(), "#"));
+
+		// Using PlotManagement Wild Regen
+		nat_hm.put("usingPlotManagementWildRegen", world.isUsingPlotManagementWildEntityRevert());
+
+		// Wilderness Explosion Protection entities
+		if (world.getPlotManagementWildRevertEntities() != null)
+			nat_hm.put("PlotManagementWildRegenEntities",
+					StringMgmt.join(world.getPlotManagementWildRevertEntities(), "#"));
+
+		// Using PlotManagement Wild Regen Delay
+		nat_hm.put("plotManagementWildRegenSpeed", world.getPlotManagementWildRevertDelay());
+		
+		// Using PlotManagement Wild Block Regen
+		nat_hm.put("usingPlotManagementWildRegenBlocks", world.isUsingPlotManagementWildBlockRevert());
+
+		// Wilderness Explosion Protection blocks
+		if (world.getPlotManagementWildRevertBlocks() != null)
+			nat_hm.put("PlotManagementWildRegenBlocks",
+					StringMgmt.join(world.getPlotManagementWildRevertBlocks(), "#"));
+
+		// Using Towny
+		nat_hm.put("usingTowny", world.isUsingTowny());
+
+		// War allowed in this world.
+		nat_hm.put("warAllowed", world.isWarAllowed());
+
+		if (world.hasMeta())
+			nat_hm.put("metadata", StringMgmt.join(world.getMetadata(), ";"));
+		else
+			nat_hm.put("metadata", "");
+		return nat_hm;
+	}
+
+	/**
+	 * @param townBlock - The townblock to build the row of.
+	 * @return the columns of its row in the TOWNBLOCKS table.
+	 * @throws TownyException if the townblock refers to something which no longer exists.
+	 */
+	HashMap<String, Object> getTownBlockRow(TownBlock townBlock) throws TownyException {
+
+		HashMap<String, Object> tb_hm = new HashMap<>();
+		tb_hm.put("world", townBlock.getWorld().getName());
+		tb_hm.put("x", townBlock.getX());
+		tb_hm.put("z", townBlock.getZ());
+		tb_hm.put("name", townBlock.getName());
+		tb_hm.put("price", townBlock.getPlotPrice());
+		tb_hm.put("town", townBlock.getTown().getName());
+		tb_hm.put("resident", (townBlock.hasResident()) ? townBlock.getResident().getName() : "");
+		tb_hm.put("type", townBlock.getType().getId());
+		tb_hm.put("outpost", townBlock.isOutpost());
+		tb_hm.put("permissions",
+				(townBlock.isChanged()) ? townBlock.getPermissions().toString().replaceAll(",", "#") : "");
+		tb_hm.put("locked", townBlock.isLocked());
+		tb_hm.put("changed", townBlock.isChanged());
+		if (townBlock.hasPlotObjectGroup())
+			tb_hm.put("groupID", townBlock.getPlotObjectGroup().getID().toString());
+		else
+			tb_hm.put("groupID", "");
+		if (townBlock.hasMeta())
+			tb_hm.put("metadata", StringMgmt.join(new ArrayList<CustomDataField<?>>(townBlock.getMetadata()), ";"));
+		else
+			tb_hm.put("metadata", "");
+		return tb_hm;
+	}
+
 	/*
 	 * Save individual towny objects
 	 */
@@ -1777,30 +2717,18 @@ public final class TownySQLSource extends TownyDatabaseHandler {
 
 		TownyMessaging.sendDebugMsg("Saving Resident " + resident.getName());
 		try {
-			HashMap<String, Object> res_hm = new HashMap<>();
-			res_hm.put("name", resident.getName());
-			res_hm.put("uuid", resident.hasUUID() ? resident.getUUID().toString() : "");
-			res_hm.put("lastOnline", resident.getLastOnline());
-			res_hm.put("registered", resident.getRegistered());
-			res_hm.put("isNPC", resident.isNPC());
-			res_hm.put("isJailed", resident.isJailed());
-			res_hm.put("JailSpawn", resident.getJailSpawn());
-			res_hm.put("JailDays", resident.getJailDays());
-			res_hm.put("JailTown", resident.getJailTown());
-			res_hm.put("title", resident.getTitle());
-			res_hm.put("surname", resident.getSurname());
-			res_hm.put("town", resident.hasTown() ? resident.getTown().getName() : "");
-			res_hm.put("town-ranks", resident.hasTown() ? StringMgmt.join(resident.getTownRanks(), "#") : "");
-			res_hm.put("nation-ranks", resident.hasTown() ? StringMgmt.join(resident.getNationRanks(), "#") : "");
-			res_hm.put("friends", StringMgmt.join(resident.getFriends(), "#"));
-			res_hm.put("protectionStatus", resident.getPermissions().toString().replaceAll(",", "#"));
-
-			if (resident.hasMeta())
-				res_hm.put("metadata", StringMgmt.join(new ArrayList<CustomDataField<?>>(resident.getMetadata()), ";"));
-			else
-				res_hm.put("metadata", "");
+			UpdateChangedDB("RESIDENTS", getResidentRow(resident), "name");
 
-			UpdateDB("RESIDENTS", res_hm, Collections.singletonList("name"));
+			UpdateChangedDB("RESIDENT_NAMES", getResidentNameRow(resident), "lowername");
+
+			if (lazyResidents) {
+				missingResidentNames.remove(resident.getName().toLowerCase());
+
+				// Residents who have left their town, or logged off without one, can be unloaded again.
+				String key = resident.getName().toLowerCase();
+				if (!resident.hasTown() && universe.getResidentMap().get(key) == resident)
+					lazyResidentCache.putIfAbsent(key, resident);
+			}
 			return true;
 
 		} catch (Exception e) {
@@ -1814,74 +2742,7 @@ public final class TownySQLSource extends TownyDatabaseHandler {
 
 		TownyMessaging.sendDebugMsg("Saving town " + town.getName());
 		try {
-			HashMap<String, Object> twn_hm = new HashMap<>();
-			twn_hm.put("name", town.getName());
-			twn_hm.put("outlaws", StringMgmt.join(town.getOutlaws(), "#"));
-			twn_hm.put("mayor", town.hasMayor() ? town.getMayor().getName() : "");
-			twn_hm.put("nation", town.hasNation() ? town.getNation().getName() : "");
-			twn_hm.put("assistants", StringMgmt.join(town.getRank("assistant"), "#"));
-			twn_hm.put("townBoard", town.getBoard());
-			twn_hm.put("tag", town.getTag());
-			twn_hm.put("protectionStatus", town.getPermissions().toString().replaceAll(",", "#"));
-			twn_hm.put("bonus", town.getBonusBlocks());
-			twn_hm.put("purchased", town.getPurchasedBlocks());
-			twn_hm.put("commercialPlotPrice", town.getCommercialPlotPrice());
-			twn_hm.put("commercialPlotTax", town.getCommercialPlotTax());
-			twn_hm.put("embassyPlotPrice", town.getEmbassyPlotPrice());
-			twn_hm.put("embassyPlotTax", town.getEmbassyPlotTax());
-			twn_hm.put("spawnCost", town.getSpawnCost());
-			twn_hm.put("plotPrice", town.getPlotPrice());
-			twn_hm.put("plotTax", town.getPlotTax());
-			twn_hm.put("taxes", town.getTaxes());
-			twn_hm.put("hasUpkeep", town.hasUpkeep());
-			twn_hm.put("taxpercent", town.isTaxPercentage());
-			twn_hm.put("open", town.isOpen());
-			twn_hm.put("public", town.isPublic());
-			twn_hm.put("conquered", town.isConquered());
-			twn_hm.put("conqueredDays", town.getConqueredDays());
-			twn_hm.put("admindisabledpvp", town.isAdminDisabledPVP());
-			twn_hm.put("adminenabledpvp", town.isAdminEnabledPVP());
-			if (town.hasMeta())
-				twn_hm.put("metadata", StringMgmt.join(town.getMetadata(), ";"));
-			else
-				twn_hm.put("metadata", "");
-
-			twn_hm.put("homeblock",
-					town.hasHomeBlock()
-							? town.getHomeBlock().getWorld().getName() + "#" + town.getHomeBlock().getX() + "#"
-									+ town.getHomeBlock().getZ()
-							: "");
-			twn_hm.put("spawn",
-					town.hasSpawn()
-							? town.getSpawn().getWorld().getName() + "#" + town.getSpawn().getX() + "#"
-									+ town.getSpawn().getY() + "#" + town.getSpawn().getZ() + "#"
-									+ town.getSpawn().getPitch() + "#" + town.getSpawn().getYaw()
-							: "");
-			// Outpost Spawns
-			StringBuilder outpostArray = new StringBuilder();
-			if (town.hasOutpostSpawn())
-				for (Location spawn : new ArrayList<>(town.getAllOutpostSpawns())) {
-					outpostArray.append(spawn.getWorld().getName()).append("#").append(spawn.getX()).append("#")
-							.append(spawn.getY()).append("#").append(spawn.getZ()).append("#").append(spawn.getPitch())
-							.append("#").append(spawn.getYaw()).append(";");
-				}
-			twn_hm.put("outpostSpawns", outpostArray.toString());
-			StringBuilder jailArray = new StringBuilder();
-			if (town.hasJailSpawn())
-				for (Location spawn : new ArrayList<>(town.getAllJailSpawns())) {
-					jailArray.append(spawn.getWorld().getName()).append("#").append(spawn.getX()).append("#")
-							.append(spawn.getY()).append("#").append(spawn.getZ()).append("#").append(spawn.getPitch())
-							.append("#").append(spawn.getYaw()).append(";");
-				}
-			twn_hm.put("jailSpawns", jailArray.toString());
-			if (town.hasValidUUID()) {
-				twn_hm.put("uuid", town.getUUID());
-			} else {
-				twn_hm.put("uuid", UUID.randomUUID());
-			}
-			twn_hm.put("registered", town.getRegistered());
-
-			UpdateDB("TOWNS", twn_hm, Collections.singletonList("name"));
+			UpdateChangedDB("TOWNS", getTownRow(town), "name");
 			return true;
 
 		} catch (Exception e) {
@@ -1895,13 +2756,7 @@ public final class TownySQLSource extends TownyDatabaseHandler {
 	public synchronized boolean savePlotGroup(PlotGroup group) {
 		TownyMessaging.sendDebugMsg("Saving group " + group.getName());
 		try {
-			HashMap<String, Object> pltgrp_hm = new HashMap<>();
-			pltgrp_hm.put("groupName", group.getName());
-			pltgrp_hm.put("groupID", group.getID());
-			pltgrp_hm.put("groupPrice", group.getPrice());
-			pltgrp_hm.put("town", group.getTown().toString());
-
-			UpdateDB("PLOTGROUPS", pltgrp_hm, Collections.singletonList("name"));
+			UpdateDB("PLOTGROUPS", getPlotGroupRow(group), Collections.singletonList("name"));
 
 		} catch (Exception e) {
 			TownyMessaging.sendErrorMsg("SQL: Save Plot groups unknown error");
@@ -1915,38 +2770,7 @@ public final class TownySQLSource extends TownyDatabaseHandler {
 
 		TownyMessaging.sendDebugMsg("Saving nation " + nation.getName());
 		try {
-			HashMap<String, Object> nat_hm = new HashMap<>();
-			nat_hm.put("name", nation.getName());
-			nat_hm.put("capital", nation.hasCapital() ? nation.getCapital().getName() : "");
-			nat_hm.put("nationBoard", nation.getBoard());
-			nat_hm.put("mapColorHexCode", nation.getMapColorHexCode());
-			nat_hm.put("tag", nation.hasTag() ? nation.getTag() : "");
-			nat_hm.put("allies", StringMgmt.join(nation.getAllies(), "#"));
-			nat_hm.put("enemies", StringMgmt.join(nation.getEnemies(), "#"));
-			nat_hm.put("taxes", nation.getTaxes());
-			nat_hm.put("spawnCost", nation.getSpawnCost());
-			nat_hm.put("neutral", nation.isNeutral());
-			nat_hm.put("nationSpawn",
-					nation.hasSpawn()
-							? nation.getSpawn().getWorld().getName() + "#" + nation.getSpawn().getX() + "#"
-									+ nation.getSpawn().getY() + "#" + nation.getSpawn().getZ() + "#"
-									+ nation.getSpawn().getPitch() + "#" + nation.getSpawn().getYaw()
-							: "");
-			if (nation.hasValidUUID()) {
-				nat_hm.put("uuid", nation.getUuid());
-			} else {
-				nat_hm.put("uuid", UUID.randomUUID());
-			}
-			nat_hm.put("registered", nation.getRegistered());
-			nat_hm.put("isPublic", nation.isPublic());
-			nat_hm.put("isOpen", nation.isOpen());
-
-			if (nation.hasMeta())
-				nat_hm.put("metadata", StringMgmt.join(nation.getMetadata(), ";"));
-			else
-				nat_hm.put("metadata", "");
-
-			UpdateDB("NATIONS", nat_hm, Collections.singletonList("name"));
+			UpdateChangedDB("NATIONS", getNationRow(nation), "name");
 
 		} catch (Exception e) {
 			TownyMessaging.sendErrorMsg("SQL: Save Nation unknown error");
@@ -1960,103 +2784,7 @@ public final class TownySQLSource extends TownyDatabaseHandler {
 
 		TownyMessaging.sendDebugMsg("Saving world " + world.getName());
 		try {
-			HashMap<String, Object> nat_hm = new HashMap<>();
-
-			nat_hm.put("name", world.getName());
-
-			// PvP
-			nat_hm.put("pvp", world.isPVP());
-			// Force PvP
-			nat_hm.put("forcepvp", world.isForcePVP());
-			// Friendly Fire
-			nat_hm.put("friendlyFire", world.isFriendlyFireEnabled());
-			// Claimable
-			nat_hm.put("claimable", world.isClaimable());
-			// has monster spawns
-			nat_hm.put("worldmobs", world.hasWorldMobs());
-			// has wilderness monster spawns
-			nat_hm.put("wildernessmobs", world.hasWildernessMobs());
-			// force town mob spawns
-			nat_hm.put("forcetownmobs", world.isForceTownMobs());
-			// has firespread enabled
-			nat_hm.put("firespread", world.isFire());
-			nat_hm.put("forcefirespread", world.isForceFire());
-			// has explosions enabled
-			nat_hm.put("explosions", world.isExpl());
-			nat_hm.put("forceexplosions", world.isForceExpl());
-			// Enderman block protection
-			nat_hm.put("endermanprotect", world.isEndermanProtect());
-			// PlayerTrample
-			nat_hm.put("disableplayertrample", world.isDisablePlayerTrample());
-			// CreatureTrample
-			nat_hm.put("disablecreaturetrample", world.isDisableCreatureTrample());
-
-			// Unclaimed Zone Build
-			nat_hm.put("unclaimedZoneBuild", world.getUnclaimedZoneBuild());
-			// Unclaimed Zone Destroy
-			nat_hm.put("unclaimedZoneDestroy", world.getUnclaimedZoneDestroy());
-			// Unclaimed Zone Switch
-			nat_hm.put("unclaimedZoneSwitch", world.getUnclaimedZoneSwitch());
-			// Unclaimed Zone Item Use
-			nat_hm.put("unclaimedZoneItemUse", world.getUnclaimedZoneItemUse());
-			// Unclaimed Zone Name
-			if (world.getUnclaimedZoneName() != null)
-				nat_hm.put("unclaimedZoneName", world.getUnclaimedZoneName());
-
-			// Unclaimed Zone Ignore Ids
-			if (world.getUnclaimedZoneIgnoreMaterials() != null)
-				nat_hm.put("unclaimedZoneIgnoreIds", StringMgmt.join(world.getUnclaimedZoneIgnoreMaterials(), "#"));
-
-			// Using PlotManagement Delete
-			nat_hm.put("usingPlotManagementDelete", world.isUsingPlotManagementDelete());
-			// Plot Management Delete Ids
-			if (world.getPlotManagementDeleteIds() != null)
-				nat_hm.put("plotManagementDeleteIds", StringMgmt.join(world.getPlotManagementDeleteIds(), "#"));
-
-			// Using PlotManagement Mayor Delete
-			nat_hm.put("usingPlotManagementMayorDelete", world.isUsingPlotManagementMayorDelete());
-			// Plot Management Mayor Delete
-			if (world.getPlotManagementMayorDelete() != null)
-				nat_hm.put("plotManagementMayorDelete", StringMgmt.join(world.getPlotManagementMayorDelete(), "#"));
-
-			// Using PlotManagement Revert
-			nat_hm.put("usingPlotManagementRevert", world.isUsingPlotManagementRevert());
-
-			// Plot Management Ignore Ids
-			if (world.getPlotManagementIgnoreIds() != null)
-				nat_hm.put("plotManagementIgnoreIds", StringMgmt.join(world.getPlotManagementIgnoreIds(), "#"));
-
-			// Using PlotManagement Wild Regen
-			nat_hm.put("usingPlotManagementWildRegen", world.isUsingPlotManagementWildEntityRevert());
-
-			// Wilderness Explosion Protection entities
-			if (world.getPlotManagementWildRevertEntities() != null)
-				nat_hm.put("PlotManagementWildRegenEntities",
-						StringMgmt.join(world.getPlotManagementWildRevertEntities(), "#"));
-
-			// Using PlotManagement Wild Regen Delay
-			nat_hm.put("plotManagementWildRegenSpeed", world.getPlotManagementWildRevertDelay());
-			
-			// Using PlotManagement Wild Block Regen
-			nat_hm.put("usingPlotManagementWildRegenBlocks", world.isUsingPlotManagementWildBlockRevert());
-
-			// Wilderness Explosion Protection blocks
-			if (world.getPlotManagementWildRevertBlocks() != null)
-				nat_hm.put("PlotManagementWildRegenBlocks",
-						StringMgmt.join(world.getPlotManagementWildRevertBlocks(), "#"));
-
-			// Using Towny
-			nat_hm.put("usingTowny", world.isUsingTowny());
-
-			// War allowed in this world.
-			nat_hm.put("warAllowed", world.isWarAllowed());
-
-			if (world.hasMeta())
-				nat_hm.put("metadata", StringMgmt.join(world.getMetadata(), ";"));
-			else
-				nat_hm.put("metadata", "");
-
-			UpdateDB("WORLDS", nat_hm, Collections.singletonList("name"));
+			UpdateDB("WORLDS", getWorldRow(world), Collections.singletonList("name"));
 
 		} catch (Exception e) {
 			TownyMessaging.sendErrorMsg("SQL: Save world unknown error (" + world.getName() + ")");
@@ -2072,30 +2800,7 @@ public final class TownySQLSource extends TownyDatabaseHandler {
 		TownyMessaging.sendDebugMsg("Saving town block " + townBlock.getWorld().getName() + ":" + townBlock.getX() + "x"
 				+ townBlock.getZ());
 		try {
-			HashMap<String, Object> tb_hm = new HashMap<>();
-			tb_hm.put("world", townBlock.getWorld().getName());
-			tb_hm.put("x", townBlock.getX());
-			tb_hm.put("z", townBlock.getZ());
-			tb_hm.put("name", townBlock.getName());
-			tb_hm.put("price", townBlock.getPlotPrice());
-			tb_hm.put("town", townBlock.getTown().getName());
-			tb_hm.put("resident", (townBlock.hasResident()) ? townBlock.getResident().getName() : "");
-			tb_hm.put("type", townBlock.getType().getId());
-			tb_hm.put("outpost", townBlock.isOutpost());
-			tb_hm.put("permissions",
-					(townBlock.isChanged()) ? townBlock.getPermissions().toString().replaceAll(",", "#") : "");
-			tb_hm.put("locked", townBlock.isLocked());
-			tb_hm.put("changed", townBlock.isChanged());
-			if (townBlock.hasPlotObjectGroup())
-				tb_hm.put("groupID", townBlock.getPlotObjectGroup().getID().toString());
-			else
-				tb_hm.put("groupID", "");
-			if (townBlock.hasMeta())
-				tb_hm.put("metadata", StringMgmt.join(new ArrayList<CustomDataField<?>>(townBlock.getMetadata()), ";"));
-			else
-				tb_hm.put("metadata", "");
-
-			UpdateDB("TOWNBLOCKS", tb_hm, Arrays.asList("world", "x", "z"));
+			UpdateDB("TOWNBLOCKS", getTownBlockRow(townBlock), Arrays.asList("world", "x", "z"));
 
 		} catch (Exception e) {
 			TownyMessaging.sendErrorMsg("SQL: Save TownBlock unknown error");
@@ -2113,7 +2818,19 @@ public final class TownySQLSource extends TownyDatabaseHandler {
 
 		HashMap<String, Object> res_hm = new HashMap<>();
 		res_hm.put("name", resident.getName());
+		savedStates.forget("RESIDENTS:" + resident.getName());
 		DeleteDB("RESIDENTS", res_hm);
+
+		HashMap<String, Object> names_hm = new HashMap<>();
+		names_hm.put("lowername", resident.getName().toLowerCase());
+		savedStates.forget("RESIDENT_NAMES:" + resident.getName().toLowerCase());
+		DeleteDB("RESIDENT_NAMES", names_hm);
+		if (lazyResidents) {
+			synchronized (this) {
+				lazyResidentCache.remove(resident.getName().toLowerCase());
+				forgetUnloadedFriend(resident.getName());
+			}
+		}
 	}
 
 	@Override
@@ -2121,6 +2838,7 @@ public final class TownySQLSource extends TownyDatabaseHandler {
 
 		HashMap<String, Object> twn_hm = new HashMap<>();
 		twn_hm.put("name", town.getName());
+		savedStates.forget("TOWNS:" + town.getName());
 		DeleteDB("TOWNS", twn_hm);
 	}
 
@@ -2129,6 +2847,7 @@ public final class TownySQLSource extends TownyDatabaseHandler {
 
 		HashMap<String, Object> nat_hm = new HashMap<>();
 		nat_hm.put("name", nation.getName());
+		savedStates.forget("NATIONS:" + nation.getName());
 		DeleteDB("NATIONS", nat_hm);
 	}
 
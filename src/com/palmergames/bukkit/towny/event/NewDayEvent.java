@@ -14,6 +14,10 @@ public class NewDayEvent extends Event{
 	private final double townUpkeepCollected;
 	private final double nationUpkeepCollected;
 	private final long time;
+	private final long snapshotTime;
+	private final long planTime;
+	private final long applyTime;
+	private final int applyTicks;
 
 	/**
 	 * Event thrown after the upkeep and taxes are collected on each Towny New Day.
@@ -26,6 +30,24 @@ public class NewDayEvent extends Event{
 	 * @param time - The system time in milliseconds when the new day code started.
 	 */
 	public NewDayEvent(final List<String> bankruptTowns, final List<String> removedTowns, final List<String> fallenNations, final double townUpkeepCollected, final double nationUpkeepCollected, final long time) {
+		this(bankruptTowns, removedTowns, fallenNations, townUpkeepCollected, nationUpkeepCollected, time, 0, 0, 0, 0);
+	}
+
+	/**
+	 * Event thrown after the upkeep and taxes are collected on each Towny New Day.
+	 * 
+	 * @param bankruptTowns - Towns that went bankrupt.
+	 * @param removedTowns - Towns that were deleted.
+	 * @param fallenNations - Nations that were deleted.
+	 * @param townUpkeepCollected - Total amount of upkeep paid by towns.
+	 * @param nationUpkeepCollected - Total amount of upkeep paid by nations.
+	 * @param time - The system time in milliseconds when the new day code started.
+	 * @param snapshotTime - Milliseconds the main thread spent taking the snapshot of towns and nations.
+	 * @param planTime - Milliseconds spent working out the taxes and upkeep, off the main thread.
+	 * @param applyTime - Milliseconds the main thread spent applying the taxes and upkeep.
+	 * @param applyTicks - Number of ticks the taxes and upkeep were applied over.
+	 */
+	public NewDayEvent(final List<String> bankruptTowns, final List<String> removedTowns, final List<String> fallenNations, final double townUpkeepCollected, final double nationUpkeepCollected, final long time, final long snapshotTime, final long planTime, final long applyTime, final int applyTicks) {
 		super(!Bukkit.getServer().isPrimaryThread());
 		this.bankruptTowns = bankruptTowns;
 		this.fallenTowns = removedTowns;		
@@ -33,6 +55,10 @@ public class NewDayEvent extends Event{
 		this.townUpkeepCollected = townUpkeepCollected;
 		this.nationUpkeepCollected = nationUpkeepCollected;
 		this.time = time;
+		this.snapshotTime = snapshotTime;
+		this.planTime = planTime;
+		this.applyTime = applyTime;
+		this.applyTicks = applyTicks;
 	}
 	
 	@Override
@@ -76,4 +102,32 @@ public class NewDayEvent extends Event{
 		return time;
 	}
 
+	/**
+	 * @return milliseconds the main thread spent taking the snapshot of towns and nations.
+	 */
+	public long getSnapshotTime() {
+		return snapshotTime;
+	}
+
+	/**
+	 * @return milliseconds spent working out the taxes and upkeep, off the main thread.
+	 */
+	public long getPlanTime() {
+		return planTime;
+	}
+
+	/**
+	 * @return milliseconds the main thread spent applying the taxes and upkeep.
+	 */
+	public long getApplyTime() {
+		return applyTime;
+	}
+
+	/**
+	 * @return number of ticks the taxes and upkeep were applied over.
+	 */
+	public int getApplyTicks() {
+		return applyTicks;
+	}
+
 }
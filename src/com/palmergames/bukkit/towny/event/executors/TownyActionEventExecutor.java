@@ -1,7 +1,9 @@
 package com.palmergames.bukkit.towny.event.executors;
 
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
 import org.bukkit.Bukkit;
 import org.bukkit.Location;
@@ -11,11 +13,15 @@ import org.bukkit.block.BlockFace;
 import org.bukkit.entity.Entity;
 import org.bukkit.entity.Player;
 import org.bukkit.event.Event;
+import org.bukkit.event.HandlerList;
 import org.bukkit.event.entity.EntityDamageEvent.DamageCause;
+import org.bukkit.plugin.RegisteredListener;
 
+import com.palmergames.bukkit.towny.Towny;
 import com.palmergames.bukkit.towny.TownyAPI;
 import com.palmergames.bukkit.towny.TownyMessaging;
 import com.palmergames.bukkit.towny.TownySettings;
+import com.palmergames.bukkit.towny.TownyUniverse;
 import com.palmergames.bukkit.towny.event.actions.TownyActionEvent;
 import com.palmergames.bukkit.towny.event.actions.TownyBuildEvent;
 import com.palmergames.bukkit.towny.event.actions.TownyBurnEvent;
@@ -24,10 +30,15 @@ import com.palmergames.bukkit.towny.event.actions.TownyExplodingBlocksEvent;
 import com.palmergames.bukkit.towny.event.actions.TownyExplosionDamagesEntityEvent;
 import com.palmergames.bukkit.towny.event.actions.TownyItemuseEvent;
 import com.palmergames.bukkit.towny.event.actions.TownySwitchEvent;
+import com.palmergames.bukkit.towny.object.Coord;
 import com.palmergames.bukkit.towny.object.PlayerCache;
+import com.palmergames.bukkit.towny.object.TownBlock;
 import com.palmergames.bukkit.towny.object.TownyWorld;
 import com.palmergames.bukkit.towny.object.TownyPermission.ActionType;
+import com.palmergames.bukkit.towny.object.WorldCoord;
 import com.palmergames.bukkit.towny.utils.PlayerCacheUtil;
+import com.palmergames.bukkit.towny.war.flagwar.FlagWar;
+import com.palmergames.bukkit.towny.war.flagwar.FlagWarConfig;
 import com.palmergames.bukkit.util.ArraySort;
 import com.palmergames.bukkit.util.BukkitTools;
 
@@ -40,6 +51,74 @@ import com.palmergames.bukkit.util.BukkitTools;
  */
 public class TownyActionEventExecutor {
 
+	private static final Listeners BUILD_LISTENERS = new Listeners(TownyBuildEvent.getHandlerList());
+	private static final Listeners DESTROY_LISTENERS = new Listeners(TownyDestroyEvent.getHandlerList());
+	private static final Listeners SWITCH_LISTENERS = new Listeners(TownySwitchEvent.getHandlerList());
+	private static final Listeners ITEMUSE_LISTENERS = new Listeners(TownyItemuseEvent.getHandlerList());
+	private static final Listeners EXPLODING_BLOCKS_LISTENERS = new Listeners(TownyExplodingBlocksEvent.getHandlerList());
+	private static final Listeners EXPLOSION_DAMAGES_ENTITY_LISTENERS = new Listeners(TownyExplosionDamagesEntityEvent.getHandlerList());
+	private static final Listeners BURN_LISTENERS = new Listeners(TownyBurnEvent.getHandlerList());
+
+	/**
+	 * Decides whether one of the Towny action events needs to be fired at all.
+	 * 
+	 * Towny's own war listeners only change anything while a war can be fought,
+	 * so the event is only needed when another plugin listens for it, or when
+	 * Event War or Flag War could be active. The listeners of other plugins are
+	 * counted again whenever the HandlerList is re-baked, which happens when
+	 * a plugin registers or unregisters its listeners (ie: on enable/disable.)
+	 */
+	private static class Listeners {
+		private final HandlerList handlers;
+		private RegisteredListener[] counted = null;
+		private boolean otherPlugins = false;
+
+		Listeners(HandlerList handlers) {
+			this.handlers = handlers;
+		}
+
+		boolean isListenedTo() {
+			RegisteredListener[] listeners = handlers.getRegisteredListeners();
+			if (listeners != counted) {
+				boolean found = false;
+				for (RegisteredListener listener : listeners)
+					if (listener.getPlugin() != Towny.getPlugin()) {
+						found = true;
+						break;
+					}
+				otherPlugins = found;
+				counted = listeners;
+			}
+			return otherPlugins || isWarPossible();
+		}
+	}
+
+	/**
+	 * @return true if Towny's own war listeners could change the outcome of an action event.
+	 */
+	private static boolean isWarPossible() {
+		return TownyAPI.getInstance().isWarTime() || FlagWarConfig.isAllowingAttacks() || FlagWar.hasCellsUnderAttack();
+	}
+
+	/**
+	 * Used when nothing listens for the action event: the PlayerCache decision is the result.
+	 * 
+	 * @param player - Player involved in the action.
+	 * @param loc - Location of the action.
+	 * @param mat - Material being involved in the action.
+	 * @param action - The ActionType of the action. ex: BUILD
+	 * @return true if allowed by the PlayerCache.
+	 */
+	private static boolean isAllowedByCache(Player player, Location loc, Material mat, ActionType action) {
+		if (PlayerCacheUtil.getCachePermission(player, loc, mat, action))
+			return true;
+
+		PlayerCache cache = PlayerCacheUtil.getCache(player);
+		if (cache.hasBlockErrMsg())
+			TownyMessaging.sendErrorMsg(player, cache.getBlockErrMsg());
+		return false;
+	}
+
 	/**
 	 * First checks the Player's cache using the PlayerCacheUtil, and sets the
 	 * cancellation of the Action-Type Event. Then fires the ActionType-based Event,
@@ -90,37 +169,60 @@ public class TownyActionEventExecutor {
 	 * @return true if the explosion is allowed.
 	 */
 	private static boolean isAllowedExplosion(Location loc) {
-		boolean canExplode = false;
 		TownyWorld world = TownyAPI.getInstance().getTownyWorld(loc.getWorld().getName());
 		if (world == null)
-			canExplode = false;
-		else {
-		
-			if (TownyAPI.getInstance().isWilderness(loc)) {
-				/*
-				 * Handle occasions in the wilderness first.
-				 */
-				if (world.isForceExpl() || world.isExpl())
-					canExplode = true;
-				else if (!world.isExpl())
-					canExplode = false;			
-			} else {
-				/*
-				 * Must be inside of a town.
-				 */
-				canExplode = TownyAPI.getInstance().getTownBlock(loc).getPermissions().explosion;			
-			}
+			return false;
+
+		return isAllowedExplosion(world, TownyAPI.getInstance().getTownBlock(loc));
+	}
+
+	/**
+	 * @param world - TownyWorld the explosion is in.
+	 * @param townBlock - TownBlock being tested, or null in the wilderness.
+	 * @return true if the explosion is allowed.
+	 */
+	private static boolean isAllowedExplosion(TownyWorld world, TownBlock townBlock) {
+		if (townBlock == null || !townBlock.hasTown()) {
+			/*
+			 * Handle occasions in the wilderness first.
+			 */
+			return world.isForceExpl() || world.isExpl();
 		}
 
-		return canExplode;
+		/*
+		 * Must be inside of a town.
+		 */
+		return townBlock.getPermissions().explosion;
 	}
 	
 	private static List<Block> filterExplodingBlockList(List<Block> blocks) {
 
 		List<Block> approvedBlocks = new ArrayList<Block>();
-		
+		if (blocks.isEmpty())
+			return approvedBlocks;
+
+		TownyWorld world = TownyAPI.getInstance().getTownyWorld(blocks.get(0).getWorld().getName());
+		if (world == null)
+			return approvedBlocks;
+
+		/*
+		 * An explosion only reaches a few townblocks, so each townblock
+		 * is tested once for all of the blocks inside of it.
+		 */
+		Map<Long, Boolean> allowedCells = new HashMap<>();
 		for (Block block : blocks) {
-			if (isAllowedExplosion(block.getLocation()))
+			int cellX = Coord.toCell(block.getX());
+			int cellZ = Coord.toCell(block.getZ());
+			Long cell = ((long) cellX << 32) | (cellZ & 0xFFFFFFFFL);
+
+			Boolean allowed = allowedCells.get(cell);
+			if (allowed == null) {
+				WorldCoord worldCoord = new WorldCoord(world.getName(), cellX, cellZ);
+				allowed = isAllowedExplosion(world, TownyUniverse.getInstance().getTownBlockOrNull(worldCoord));
+				allowedCells.put(cell, allowed);
+			}
+
+			if (allowed)
 				approvedBlocks.add(block);
 		}
 		return approvedBlocks;
@@ -139,11 +241,12 @@ public class TownyActionEventExecutor {
 	 */
 	private static boolean isAllowedBurn(Block block) {
 		TownyWorld townyWorld = TownyAPI.getInstance().getTownyWorld(block.getWorld().getName());
+		TownBlock townBlock = TownyAPI.getInstance().getTownBlock(block.getLocation());
 			
 		/*
 		 *  Something being ignited in the wilderness.
 		 */
-		if (TownyAPI.getInstance().isWilderness(block)) {
+		if (townBlock == null || !townBlock.hasTown()) {
 			if (isNotPortal(block) && (!townyWorld.isForceFire() && !townyWorld.isFire()))
 				// Disallow because it is not above obsidian and neither Fire option is true.
 				return false;
@@ -153,7 +256,7 @@ public class TownyActionEventExecutor {
 		 */
 		} else {
 			if ((isNotPortal(block) && isNotFireSpreadBypassMat(block))          // Allows for NetherPortal/Netherrack/Soul_Sand/Soul_Soil ignition.
-			&& (!townyWorld.isForceFire() && !TownyAPI.getInstance().getTownBlock(block.getLocation()).getPermissions().fire)) // Normal fire rules. 
+			&& (!townyWorld.isForceFire() && !townBlock.getPermissions().fire)) // Normal fire rules. 
 				// Disallow because it is not above obsidian or on a FireSpreadBypassMat, and neither Fire option is true.
 				return false;
 		}
@@ -185,6 +288,9 @@ public class TownyActionEventExecutor {
 	 * @return true if allowed.
 	 */
 	public static boolean canBuild(Player player, Location loc, Material mat) {
+		if (!BUILD_LISTENERS.isListenedTo())
+			return isAllowedByCache(player, loc, mat, ActionType.BUILD);
+
 		TownyBuildEvent event = new TownyBuildEvent(player, loc, mat, getBlock(loc), TownyAPI.getInstance().getTownBlock(loc), false);
 		return isAllowedAction(player, loc, mat, ActionType.BUILD, event);
 	}
@@ -198,6 +304,9 @@ public class TownyActionEventExecutor {
 	 * @return true if allowed.
 	 */
 	public static boolean canDestroy(Player player, Location loc, Material mat) {
+		if (!DESTROY_LISTENERS.isListenedTo())
+			return isAllowedByCache(player, loc, mat, ActionType.DESTROY);
+
 		TownyDestroyEvent event = new TownyDestroyEvent(player, loc, mat, getBlock(loc), TownyAPI.getInstance().getTownBlock(loc), false);
 		return isAllowedAction(player, loc, mat, ActionType.DESTROY, event);
 	}
@@ -211,6 +320,9 @@ public class TownyActionEventExecutor {
 	 * @return true if allowed.
 	 */
 	public static boolean canSwitch(Player player, Location loc, Material mat) {
+		if (!SWITCH_LISTENERS.isListenedTo())
+			return isAllowedByCache(player, loc, mat, ActionType.SWITCH);
+
 		TownySwitchEvent event = new TownySwitchEvent(player, loc, mat, getBlock(loc), TownyAPI.getInstance().getTownBlock(loc), false);
 		return isAllowedAction(player, loc, mat, ActionType.SWITCH, event);
 	}
@@ -224,6 +336,9 @@ public class TownyActionEventExecutor {
 	 * @return true if allowed.
 	 */
 	public static boolean canItemuse(Player player, Location loc, Material mat) {
+		if (!ITEMUSE_LISTENERS.isListenedTo())
+			return isAllowedByCache(player, loc, mat, ActionType.ITEM_USE);
+
 		TownyItemuseEvent event = new TownyItemuseEvent(player, loc, mat, TownyAPI.getInstance().getTownBlock(loc), false);
 		return isAllowedAction(player, loc, mat, ActionType.ITEM_USE, event);
 	}
@@ -253,6 +368,8 @@ public class TownyActionEventExecutor {
 		 * on Towny's plot permissions settings.
 		 */		
 		List<Block> filteredBlocks = filterExplodingBlockList(blockList);
+		if (!EXPLODING_BLOCKS_LISTENERS.isListenedTo())
+			return filteredBlocks;
 
 		/*
 		 * Fire a TownyExplodingBlockEvent to let Towny's war systems 
@@ -290,6 +407,8 @@ public class TownyActionEventExecutor {
 		 *  whether an explosion is allowed in the given location.
 		 */		
 		boolean cancelled = !isAllowedExplosion(loc);
+		if (!EXPLOSION_DAMAGES_ENTITY_LISTENERS.isListenedTo())
+			return !cancelled;
 
 		/*
 		 * Fire a TownyExplosionDamagesEntityEvent to let Towny's war systems 
@@ -321,6 +440,8 @@ public class TownyActionEventExecutor {
 		 * to whether the given block is allowed to burn.
 		 */
 		boolean cancelled = !isAllowedBurn(block);
+		if (!BURN_LISTENERS.isListenedTo())
+			return !cancelled;
 		
 		/*
 		 * Fire a TownyBurnEvent to let Towny's war system
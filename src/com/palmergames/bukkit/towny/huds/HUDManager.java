@@ -1,12 +1,13 @@
 package com.palmergames.bukkit.towny.huds;
 
 import com.palmergames.bukkit.towny.Towny;
+import com.palmergames.bukkit.towny.TownyAPI;
 import com.palmergames.bukkit.towny.TownyUniverse;
 import com.palmergames.bukkit.towny.event.PlayerChangePlotEvent;
 import com.palmergames.bukkit.towny.event.TownBlockSettingsChangedEvent;
 import com.palmergames.bukkit.towny.exceptions.NotRegisteredException;
-import com.palmergames.bukkit.towny.object.Coord;
 import com.palmergames.bukkit.towny.object.Resident;
+import com.palmergames.bukkit.towny.object.TownBlock;
 import com.palmergames.bukkit.towny.object.WorldCoord;
 import com.palmergames.bukkit.towny.war.eventwar.PlotAttackedEvent;
 import com.palmergames.bukkit.towny.war.eventwar.TownScoredEvent;
@@ -17,17 +18,36 @@ import org.bukkit.entity.Player;
 import org.bukkit.event.EventHandler;
 import org.bukkit.event.Listener;
 import org.bukkit.event.player.PlayerQuitEvent;
+import org.bukkit.scoreboard.Objective;
+import org.bukkit.scoreboard.Scoreboard;
+import org.bukkit.scoreboard.Team;
 
-import java.util.ArrayList;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 public class HUDManager implements Listener{
 
-	ArrayList<Player> warUsers;
-	ArrayList<Player> permUsers;
+	// Parts of a HUD which can be waiting to be redrawn.
+	private static final int LOCATION = 1;
+	private static final int ATTACKABLE = 1 << 1;
+	private static final int HEALTH = 1 << 2;
+	private static final int SCORE = 1 << 3;
+	private static final int PERMS = 1 << 4;
+
+	private final Towny plugin;
+	Set<Player> warUsers;
+	Set<Player> permUsers;
+	// The parts of each player's HUD to redraw on the next tick, so a player's scoreboard is written at most once a tick.
+	private final Map<Player, Integer> pending = new ConcurrentHashMap<>();
+	private final AtomicBoolean topScoresChanged = new AtomicBoolean();
+	private final AtomicBoolean flushScheduled = new AtomicBoolean();
 
 	public HUDManager (Towny plugin) {
-		warUsers = new ArrayList<>();
-		permUsers = new ArrayList<>();
+		this.plugin = plugin;
+		warUsers = ConcurrentHashMap.newKeySet();
+		permUsers = ConcurrentHashMap.newKeySet();
 	}
 
 	//**TOGGLES**//
@@ -36,7 +56,7 @@ public class HUDManager implements Listener{
 			toggleAllOff(p);
 			warUsers.add(p);
 			WarHUD.toggleOn(p, TownyUniverse.getInstance().getWarEvent());
-		} else 
+		} else
 			toggleAllOff(p);
 	}
 
@@ -45,27 +65,31 @@ public class HUDManager implements Listener{
 			toggleAllOff(p);
 			permUsers.add(p);
 			PermHUD.toggleOn(p);
-		} else 
+		} else
 			toggleAllOff(p);
 	}
 
 	public void toggleAllWarHUD () {
-		for (Player p : warUsers)
+		for (Player p : warUsers) {
 			toggleOff(p);
+			pending.remove(p);
+		}
 		warUsers.clear();
 	}
 
 	public void toggleAllOff (Player p) {
 		warUsers.remove(p);
 		permUsers.remove(p);
+		pending.remove(p);
 		if (p.isOnline()) toggleOff(p);
 	}
 
 	public void toggleAllOffForQuit (Player p) {
 		warUsers.remove(p);
 		permUsers.remove(p);
+		pending.remove(p);
 	}
-	
+
 	public static void toggleOff(Player p) {
 		p.setScoreboard(Bukkit.getScoreboardManager().getNewScoreboard());
 	}
@@ -78,30 +102,27 @@ public class HUDManager implements Listener{
 	}
 
 	@EventHandler
-	public void onPlayerMovePlotsEvent(PlayerChangePlotEvent event) throws NotRegisteredException
+	public void onPlayerMovePlotsEvent(PlayerChangePlotEvent event)
 	{
 		Player p = event.getPlayer();
 		if (warUsers.contains(p)) {
-			WarHUD.updateLocation(p, event.getTo());
-			WarHUD.updateAttackable(p, event.getTo(), TownyUniverse.getInstance().getWarEvent());
-			WarHUD.updateHealth(p, event.getTo(), TownyUniverse.getInstance().getWarEvent());
+			markForUpdate(p, LOCATION | ATTACKABLE | HEALTH);
 		} else if (permUsers.contains(p) && p.getScoreboard().getTeam("plot") != null) {
 			if (event.getTo().getTownyWorld().isUsingTowny())
-				PermHUD.updatePerms(p, event.getTo());
+				markForUpdate(p, PERMS);
 			else
 				toggleOff(p);
 		}
 	}
 
 	//War specific//
-	
+
 	@EventHandler
-	public void onPlotAttacked(PlotAttackedEvent event) 
+	public void onPlotAttacked(PlotAttackedEvent event)
 	{
-		boolean home = event.getTownBlock().isHomeBlock();
 		for (Player p : event.getPlayers()){
 			if (warUsers.contains(p))
-				WarHUD.updateHealth(p, event.getHP(), home);
+				markForUpdate(p, ATTACKABLE | HEALTH);
 		}
 	}
 
@@ -109,17 +130,15 @@ public class HUDManager implements Listener{
 	public void onTownScored (TownScoredEvent event)
 	{
 		//Update town score
-		War warEvent = TownyUniverse.getInstance().getWarEvent();
 		for (Resident r : event.getTown().getResidents())
 		{
 			Player player = BukkitTools.getPlayer(r.getName());
 			if (player != null && warUsers.contains(player))
-				WarHUD.updateScore(player, event.getScore());
+				markForUpdate(player, SCORE);
 		}
 		//Update top scores for all HUD users
-		String[] top = warEvent.getTopThree();
-		for (Player p : warUsers)
-			WarHUD.updateTopScores(p, top);
+		topScoresChanged.set(true);
+		scheduleFlush();
 	}
 
 	//Perm Specific
@@ -128,23 +147,106 @@ public class HUDManager implements Listener{
 
 		if (e.getTownyWorld() != null)
 			for (Player p : permUsers)
-				PermHUD.updatePerms(p);
+				markForUpdate(p, PERMS);
 		else if (e.getTown() != null)
 			for (Player p : permUsers)
 				try {
-					if (new WorldCoord(p.getWorld().getName(), Coord.parseCoord(p)).getTownBlock().getTown() == e.getTown())
-						PermHUD.updatePerms(p);
-				} catch (Exception ex) {}
+					TownBlock townBlock = TownyAPI.getInstance().getTownBlock(p.getLocation());
+					if (townBlock != null && townBlock.getTown() == e.getTown())
+						markForUpdate(p, PERMS);
+				} catch (NotRegisteredException ignored) {}
 		else if (e.getTownBlock() != null)
 			for (Player p : permUsers)
-				try {
-					if (new WorldCoord(p.getWorld().getName(), Coord.parseCoord(p)).getTownBlock() == e.getTownBlock())
-						PermHUD.updatePerms(p);
-				} catch (Exception ex) {}
+				if (TownyAPI.getInstance().getTownBlock(p.getLocation()) == e.getTownBlock())
+					markForUpdate(p, PERMS);
+	}
+
+	//**BATCHING**//
+	private void markForUpdate(Player p, int parts) {
+		pending.merge(p, parts, (a, b) -> a | b);
+		scheduleFlush();
+	}
+
+	private void scheduleFlush() {
+		if (flushScheduled.compareAndSet(false, true))
+			Bukkit.getScheduler().runTask(plugin, this::flush);
+	}
+
+	/**
+	 * Redraw every part of the HUDs which changed since the last tick.
+	 */
+	private void flush() {
+		flushScheduled.set(false);
+		War war = TownyUniverse.getInstance().getWarEvent();
+		String[] top = topScoresChanged.getAndSet(false) && war != null ? war.getTopThree() : null;
+		if (top != null)
+			for (Player p : warUsers)
+				WarHUD.updateTopScores(p, top);
+
+		for (Player p : pending.keySet()) {
+			Integer parts = pending.remove(p);
+			if (parts == null || !p.isOnline())
+				continue;
+
+			if (warUsers.contains(p)) {
+				if (war == null)
+					continue;
+				WorldCoord at = WorldCoord.parseWorldCoord(p);
+				if ((parts & LOCATION) != 0)
+					WarHUD.updateLocation(p, at);
+				if ((parts & ATTACKABLE) != 0)
+					WarHUD.updateAttackable(p, at, war);
+				if ((parts & HEALTH) != 0)
+					WarHUD.updateHealth(p, at, war);
+				if ((parts & SCORE) != 0)
+					WarHUD.updateScore(p, war);
+			} else if (permUsers.contains(p) && (parts & PERMS) != 0) {
+				PermHUD.updatePerms(p);
+			}
+		}
 	}
 
 	//**UTILS**//
 	public static String check(String check) {
 		return check.length() > 16 ? check.substring(0, 16) : check;
 	}
+
+	/**
+	 * Set a team's suffix, only sending it to the player when it has changed.
+	 *
+	 * @param board - Scoreboard of the HUD.
+	 * @param team - Name of the team holding the line.
+	 * @param suffix - Text to show.
+	 */
+	public static void setSuffix(Scoreboard board, String team, String suffix) {
+		Team t = board.getTeam(team);
+		if (t != null && !suffix.equals(t.getSuffix()))
+			t.setSuffix(suffix);
+	}
+
+	/**
+	 * Set a team's prefix, only sending it to the player when it has changed.
+	 *
+	 * @param board - Scoreboard of the HUD.
+	 * @param team - Name of the team holding the line.
+	 * @param prefix - Text to show.
+	 */
+	public static void setPrefix(Scoreboard board, String team, String prefix) {
+		Team t = board.getTeam(team);
+		if (t != null && !prefix.equals(t.getPrefix()))
+			t.setPrefix(prefix);
+	}
+
+	/**
+	 * Set an objective's title, only sending it to the player when it has changed.
+	 *
+	 * @param board - Scoreboard of the HUD.
+	 * @param objective - Name of the objective.
+	 * @param displayName - Title to show.
+	 */
+	public static void setDisplayName(Scoreboard board, String objective, String displayName) {
+		Objective o = board.getObjective(objective);
+		if (o != null && !displayName.equals(o.getDisplayName()))
+			o.setDisplayName(displayName);
+	}
 }
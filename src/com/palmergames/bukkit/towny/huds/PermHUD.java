@@ -71,17 +71,17 @@ public class PermHUD {
 			return;
 		}
 		if (!plotName.isEmpty())
-			board.getTeam("plot").setSuffix(HUDManager.check(plotName));
-		board.getTeam("build").setSuffix(build);
-		board.getTeam("destroy").setSuffix(destroy);
-		board.getTeam("switching").setSuffix(switching);
-		board.getTeam("item").setSuffix(item);
-		board.getTeam("plotType").setSuffix(type);
-		board.getTeam("pvp").setSuffix(pvp);
-		board.getTeam("explosions").setSuffix(explosions);
-		board.getTeam("firespread").setSuffix(firespread);
-		board.getTeam("mobspawn").setSuffix(mobspawn);
-		board.getObjective("PERM_HUD_OBJ").setDisplayName(HUDManager.check(title));
+			HUDManager.setSuffix(board, "plot", HUDManager.check(plotName));
+		HUDManager.setSuffix(board, "build", build);
+		HUDManager.setSuffix(board, "destroy", destroy);
+		HUDManager.setSuffix(board, "switching", switching);
+		HUDManager.setSuffix(board, "item", item);
+		HUDManager.setSuffix(board, "plotType", type);
+		HUDManager.setSuffix(board, "pvp", pvp);
+		HUDManager.setSuffix(board, "explosions", explosions);
+		HUDManager.setSuffix(board, "firespread", firespread);
+		HUDManager.setSuffix(board, "mobspawn", mobspawn);
+		HUDManager.setDisplayName(board, "PERM_HUD_OBJ", HUDManager.check(title));
 	}
 
 	private static void clearPerms (Player p) {
@@ -5,7 +5,6 @@ import com.palmergames.bukkit.towny.TownyUniverse;
 import com.palmergames.bukkit.towny.exceptions.NotRegisteredException;
 import com.palmergames.bukkit.towny.object.Coord;
 import com.palmergames.bukkit.towny.object.Town;
-import com.palmergames.bukkit.towny.object.TownBlock;
 import com.palmergames.bukkit.towny.object.Translation;
 import com.palmergames.bukkit.towny.object.WorldCoord;
 import com.palmergames.bukkit.towny.war.eventwar.War;
@@ -17,8 +16,6 @@ import org.bukkit.scoreboard.Objective;
 import org.bukkit.scoreboard.Scoreboard;
 import org.bukkit.scoreboard.Team;
 
-import java.util.Hashtable;
-
 public class WarHUD {
 
 	final static int home_health = TownySettings.getWarzoneHomeBlockHealth();
@@ -36,9 +33,9 @@ public class WarHUD {
 		try {
 			nation_loc = at.getTownBlock().getTown().getNation().getName();
 		} catch (NotRegisteredException e) {nation_loc = "";}
-		p.getScoreboard().getTeam("nation").setSuffix(HUDManager.check(nation_loc));
-		p.getScoreboard().getTeam("town").setSuffix(HUDManager.check(town_loc));
-		p.getScoreboard().getTeam("home").setSuffix(HUDManager.check(homeblock));
+		HUDManager.setSuffix(p.getScoreboard(), "nation", HUDManager.check(nation_loc));
+		HUDManager.setSuffix(p.getScoreboard(), "town", HUDManager.check(town_loc));
+		HUDManager.setSuffix(p.getScoreboard(), "home", HUDManager.check(homeblock));
 	}
 
 	public static void updateAttackable(Player p, WorldCoord at, War war) {
@@ -49,7 +46,7 @@ public class WarHUD {
 			onEdge = Translation.of("war_hud_true");
 		else
 			onEdge = Translation.of("war_hud_false");
-		p.getScoreboard().getTeam("edge").setSuffix(HUDManager.check(onEdge));
+		HUDManager.setSuffix(p.getScoreboard(), "edge", HUDManager.check(onEdge));
 	}
 
 	public static void updateHealth(Player p, WorldCoord at, War war) {
@@ -71,40 +68,30 @@ public class WarHUD {
 			else
 				health = "";
 		}
-		p.getScoreboard().getTeam("health").setSuffix(health);
+		HUDManager.setSuffix(p.getScoreboard(), "health", health);
 	}
 
 	public static void updateHealth (Player p, int health, boolean home) {
 		if (health > 0) 
-			p.getScoreboard().getTeam("health").setSuffix(health + "" + ChatColor.AQUA + "/" + (home ? home_health : town_health));
+			HUDManager.setSuffix(p.getScoreboard(), "health", health + "" + ChatColor.AQUA + "/" + (home ? home_health : town_health));
 		else {
-			p.getScoreboard().getTeam("health").setSuffix(Translation.of("war_hud_fallen"));
+			HUDManager.setSuffix(p.getScoreboard(), "health", Translation.of("war_hud_fallen"));
 			if (TownySettings.getOnlyAttackEdgesInWar())
-				p.getScoreboard().getTeam("edge").setSuffix("war_hud_false");
+				HUDManager.setSuffix(p.getScoreboard(), "edge", "war_hud_false");
 		}
 	}
 
 	public static void updateHomeTown(Player p) {
-		String homeTown;
-		try {
-			homeTown = TownyUniverse.getInstance().getDataSource().getResident(p.getName()).getTown().getName();
-		} catch (NotRegisteredException e) {
-			homeTown = Translation.of("war_hud_townless");
-		}
-		p.getScoreboard().getTeam("town_title").setSuffix(HUDManager.check(homeTown));
+		Town town = TownyUniverse.getInstance().getResidentTown(p);
+		String homeTown = town != null ? town.getName() : Translation.of("war_hud_townless");
+		HUDManager.setSuffix(p.getScoreboard(), "town_title", HUDManager.check(homeTown));
 	}
 
 	public static void updateScore(Player p, War war) {
-		String score;
-		try {
-			Town home = TownyUniverse.getInstance().getDataSource().getResident(p.getName()).getTown();
-			Hashtable<Town, Integer> scores = war.getTownScores();
-			if (scores.containsKey(home))
-				score = scores.get(home) + "";
-			else
-				score = "";
-		} catch (NotRegisteredException e) {score = "";}
-		p.getScoreboard().getTeam("town_score").setSuffix(HUDManager.check(score));
+		Town home = TownyUniverse.getInstance().getResidentTown(p);
+		Integer townScore = home != null ? war.getTownScores().get(home) : null;
+		String score = townScore != null ? townScore + "" : "";
+		HUDManager.setSuffix(p.getScoreboard(), "town_score", HUDManager.check(score));
 	}
 
 	public static void updateTopScores(Player p, String[] top) {
@@ -114,16 +101,16 @@ public class WarHUD {
 		String fsuffix = top[0].contains("-") ? top[0].split("-")[1] : "";
 		String ssuffix = top[1].contains("-") ? top[1].split("-")[1] : "";
 		String tsuffix = top[2].contains("-") ? top[2].split("-")[1] : "";
-		p.getScoreboard().getTeam("first").setPrefix(HUDManager.check(fprefix));
-		p.getScoreboard().getTeam("first").setSuffix(HUDManager.check(fsuffix));
-		p.getScoreboard().getTeam("second").setPrefix(HUDManager.check(sprefix));
-		p.getScoreboard().getTeam("second").setSuffix(HUDManager.check(ssuffix));
-		p.getScoreboard().getTeam("third").setPrefix(HUDManager.check(tprefix));
-		p.getScoreboard().getTeam("third").setSuffix(HUDManager.check(tsuffix));
+		HUDManager.setPrefix(p.getScoreboard(), "first", HUDManager.check(fprefix));
+		HUDManager.setSuffix(p.getScoreboard(), "first", HUDManager.check(fsuffix));
+		HUDManager.setPrefix(p.getScoreboard(), "second", HUDManager.check(sprefix));
+		HUDManager.setSuffix(p.getScoreboard(), "second", HUDManager.check(ssuffix));
+		HUDManager.setPrefix(p.getScoreboard(), "third", HUDManager.check(tprefix));
+		HUDManager.setSuffix(p.getScoreboard(), "third", HUDManager.check(tsuffix));
 	}
 
 	public static void updateScore(Player p, int score) {
-		p.getScoreboard().getTeam("town_score").setSuffix(HUDManager.check(score + ""));
+		HUDManager.setSuffix(p.getScoreboard(), "town_score", HUDManager.check(score + ""));
 	}
 
 	public static void toggleOn (Player p, War war) {
@@ -213,28 +200,6 @@ public class WarHUD {
 
 	public static boolean isOnEdgeOfTown(WorldCoord worldCoord, War war) {
 
-		Town currentTown;
-		
-		//Checks to make sure the worldCoord is actually in war
-		try {
-			currentTown = worldCoord.getTownBlock().getTown();
-			if (!War.isWarZone(worldCoord))
-				return false;
-		} catch (NotRegisteredException e) {
-			return false;
-		}
-		
-		int[][] offset = { { -1, 0 }, { 1, 0 }, { 0, -1 }, { 0, 1 } };
-		for (int i = 0; i < 4; i++)
-			try {
-				TownBlock edgeTownBlock = worldCoord.getTownyWorld().getTownBlock(new Coord(worldCoord.getX() + offset[i][0], worldCoord.getZ() + offset[i][1]));
-				boolean sameTown = edgeTownBlock.getTown() == currentTown;
-				if (!sameTown || (sameTown && !War.isWarZone(edgeTownBlock.getWorldCoord()))) {
-					return true;
-				}
-			} catch (NotRegisteredException e) {
-				return true;
-			}
-		return false;
+		return War.isOnEdgeOfTown(worldCoord);
 	}
 }
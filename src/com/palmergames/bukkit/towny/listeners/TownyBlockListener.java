@@ -2,9 +2,11 @@ package com.palmergames.bukkit.towny.listeners;
 
 import com.palmergames.bukkit.towny.Towny;
 import com.palmergames.bukkit.towny.TownyAPI;
+import com.palmergames.bukkit.towny.TownyTimings;
 import com.palmergames.bukkit.towny.TownyUniverse;
 import com.palmergames.bukkit.towny.event.executors.TownyActionEventExecutor;
 import com.palmergames.bukkit.towny.exceptions.NotRegisteredException;
+import com.palmergames.bukkit.towny.object.Coord;
 import com.palmergames.bukkit.towny.object.TownBlock;
 import com.palmergames.bukkit.towny.object.TownyWorld;
 import com.palmergames.bukkit.towny.regen.TownyRegenAPI;
@@ -112,16 +114,16 @@ public class TownyBlockListener implements Listener {
 			return;
 		}
 
-		if (testBlockMove(event.getBlock(), event.isSticky() ? event.getDirection().getOppositeFace() : event.getDirection()))
+		if (testBlockMove(event.getBlock(), event.isSticky() ? event.getDirection().getOppositeFace() : event.getDirection())) {
 			event.setCancelled(true);
+			return;
+		}
 
-		List<Block> blocks = event.getBlocks();
-		
-		if (!blocks.isEmpty()) {
-			//check each block to see if it's going to pass a plot boundary
-			for (Block block : blocks) {
-				if (testBlockMove(block, event.getDirection()))
-					event.setCancelled(true);
+		//check each block to see if it's going to pass a plot boundary
+		for (Block block : event.getBlocks()) {
+			if (testBlockMove(block, event.getDirection())) {
+				event.setCancelled(true);
+				return;
 			}
 		}
 	}
@@ -134,16 +136,16 @@ public class TownyBlockListener implements Listener {
 			return;
 		}
 		
-		if (testBlockMove(event.getBlock(), event.getDirection()))
+		if (testBlockMove(event.getBlock(), event.getDirection())) {
 			event.setCancelled(true);
-		
-		List<Block> blocks = event.getBlocks();
+			return;
+		}
 
-		if (!blocks.isEmpty()) {
-			//check each block to see if it's going to pass a plot boundary
-			for (Block block : blocks) {
-				if (testBlockMove(block, event.getDirection()))
-					event.setCancelled(true);
+		//check each block to see if it's going to pass a plot boundary
+		for (Block block : event.getBlocks()) {
+			if (testBlockMove(block, event.getDirection())) {
+				event.setCancelled(true);
+				return;
 			}
 		}
 	}
@@ -158,6 +160,11 @@ public class TownyBlockListener implements Listener {
 	 */
 	private boolean testBlockMove(Block block, BlockFace direction) {
 
+		// A block which stays inside of one townblock cannot pass a plot boundary.
+		if (Coord.toCell(block.getX()) == Coord.toCell(block.getX() + direction.getModX())
+				&& Coord.toCell(block.getZ()) == Coord.toCell(block.getZ() + direction.getModZ()))
+			return false;
+
 		Block blockTo = block.getRelative(direction);
 		Location loc = block.getLocation();
 		Location locTo = blockTo.getLocation();
@@ -194,6 +201,12 @@ public class TownyBlockListener implements Listener {
 	
 	@EventHandler(priority = EventPriority.HIGH, ignoreCancelled = true)
 	public void onCreateExplosion(BlockExplodeEvent event) {
+		long start = System.nanoTime();
+		createExplosion(event);
+		TownyTimings.Handler.EXPLODE.record(start);
+	}
+
+	private void createExplosion(BlockExplodeEvent event) {
 		if (plugin.isError()) {
 			event.setCancelled(true);
 			return;
@@ -13,31 +13,28 @@ import com.palmergames.bukkit.towny.command.TownyCommand;
 import com.palmergames.bukkit.towny.event.BedExplodeEvent;
 import com.palmergames.bukkit.towny.event.NewTownEvent;
 import com.palmergames.bukkit.towny.event.PlayerChangePlotEvent;
+import com.palmergames.bukkit.towny.event.TownBlockSettingsChangedEvent;
 import com.palmergames.bukkit.towny.event.nation.NationPreTownLeaveEvent;
 import com.palmergames.bukkit.towny.exceptions.NotRegisteredException;
 import com.palmergames.bukkit.towny.object.CellBorder;
 import com.palmergames.bukkit.towny.object.Resident;
 import com.palmergames.bukkit.towny.object.Town;
+import com.palmergames.bukkit.towny.object.TownBlock;
 import com.palmergames.bukkit.towny.object.TownyWorld;
 import com.palmergames.bukkit.towny.object.Translation;
 import com.palmergames.bukkit.towny.object.WorldCoord;
+import com.palmergames.bukkit.towny.tasks.ActionBarNotificationTask;
 import com.palmergames.bukkit.towny.utils.BorderUtil;
 import com.palmergames.bukkit.util.Colors;
 import com.palmergames.bukkit.util.DrawSmokeTaskFactory;
 import com.palmergames.util.TimeMgmt;
 
-import net.md_5.bungee.api.ChatMessageType;
-import net.md_5.bungee.api.chat.TextComponent;
-
 import org.bukkit.Bukkit;
 import org.bukkit.entity.Player;
 import org.bukkit.event.EventHandler;
 import org.bukkit.event.EventPriority;
 import org.bukkit.event.Listener;
-
-import java.util.HashMap;
-import java.util.Map;
-import java.util.concurrent.atomic.AtomicInteger;
+import org.bukkit.event.player.PlayerQuitEvent;
 
 /**
  * Author: Chris H (Zren / Shade)
@@ -45,10 +42,11 @@ import java.util.concurrent.atomic.AtomicInteger;
  */
 public class TownyCustomListener implements Listener {
 	private final Towny plugin;
-	private final Map<Player, Integer> playerActionTasks = new HashMap<>();
+	private final ActionBarNotificationTask actionBarNotifications;
 
 	public TownyCustomListener(Towny instance) {
 		plugin = instance;
+		actionBarNotifications = new ActionBarNotificationTask(instance);
 	}
 
 	@EventHandler(priority = EventPriority.NORMAL)
@@ -71,8 +69,10 @@ public class TownyCustomListener implements Listener {
 
 		// Check if player has entered a new town/wilderness
 		try {
-			if (to.getTownyWorld().isUsingTowny() && TownySettings.getShowTownNotifications()) {
-				Resident resident = TownyUniverse.getInstance().getDataSource().getResident(player.getName());
+			if (to.getTownyWorld().isUsingTowny() && TownySettings.getShowTownNotifications() && hasNotification(from, to)) {
+				Resident resident = TownyUniverse.getInstance().getResident(player);
+				if (resident == null)
+					throw new NotRegisteredException();
 				ChunkNotification chunkNotifier = new ChunkNotification(from, to);
 				String msg = null;
 				try {
@@ -86,31 +86,7 @@ public class TownyCustomListener implements Listener {
 					msg = Colors.translateColorCodes(msg);
 					
 					if (Towny.isSpigot && TownySettings.isNotificationsAppearingInActionBar()) {
-						int seconds = TownySettings.getInt(ConfigNodes.NOTIFICATION_ACTIONBAR_DURATION);
-						if (seconds > 3) {
-							// Vanilla action bar displays for 3 seconds, so we shouldn't bother with any scheduling.
-							// Cancel any older tasks running to prevent them from leaking over.
-							if (playerActionTasks.get(player) != null) {
-								Bukkit.getScheduler().cancelTask(playerActionTasks.get(player));
-								playerActionTasks.remove(player);
-							}
-					
-							final String message = msg;
-							AtomicInteger remainingSeconds = new AtomicInteger(seconds);
-							int taskID = Bukkit.getScheduler().runTaskTimer(plugin, () -> {
-								player.spigot().sendMessage(ChatMessageType.ACTION_BAR, TextComponent.fromLegacyText(message));
-								remainingSeconds.getAndDecrement();
-								
-								if (remainingSeconds.get() == 0 && playerActionTasks.containsKey(player)) {
-									Bukkit.getScheduler().cancelTask(playerActionTasks.get(player));
-									playerActionTasks.remove(player);
-								}
-							}, 0, 20L).getTaskId();
-							
-							playerActionTasks.put(player, taskID);
-						} else {						
-							player.spigot().sendMessage(ChatMessageType.ACTION_BAR, TextComponent.fromLegacyText(msg));
-						}
+						actionBarNotifications.show(player, msg, TownySettings.getInt(ConfigNodes.NOTIFICATION_ACTIONBAR_DURATION));
 					} else {
 						player.sendMessage(msg);
 					}
@@ -125,6 +101,34 @@ public class TownyCustomListener implements Listener {
 			cellBorder.runBorderedOnSurface(1, 2, DrawSmokeTaskFactory.sendToPlayer(player));
 		}
 	}
+
+	/**
+	 * Moving from one wilderness plot to another only has a notification when
+	 * nation zones are shown, so most wilderness moves can be skipped without
+	 * building a ChunkNotification.
+	 */
+	private boolean hasNotification(WorldCoord from, WorldCoord to) {
+		TownyUniverse universe = TownyUniverse.getInstance();
+		if (universe.hasTownBlock(from) || universe.hasTownBlock(to))
+			return true;
+		return TownySettings.getNationZonesEnabled() && TownySettings.getNationZonesShowNotifications();
+	}
+
+	@EventHandler(priority = EventPriority.MONITOR)
+	public void onTownBlockSettingsChanged(TownBlockSettingsChangedEvent event) {
+		if (event.getTownBlock() != null)
+			event.getTownBlock().clearNotificationFragments();
+		else if (event.getTown() != null)
+			for (TownBlock townBlock : event.getTown().getTownBlocks())
+				townBlock.clearNotificationFragments();
+		else
+			ChunkNotification.clearPlotFragments();
+	}
+
+	@EventHandler(priority = EventPriority.MONITOR)
+	public void onPlayerQuit(PlayerQuitEvent event) {
+		actionBarNotifications.remove(event.getPlayer());
+	}
 	
 	@EventHandler(priority = EventPriority.NORMAL)
 	public void onPlayerCreateTown(NewTownEvent event) {
@@ -4,6 +4,7 @@ import com.palmergames.bukkit.towny.Towny;
 import com.palmergames.bukkit.towny.TownyAPI;
 import com.palmergames.bukkit.towny.TownyMessaging;
 import com.palmergames.bukkit.towny.TownySettings;
+import com.palmergames.bukkit.towny.TownyTimings;
 import com.palmergames.bukkit.towny.TownyUniverse;
 import com.palmergames.bukkit.towny.event.mobs.MobSpawnRemovalEvent;
 import com.palmergames.bukkit.towny.event.executors.TownyActionEventExecutor;
@@ -19,7 +20,7 @@ import com.palmergames.bukkit.towny.utils.CombatUtil;
 import com.palmergames.bukkit.towny.utils.EntityTypeUtil;
 import com.palmergames.bukkit.towny.war.eventwar.War;
 import com.palmergames.bukkit.util.BukkitTools;
-import com.palmergames.bukkit.util.ItemLists;
+import com.palmergames.bukkit.util.MaterialClassifier;
 
 import net.citizensnpcs.api.CitizensAPI;
 import org.bukkit.Location;
@@ -89,6 +90,12 @@ public class TownyEntityListener implements Listener {
 	 */
 	@EventHandler(priority = EventPriority.HIGH, ignoreCancelled = true)
 	public void onEntityDamageByEntity(EntityDamageByEntityEvent event) {
+		long start = System.nanoTime();
+		entityDamageByEntity(event);
+		TownyTimings.Handler.DAMAGE.record(start);
+	}
+
+	private void entityDamageByEntity(EntityDamageByEntityEvent event) {
 		if (plugin.isError()) {
 			event.setCancelled(true);
 			return;
@@ -516,7 +523,8 @@ public class TownyEntityListener implements Listener {
 				event.setCancelled(true);
 			}
 			// Handle mob removal in wilderness
-			if (TownyAPI.getInstance().isWilderness(loc)) {
+			TownBlock townBlock = TownyAPI.getInstance().getTownBlock(loc);
+			if (townBlock == null || !townBlock.hasTown()) {
 				// Check if entity should be removed.
 				if (!townyWorld.hasWildernessMobs() && MobRemovalTimerTask.isRemovingWildernessEntity(livingEntity)) {
 					event.setCancelled(true);
@@ -525,7 +533,6 @@ public class TownyEntityListener implements Listener {
 			}
 			
 			// handle mob removal in towns
-			TownBlock townBlock = TownyAPI.getInstance().getTownBlock(loc);
 			if (!townyWorld.isForceTownMobs() && !townBlock.getPermissions().mobs && MobRemovalTimerTask.isRemovingTownEntity(livingEntity)) {
 				event.setCancelled(true);
 			}
@@ -566,7 +573,7 @@ public class TownyEntityListener implements Listener {
 			for (Entity passenger : passengers) {
 				if (!passenger.getType().equals(EntityType.PLAYER)) 
 					return;
-				if (TownySettings.isSwitchMaterial(block.getType().name())) {
+				if (TownySettings.isSwitchMaterial(block.getType())) {
 					//Make decision on whether this is allowed using the PlayerCache and then a cancellable event.
 					event.setCancelled(!TownyActionEventExecutor.canSwitch((Player) passenger, block.getLocation(), block.getType()));
 					return;
@@ -663,6 +670,12 @@ public class TownyEntityListener implements Listener {
 	 */
 	@EventHandler(priority = EventPriority.HIGH, ignoreCancelled = true)
 	public void onEntityExplode(EntityExplodeEvent event) {
+		long start = System.nanoTime();
+		entityExplode(event);
+		TownyTimings.Handler.EXPLODE.record(start);
+	}
+
+	private void entityExplode(EntityExplodeEvent event) {
 		if (plugin.isError()) {
 			event.setCancelled(true);
 			return;
@@ -901,7 +914,7 @@ public class TownyEntityListener implements Listener {
 		
 		Block block = event.getHitBlock().getRelative(event.getHitBlockFace());
 		Material material = block.getType();
-		if (ItemLists.PROJECTILE_TRIGGERED_REDSTONE.contains(material.name()) && TownySettings.isSwitchMaterial(material.name())) {
+		if (MaterialClassifier.is(material, MaterialClassifier.PROJECTILE_TRIGGERED_REDSTONE) && TownySettings.isSwitchMaterial(material)) {
 			//Make decision on whether this is allowed using the PlayerCache and then a cancellable event.
 			if (!TownyActionEventExecutor.canSwitch((Player) event.getEntity().getShooter(), block.getLocation(), material)) {
 				/*
@@ -928,7 +941,7 @@ public class TownyEntityListener implements Listener {
 		if (plugin.isError() || !TownyAPI.getInstance().isTownyWorld(event.getEntity().getWorld()) || event.getHitBlock() == null || !(event.getEntity().getShooter() instanceof Player))
 			return;
 
-		if (event.getHitBlock().getType() == Material.TARGET && TownySettings.isSwitchMaterial(Material.TARGET.name())) {
+		if (event.getHitBlock().getType() == Material.TARGET && TownySettings.isSwitchMaterial(Material.TARGET)) {
 			//Make decision on whether this is allowed using the PlayerCache and then a cancellable event.
 			if (!TownyActionEventExecutor.canSwitch((Player) event.getEntity().getShooter(), event.getHitBlock().getLocation(), Material.TARGET)) {
 				/*
@@ -5,8 +5,8 @@ import com.palmergames.bukkit.towny.TownyAPI;
 import com.palmergames.bukkit.towny.TownyMessaging;
 import com.palmergames.bukkit.towny.TownySettings;
 import com.palmergames.bukkit.towny.TownyTimerHandler;
+import com.palmergames.bukkit.towny.TownyTimings;
 import com.palmergames.bukkit.towny.TownyUniverse;
-import com.palmergames.bukkit.towny.db.TownyDataSource;
 import com.palmergames.bukkit.towny.event.BedExplodeEvent;
 import com.palmergames.bukkit.towny.event.PlayerChangePlotEvent;
 import com.palmergames.bukkit.towny.event.PlayerEnterTownEvent;
@@ -33,7 +33,7 @@ import com.palmergames.bukkit.towny.utils.EntityTypeUtil;
 import com.palmergames.bukkit.util.BukkitTools;
 import com.palmergames.bukkit.util.ChatTools;
 import com.palmergames.bukkit.util.Colors;
-import com.palmergames.bukkit.util.ItemLists;
+import com.palmergames.bukkit.util.MaterialClassifier;
 import com.palmergames.util.StringMgmt;
 
 import com.palmergames.util.TimeMgmt;
@@ -132,22 +132,18 @@ public class TownyPlayerListener implements Listener {
 			return;
 		}
 		
-		TownyDataSource dataSource = TownyUniverse.getInstance().getDataSource();
-		try {
-			Resident resident = dataSource.getResident(event.getPlayer().getName());
+		TownyUniverse townyUniverse = TownyUniverse.getInstance();
+		Resident resident = townyUniverse.getResident(event.getPlayer());
+		if (resident != null) {
 			resident.setLastOnline(System.currentTimeMillis());
 			resident.clearModes();
-			dataSource.saveResident(resident);
-		} catch (NotRegisteredException ignored) {
-		}
+			townyUniverse.getDataSource().saveResident(resident);
 
-		// Remove from teleport queue (if exists)
-		try {
-			if (TownyTimerHandler.isTeleportWarmupRunning()) {
-				TownyAPI.getInstance().abortTeleportRequest(dataSource.getResident(event.getPlayer().getName().toLowerCase()));
-			}
-		} catch (NotRegisteredException ignored) {
+			// Remove from teleport queue (if exists)
+			if (TownyTimerHandler.isTeleportWarmupRunning())
+				TownyAPI.getInstance().abortTeleportRequest(resident);
 		}
+		townyUniverse.removeOnlineResident(event.getPlayer());
 
 		plugin.deleteCache(event.getPlayer());
 		TownyPerms.removeAttachment(event.getPlayer().getName());
@@ -252,6 +248,12 @@ public class TownyPlayerListener implements Listener {
 	*/
 	@EventHandler(priority = EventPriority.HIGH, ignoreCancelled = true)
 	public void onPlayerInteract(PlayerInteractEvent event) {
+		long start = System.nanoTime();
+		playerInteract(event);
+		TownyTimings.Handler.INTERACT.record(start);
+	}
+
+	private void playerInteract(PlayerInteractEvent event) {
 
 		if (plugin.isError()) {
 			event.setCancelled(true);
@@ -273,7 +275,7 @@ public class TownyPlayerListener implements Listener {
 			/*
 			 * Test item_use. 
 			 */
-			if (TownySettings.isItemUseMaterial(item.name()))
+			if (TownySettings.isItemUseMaterial(item))
 				event.setCancelled(!TownyActionEventExecutor.canItemuse(player, clickedBlock.getLocation(), item));
 
 			/*
@@ -292,8 +294,9 @@ public class TownyPlayerListener implements Listener {
 				 * 
 				 * Treat interaction as a Destroy test.
 				 */
-				if ((ItemLists.AXES.contains(item.name()) && Tag.LOGS.isTagged(clickedMat)) || // This will also catched already stripped logs but it is cleaner than anything else.
-					(ItemLists.DYES.contains(item.name()) && Tag.SIGNS.isTagged(clickedMat)) ||
+				int itemFlags = MaterialClassifier.getFlags(item);
+				if (((itemFlags & MaterialClassifier.AXE) != 0 && Tag.LOGS.isTagged(clickedMat)) || // This will also catched already stripped logs but it is cleaner than anything else.
+					((itemFlags & MaterialClassifier.DYE) != 0 && Tag.SIGNS.isTagged(clickedMat)) ||
 					(item == Material.FLINT_AND_STEEL && clickedMat == Material.TNT) ||
 					((item == Material.GLASS_BOTTLE || item == Material.SHEARS) && (clickedMat == Material.BEE_NEST || clickedMat == Material.BEEHIVE || clickedMat == Material.PUMPKIN))) { 
 
@@ -321,10 +324,11 @@ public class TownyPlayerListener implements Listener {
 		if (!event.useItemInHand().equals(Event.Result.DENY)) {
 			if (clickedBlock != null) {
 				Material clickedMat = clickedBlock.getType(); 
+				int clickedFlags = MaterialClassifier.getFlags(clickedMat);
 				/*
 				 * Test switch use.
 				 */
-				if (TownySettings.isSwitchMaterial(clickedMat.name()) || event.getAction() == Action.PHYSICAL) {
+				if ((clickedFlags & MaterialClassifier.SWITCH) != 0 || event.getAction() == Action.PHYSICAL) {
 					//Make decision on whether this is allowed using the PlayerCache and then a cancellable event.
 					event.setCancelled(!TownyActionEventExecutor.canSwitch(player, clickedBlock.getLocation(), clickedMat));
 					return;
@@ -337,8 +341,7 @@ public class TownyPlayerListener implements Listener {
 				 * 
 				 * Test interaction as a Destroy test. (These used to be switches pre-0.96.3.1)
 				 */
-				if (ItemLists.POTTED_PLANTS.contains(clickedMat.name()) ||                          
-					ItemLists.REDSTONE_INTERACTABLES.contains(clickedMat.name()) ||
+				if ((clickedFlags & (MaterialClassifier.POTTED_PLANT | MaterialClassifier.REDSTONE_INTERACTABLE)) != 0 ||
 					clickedMat == Material.BEACON || clickedMat == Material.DRAGON_EGG || 
 					clickedMat == Material.COMMAND_BLOCK || clickedMat == Material.SWEET_BERRY_BUSH){
 					
@@ -458,6 +461,12 @@ public class TownyPlayerListener implements Listener {
 	*/
 	@EventHandler(priority = EventPriority.HIGH, ignoreCancelled = true)
 	public void onPlayerInteractEntity(PlayerInteractEntityEvent event) {
+		long start = System.nanoTime();
+		playerInteractEntity(event);
+		TownyTimings.Handler.INTERACT.record(start);
+	}
+
+	private void playerInteractEntity(PlayerInteractEntityEvent event) {
 
 		if (plugin.isError()) {
 			event.setCancelled(true);
@@ -495,7 +504,7 @@ public class TownyPlayerListener implements Listener {
 				case WOLF:
 					if (event.getPlayer().getInventory().getItem(event.getHand()) != null) {
 						Material dye = event.getPlayer().getInventory().getItem(event.getHand()).getType();
-						if (ItemLists.DYES.contains(dye.name())) {
+						if (MaterialClassifier.is(dye, MaterialClassifier.DYE)) {
 							mat = dye;
 							break;
 						}
@@ -529,7 +538,7 @@ public class TownyPlayerListener implements Listener {
 					return;
 				}
 				// Material has been supplied in place of an entity, run Switch Tests.
-				if (TownySettings.isSwitchMaterial(mat.name()) && actionType == ActionType.SWITCH) {
+				if (TownySettings.isSwitchMaterial(mat) && actionType == ActionType.SWITCH) {
 					//Make decision on whether this is allowed using the PlayerCache and then a cancellable event.
 					event.setCancelled(!TownyActionEventExecutor.canSwitch(player, event.getRightClicked().getLocation(), mat));
 					return;
@@ -563,7 +572,7 @@ public class TownyPlayerListener implements Listener {
 				/*
 				 * Item_use protection.
 				 */
-				if (TownySettings.isItemUseMaterial(item.name())) {
+				if (TownySettings.isItemUseMaterial(item)) {
 					//Make decision on whether this is allowed using the PlayerCache and then a cancellable event.
 					event.setCancelled(!TownyActionEventExecutor.canItemuse(player, event.getRightClicked().getLocation(), item));
 					return;
@@ -574,6 +583,12 @@ public class TownyPlayerListener implements Listener {
 
 	@EventHandler(priority = EventPriority.HIGH, ignoreCancelled = true)
 	public void onPlayerMove(PlayerMoveEvent event) {
+		long start = System.nanoTime();
+		playerMove(event);
+		TownyTimings.Handler.MOVE.record(start);
+	}
+
+	private void playerMove(PlayerMoveEvent event) {
 
 		if (plugin.isError()) {
 			event.setCancelled(true);
@@ -592,11 +607,7 @@ public class TownyPlayerListener implements Listener {
 		Location to = event.getTo();
 		Location from;
 		PlayerCache cache = plugin.getCache(player);
-		Resident resident = null;
-		try {
-			resident = townyUniverse.getDataSource().getResident(player.getName());
-		} catch (NotRegisteredException ignored) {
-		}
+		Resident resident = townyUniverse.getResident(player);
 		
 		if (resident != null
 				&& TownyTimerHandler.isTeleportWarmupRunning()				 
@@ -645,8 +656,10 @@ public class TownyPlayerListener implements Listener {
 
 		Player player = event.getPlayer();
 		// Cancel teleport if Jailed by Towny.
-		try {
-			if (TownyUniverse.getInstance().getDataSource().getResident(player.getName()).isJailed()) {
+		Resident resident = TownyUniverse.getInstance().getResident(player);
+		// A player without a resident is probably an NPC from Citizens.
+		if (resident != null) {
+			if (resident.isJailed()) {
 				if ((event.getCause() == TeleportCause.COMMAND)) {
 					TownyMessaging.sendErrorMsg(event.getPlayer(), Translation.of("msg_err_jailed_players_no_teleport"));
 					event.setCancelled(true);
@@ -659,15 +672,13 @@ public class TownyPlayerListener implements Listener {
 					event.setCancelled(true);
 				}
 			}
-		} catch (NotRegisteredException ignored) {
-			// Not a valid resident, probably an NPC from Citizens.
 		}
 		
 
 		/*
 		 * Test to see if CHORUS_FRUIT is in the item_use list.
 		 */
-		if (event.getCause() == TeleportCause.CHORUS_FRUIT && TownySettings.isItemUseMaterial(Material.CHORUS_FRUIT.name())) {
+		if (event.getCause() == TeleportCause.CHORUS_FRUIT && TownySettings.isItemUseMaterial(Material.CHORUS_FRUIT)) {
 			//Make decision on whether this is allowed using the PlayerCache and then a cancellable event.
 			if (!TownyActionEventExecutor.canItemuse(event.getPlayer(), event.getTo(), Material.CHORUS_FRUIT)) {
 				event.setCancelled(true);
@@ -678,7 +689,7 @@ public class TownyPlayerListener implements Listener {
 		/*
 		 * Test to see if Ender pearls are disabled.
 		 */		
-		if (event.getCause() == TeleportCause.ENDER_PEARL && TownySettings.isItemUseMaterial(Material.ENDER_PEARL.name())) {
+		if (event.getCause() == TeleportCause.ENDER_PEARL && TownySettings.isItemUseMaterial(Material.ENDER_PEARL)) {
 			//Make decision on whether this is allowed using the PlayerCache and then a cancellable event.
 			if (!TownyActionEventExecutor.canItemuse(event.getPlayer(), event.getTo(), Material.ENDER_PEARL)) {
 				event.setCancelled(true);
@@ -753,10 +764,10 @@ public class TownyPlayerListener implements Listener {
 		Player player = event.getPlayer();		
 		WorldCoord from = event.getFrom();
 		WorldCoord to = event.getTo();
+		// Required so we don't fire events on NPCs from plugins like citizens.
+		if (TownyUniverse.getInstance().getResident(player) == null)
+			return;
 		try {
-			@SuppressWarnings("unused")
-			// Required so we don't fire events on NPCs from plugins like citizens.
-			Resident resident = TownyUniverse.getInstance().getDataSource().getResident(player.getName());
 			try {
 				to.getTownBlock();
 				if (to.getTownBlock().hasTown()) { 
@@ -780,7 +791,7 @@ public class TownyPlayerListener implements Listener {
 			}
 
 		} catch (NotRegisteredException e) {
-			// If not registered, it is most likely an NPC			
+			// From Wilderness into Wilderness.
 		}		
 	}
 	
@@ -791,7 +802,9 @@ public class TownyPlayerListener implements Listener {
 	@EventHandler(priority = EventPriority.NORMAL)
 	public void onOutlawEnterTown(PlayerEnterTownEvent event) throws NotRegisteredException {
 
-		Resident outlaw = TownyUniverse.getInstance().getDataSource().getResident(event.getPlayer().getName());
+		Resident outlaw = TownyUniverse.getInstance().getResident(event.getPlayer());
+		if (outlaw == null)
+			return;
 		Town town = event.getEnteredtown();
 		
 		if (town.hasOutlaw(outlaw)) {
@@ -901,11 +914,13 @@ public class TownyPlayerListener implements Listener {
 		WorldCoord to = event.getTo();
 		Resident resident = null;
 		Town town = null;
+		resident = TownyUniverse.getInstance().getResident(event.getPlayer());
+		// Likely a Citizens NPC
+		if (resident == null)
+			return;
 		try {
-			resident = TownyUniverse.getInstance().getDataSource().getResident(event.getPlayer().getName());
 			town = to.getTownBlock().getTown();
 		} catch (NotRegisteredException e) {
-			// Likely a Citizens NPC
 			return;
 		}
 		
@@ -941,8 +956,11 @@ public class TownyPlayerListener implements Listener {
 		
 		Resident resident;
 		String worldName;
+		resident = townyUniverse.getResident(event.getPlayer());
+		// Likely a Citizens NPC.
+		if (resident == null)
+			return;
 		try {
-			resident = townyUniverse.getDataSource().getResident(event.getPlayer().getName());
 			worldName = townyUniverse.getDataSource().getWorld(event.getPlayer().getLocation().getWorld().getName()).getUnclaimedZoneName();
 		} catch (NotRegisteredException e1) {
 			// Likely a Citizens NPC.
@@ -1000,12 +1018,8 @@ public class TownyPlayerListener implements Listener {
 		if (plugin.isError()) {
 			return;
 		}
-		Resident resident = null;
-		try {
-			resident = TownyAPI.getInstance().getDataSource().getResident(event.getPlayer().getName());
-		} catch (NotRegisteredException e) {
-			// More than likely another plugin using a fake player to run a command. 
-		} 
+		// No resident is more than likely another plugin using a fake player to run a command.
+		Resident resident = TownyUniverse.getInstance().getResident(event.getPlayer());
 		if (resident == null || !resident.isJailed())
 			return;
 				
@@ -25,10 +25,13 @@ import org.bukkit.entity.Player;
 import org.bukkit.event.EventHandler;
 import org.bukkit.event.EventPriority;
 import org.bukkit.event.Listener;
+import org.bukkit.event.world.ChunkLoadEvent;
+import org.bukkit.event.world.ChunkUnloadEvent;
 import org.bukkit.event.world.PortalCreateEvent;
 import org.bukkit.event.world.StructureGrowEvent;
 import org.bukkit.event.world.WorldInitEvent;
 import org.bukkit.event.world.WorldLoadEvent;
+import org.bukkit.event.world.WorldUnloadEvent;
 
 public class TownyWorldListener implements Listener {
 	
@@ -54,6 +57,24 @@ public class TownyWorldListener implements Listener {
 
 	}
 
+	@EventHandler(priority = EventPriority.MONITOR)
+	public void onWorldUnload(WorldUnloadEvent event) {
+
+		TownyUniverse.getInstance().getTownBlockChunkCache().unloadWorld(event.getWorld().getName());
+	}
+
+	@EventHandler(priority = EventPriority.MONITOR)
+	public void onChunkLoad(ChunkLoadEvent event) {
+
+		TownyUniverse.getInstance().getTownBlockChunkCache().loadChunk(event.getChunk());
+	}
+
+	@EventHandler(priority = EventPriority.MONITOR)
+	public void onChunkUnload(ChunkUnloadEvent event) {
+
+		TownyUniverse.getInstance().getTownBlockChunkCache().unloadChunk(event.getChunk());
+	}
+
 	private void newWorld(String worldName) {
 		
 		boolean dungeonWorld = false;
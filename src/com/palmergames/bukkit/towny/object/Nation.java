@@ -27,17 +27,18 @@ import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
 import java.util.Collections;
-import java.util.Iterator;
 import java.util.List;
 import java.util.UUID;
+import java.util.concurrent.CopyOnWriteArrayList;
 
 public class Nation extends Government {
 
 	private static final String ECONOMY_ACCOUNT_PREFIX = TownySettings.getNationAccountPrefix();
 
-	private final List<Town> towns = new ArrayList<>();
-	private List<Nation> allies = new ArrayList<>();
-	private List<Nation> enemies = new ArrayList<>();
+	// Copy-on-write so async tasks can iterate the members while the main thread changes them.
+	private final List<Town> towns = new CopyOnWriteArrayList<>();
+	private List<Nation> allies = new CopyOnWriteArrayList<>();
+	private List<Nation> enemies = new CopyOnWriteArrayList<>();
 	private Town capital;
 	private boolean neutral = false;
 	private String mapColorHexCode = "";
@@ -77,7 +78,7 @@ public class Nation extends Government {
 
 	public boolean removeAllAllies() {
 
-		for (Nation ally : new ArrayList<>(getAllies()))
+		for (Nation ally : getAllies())
 			try {
 				removeAlly(ally);
 				ally.removeAlly(this);
@@ -118,7 +119,7 @@ public class Nation extends Government {
 
 	public boolean removeAllEnemies() {
 
-		for (Nation enemy : new ArrayList<>(getEnemies()))
+		for (Nation enemy : getEnemies())
 			try {
 				removeEnemy(enemy);
 				enemy.removeEnemy(this);
@@ -323,7 +324,7 @@ public class Nation extends Government {
 
 	public void setEnemies(List<Nation> enemies) {
 
-		this.enemies = enemies;
+		this.enemies = new CopyOnWriteArrayList<>(enemies);
 	}
 
 	public List<Nation> getEnemies() {
@@ -333,7 +334,7 @@ public class Nation extends Government {
 
 	public void setAllies(List<Nation> allies) {
 
-		this.allies = allies;
+		this.allies = new CopyOnWriteArrayList<>(allies);
 	}
 
 	public List<Nation> getAllies() {
@@ -412,12 +413,10 @@ public class Nation extends Government {
 		if(capital != null) {
 			if (TownySettings.getNationRequiresProximity() > 0) {
 				final Coord capitalCoord = capital.getHomeBlock().getCoord();
-				Iterator<Town> it = towns.iterator();
-				while(it.hasNext()) {
-					Town town = it.next();
+				for (Town town : towns) {
 					Coord townCoord = town.getHomeBlock().getCoord();
 					if (!capital.getHomeBlock().getWorld().getName().equals(town.getHomeBlock().getWorld().getName())) {
-						it.remove();
+						towns.remove(town);
 						continue;
 					}
 
@@ -426,7 +425,7 @@ public class Nation extends Government {
 						TownyMessaging.sendPrefixedTownMessage(town, Translation.of("msg_town_left_nation", this.getName()));
 						TownyMessaging.sendPrefixedNationMessage(this, Translation.of("msg_nation_town_left", town.getName()));
 						this.remove(town);
-						it.remove();
+						towns.remove(town);
 					}
 				}
 			}
@@ -51,6 +51,7 @@ public class PlotGroup extends ObjectGroup implements TownBlockOwner {
 			String oldName = getName();
 			super.setName(name);
 			town.renamePlotGroup(oldName, this);
+			clearNotificationFragments();
 		}
 	}
 	
@@ -120,15 +121,25 @@ public class PlotGroup extends ObjectGroup implements TownBlockOwner {
 
 	public void setPrice(double price) {
 		this.price = price;
+		clearNotificationFragments();
 	}
 	
 	public void addPlotPrice(double pPrice) {
 		if (getPrice() == -1) {
 			this.price = pPrice;
-			return;
+		} else {
+			this.price += pPrice;
 		}
-		
-		this.price += pPrice;
+		clearNotificationFragments();
+	}
+
+	/**
+	 * The group's name and price are shown in the notifications of its plots.
+	 */
+	private void clearNotificationFragments() {
+		if (townBlocks != null)
+			for (TownBlock townBlock : townBlocks)
+				townBlock.clearNotificationFragments();
 	}
 
 	@Override
@@ -33,13 +33,14 @@ import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
 import java.util.Collections;
-import java.util.Iterator;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
+import java.util.concurrent.CopyOnWriteArrayList;
 
 public class Resident extends TownyObject implements InviteReceiver, EconomyHandler, TownBlockOwner {
-	private List<Resident> friends = new ArrayList<>();
+	// Copy-on-write so async tasks can iterate these while the main thread changes them.
+	private List<Resident> friends = new CopyOnWriteArrayList<>();
 	// private List<Object[][][]> regenUndo = new ArrayList<>(); // Feature is disabled as of MC 1.13, maybe it'll come back.
 	private UUID uuid = null;
 	private Town town = null;
@@ -60,9 +61,9 @@ public class Resident extends TownyObject implements InviteReceiver, EconomyHand
 	private final transient List<Invite> receivedInvites = new ArrayList<>();
 	private transient EconomyAccount account = new EconomyAccount(getName());
 
-	private final List<String> townRanks = new ArrayList<>();
-	private final List<String> nationRanks = new ArrayList<>();
-	private List<TownBlock> townBlocks = new ArrayList<>();
+	private final List<String> townRanks = new CopyOnWriteArrayList<>();
+	private final List<String> nationRanks = new CopyOnWriteArrayList<>();
+	private List<TownBlock> townBlocks = new CopyOnWriteArrayList<>();
 	private final TownyPermission permissions = new TownyPermission();
 	private TownyInventory guiInventory;
 
@@ -368,18 +369,13 @@ public class Resident extends TownyObject implements InviteReceiver, EconomyHand
 		} catch (EmptyTownException ignore) {
 		}
 
-		// Use an iterator to be able to keep track of element modifications.
-		Iterator<TownBlock> townBlockIterator = townBlocks.iterator();
-		
-		while (townBlockIterator.hasNext()) {
-			TownBlock townBlock = townBlockIterator.next();
+		// Iterating the copy-on-write list is safe while plots are removed from it.
+		for (TownBlock townBlock : townBlocks) {
 
 			// Do not remove Embassy plots
 			if (townBlock.getType() != TownBlockType.EMBASSY) {
 				
-				// Make sure the element is removed from the iterator, to 
-				// prevent concurrent modification exceptions.
-				townBlockIterator.remove();
+				townBlocks.remove(townBlock);
 				townBlock.setResident(null);
 				
 				try {
@@ -406,7 +402,7 @@ public class Resident extends TownyObject implements InviteReceiver, EconomyHand
 
 	public void setFriends(List<Resident> newFriends) {
 
-		friends = newFriends;
+		friends = new CopyOnWriteArrayList<>(newFriends);
 	}
 
 	public List<Resident> getFriends() {
@@ -867,7 +863,7 @@ public class Resident extends TownyObject implements InviteReceiver, EconomyHand
 	}
 
 	public void setTownblocks(Collection<TownBlock> townBlocks) {
-		this.townBlocks = new ArrayList<>(townBlocks);
+		this.townBlocks = new CopyOnWriteArrayList<>(townBlocks);
 	}
 
 	@Override
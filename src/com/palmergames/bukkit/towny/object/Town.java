@@ -28,6 +28,7 @@ import java.util.HashMap;
 import java.util.List;
 import java.util.UUID;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
 
 import static com.palmergames.bukkit.towny.object.EconomyAccount.SERVER_ACCOUNT;
 
@@ -35,8 +36,9 @@ public class Town extends Government implements TownBlockOwner {
 
 	private static final String ECONOMY_ACCOUNT_PREFIX = TownySettings.getTownAccountPrefix();
 
-	private final List<Resident> residents = new ArrayList<>();
-	private final List<Resident> outlaws = new ArrayList<>();
+	// Copy-on-write so async tasks can iterate the members while the main thread changes them.
+	private final List<Resident> residents = new CopyOnWriteArrayList<>();
+	private final List<Resident> outlaws = new CopyOnWriteArrayList<>();
 	private List<Location> outpostSpawns = new ArrayList<>();
 	private final List<Location> jailSpawns = new ArrayList<>();
 	private HashMap<String, PlotGroup> plotGroups = null;
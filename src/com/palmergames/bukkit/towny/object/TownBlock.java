@@ -1,5 +1,6 @@
 package com.palmergames.bukkit.towny.object;
 
+import com.palmergames.bukkit.towny.ChunkNotification;
 import com.palmergames.bukkit.towny.TownyAPI;
 import com.palmergames.bukkit.towny.TownyMessaging;
 import com.palmergames.bukkit.towny.TownyUniverse;
@@ -28,6 +29,8 @@ public class TownBlock extends TownyObject {
 	private boolean locked = false;
 	private boolean outpost = false;
 	private PlotGroup plotGroup;
+	// The parts of this plot's notification which only depend on the plot, cleared whenever they could change.
+	private ChunkNotification.PlotFragments notificationFragments = null;
 
 	//Plot level permissions
 	protected TownyPermission permissions = new TownyPermission();
@@ -113,7 +116,7 @@ public class TownBlock extends TownyObject {
 	public void setPlotPrice(double ForSale) {
 
 		this.plotPrice = ForSale;
-
+		clearNotificationFragments();
 	}
 
 	public double getPlotPrice() {
@@ -189,6 +192,7 @@ public class TownBlock extends TownyObject {
 			Bukkit.getPluginManager().callEvent(new PlotChangeTypeEvent(this.type, type, this));
 		}
 		this.type = type;
+		clearNotificationFragments();
 
 		// Custom plot settings here
 		switch (type) {
@@ -405,10 +409,12 @@ public class TownBlock extends TownyObject {
 	
 	public void removePlotObjectGroup() {
 		this.plotGroup = null;
+		clearNotificationFragments();
 	}
 
 	public void setPlotObjectGroup(PlotGroup group) {
 		this.plotGroup = group;
+		clearNotificationFragments();
 
 		try {
 			group.addTownBlock(this);
@@ -416,4 +422,22 @@ public class TownBlock extends TownyObject {
 			TownyMessaging.sendErrorMsg("Townblock failed to setPlotObjectGroup(group), group is null. " + group);
 		}
 	}
+
+	/**
+	 * @return the cached parts of this plot's notification, or null when they need to be built.
+	 */
+	public ChunkNotification.PlotFragments getNotificationFragments() {
+		return notificationFragments;
+	}
+
+	public void setNotificationFragments(ChunkNotification.PlotFragments notificationFragments) {
+		this.notificationFragments = notificationFragments;
+	}
+
+	/**
+	 * Forget the cached parts of this plot's notification, they are built again when next shown.
+	 */
+	public void clearNotificationFragments() {
+		this.notificationFragments = null;
+	}
 }
\ No newline at end of file
@@ -12,6 +12,10 @@ import org.bukkit.configuration.InvalidConfigurationException;
 
 import java.io.File;
 import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
 
 /**
  * A convenience object to facilitate translation. 
@@ -20,6 +24,17 @@ public final class Translation {
 	
 	public static CommentedConfiguration language;
 
+	/*
+	 * Every language entry, colour codes already translated.
+	 */
+	private static Map<String, String> translations = new HashMap<>();
+	
+	/*
+	 * Language entries which only use %s, split around their arguments
+	 * so they can be filled in without String.format parsing them again.
+	 */
+	private static Map<String, String[]> templates = new HashMap<>();
+
 	// This will read the language entry in the config.yml to attempt to load
 	// custom languages
 	// if the file is not found it will load the default from resource
@@ -32,6 +47,7 @@ public final class Translation {
 		// read the (language).yml into memory
 		language = new CommentedConfiguration(file);
 		language.load();
+		compile();
 		HelpMenu.loadMenus();
 		CommentedConfiguration newLanguage = new CommentedConfiguration(file);
 		
@@ -50,6 +66,7 @@ public final class Translation {
 
 		if (!langVersion.equalsIgnoreCase(resVersion)) {
 			language = newLanguage;
+			compile();
 			System.out.println("[Towny] Lang: Language file replaced with updated version.");
 			FileMgmt.stringToFile(FileMgmt.convertStreamToString("/" + res), file);
 		}
@@ -59,6 +76,69 @@ public final class Translation {
 	private static String parseSingleLineString(String str) {
 		return Colors.translateColorCodes(str);
 	}
+
+	/**
+	 * Resolves the colours of every entry in the loaded language once,
+	 * instead of every time a message is sent.
+	 */
+	private static void compile() {
+		Map<String, String> newTranslations = new HashMap<>();
+		Map<String, String[]> newTemplates = new HashMap<>();
+
+		for (String key : language.getKeys(true)) {
+			if (language.isConfigurationSection(key))
+				continue;
+			String data = language.getString(key);
+			if (data == null)
+				continue;
+
+			String translated = StringMgmt.translateHexColors(parseSingleLineString(data));
+			newTranslations.put(key, translated);
+
+			String[] template = compileTemplate(translated);
+			if (template != null)
+				newTemplates.put(key, template);
+		}
+
+		translations = newTranslations;
+		templates = newTemplates;
+	}
+
+	/**
+	 * Splits a format string around its %s arguments.
+	 * 
+	 * @param format The format string.
+	 * @return the literal parts of the format, or null if it uses anything other than %s and %%.
+	 */
+	private static String[] compileTemplate(String format) {
+		List<String> parts = new ArrayList<>();
+		StringBuilder part = new StringBuilder();
+		for (int i = 0; i < format.length(); i++) {
+			char c = format.charAt(i);
+			if (c != '%') {
+				part.append(c);
+				continue;
+			}
+			if (i + 1 >= format.length())
+				return null;
+			char next = format.charAt(++i);
+			if (next == '%') {
+				part.append('%');
+			} else if (next == 's') {
+				parts.add(part.toString());
+				part.setLength(0);
+			} else {
+				return null;
+			}
+		}
+		parts.add(part.toString());
+		return parts.toArray(new String[0]);
+	}
+
+	private static String lookup(String key, Map<String, ?> map) {
+		// Most callers already use lower case keys.
+		return map.containsKey(key) ? key : key.toLowerCase();
+	}
 	
 	/**
 	 * Translates give key into its respective language. 
@@ -67,13 +147,13 @@ public final class Translation {
 	 * @return The localized string.
 	 */
 	public static String of(String key) {
-		String data = language.getString(key.toLowerCase());
+		String data = translations.get(lookup(key, translations));
 
 		if (data == null) {
 			TownySettings.sendError(key.toLowerCase() + " from " + TownySettings.getString(ConfigNodes.LANGUAGE));
 			return "";
 		}
-		return StringMgmt.translateHexColors(parseSingleLineString(data));
+		return data;
 	}
 
 	/**
@@ -84,7 +164,16 @@ public final class Translation {
 	 * @return The localized string.
 	 */
 	public static String of(String key, Object... args) {
-		return String.format(of(key), args);
+		String[] template = templates.get(lookup(key, templates));
+
+		// Entries using anything more than %s, or given too few arguments, are left to String.format.
+		if (template == null || args == null || args.length < template.length - 1)
+			return String.format(of(key), args);
+
+		StringBuilder builder = new StringBuilder(template[0]);
+		for (int i = 1; i < template.length; i++)
+			builder.append(args[i - 1]).append(template[i]);
+		return builder.toString();
 	}
 
 	private Translation() {}
@@ -83,6 +83,17 @@ public class BankAccount extends Account {
 	 * @return The max amount of debt for this account.
 	 */
 	public double getDebtCap() {
+		return getDebtCap(debtCap);
+	}
+
+	/**
+	 * The maximum amount of debt this account would have if its debt cap was set
+	 * to the given amount, with the same overrides as {@link #getDebtCap()}.
+	 * 
+	 * @param debtCap The debt cap this account would be given.
+	 * @return The max amount of debt for this account.
+	 */
+	public double getDebtCap(double debtCap) {
 		if (TownySettings.isDebtCapDeterminedByTownLevel()) { // town_level debtCapModifier * debt_cap.override.
 			String townName = this.getName().replace(TownySettings.getTownAccountPrefix(), "");
 			Town town = TownyUniverse.getInstance().getTown(townName);
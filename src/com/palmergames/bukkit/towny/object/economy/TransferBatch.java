@@ -0,0 +1,210 @@
+package com.palmergames.bukkit.towny.object.economy;
+
+import com.palmergames.bukkit.towny.exceptions.EconomyException;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Collects many money movements so they can be sent to the economy
+ * plugin together. Movements touching the same account are netted,
+ * so every account is only deposited to or withdrawn from once when
+ * the batch is committed.
+ *
+ * Callers remain responsible for checking whether a payer can afford
+ * a transfer, {@link #getPendingBalance(Account)} can be used to
+ * include movements which have not been committed yet.
+ */
+public class TransferBatch {
+
+	private final List<Transfer> transfers = new ArrayList<>();
+	private final Map<Account, Double> pending = new LinkedHashMap<>();
+
+	/**
+	 * A single movement of money inside of a batch. Either side
+	 * may be null for money which is created or destroyed.
+	 */
+	public static class Transfer {
+		private final Account payer;
+		private final Account collector;
+		private final double amount;
+		private final String reason;
+
+		Transfer(Account payer, Account collector, double amount, String reason) {
+			this.payer = payer;
+			this.collector = collector;
+			this.amount = amount;
+			this.reason = reason;
+		}
+
+		public Account getPayer() {
+			return payer;
+		}
+
+		public Account getCollector() {
+			return collector;
+		}
+
+		public double getAmount() {
+			return amount;
+		}
+
+		public String getReason() {
+			return reason;
+		}
+	}
+
+	/**
+	 * Queue a payment from one account to another.
+	 *
+	 * @param payer The account paying.
+	 * @param collector The account being paid.
+	 * @param amount The amount to move.
+	 * @param reason The reason for the payment.
+	 * @return this batch.
+	 */
+	public TransferBatch transfer(Account payer, Account collector, double amount, String reason) {
+		return queue(new Transfer(payer, collector, amount, reason));
+	}
+
+	/**
+	 * Queue a deposit into an account.
+	 *
+	 * @param collector The account being paid.
+	 * @param amount The amount to add.
+	 * @param reason The reason for the deposit.
+	 * @return this batch.
+	 */
+	public TransferBatch deposit(Account collector, double amount, String reason) {
+		return queue(new Transfer(null, collector, amount, reason));
+	}
+
+	/**
+	 * Queue a withdrawal from an account.
+	 *
+	 * @param payer The account paying.
+	 * @param amount The amount to remove.
+	 * @param reason The reason for the withdrawal.
+	 * @return this batch.
+	 */
+	public TransferBatch withdraw(Account payer, double amount, String reason) {
+		return queue(new Transfer(payer, null, amount, reason));
+	}
+
+	private TransferBatch queue(Transfer transfer) {
+		if (transfer.amount == 0)
+			return this;
+
+		transfers.add(transfer);
+		if (transfer.payer != null)
+			pending.merge(transfer.payer, -transfer.amount, Double::sum);
+		if (transfer.collector != null)
+			pending.merge(transfer.collector, transfer.amount, Double::sum);
+		return this;
+	}
+
+	/**
+	 * Gets the balance the account will have once this batch is committed.
+	 *
+	 * @param account The account to check.
+	 * @return The current balance plus any queued movements.
+	 * @throws EconomyException On an economy error.
+	 */
+	public double getPendingBalance(Account account) throws EconomyException {
+		return account.getHoldingBalance() + pending.getOrDefault(account, 0.0);
+	}
+
+	/**
+	 * @return the queued transfers.
+	 */
+	public List<Transfer> getTransfers() {
+		return Collections.unmodifiableList(transfers);
+	}
+
+	public int size() {
+		return transfers.size();
+	}
+
+	public boolean isEmpty() {
+		return transfers.isEmpty();
+	}
+
+	/**
+	 * Sends the batch to the economy. Accounts which lose money are
+	 * charged first; any money their failed withdrawals would have paid
+	 * to other accounts in the batch is not paid out.
+	 *
+	 * @return The transfers which could not be completed.
+	 * @throws EconomyException On an economy error.
+	 */
+	public List<Transfer> commit() throws EconomyException {
+		List<Transfer> failed = new ArrayList<>();
+		Map<Account, Double> net = new LinkedHashMap<>(pending);
+
+		// Charge every account which ends up paying, remembering those that could not.
+		for (Map.Entry<Account, Double> entry : pending.entrySet()) {
+			if (entry.getValue() >= 0)
+				continue;
+
+			Account payer = entry.getKey();
+			if (payer.withdraw(-entry.getValue(), reasonFor(payer)))
+				continue;
+
+			double incoming = 0;
+			for (Transfer transfer : transfers) {
+				if (transfer.collector == payer)
+					incoming += transfer.amount;
+				if (transfer.payer != payer)
+					continue;
+				failed.add(transfer);
+				if (transfer.collector != null)
+					net.merge(transfer.collector, -transfer.amount, Double::sum);
+			}
+
+			// Money this account was due to receive is still paid to it.
+			if (incoming > 0 && !payer.deposit(incoming, reasonFor(payer)))
+				for (Transfer transfer : transfers)
+					if (transfer.collector == payer)
+						failed.add(transfer);
+		}
+
+		// Pay out every account which ends up receiving money.
+		for (Map.Entry<Account, Double> entry : net.entrySet()) {
+			if (entry.getValue() <= 0 || pending.get(entry.getKey()) < 0)
+				continue;
+
+			Account collector = entry.getKey();
+			if (collector.deposit(entry.getValue(), reasonFor(collector)))
+				continue;
+
+			for (Transfer transfer : transfers)
+				if (transfer.collector == collector && !failed.contains(transfer))
+					failed.add(transfer);
+		}
+
+		transfers.clear();
+		pending.clear();
+		return failed;
+	}
+
+	/*
+	 * When every movement of an account shares a reason that reason is used,
+	 * otherwise the audit log records how many movements were combined.
+	 */
+	private String reasonFor(Account account) {
+		String reason = null;
+		int count = 0;
+		for (Transfer transfer : transfers) {
+			if (transfer.payer != account && transfer.collector != account)
+				continue;
+			if (count++ == 0)
+				reason = transfer.reason;
+			else if (reason != null && !reason.equals(transfer.reason))
+				reason = null;
+		}
+		return reason != null ? reason : "Batched (" + count + " transactions)";
+	}
+}
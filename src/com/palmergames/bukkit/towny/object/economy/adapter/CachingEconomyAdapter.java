@@ -0,0 +1,138 @@
+package com.palmergames.bukkit.towny.object.economy.adapter;
+
+import org.bukkit.World;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * An {@link EconomyAdapter} decorator which remembers balances for
+ * a short amount of time, so that repeated balance lookups do not
+ * all have to go through to the economy plugin.
+ *
+ * Mutations are always written through to the wrapped adapter. Towny
+ * forgets the remembered balance after every deposit and withdrawal
+ * through {@link com.palmergames.bukkit.towny.TownyEconomyHandler#invalidateBalance(String)}.
+ */
+public class CachingEconomyAdapter implements EconomyAdapter {
+
+	private final EconomyAdapter economy;
+	private final long ttlMillis;
+	private final Map<String, CachedBalance> balances = new ConcurrentHashMap<>();
+	private final Map<String, Long> knownAccounts = new ConcurrentHashMap<>();
+
+	private static class CachedBalance {
+		final double balance;
+		final long expires;
+
+		CachedBalance(double balance, long expires) {
+			this.balance = balance;
+			this.expires = expires;
+		}
+	}
+
+	/**
+	 * @param economy The adapter to delegate to.
+	 * @param ttlMillis How long, in milliseconds, a looked up balance is trusted.
+	 */
+	public CachingEconomyAdapter(EconomyAdapter economy, long ttlMillis) {
+		this.economy = economy;
+		this.ttlMillis = ttlMillis;
+	}
+
+	/**
+	 * @return The adapter which this cache wraps.
+	 */
+	public EconomyAdapter getDelegate() {
+		return economy;
+	}
+
+	/**
+	 * Forget the remembered balance of a single account.
+	 *
+	 * @param accountName The name of the account.
+	 */
+	public void invalidate(String accountName) {
+		balances.keySet().removeIf(key -> key.startsWith(accountName + ":"));
+	}
+
+	/**
+	 * Forget every remembered balance and account.
+	 */
+	public void invalidateAll() {
+		balances.clear();
+		knownAccounts.clear();
+	}
+
+	@Override
+	public boolean add(String accountName, double amount, World world) {
+		return economy.add(accountName, amount, world);
+	}
+
+	@Override
+	public boolean subtract(String accountName, double amount, World world) {
+		return economy.subtract(accountName, amount, world);
+	}
+
+	@Override
+	public boolean hasAccount(String accountName) {
+		// Other plugins may remove accounts too, so a positive answer is only kept as long as a balance.
+		long now = System.currentTimeMillis();
+		Long expires = knownAccounts.get(accountName);
+		if (expires != null && expires > now)
+			return true;
+
+		boolean exists = economy.hasAccount(accountName);
+		if (exists)
+			knownAccounts.put(accountName, now + ttlMillis);
+		else
+			knownAccounts.remove(accountName);
+		return exists;
+	}
+
+	@Override
+	public double getBalance(String accountName, World world) {
+		String key = key(accountName, world);
+		long now = System.currentTimeMillis();
+		CachedBalance cached = balances.get(key);
+		if (cached != null && cached.expires > now)
+			return cached.balance;
+
+		double balance = economy.getBalance(accountName, world);
+		balances.put(key, new CachedBalance(balance, now + ttlMillis));
+		return balance;
+	}
+
+	@Override
+	public void newAccount(String accountName) {
+		economy.newAccount(accountName);
+		invalidate(accountName);
+		knownAccounts.put(accountName, System.currentTimeMillis() + ttlMillis);
+	}
+
+	@Override
+	public void deleteAccount(String accountName) {
+		economy.deleteAccount(accountName);
+		invalidate(accountName);
+		knownAccounts.remove(accountName);
+	}
+
+	@Override
+	public boolean setBalance(String accountName, double amount, World world) {
+		boolean success = economy.setBalance(accountName, amount, world);
+		if (success)
+			balances.put(key(accountName, world), new CachedBalance(amount, System.currentTimeMillis() + ttlMillis));
+		else
+			balances.remove(key(accountName, world));
+		return success;
+	}
+
+	@Override
+	public String getFormattedBalance(double balance) {
+		return economy.getFormattedBalance(balance);
+	}
+
+	private static String key(String accountName, World world) {
+		return accountName + ":" + (world == null ? "" : world.getName());
+	}
+}
@@ -284,6 +284,7 @@ public enum PermissionNodes {
 	TOWNY_COMMAND_TOWNYADMIN_UNCLAIM("towny.command.townyadmin.unclaim"),
 	TOWNY_COMMAND_TOWNYADMIN_RESIDNET_DELETE("towny.command.townyadmin.resident.delete"),
 	TOWNY_COMMAND_TOWNYADMIN_DEPOSITALL("towny.command.townyadmin.depositall"),
+	TOWNY_COMMAND_TOWNYADMIN_PERF("towny.command.townyadmin.perf"),
 	
 	/*
 	 * Towny command permissions
@@ -97,6 +97,14 @@ public class TownyRegenAPI {
 		return worldCoords.size() != 0;
 	}
 
+	/**
+	 * @return the number of TownBlocks waiting for a snapshot to be taken.
+	 */
+	public static int getWorldCoordCount() {
+
+		return worldCoords.size();
+	}
+
 	/**
 	 * Check if this WorldCoord is waiting for a snapshot to be taken.
 	 * 
@@ -398,6 +406,14 @@ public class TownyRegenAPI {
 		return !deleteTownBlockIdQueue.isEmpty();
 	}
 
+	/**
+	 * @return the number of plots waiting for blocks to be deleted.
+	 */
+	public static int getDeleteTownBlockIdQueueSize() {
+
+		return deleteTownBlockIdQueue.size();
+	}
+
 	public static boolean isDeleteTownBlockIdQueue(WorldCoord plot) {
 
 		return deleteTownBlockIdQueue.contains(plot);
@@ -579,6 +595,14 @@ public class TownyRegenAPI {
 			protectionPlaceholders.clear();
 	}
 
+	/**
+	 * @return the number of protection regen tasks waiting to run.
+	 */
+	public static int getProtectionRegenTaskCount() {
+
+		return protectionRegenTasks.size();
+	}
+
 	/**
 	 * Cancel all regenerating tasks and clear all queues.
 	 */
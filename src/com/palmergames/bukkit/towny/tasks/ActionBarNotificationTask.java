@@ -0,0 +1,109 @@
+package com.palmergames.bukkit.towny.tasks;
+
+import com.palmergames.bukkit.towny.Towny;
+import net.md_5.bungee.api.ChatMessageType;
+import net.md_5.bungee.api.chat.BaseComponent;
+import net.md_5.bungee.api.chat.TextComponent;
+import org.bukkit.entity.Player;
+
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Keeps action bar notifications on screen for longer than the vanilla 3 seconds.
+ *
+ * One repeating task resends every player's current notification once a
+ * second until it runs out, replacing a player's notification when a new one
+ * is shown. The task stops itself when no notifications are left.
+ */
+public class ActionBarNotificationTask extends TownyTimerTask {
+
+	private static final int MAX_CACHED_MESSAGES = 256;
+
+	// The notification each player is shown and the number of seconds it has left.
+	private final Map<Player, Notification> notifications = new HashMap<>();
+	// Notifications are made from a small set of plot and town names, so each message is only turned into components once.
+	private final Map<String, BaseComponent[]> components = new LinkedHashMap<String, BaseComponent[]>(16, 0.75f, true) {
+		private static final long serialVersionUID = 1L;
+
+		@Override
+		protected boolean removeEldestEntry(Map.Entry<String, BaseComponent[]> eldest) {
+			return size() > MAX_CACHED_MESSAGES;
+		}
+	};
+	private int taskId = -1;
+
+	private static class Notification {
+		final BaseComponent[] message;
+		int remainingSeconds;
+
+		Notification(BaseComponent[] message, int remainingSeconds) {
+			this.message = message;
+			this.remainingSeconds = remainingSeconds;
+		}
+	}
+
+	public ActionBarNotificationTask(Towny plugin) {
+
+		super(plugin);
+	}
+
+	/**
+	 * Show a message in a player's action bar, replacing any message the player is being shown.
+	 *
+	 * @param player the player to show the message to.
+	 * @param message the message, with colour codes already translated.
+	 * @param seconds how long the message stays on screen.
+	 */
+	public void show(Player player, String message, int seconds) {
+
+		BaseComponent[] text = components.computeIfAbsent(message, TextComponent::fromLegacyText);
+		player.spigot().sendMessage(ChatMessageType.ACTION_BAR, text);
+
+		// Vanilla action bar displays for 3 seconds, so we shouldn't bother with any scheduling.
+		if (seconds <= 3) {
+			notifications.remove(player);
+			return;
+		}
+
+		notifications.put(player, new Notification(text, seconds - 1));
+		if (taskId == -1)
+			taskId = plugin.getServer().getScheduler().scheduleSyncRepeatingTask(plugin, this, 20L, 20L);
+	}
+
+	/**
+	 * Stop showing a player's notification, used when the player quits.
+	 *
+	 * @param player the player.
+	 */
+	public void remove(Player player) {
+
+		notifications.remove(player);
+	}
+
+	@Override
+	public void run() {
+
+		Iterator<Map.Entry<Player, Notification>> iterator = notifications.entrySet().iterator();
+		while (iterator.hasNext()) {
+			Map.Entry<Player, Notification> entry = iterator.next();
+			Player player = entry.getKey();
+			Notification notification = entry.getValue();
+			if (!player.isOnline()) {
+				iterator.remove();
+				continue;
+			}
+
+			player.spigot().sendMessage(ChatMessageType.ACTION_BAR, notification.message);
+			if (--notification.remainingSeconds <= 0)
+				iterator.remove();
+		}
+
+		if (notifications.isEmpty()) {
+			plugin.getServer().getScheduler().cancelTask(taskId);
+			taskId = -1;
+		}
+	}
+}
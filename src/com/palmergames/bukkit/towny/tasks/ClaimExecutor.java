@@ -0,0 +1,134 @@
+package com.palmergames.bukkit.towny.tasks;
+
+import com.palmergames.bukkit.towny.TownyMessaging;
+import com.palmergames.bukkit.towny.object.Town;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Runs town and plot claims on a small, fixed pool of threads.
+ *
+ * Claims for the same town are run one after another in the order they
+ * were submitted, so two claims can never change one town at the same time.
+ * Claims for different towns are run side by side.
+ */
+public class ClaimExecutor {
+
+	private static final int THREADS = Math.max(1, Math.min(4, Runtime.getRuntime().availableProcessors() / 2));
+	private static ExecutorService pool = null;
+	// The last claim submitted for each town, the next claim for a town waits on it.
+	private static final Map<Object, CompletableFuture<Void>> queues = new HashMap<>();
+	// Set while Towny is disabled, the main thread is then waiting on the claims and won't run their callbacks.
+	private static volatile boolean shuttingDown = false;
+
+	/**
+	 * Queue a town claim/unclaim behind any other claim of the same town.
+	 *
+	 * @param claim - TownClaim to run.
+	 * @return a future completed once the claim has been applied.
+	 */
+	public static CompletableFuture<Void> submit(TownClaim claim) {
+		return submit(claim.getTown() != null ? claim.getTown() : claim, claim);
+	}
+
+	/**
+	 * Queue a plot claim/unclaim behind any other claim of the town the plots are in.
+	 *
+	 * @param claim - PlotClaim to run.
+	 * @return a future completed once the claim has been applied.
+	 */
+	public static CompletableFuture<Void> submit(PlotClaim claim) {
+		Town town = claim.getTown();
+		return submit(town != null ? town : claim, claim);
+	}
+
+	private static synchronized CompletableFuture<Void> submit(Object key, Runnable claim) {
+
+		if (pool == null)
+			pool = Executors.newFixedThreadPool(THREADS, new ClaimThreadFactory());
+
+		Runnable task = () -> {
+			try {
+				claim.run();
+			} catch (RuntimeException e) {
+				// Never let one failed claim stop the claims queued behind it.
+				TownyMessaging.sendErrorMsg("Claim task failed: " + e.getMessage());
+				e.printStackTrace();
+			}
+		};
+
+		CompletableFuture<Void> previous = queues.get(key);
+		CompletableFuture<Void> future = previous == null ? CompletableFuture.runAsync(task, pool) : previous.thenRunAsync(task, pool);
+		queues.put(key, future);
+		future.whenComplete((v, t) -> {
+			synchronized (ClaimExecutor.class) {
+				queues.remove(key, future);
+			}
+		});
+		return future;
+	}
+
+	/**
+	 * Wait for the queued claims to finish, used when Towny is disabled.
+	 */
+	public static void shutdown() {
+
+		ExecutorService executor;
+		CompletableFuture<?>[] queued;
+		synchronized (ClaimExecutor.class) {
+			executor = pool;
+			pool = null;
+			queued = queues.values().toArray(new CompletableFuture<?>[0]);
+		}
+		if (executor == null)
+			return;
+
+		shuttingDown = true;
+		long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+		try {
+			// A claim queued behind another is only handed to the pool once the one before it finishes,
+			// so the last claim of every town is waited for before the pool stops taking claims.
+			CompletableFuture.allOf(queued).get(10, TimeUnit.SECONDS);
+			executor.shutdown();
+			if (!executor.awaitTermination(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS))
+				executor.shutdownNow();
+		} catch (TimeoutException | ExecutionException e) {
+			TownyMessaging.sendErrorMsg("Not every queued claim finished before Towny was disabled.");
+			executor.shutdownNow();
+		} catch (InterruptedException e) {
+			executor.shutdownNow();
+			Thread.currentThread().interrupt();
+		} finally {
+			shuttingDown = false;
+		}
+	}
+
+	/**
+	 * @return true while Towny is being disabled and the main thread is waiting for the claims to finish.
+	 */
+	static boolean isShuttingDown() {
+		return shuttingDown;
+	}
+
+	private static class ClaimThreadFactory implements ThreadFactory {
+
+		private final AtomicInteger count = new AtomicInteger();
+
+		@Override
+		public Thread newThread(Runnable runnable) {
+			Thread thread = new Thread(runnable, "Towny Claim " + count.incrementAndGet());
+			thread.setPriority(Thread.MIN_PRIORITY);
+			thread.setDaemon(true);
+			return thread;
+		}
+	}
+}
@@ -4,33 +4,71 @@ import com.palmergames.bukkit.towny.Towny;
 import com.palmergames.bukkit.towny.TownyEconomyHandler;
 import com.palmergames.bukkit.towny.TownyMessaging;
 import com.palmergames.bukkit.towny.TownySettings;
+import com.palmergames.bukkit.towny.TownyTimings;
 import com.palmergames.bukkit.towny.event.NewDayEvent;
 import com.palmergames.bukkit.towny.event.PreNewDayEvent;
 import com.palmergames.bukkit.towny.exceptions.EconomyException;
-import com.palmergames.bukkit.towny.exceptions.NotRegisteredException;
 import com.palmergames.bukkit.towny.exceptions.TownyException;
-import com.palmergames.bukkit.towny.object.Nation;
 import com.palmergames.bukkit.towny.object.Resident;
 import com.palmergames.bukkit.towny.object.Town;
 import com.palmergames.bukkit.towny.object.TownBlock;
 import com.palmergames.bukkit.towny.object.TownyWorld;
 import com.palmergames.bukkit.towny.object.Translation;
-import com.palmergames.bukkit.towny.permissions.TownyPerms;
-import com.palmergames.bukkit.towny.utils.MoneyUtil;
+import com.palmergames.bukkit.towny.object.economy.Account;
+import com.palmergames.bukkit.towny.object.economy.TransferBatch;
+import com.palmergames.bukkit.towny.tasks.NewDaySnapshot.NationSnapshot;
+import com.palmergames.bukkit.towny.tasks.NewDaySnapshot.PlotSnapshot;
+import com.palmergames.bukkit.towny.tasks.NewDaySnapshot.ResidentSnapshot;
+import com.palmergames.bukkit.towny.tasks.NewDaySnapshot.TownSnapshot;
+import com.palmergames.bukkit.util.BukkitTools;
 import com.palmergames.bukkit.util.ChatTools;
 import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
-import java.util.ListIterator;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
 import org.bukkit.Bukkit;
 import org.bukkit.scheduler.BukkitRunnable;
 
+/**
+ * Runs the Towny new day in three phases:
+ *
+ * - A snapshot of the towns, nations, their accounts and balances is
+ *   taken on the main thread, the balances a time limited slice per tick.
+ * - The taxes, upkeep, bankruptcies and deletions are worked out from
+ *   the snapshot on another thread, producing a plan.
+ * - The plan is applied on the main thread, a time limited slice per tick.
+ *
+ * Nothing but the snapshot is read off the main thread, and nothing is
+ * changed off of it, the towns' new debt caps are set by the plan. The
+ * time taken by each phase is given to the {@link NewDayEvent}.
+ */
 public class DailyTimerTask extends TownyTimerTask {
-	
+
+	// Time the main thread may spend applying the plan each tick.
+	private static final long APPLY_BUDGET_NANOS = TimeUnit.MILLISECONDS.toNanos(10);
+
+	/**
+	 * One step of the plan, applied on the main thread.
+	 */
+	private interface Step {
+		void apply() throws EconomyException, TownyException;
+	}
+
 	private double totalTownUpkeep = 0.0;
 	private double totalNationUpkeep = 0.0;
-	private final List<String> bankruptedTowns = new ArrayList<>();
-	private final List<String> removedTowns = new ArrayList<>();
-	private final List<String> removedNations = new ArrayList<>();
+	private List<String> bankruptedTowns = new ArrayList<>();
+	private List<String> removedTowns = new ArrayList<>();
+	private List<String> removedNations = new ArrayList<>();
+	private List<Step> plan = new ArrayList<>();
+
+	// Balances as the plan expects them to be once the steps before it are applied.
+	private final Map<Account, Double> balances = new HashMap<>();
+	private final Set<Town> plannedTownRemovals = new HashSet<>();
+	private final Set<NationSnapshot> plannedNationRemovals = new HashSet<>();
 
 	public DailyTimerTask(Towny plugin) {
 
@@ -41,111 +79,163 @@ public class DailyTimerTask extends TownyTimerTask {
 	public void run() {
 
 		long start = System.currentTimeMillis();
-		totalTownUpkeep = 0.0;
-		totalNationUpkeep = 0.0;
-		bankruptedTowns.clear();
-		removedTowns.clear();
-		removedNations.clear();
 
 		Bukkit.getPluginManager().callEvent(new PreNewDayEvent()); // Pre-New Day Event
-		
+
 		TownyMessaging.sendDebugMsg("New Day");
 
+		boolean taxing = TownyEconomyHandler.isActive() && TownySettings.isTaxingDaily();
+
+		/*
+		 * Snapshot phase, on the main thread over as many ticks as reading the balances takes.
+		 */
+		CompletableFuture<NewDaySnapshot> snapshot = taxing ? NewDaySnapshot.take(plugin, universe) : CompletableFuture.completedFuture(null);
+
+		/*
+		 * Compute phase, off the main thread.
+		 */
+		snapshot.whenComplete((taken, e) -> {
+			if (e != null) {
+				TownyMessaging.sendErrorMsg("Could not take a snapshot of the towns for the new day, taxes and upkeep were skipped.");
+				e.printStackTrace();
+			}
+			final boolean finalTaxing = taken != null;
+			final long snapshotNanos = taken != null ? taken.getMainThreadNanos() : 0;
+
+			BukkitTools.getScheduler().runTaskAsynchronously(plugin, () -> {
+				long computeStart = System.nanoTime();
+				plan(taken, finalTaxing);
+				long computeNanos = System.nanoTime() - computeStart;
+				apply(start, finalTaxing, snapshotNanos, computeNanos);
+			});
+		});
+	}
+
+	/**
+	 * Works out everything the new day will do, from the snapshot.
+	 *
+	 * @param snapshot - The towns and nations when the day began, null when not taxing.
+	 * @param taxing - Whether taxes and upkeep are collected.
+	 */
+	private void plan(NewDaySnapshot snapshot, boolean taxing) {
+
+		totalTownUpkeep = 0.0;
+		totalNationUpkeep = 0.0;
+		bankruptedTowns = new ArrayList<>();
+		removedTowns = new ArrayList<>();
+		removedNations = new ArrayList<>();
+		plan = new ArrayList<>();
+		balances.clear();
+		plannedTownRemovals.clear();
+		plannedNationRemovals.clear();
+
 		/*
 		 * If enabled, collect taxes and then server upkeep costs.
-		 */		
-		if (TownyEconomyHandler.isActive() && TownySettings.isTaxingDaily()) {
-			TownyMessaging.sendGlobalMessage(Translation.of("msg_new_day_tax"));
+		 */
+		if (taxing) {
+			plan.add(() -> TownyMessaging.sendGlobalMessage(Translation.of("msg_new_day_tax")));
+			balances.putAll(snapshot.getBalances());
+
+			// The towns are given the debt caps worked out in the snapshot before anything is withdrawn.
+			if (TownySettings.isTownBankruptcyEnabled())
+				for (TownSnapshot town : snapshot.getTowns())
+					plan.add(() -> town.account.setDebtCap(town.estimatedValue));
+
 			try {
 				TownyMessaging.sendDebugMsg("Collecting Town Taxes");
-				collectTownTaxes();
+				collectTownTaxes(snapshot);
 				TownyMessaging.sendDebugMsg("Collecting Nation Taxes");
-				collectNationTaxes();
+				collectNationTaxes(snapshot);
 				TownyMessaging.sendDebugMsg("Collecting Town Costs");
-				collectTownCosts();
+				collectTownCosts(snapshot);
 				TownyMessaging.sendDebugMsg("Collecting Nation Costs");
-				collectNationCosts();
-				
-				Bukkit.getServer().getPluginManager().callEvent(new NewDayEvent(bankruptedTowns, removedTowns, removedNations, totalTownUpkeep, totalNationUpkeep, start));
-				
+				collectNationCosts(snapshot);
 			} catch (EconomyException ex) {
 				TownyMessaging.sendErrorMsg("Economy Exception");
 				ex.printStackTrace();
-			} catch (TownyException e) {
-				// TODO king exception
-				e.printStackTrace();
 			}
 		} else
-			TownyMessaging.sendGlobalMessage(Translation.of("msg_new_day"));
+			plan.add(() -> TownyMessaging.sendGlobalMessage(Translation.of("msg_new_day")));
 
 		/*
-		 * If enabled, remove old residents who haven't logged in for the configured number of days.
-		 */	
-		if (TownySettings.isDeletingOldResidents()) {
-			// Run a purge in it's own thread
-			new ResidentPurge(plugin, null, TownySettings.getDeleteTime() * 1000, TownySettings.isDeleteTownlessOnly()).start();
-		}
+		 * Reduce the number of days jailed residents are jailed for.
+		 */
+		plan.add(this::reduceJailDays);
 
 		/*
-		 * If enabled, remove all 0-plot towns.
+		 * Reduce the number of days conquered towns are conquered for.
 		 */
-		if (TownySettings.isNewDayDeleting0PlotTowns()) {
-			List<String> deletedTowns = new ArrayList<>();
-			for (Town town : universe.getTowns()) {
-				if (town.getTownBlocks().size() == 0) {
-					deletedTowns.add(town.getName());
-					universe.getDataSource().removeTown(town);
+		plan.add(this::reduceConqueredDays);
+	}
+
+	/**
+	 * Applies the plan on the main thread, as much of it as fits in each tick.
+	 */
+	private void apply(long start, boolean taxing, long snapshotNanos, long computeNanos) {
+
+		final List<Step> steps = plan;
+		final List<String> bankrupted = bankruptedTowns;
+		final List<String> fallenTowns = removedTowns;
+		final List<String> fallenNations = removedNations;
+		final double townUpkeep = totalTownUpkeep;
+		final double nationUpkeep = totalNationUpkeep;
+
+		new BukkitRunnable() {
+			int index = 0;
+			long applyNanos = 0;
+			int applyTicks = 0;
+
+			@Override
+			public void run() {
+
+				long sliceStart = System.nanoTime();
+				while (index < steps.size() && System.nanoTime() - sliceStart < APPLY_BUDGET_NANOS) {
+					try {
+						steps.get(index++).apply();
+					} catch (EconomyException ex) {
+						TownyMessaging.sendErrorMsg("Economy Exception");
+						ex.printStackTrace();
+					} catch (TownyException e) {
+						e.printStackTrace();
+					}
 				}
+				applyNanos += System.nanoTime() - sliceStart;
+				applyTicks++;
+
+				if (index < steps.size())
+					return;
+
+				cancel();
+				if (taxing)
+					Bukkit.getServer().getPluginManager().callEvent(new NewDayEvent(bankrupted, fallenTowns, fallenNations, townUpkeep, nationUpkeep, start,
+						TimeUnit.NANOSECONDS.toMillis(snapshotNanos), TimeUnit.NANOSECONDS.toMillis(computeNanos), TimeUnit.NANOSECONDS.toMillis(applyNanos), applyTicks));
+
+				finish(start, snapshotNanos, computeNanos, applyNanos, applyTicks);
 			}
-			if (!deletedTowns.isEmpty())
-				TownyMessaging.sendGlobalMessage(Translation.of("msg_the_following_towns_were_deleted_for_having_0_claims", String.join(", ", deletedTowns)));
-		}
-		
+		}.runTaskTimer(plugin, 0, 1);
+	}
+
+	/*
+	 * Everything which runs once the plan has been applied.
+	 */
+	private void finish(long start, long snapshotNanos, long computeNanos, long applyNanos, int applyTicks) {
+
 		/*
-		 * Reduce the number of days jailed residents are jailed for.
+		 * If enabled, remove old residents who haven't logged in for the configured number of days,
+		 * and/or all 0-plot towns.
 		 */
-		if (!universe.getJailedResidentMap().isEmpty()) {
-			for (Resident resident : universe.getJailedResidentMap()) {
-				if (resident.hasJailDays()) {
-					if (resident.getJailDays() == 1) {
-						resident.setJailDays(0);
-						new BukkitRunnable() {
-
-				            @Override
-				            public void run() {				            	
-				            	Town jailTown = universe.getTown(resident.getJailTown());
-				            	if (jailTown != null) {
-									int index = resident.getJailSpawn();
-									resident.setJailed(index, jailTown);
-								}
-				            }
-				            
-				        }.runTaskLater(this.plugin, 20);
-					} else 
-						resident.setJailDays(resident.getJailDays() - 1);
-					
-				}
-				universe.getDataSource().saveResident(resident);
-			}			
-		}
-		
-		/*
-		 * Reduce the number of days conquered towns are conquered for.
-		 */
-		for (Town towns : universe.getDataSource().getTowns()) {
-			if (towns.isConquered()) {
-				if (towns.getConqueredDays() == 1) {
-					towns.setConquered(false);
-					towns.setConqueredDays(0);
-				} else
-					towns.setConqueredDays(towns.getConqueredDays() - 1);				
-			}
+		if (TownySettings.isDeletingOldResidents() || TownySettings.isNewDayDeleting0PlotTowns()) {
+			// The purge runs on the main thread, a batch per tick.
+			new ResidentPurge(plugin, null, TownySettings.getDeleteTime() * 1000, TownySettings.isDeleteTownlessOnly())
+				.setPurgingResidents(TownySettings.isDeletingOldResidents())
+				.setPurgingEmptyTowns(TownySettings.isNewDayDeleting0PlotTowns())
+				.start();
 		}
 
 		/*
 		 * Run backup on a separate thread, to let the DailyTimerTask thread terminate as intended.
 		 */
-		if (TownySettings.isBackingUpDaily()) {			
+		if (TownySettings.isBackingUpDaily()) {
 			universe.performCleanupAndBackup();
 		}
 
@@ -162,445 +252,531 @@ public class DailyTimerTask extends TownyTimerTask {
 		TownyMessaging.sendDebugMsg(String.format("%8d Mb (total)", Runtime.getRuntime().totalMemory() / 1024 / 1024));
 		TownyMessaging.sendDebugMsg(String.format("%8d Mb (free)", Runtime.getRuntime().freeMemory() / 1024 / 1024));
 		TownyMessaging.sendDebugMsg(String.format("%8d Mb (used=total-free)", (Runtime.getRuntime().totalMemory() - Runtime.getRuntime().freeMemory()) / 1024 / 1024));
-		Towny.getPlugin().getLogger().info("Towny DailyTimerTask took " + (System.currentTimeMillis() - start) + "ms to process.");
+		TownyTimings.recordNewDay(System.currentTimeMillis() - start);
+		Towny.getPlugin().getLogger().info(String.format("Towny DailyTimerTask took %dms to process (snapshot %dms, plan %dms, apply %dms over %d ticks).",
+			System.currentTimeMillis() - start, TimeUnit.NANOSECONDS.toMillis(snapshotNanos), TimeUnit.NANOSECONDS.toMillis(computeNanos), TimeUnit.NANOSECONDS.toMillis(applyNanos), applyTicks));
+	}
+
+	/*
+	 * Planned balances, starting from those in the snapshot.
+	 */
+
+	private double balance(Account account) {
+		return balances.getOrDefault(account, 0.0);
+	}
+
+	private void move(Account payer, Account collector, double amount) {
+		if (payer != null)
+			balances.put(payer, balance(payer) - amount);
+		if (collector != null)
+			balances.put(collector, balance(collector) + amount);
+	}
+
+	private boolean canPay(Account account, double amount) {
+		return balance(account) >= amount;
 	}
 
 	/**
-	 * Collect taxes for all nations due from their member towns
-	 * 
+	 * Plan the collection of taxes for all nations due from their member towns
+	 *
+	 * @param snapshot - The towns and nations when the day began.
 	 * @throws EconomyException - EconomyException
 	 */
-	public void collectNationTaxes() throws EconomyException {
-		List<Nation> nations = new ArrayList<>(universe.getDataSource().getNations());
-		ListIterator<Nation> nationItr = nations.listIterator();
-		Nation nation;
-
-		while (nationItr.hasNext()) {
-			nation = nationItr.next();
-			/*
-			 * Only collect tax for this nation if it really still exists.
-			 * We are running in an Async thread so MUST verify all objects.
-			 */
-			if (universe.getDataSource().hasNation(nation.getName()))
-				collectNationTaxes(nation);
-		}
+	public void collectNationTaxes(NewDaySnapshot snapshot) throws EconomyException {
+		for (NationSnapshot nation : snapshot.getNations())
+			collectNationTaxes(nation);
 	}
 
 	/**
-	 * Collect taxes due to the nation from it's member towns.
-	 * 
+	 * Plan the collection of taxes due to the nation from it's member towns.
+	 *
 	 * @param nation - Nation to collect taxes from.
 	 * @throws EconomyException - EconomyException
 	 */
-	protected void collectNationTaxes(Nation nation) throws EconomyException {
-		
-		if (nation.getTaxes() > 0) {
+	protected void collectNationTaxes(NationSnapshot nation) throws EconomyException {
+
+		if (nation.taxes > 0) {
 
-			double taxAmount = nation.getTaxes();
 			List<String> localNewlyDelinquentTowns = new ArrayList<>();
-			List<Town> towns = new ArrayList<>(nation.getTowns());
-			ListIterator<Town> townItr = towns.listIterator();
-			Town town;
-
-			while (townItr.hasNext()) {
-				town = townItr.next();
-
-				/*
-				 * Only collect nation tax from this town if it really still
-				 * exists.
-				 * We are running in an Async thread so MUST verify all objects.
-				 */
-				if (universe.getDataSource().hasTown(town.getName())) {
-					if (town.isCapital() || !town.hasUpkeep())
-						continue;
-					if (town.getAccount().canPayFromHoldings(taxAmount)) {
-					// Town is able to pay the nation's tax.
-						town.getAccount().payTo(taxAmount, nation, "Nation Tax to " + nation.getName());
-						TownyMessaging.sendPrefixedTownMessage(town, Translation.of("msg_payed_nation_tax", TownyEconomyHandler.getFormattedBalance(taxAmount)));
-					} else {
-					// Town is unable to pay the nation's tax.
-						if (!TownySettings.isTownBankruptcyEnabled() || !TownySettings.doBankruptTownsPayNationTax()) {
-						// Bankruptcy disabled, remove town for not paying nation tax, 
-						// OR Bankruptcy enabled but towns aren't allowed to use debt to pay nation tax. 
-							localNewlyDelinquentTowns.add(town.getName());		
-							town.removeNation();
-							TownyMessaging.sendPrefixedTownMessage(town, Translation.of("msg_your_town_couldnt_pay_the_nation_tax_of", TownyEconomyHandler.getFormattedBalance(taxAmount)));
-							continue;
+
+			for (TownSnapshot town : nation.towns) {
+
+				if (town.capital || !town.hasUpkeep)
+					continue;
+
+				double taxAmount = nation.taxes;
+				if (canPay(town.account, taxAmount)) {
+				// Town is able to pay the nation's tax.
+					final double tax = taxAmount;
+					move(town.account, nation.account, tax);
+					plan.add(() -> {
+						if (!town.account.payTo(tax, nation.account, "Nation Tax to " + nation.name)) {
+							TownyMessaging.sendErrorMsg("Nation tax of " + tax + " from " + town.name + " to " + nation.name + " failed.");
+							return;
 						}
+						TownyMessaging.sendPrefixedTownMessage(town.town, Translation.of("msg_payed_nation_tax", TownyEconomyHandler.getFormattedBalance(tax)));
+					});
+				} else {
+				// Town is unable to pay the nation's tax.
+					if (!TownySettings.isTownBankruptcyEnabled() || !TownySettings.doBankruptTownsPayNationTax()) {
+					// Bankruptcy disabled, remove town for not paying nation tax,
+					// OR Bankruptcy enabled but towns aren't allowed to use debt to pay nation tax.
+						localNewlyDelinquentTowns.add(town.name);
+						planLeaveNation(town, nation, taxAmount);
+						continue;
+					}
 
-						// Bankruptcy enabled and towns are allowed to use debt to pay nation tax.
-						boolean townWasBankrupt = town.isBankrupt();
-						town.getAccount().setDebtCap(MoneyUtil.getEstimatedValueOfTown(town));
-						
-						if (town.getAccount().getHoldingBalance() - taxAmount < town.getAccount().getDebtCap() * -1) {
-						// Towns that would go over their debtcap to pay nation tax, need the amount they pay reduced to what their debt cap can cover.
-						// This will result in towns that become fully indebted paying 0 nation tax eventually.
-
-							if (TownySettings.isNationTaxKickingTownsThatReachDebtCap()) {
-							// Alternatively, when configured, a nation will kick a town that  
-							// can no longer pay the full nation tax with their allowed debt. 
-								localNewlyDelinquentTowns.add(town.getName());		
-								town.removeNation();
-								TownyMessaging.sendPrefixedTownMessage(town, Translation.of("msg_your_town_couldnt_pay_the_nation_tax_of", TownyEconomyHandler.getFormattedBalance(nation.getTaxes())));
-								continue;
-							}
-							
-							taxAmount = town.getAccount().getDebtCap() - Math.abs(town.getAccount().getHoldingBalance());
+					// Bankruptcy enabled and towns are allowed to use debt to pay nation tax.
+					boolean townWasBankrupt = balance(town.account) < 0;
+
+					if (balance(town.account) - taxAmount < town.debtCap * -1) {
+					// Towns that would go over their debtcap to pay nation tax, need the amount they pay reduced to what their debt cap can cover.
+					// This will result in towns that become fully indebted paying 0 nation tax eventually.
+
+						if (TownySettings.isNationTaxKickingTownsThatReachDebtCap()) {
+						// Alternatively, when configured, a nation will kick a town that
+						// can no longer pay the full nation tax with their allowed debt.
+							localNewlyDelinquentTowns.add(town.name);
+							planLeaveNation(town, nation, nation.taxes);
+							continue;
 						}
 
-						// Pay the nation tax with at least some amount of debt.
-						town.getAccount().withdraw(taxAmount, "Nation Tax to " + nation.getName()); // .withdraw() is used because other economy methods do not allow a town to go into debt.
-						nation.getAccount().deposit(taxAmount, "Nation Tax from " + town.getName());
-						TownyMessaging.sendPrefixedTownMessage(town, Translation.of("msg_payed_nation_tax_with_debt", TownyEconomyHandler.getFormattedBalance(taxAmount)));
+						taxAmount = town.debtCap - Math.abs(balance(town.account));
+					}
 
-						// Check if the town was newly bankrupted and punish them for it.
-						if (!townWasBankrupt) {
-							town.setOpen(false);
-							universe.getDataSource().saveTown(town);
-							localNewlyDelinquentTowns.add(town.getName());
+					// Pay the nation tax with at least some amount of debt.
+					final double tax = taxAmount;
+					move(town.account, nation.account, tax);
+					plan.add(() -> {
+						// .withdraw() is used because other economy methods do not allow a town to go into debt.
+						if (!town.account.withdraw(tax, "Nation Tax to " + nation.name)) {
+							TownyMessaging.sendErrorMsg("Nation tax of " + tax + " from " + town.name + " to " + nation.name + " failed.");
+							return;
 						}
+						if (!nation.account.deposit(tax, "Nation Tax from " + town.name))
+							TownyMessaging.sendErrorMsg("Nation tax of " + tax + " from " + town.name + " could not be deposited to " + nation.name + ".");
+						TownyMessaging.sendPrefixedTownMessage(town.town, Translation.of("msg_payed_nation_tax_with_debt", TownyEconomyHandler.getFormattedBalance(tax)));
+					});
+
+					// Check if the town was newly bankrupted and punish them for it.
+					if (!townWasBankrupt) {
+						plan.add(() -> {
+							town.town.setOpen(false);
+							universe.getDataSource().saveTown(town.town);
+						});
+						localNewlyDelinquentTowns.add(town.name);
 					}
 				}
 			}
 
 			String msg1 = "msg_couldnt_pay_tax";
 			String msg2 = "msg_couldnt_pay_nation_tax_multiple";
-			if (TownySettings.isTownBankruptcyEnabled() && TownySettings.doBankruptTownsPayNationTax()) { 
+			if (TownySettings.isTownBankruptcyEnabled() && TownySettings.doBankruptTownsPayNationTax()) {
 				msg1 = "msg_town_bankrupt_by_nation_tax";
 				msg2 = "msg_town_bankrupt_by_nation_tax_multiple";
 			}
-			
+
+			final String single = msg1;
+			final String multiple = msg2;
 			if (localNewlyDelinquentTowns.size() == 1)
-				TownyMessaging.sendPrefixedNationMessage(nation, Translation.of(msg1, localNewlyDelinquentTowns.get(0), Translation.of("nation_sing")));
-			else
-				TownyMessaging.sendPrefixedNationMessage(nation, ChatTools.list(localNewlyDelinquentTowns, msg2));
+				plan.add(() -> TownyMessaging.sendPrefixedNationMessage(nation.nation, Translation.of(single, localNewlyDelinquentTowns.get(0), Translation.of("nation_sing"))));
+			else if (!localNewlyDelinquentTowns.isEmpty())
+				plan.add(() -> TownyMessaging.sendPrefixedNationMessage(nation.nation, ChatTools.list(localNewlyDelinquentTowns, multiple)));
 		}
 
 	}
 
+	private void planLeaveNation(TownSnapshot town, NationSnapshot nation, double taxAmount) {
+		plan.add(() -> {
+			if (town.town.hasNation() && town.town.getNation() == nation.nation)
+				town.town.removeNation();
+			TownyMessaging.sendPrefixedTownMessage(town.town, Translation.of("msg_your_town_couldnt_pay_the_nation_tax_of", TownyEconomyHandler.getFormattedBalance(taxAmount)));
+		});
+	}
+
 	/**
-	 * Collect taxes for all towns due from their residents.
-	 * 
+	 * Plan the collection of taxes for all towns due from their residents.
+	 *
+	 * @param snapshot - The towns and nations when the day began.
 	 * @throws EconomyException - EconomyException
 	 */
-	public void collectTownTaxes() throws EconomyException {
-		List<Town> towns = new ArrayList<>(universe.getDataSource().getTowns());
-		ListIterator<Town> townItr = towns.listIterator();
-		Town town;
-
-		while (townItr.hasNext()) {
-			town = townItr.next();
-			/*
-			 * Only collect resident tax for this town if it really still
-			 * exists.
-			 * We are running in an Async thread so MUST verify all objects.
-			 */
-			if (universe.getDataSource().hasTown(town.getName()))
-				collectTownTaxes(town);
-		}
+	public void collectTownTaxes(NewDaySnapshot snapshot) throws EconomyException {
+		for (TownSnapshot town : snapshot.getTowns())
+			collectTownTaxes(town);
 	}
 
 	/**
-	 * Collect taxes due to the town from it's residents.
-	 * 
+	 * Plan the collection of taxes due to the town from it's residents.
+	 *
 	 * @param town - Town to collect taxes from
 	 * @throws EconomyException - EconomyException
 	 */
-	protected void collectTownTaxes(Town town) throws EconomyException {
+	protected void collectTownTaxes(TownSnapshot town) throws EconomyException {
 		// Resident Tax
-		if (town.getTaxes() > 0) {
+		if (town.taxes > 0) {
 
-			List<Resident> residents = new ArrayList<>(town.getResidents());
-			ListIterator<Resident> residentItr = residents.listIterator();
 			List<String> removedResidents = new ArrayList<>();
-			Resident resident;
+			TransferBatch taxes = new TransferBatch();
 
-			while (residentItr.hasNext()) {
-				resident = residentItr.next();
+			for (ResidentSnapshot resident : town.residents) {
 
-				double tax = town.getTaxes();
-				/*
-				 * Only collect resident tax from this resident if it really
-				 * still exists. We are running in an Async thread so MUST
-				 * verify all objects.
-				 */
-				if (universe.getDataSource().hasResident(resident.getName())) {
+				double tax = town.taxes;
 
-					if (TownyPerms.getResidentPerms(resident).containsKey("towny.tax_exempt") || resident.isNPC() || resident.isMayor()) {
+				if (resident.taxExempt || resident.mayor) {
+					plan.add(() -> {
 						try {
-							TownyMessaging.sendResidentMessage(resident, Translation.of("MSG_TAX_EXEMPT"));
+							TownyMessaging.sendResidentMessage(resident.resident, Translation.of("MSG_TAX_EXEMPT"));
 						} catch (TownyException e) {
 							// Player is not online
 						}
-						continue;
-					} else if (town.isTaxPercentage()) {
-						tax = resident.getAccount().getHoldingBalance() * tax / 100;
-						
-						// Make sure that the town percent tax doesn't remove above the
-						// allotted amount of cash.
-						tax = Math.min(tax, town.getMaxPercentTaxAmount());
-
-						// Handle if the bank cannot be paid because of the cap. Since it is a % 
-						// they will be able to pay but it might be more than the bank can accept,
-						// so we reduce it to the amount that the bank can accept, even if it
-						// becomes 0.
-						if (TownySettings.getTownBankCap() != 0 && tax + town.getAccount().getHoldingBalance() > TownySettings.getTownBankCap())
-							tax = town.getAccount().getBalanceCap() - town.getAccount().getHoldingBalance();
-						
-						resident.getAccount().payTo(tax, town, "Town Tax (Percentage)");
-					} else {
-						// Check if the bank could take the money, reduce it to 0 if required so that 
-						// players do not get kicked in a situation they could be paying but cannot because
-						// of the bank cap.
-						if (TownySettings.getTownBankCap() != 0 && tax + town.getAccount().getHoldingBalance() > TownySettings.getTownBankCap())
-							tax = town.getAccount().getBalanceCap() - town.getAccount().getHoldingBalance();
-						
-						if (resident.getAccount().canPayFromHoldings(tax))
-							resident.getAccount().payTo(tax, town, "Town tax (FlatRate)");
-						else {
-							removedResidents.add(resident.getName());					
-							// remove this resident from the town.
-							resident.removeTown();
+					});
+					continue;
+				} else if (town.taxPercentage) {
+					tax = balance(resident.account) * tax / 100;
+
+					// Make sure that the town percent tax doesn't remove above the
+					// allotted amount of cash.
+					tax = Math.min(tax, town.maxPercentTaxAmount);
+
+					// Handle if the bank cannot be paid because of the cap. Since it is a %
+					// they will be able to pay but it might be more than the bank can accept,
+					// so we reduce it to the amount that the bank can accept, even if it
+					// becomes 0.
+					if (TownySettings.getTownBankCap() != 0 && tax + balance(town.account) > TownySettings.getTownBankCap())
+						tax = town.balanceCap - balance(town.account);
+
+					if (tax > 0) {
+						taxes.transfer(resident.account, town.account, tax, "Town Tax (Percentage)");
+						move(resident.account, town.account, tax);
+					}
+				} else {
+					// Check if the bank could take the money, reduce it to 0 if required so that
+					// players do not get kicked in a situation they could be paying but cannot because
+					// of the bank cap.
+					if (TownySettings.getTownBankCap() != 0 && tax + balance(town.account) > TownySettings.getTownBankCap())
+						tax = town.balanceCap - balance(town.account);
+
+					if (canPay(resident.account, tax)) {
+						if (tax > 0) {
+							taxes.transfer(resident.account, town.account, tax, "Town tax (FlatRate)");
+							move(resident.account, town.account, tax);
 						}
+					} else {
+						removedResidents.add(resident.resident.getName());
+						// remove this resident from the town.
+						plan.add(() -> {
+							if (resident.resident.hasTown() && resident.resident.getTown() == town.town)
+								resident.resident.removeTown();
+						});
 					}
 				}
 			}
-			if (removedResidents != null) {
-				if (removedResidents.size() == 1) 
-					TownyMessaging.sendPrefixedTownMessage(town, Translation.of("msg_couldnt_pay_tax", removedResidents.get(0), "town"));
-				else
-					TownyMessaging.sendPrefixedTownMessage(town, ChatTools.list(removedResidents, Translation.of("msg_couldnt_pay_town_tax_multiple")));
-			}
+
+			// Every resident's tax reaches the town bank as a single deposit.
+			if (!taxes.isEmpty())
+				plan.add(() -> {
+					for (TransferBatch.Transfer failed : taxes.commit())
+						TownyMessaging.sendErrorMsg("Town tax of " + failed.getAmount() + " from " + failed.getPayer().getName() + " to " + town.name + " failed.");
+				});
+
+			if (removedResidents.size() == 1)
+				plan.add(() -> TownyMessaging.sendPrefixedTownMessage(town.town, Translation.of("msg_couldnt_pay_tax", removedResidents.get(0), "town")));
+			else if (!removedResidents.isEmpty())
+				plan.add(() -> TownyMessaging.sendPrefixedTownMessage(town.town, ChatTools.list(removedResidents, Translation.of("msg_couldnt_pay_town_tax_multiple"))));
 		}
 
 		// Plot Tax
-		if (town.getPlotTax() > 0 || town.getCommercialPlotTax() > 0 || town.getEmbassyPlotTax() > 0) {
+		if (!town.plots.isEmpty()) {
 
-			List<TownBlock> townBlocks = new ArrayList<>(town.getTownBlocks());
 			List<String> lostPlots = new ArrayList<>();
-			ListIterator<TownBlock> townBlockItr = townBlocks.listIterator();
-			TownBlock townBlock;
 
-			while (townBlockItr.hasNext()) {
-				townBlock = townBlockItr.next();
+			for (PlotSnapshot plot : town.plots) {
+				ResidentSnapshot resident = plot.owner;
 
-				if (!townBlock.hasResident())
+				if (resident.town == town.town && resident.taxExempt)
 					continue;
-				try {
-					Resident resident = townBlock.getResident();
-
-					/*
-					 * Only collect plot tax from this resident if it really
-					 * still exists. We are running in an Async thread so MUST
-					 * verify all objects.
-					 */
-					if (universe.getDataSource().hasResident(resident.getName())) {
-						if (resident.hasTown() && resident.getTown() == townBlock.getTown())
-							if (TownyPerms.getResidentPerms(resident).containsKey("towny.tax_exempt") || resident.isNPC())
-								continue;
-						
-						double tax = townBlock.getType().getTax(town);
-
-						// If the tax would put the town over the bank cap we reduce what will be
-						// paid by the plot owner to what will be allowed.
-						if (TownySettings.getTownBankCap() != 0 && tax + town.getAccount().getHoldingBalance() > TownySettings.getTownBankCap())
-							tax = town.getAccount().getBalanceCap() - town.getAccount().getHoldingBalance();
-						
-						if (!resident.getAccount().payTo(tax, town, String.format("Plot Tax (%s)", townBlock.getType()))) {
-							if (!lostPlots.contains(resident.getName()))
-								lostPlots.add(resident.getName());
 
+				double tax = plot.tax;
+
+				// If the tax would put the town over the bank cap we reduce what will be
+				// paid by the plot owner to what will be allowed.
+				if (TownySettings.getTownBankCap() != 0 && tax + balance(town.account) > TownySettings.getTownBankCap())
+					tax = town.balanceCap - balance(town.account);
+
+				final double plotTax = tax;
+				final TownBlock townBlock = plot.townBlock;
+				if (canPay(resident.account, plotTax)) {
+					move(resident.account, town.account, plotTax);
+					plan.add(() -> {
+						if (!resident.account.payTo(plotTax, town.account, String.format("Plot Tax (%s)", townBlock.getType())))
+							TownyMessaging.sendErrorMsg("Plot tax of " + plotTax + " from " + resident.resident.getName() + " to " + town.name + " failed.");
+					});
+				} else {
+					if (!lostPlots.contains(resident.resident.getName()))
+						lostPlots.add(resident.resident.getName());
+
+					plan.add(() -> {
+						if (townBlock.hasResident() && townBlock.getResident() == resident.resident) {
 							townBlock.setResident(null);
 							townBlock.setPlotPrice(-1);
 							// Set the plot permissions to mirror the towns.
 							townBlock.setType(townBlock.getType());
 							universe.getDataSource().saveTownBlock(townBlock);
 						}
-					}
-				} catch (NotRegisteredException ignored) {
+					});
 				}
-				
-			}
-			if (lostPlots != null) {
-				if (lostPlots.size() == 1) 
-					TownyMessaging.sendPrefixedTownMessage(town, Translation.of("msg_couldnt_pay_plot_taxes", lostPlots.get(0)));
-				else
-					TownyMessaging.sendPrefixedTownMessage(town, ChatTools.list(lostPlots, Translation.of("msg_couldnt_pay_plot_taxes_multiple")));
 			}
+
+			if (lostPlots.size() == 1)
+				plan.add(() -> TownyMessaging.sendPrefixedTownMessage(town.town, Translation.of("msg_couldnt_pay_plot_taxes", lostPlots.get(0))));
+			else if (!lostPlots.isEmpty())
+				plan.add(() -> TownyMessaging.sendPrefixedTownMessage(town.town, ChatTools.list(lostPlots, Translation.of("msg_couldnt_pay_plot_taxes_multiple"))));
 		}
 	}
 
 	/**
-	 * Collect or pay upkeep for all towns.
-	 * 
+	 * Plan the collection or payment of upkeep for all towns.
+	 *
+	 * @param snapshot - The towns and nations when the day began.
 	 * @throws EconomyException if there is an error with the economy handling
-	 * @throws TownyException if there is a error with Towny
 	 */
-	public void collectTownCosts() throws EconomyException, TownyException {
-		List<Town> towns = new ArrayList<>(universe.getDataSource().getTowns());
-		ListIterator<Town> townItr = towns.listIterator();
-		Town town;
-
-		while (townItr.hasNext()) {
-			town = townItr.next();
-
-			/*
-			 * Only charge/pay upkeep for this town if it really still exists.
-			 * We are running in an Async thread so MUST verify all objects.
-			 */
-			if (universe.getDataSource().hasTown(town.getName())) {
-
-				if (town.hasUpkeep()) {
-					double upkeep = TownySettings.getTownUpkeepCost(town);
-					double upkeepPenalty = TownySettings.getTownPenaltyUpkeepCost(town);
-					if (upkeepPenalty > 0 && upkeep > 0)
-						upkeep = upkeep + upkeepPenalty;
-				
-					totalTownUpkeep = totalTownUpkeep + upkeep;
-					if (upkeep > 0) {
-						
-						if (town.getAccount().canPayFromHoldings(upkeep)) {
-						// Town is able to pay the upkeep.
-							town.getAccount().withdraw(upkeep, "Town Upkeep");
-							TownyMessaging.sendPrefixedTownMessage(town, Translation.of("msg_your_town_payed_upkeep", TownyEconomyHandler.getFormattedBalance(upkeep)));
-						} else {
-						// Town is unable to pay the upkeep.
-							if (!TownySettings.isTownBankruptcyEnabled()) {
-							// Bankruptcy is disabled, remove the town for not paying upkeep.
-								TownyMessaging.sendPrefixedTownMessage(town, Translation.of("msg_your_town_couldnt_pay_upkeep", TownyEconomyHandler.getFormattedBalance(upkeep)));
-								universe.getDataSource().removeTown(town);
-								removedTowns.add(town.getName());
-								continue;
+	public void collectTownCosts(NewDaySnapshot snapshot) throws EconomyException {
+
+		for (TownSnapshot town : snapshot.getTowns()) {
+
+			if (town.hasUpkeep) {
+				double upkeep = town.upkeep;
+
+				totalTownUpkeep = totalTownUpkeep + upkeep;
+				if (upkeep > 0) {
+
+					if (canPay(town.account, upkeep)) {
+					// Town is able to pay the upkeep.
+						final double cost = upkeep;
+						move(town.account, null, cost);
+						plan.add(() -> {
+							if (!town.account.withdraw(cost, "Town Upkeep")) {
+								TownyMessaging.sendErrorMsg("Town upkeep of " + cost + " from " + town.name + " failed.");
+								return;
 							}
-							
-							// Bankruptcy is enabled.
-							boolean townWasBankrupt = town.isBankrupt();
-							town.getAccount().setDebtCap(MoneyUtil.getEstimatedValueOfTown(town));
-						
-							if (town.getAccount().getHoldingBalance() - upkeep < town.getAccount().getDebtCap() * -1) {
-							// The town will exceed their debt cap to pay the upkeep.
-							// Eventually when the cap is reached they will pay 0 upkeep.
-													
-								if (TownySettings.isUpkeepDeletingTownsThatReachDebtCap()) {
-								// Alternatively, if configured, towns will not be allowed to exceed
-								// their debt and be deleted from the server for non-payment finally.
-									TownyMessaging.sendPrefixedTownMessage(town, Translation.of("msg_your_town_couldnt_pay_upkeep", TownyEconomyHandler.getFormattedBalance(upkeep)));
-									universe.getDataSource().removeTown(town);
-									removedTowns.add(town.getName());
-									continue;
-								}
-								upkeep = town.getAccount().getDebtCap() - Math.abs(town.getAccount().getHoldingBalance());
+							TownyMessaging.sendPrefixedTownMessage(town.town, Translation.of("msg_your_town_payed_upkeep", TownyEconomyHandler.getFormattedBalance(cost)));
+						});
+					} else {
+					// Town is unable to pay the upkeep.
+						if (!TownySettings.isTownBankruptcyEnabled()) {
+						// Bankruptcy is disabled, remove the town for not paying upkeep.
+							planTownRemoval(town, upkeep);
+							continue;
+						}
+
+						// Bankruptcy is enabled.
+						boolean townWasBankrupt = balance(town.account) < 0;
+
+						if (balance(town.account) - upkeep < town.debtCap * -1) {
+						// The town will exceed their debt cap to pay the upkeep.
+						// Eventually when the cap is reached they will pay 0 upkeep.
+
+							if (TownySettings.isUpkeepDeletingTownsThatReachDebtCap()) {
+							// Alternatively, if configured, towns will not be allowed to exceed
+							// their debt and be deleted from the server for non-payment finally.
+								planTownRemoval(town, upkeep);
+								continue;
 							}
-							
-							// Finally pay the upkeep or the modified upkeep up to the debtcap. 
-							town.getAccount().withdraw(upkeep, "Town Upkeep");
-							TownyMessaging.sendPrefixedTownMessage(town, Translation.of("msg_your_town_payed_upkeep_with_debt", TownyEconomyHandler.getFormattedBalance(upkeep)));
-							
-							// Check if the town was newly bankrupted and punish them for it.
-							if(!townWasBankrupt) {
-								town.setOpen(false);
-								universe.getDataSource().saveTown(town);
-								bankruptedTowns.add(town.getName());
+							upkeep = town.debtCap - Math.abs(balance(town.account));
+						}
+
+						// Finally pay the upkeep or the modified upkeep up to the debtcap.
+						final double cost = upkeep;
+						move(town.account, null, cost);
+						plan.add(() -> {
+							if (!town.account.withdraw(cost, "Town Upkeep")) {
+								TownyMessaging.sendErrorMsg("Town upkeep of " + cost + " from " + town.name + " failed.");
+								return;
 							}
+							TownyMessaging.sendPrefixedTownMessage(town.town, Translation.of("msg_your_town_payed_upkeep_with_debt", TownyEconomyHandler.getFormattedBalance(cost)));
+						});
+
+						// Check if the town was newly bankrupted and punish them for it.
+						if(!townWasBankrupt) {
+							plan.add(() -> {
+								town.town.setOpen(false);
+								universe.getDataSource().saveTown(town.town);
+							});
+							bankruptedTowns.add(town.name);
 						}
+					}
 
-						
-					} else if (upkeep < 0) {
-						// Negative upkeep
-						if (TownySettings.isUpkeepPayingPlots()) {
-							// Pay each plot owner a share of the negative
-							// upkeep
-							List<TownBlock> plots = new ArrayList<>(town.getTownBlocks());
+
+				} else if (upkeep < 0) {
+					// Negative upkeep
+					final double income = upkeep;
+					if (TownySettings.isUpkeepPayingPlots()) {
+						// Pay each plot owner a share of the negative
+						// upkeep
+						plan.add(() -> {
+							List<TownBlock> plots = new ArrayList<>(town.town.getTownBlocks());
+							TransferBatch plotIncome = new TransferBatch();
 
 							for (TownBlock townBlock : plots) {
 								if (townBlock.hasResident())
-									townBlock.getResident().getAccount().withdraw((upkeep / plots.size()), "Negative Town Upkeep - Plot income");
+									plotIncome.deposit(townBlock.getResident().getAccount(), -(income / plots.size()), "Negative Town Upkeep - Plot income");
 								else
-									town.getAccount().withdraw((upkeep / plots.size()), "Negative Town Upkeep - Plot income");
+									plotIncome.deposit(town.account, -(income / plots.size()), "Negative Town Upkeep - Plot income");
 							}
+							for (TransferBatch.Transfer failed : plotIncome.commit())
+								TownyMessaging.sendErrorMsg("Plot income of " + failed.getAmount() + " to " + failed.getCollector().getName() + " from " + town.name + " failed.");
+						});
 
-						} else {
-							// Not paying plot owners so just pay the town
-							town.getAccount().withdraw(upkeep, "Negative Town Upkeep");
-						}
-
+					} else {
+						// Not paying plot owners so just pay the town
+						move(town.account, null, income);
+						plan.add(() -> {
+							if (!town.account.withdraw(income, "Negative Town Upkeep"))
+								TownyMessaging.sendErrorMsg("Negative town upkeep of " + income + " to " + town.name + " failed.");
+						});
 					}
+
 				}
-			}			
+			}
 		}
 
 		String msg1 = Translation.of("msg_bankrupt_town2");
 		String msg2 = Translation.of("msg_bankrupt_town_multiple");
 		if(TownySettings.isTownBankruptcyEnabled() && TownySettings.isUpkeepDeletingTownsThatReachDebtCap()) {
-				plugin.resetCache(); //Allow perms change to take effect immediately
+				plan.add(() -> plugin.resetCache()); //Allow perms change to take effect immediately
 				msg1 = Translation.of("msg_town_reached_debtcap_and_is_disbanded");
 				msg2 = Translation.of("msg_town_reached_debtcap_and_is_disbanded_multiple");
 		}
-		
-		if (bankruptedTowns != null)
-			if (bankruptedTowns.size() == 1)
-				TownyMessaging.sendGlobalMessage(String.format(Translation.of("msg_town_bankrupt_by_upkeep"), bankruptedTowns.get(0)));
-			else
-				TownyMessaging.sendGlobalMessage(ChatTools.list(bankruptedTowns, Translation.of("msg_town_bankrupt_by_upkeep_multiple")));
-		if (removedTowns != null)
-			if (removedTowns.size() == 1)
-				TownyMessaging.sendGlobalMessage(String.format(msg1, removedTowns.get(0)));
-			else
-				TownyMessaging.sendGlobalMessage(ChatTools.list(removedTowns, msg2));
+
+		final List<String> bankrupted = bankruptedTowns;
+		final List<String> removed = removedTowns;
+		final String single = msg1;
+		final String multiple = msg2;
+		if (bankrupted.size() == 1)
+			plan.add(() -> TownyMessaging.sendGlobalMessage(String.format(Translation.of("msg_town_bankrupt_by_upkeep"), bankrupted.get(0))));
+		else if (!bankrupted.isEmpty())
+			plan.add(() -> TownyMessaging.sendGlobalMessage(ChatTools.list(bankrupted, Translation.of("msg_town_bankrupt_by_upkeep_multiple"))));
+		if (removed.size() == 1)
+			plan.add(() -> TownyMessaging.sendGlobalMessage(String.format(single, removed.get(0))));
+		else if (!removed.isEmpty())
+			plan.add(() -> TownyMessaging.sendGlobalMessage(ChatTools.list(removed, multiple)));
+	}
+
+	private void planTownRemoval(TownSnapshot town, double upkeep) {
+		removedTowns.add(town.name);
+		plannedTownRemovals.add(town.town);
+		plan.add(() -> {
+			TownyMessaging.sendPrefixedTownMessage(town.town, Translation.of("msg_your_town_couldnt_pay_upkeep", TownyEconomyHandler.getFormattedBalance(upkeep)));
+			if (universe.getDataSource().hasTown(town.name))
+				universe.getDataSource().removeTown(town.town);
+		});
 	}
 
 	/**
-	 * Collect upkeep due from all nations.
-	 * 
+	 * Plan the collection of upkeep due from all nations.
+	 *
+	 * @param snapshot - The towns and nations when the day began.
 	 * @throws EconomyException if there is an error with Economy handling
 	 */
-	public void collectNationCosts() throws EconomyException {
-		List<Nation> nations = new ArrayList<>(universe.getDataSource().getNations());
-		ListIterator<Nation> nationItr = nations.listIterator();
-		Nation nation;
+	public void collectNationCosts(NewDaySnapshot snapshot) throws EconomyException {
 
-		while (nationItr.hasNext()) {
-			nation = nationItr.next();
+		for (NationSnapshot nation : snapshot.getNations()) {
 
-			/*
-			 * Only charge upkeep for this nation if it really still exists.
-			 * We are running in an Async thread so MUST verify all objects.
-			 */
-			if (universe.getDataSource().hasNation(nation.getName())) {
+			// A nation whose capital was removed for not paying upkeep is removed with it.
+			if (nation.towns.stream().anyMatch(town -> town.capital && plannedTownRemovals.contains(town.town)))
+				continue;
 
-				double upkeep = TownySettings.getNationUpkeepCost(nation);
+			double upkeep = nation.upkeep;
 
-				totalNationUpkeep = totalNationUpkeep + upkeep;
-				if (upkeep > 0) {
-					// Town is paying upkeep
-					
-					if (nation.getAccount().canPayFromHoldings(upkeep)) {
-						nation.getAccount().withdraw(upkeep, "Nation Upkeep");
-						TownyMessaging.sendPrefixedNationMessage(nation, Translation.of("msg_your_nation_payed_upkeep", TownyEconomyHandler.getFormattedBalance(upkeep)));						
-					} else {
-						TownyMessaging.sendPrefixedNationMessage(nation, Translation.of("msg_your_nation_couldnt_pay_upkeep", TownyEconomyHandler.getFormattedBalance(upkeep)));
-						universe.getDataSource().removeNation(nation);
-						removedNations.add(nation.getName());
-					}
+			totalNationUpkeep = totalNationUpkeep + upkeep;
+			if (upkeep > 0) {
+				// Town is paying upkeep
 
-					if (nation.isNeutral()) {
-						if (!nation.getAccount().withdraw(TownySettings.getNationNeutralityCost(), "Nation Peace Upkeep")) {
-							nation.setNeutral(false);
-							universe.getDataSource().saveNation(nation);
-							TownyMessaging.sendPrefixedNationMessage(nation, Translation.of("msg_nation_not_peaceful"));
+				if (canPay(nation.account, upkeep)) {
+					move(nation.account, null, upkeep);
+					plan.add(() -> {
+						if (!nation.account.withdraw(upkeep, "Nation Upkeep")) {
+							TownyMessaging.sendErrorMsg("Nation upkeep of " + upkeep + " from " + nation.name + " failed.");
+							return;
 						}
-					}
-					
-				} else if (upkeep < 0) {
-					nation.getAccount().withdraw(upkeep, "Negative Nation Upkeep");
+						TownyMessaging.sendPrefixedNationMessage(nation.nation, Translation.of("msg_your_nation_payed_upkeep", TownyEconomyHandler.getFormattedBalance(upkeep)));
+					});
+				} else {
+					removedNations.add(nation.name);
+					plannedNationRemovals.add(nation);
+					plan.add(() -> {
+						TownyMessaging.sendPrefixedNationMessage(nation.nation, Translation.of("msg_your_nation_couldnt_pay_upkeep", TownyEconomyHandler.getFormattedBalance(upkeep)));
+						if (universe.getDataSource().hasNation(nation.name))
+							universe.getDataSource().removeNation(nation.nation);
+					});
+				}
+
+				if (nation.neutral && !plannedNationRemovals.contains(nation)) {
+					double neutralityCost = TownySettings.getNationNeutralityCost();
+					if (canPay(nation.account, neutralityCost)) {
+						move(nation.account, null, neutralityCost);
+						plan.add(() -> {
+							if (!nation.account.withdraw(neutralityCost, "Nation Peace Upkeep"))
+								TownyMessaging.sendErrorMsg("Nation peace upkeep of " + neutralityCost + " from " + nation.name + " failed.");
+						});
+					} else
+						plan.add(() -> {
+							nation.nation.setNeutral(false);
+							universe.getDataSource().saveNation(nation.nation);
+							TownyMessaging.sendPrefixedNationMessage(nation.nation, Translation.of("msg_nation_not_peaceful"));
+						});
 				}
+
+			} else if (upkeep < 0) {
+				move(nation.account, null, upkeep);
+				plan.add(() -> {
+					if (!nation.account.withdraw(upkeep, "Negative Nation Upkeep"))
+						TownyMessaging.sendErrorMsg("Negative nation upkeep of " + upkeep + " to " + nation.name + " failed.");
+				});
+			}
+		}
+
+		final List<String> removed = removedNations;
+		if (removed.size() == 1)
+			plan.add(() -> TownyMessaging.sendGlobalMessage(Translation.of("msg_bankrupt_nation2", removed.get(0))));
+		else if (!removed.isEmpty())
+			plan.add(() -> TownyMessaging.sendGlobalMessage(ChatTools.list(removed, Translation.of("msg_bankrupt_nation_multiple"))));
+	}
+
+	private void reduceJailDays() {
+		for (Resident resident : new ArrayList<>(universe.getJailedResidentMap())) {
+			if (resident.hasJailDays()) {
+				if (resident.getJailDays() == 1) {
+					resident.setJailDays(0);
+					new BukkitRunnable() {
+
+			            @Override
+			            public void run() {
+			            	Town jailTown = universe.getTown(resident.getJailTown());
+			            	if (jailTown != null) {
+								int index = resident.getJailSpawn();
+								resident.setJailed(index, jailTown);
+							}
+			            }
+
+			        }.runTaskLater(this.plugin, 20);
+				} else
+					resident.setJailDays(resident.getJailDays() - 1);
+
 			}
+			universe.getDataSource().saveResident(resident);
 		}
-		if (removedNations != null && !removedNations.isEmpty()) {
-			if (removedNations.size() == 1)
-				TownyMessaging.sendGlobalMessage(Translation.of("msg_bankrupt_nation2", removedNations.get(0)));
-			else
-				TownyMessaging.sendGlobalMessage(ChatTools.list(removedNations, Translation.of("msg_bankrupt_nation_multiple")));
+	}
+
+	private void reduceConqueredDays() {
+		for (Town towns : universe.getDataSource().getTowns()) {
+			if (towns.isConquered()) {
+				if (towns.getConqueredDays() == 1) {
+					towns.setConquered(false);
+					towns.setConqueredDays(0);
+				} else
+					towns.setConqueredDays(towns.getConqueredDays() - 1);
+			}
 		}
 	}
 }
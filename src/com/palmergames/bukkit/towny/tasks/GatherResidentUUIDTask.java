@@ -5,25 +5,69 @@ import com.palmergames.bukkit.towny.TownyMessaging;
 import com.palmergames.bukkit.towny.TownySettings;
 import com.palmergames.bukkit.towny.TownyTimerHandler;
 import com.palmergames.bukkit.towny.TownyUniverse;
+import com.palmergames.bukkit.towny.exceptions.NotRegisteredException;
 import com.palmergames.bukkit.towny.object.Resident;
 import com.palmergames.bukkit.util.BukkitTools;
+import com.palmergames.bukkit.util.MojangUUIDResolver;
+import com.palmergames.bukkit.util.UUIDResolver;
+import com.palmergames.util.FileMgmt;
 
+import java.io.File;
 import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
 import java.util.Queue;
 import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 import org.bukkit.Bukkit;
 
 /**
+ * Gathers the UUIDs of residents who do not have one.
+ * 
+ * Each run resolves queued residents from the server's player cache or the
+ * uuidcache.txt file. Residents seen online within the last
+ * {@link #NAME_RELEASE_DAYS} days are looked up in one batch using the
+ * {@link UUIDResolver}, a batch returns whoever owns a name today and a name
+ * can't have passed to another player that soon. Older residents, and names
+ * the resolver has no account for, are looked up one at a time by the name
+ * they had when they were last online, as many each run as the configured
+ * request limit leaves after the batch.
+ * 
  * @author ElgarL
  * 
  */
 public class GatherResidentUUIDTask implements Runnable {
 
+	// The most queued residents looked at in one run, to bound the time spent on server cache hits.
+	private static final int MAX_CHECKED_PER_RUN = 100;
+	// The cache file is written after this many runs and whenever the task stops.
+	private static final int SAVE_CACHE_EVERY_RUNS = 30;
+	// Mojang holds a name for 37 days after it is changed before another player can take it.
+	private static final long NAME_RELEASE_DAYS = 37;
+	// The request limit is set per 10 minutes.
+	private static final double LIMIT_PERIOD_TICKS = 20 * 60 * 10;
+
 	private Towny plugin;
 	private final static Queue<Resident> queue = new ConcurrentLinkedQueue<>();
+	// Residents who weren't loaded, they are loaded when they are reached in the queue.
+	private final static Queue<String> residentNames = new ConcurrentLinkedQueue<>();
+	// Residents to look up by the name they had when they were last online, as many per run as the request limit allows.
+	private final static Queue<Resident> unresolved = new ConcurrentLinkedQueue<>();
+	// Lower case names mapped to the UUIDs resolved for them, kept in data/uuidcache.txt so a restart doesn't look them up again.
+	private final static Map<String, UUID> cache = new ConcurrentHashMap<>();
+	private static volatile UUIDResolver resolver = new MojangUUIDResolver();
 	private static boolean offlineModeDetected = false;
+	private static boolean cacheLoaded = false;
+	private static volatile boolean cacheChanged = false;
+	private final AtomicBoolean running = new AtomicBoolean();
+	private int runs = 0;
+	// Requests to Mojang this task may still send, topped up each run and never saved up beyond one run's worth.
+	private double requestBudget = 0;
 
 	/**
 	 * @param plugin reference to Towny
@@ -36,65 +80,263 @@ public class GatherResidentUUIDTask implements Runnable {
 
 	@Override
 	public void run() {
-		if (queue.isEmpty()) {
+		// A slow lookup can outlast the period of the task.
+		if (!running.compareAndSet(false, true))
+			return;
+		try {
+			gather();
+		} finally {
+			running.set(false);
+		}
+	}
+
+	private void gather() {
+		if (!cacheLoaded)
+			loadCache();
+
+		if (queue.isEmpty() && residentNames.isEmpty() && unresolved.isEmpty()) {
 			TownyTimerHandler.toggleGatherResidentUUIDTask(false);
 			return;
 		}
+
+		double requestsPerRun = TownySettings.getGatherResidentUUIDsRequestLimit() * TownySettings.getGatherResidentUUIDsInterval() / LIMIT_PERIOD_TICKS;
+		requestBudget = Math.min(requestBudget + requestsPerRun, Math.max(1, requestsPerRun));
+
+		UUIDResolver resolver = GatherResidentUUIDTask.resolver;
+		List<Resident> batch = new ArrayList<>();
+		int checked = 0;
+		while (batch.size() < resolver.getMaxBatchSize() && checked++ < MAX_CHECKED_PER_RUN) {
+			Resident resident = nextResident();
+			if (resident == null)
+				break;
+			if (resolveLocally(resident))
+				continue;
+			if (isNameSafeToBatch(resident))
+				batch.add(resident);
+			else
+				unresolved.add(resident);
+		}
+
+		if (!batch.isEmpty()) {
+			if (requestBudget < 1) {
+				// Out of requests until the next run.
+				queue.addAll(batch);
+			} else {
+				requestBudget--;
+				if (!resolveBatch(resolver, batch))
+					return;
+			}
+		}
+
+		while (requestBudget >= 1) {
+			Resident resident = unresolved.poll();
+			if (resident == null)
+				break;
+			requestBudget--;
+			if (!resolveByLastName(resident))
+				return;
+		}
+
+		if (++runs % SAVE_CACHE_EVERY_RUNS == 0)
+			saveCache();
+	}
+
+	private static Resident nextResident() {
 		Resident resident = queue.poll();
+		String name;
+		while (resident == null && (name = residentNames.poll()) != null) {
+			try {
+				resident = TownyUniverse.getInstance().getDataSource().getResident(name);
+			} catch (NotRegisteredException ignored) {
+				// The resident has been deleted since they were queued.
+			}
+		}
+		return resident;
+	}
+
+	/**
+	 * Resolve a resident without calling out to Mojang.
+	 * 
+	 * @param resident Resident to resolve.
+	 * @return false if the resident still has to be looked up.
+	 */
+	private boolean resolveLocally(Resident resident) {
 		if (resident.hasUUID()) {
 			// We already have the UUID but we can still test if server is in offline mode. 
 			if (!offlineModeDetected && resident.getUUID().version() == 3) // True offline servers return a v3 UUID instead of v4.
 				offlineModeDetected = true;
 			
-			return;
+			return true;
 		}
-		if (resident.isNPC()) // This is one of our own NPC residents, lets give them a UUID if they don't already have one.
+		if (resident.isNPC()) { // This is one of our own NPC residents, lets give them a UUID if they don't already have one.
 			applyUUID(resident, UUID.randomUUID(), "Towny");
-		
-		UUID uuid = BukkitTools.getUUIDSafely(resident.getName()); // Get a UUID from the server's playercache without calling to Mojang. 
+			return true;
+		}
+
+		UUID uuid = cache.get(resident.getName().toLowerCase());
+		if (uuid != null) {
+			applyUUID(resident, uuid, "uuidcache.txt");
+			return true;
+		}
+
+		uuid = BukkitTools.getUUIDSafely(resident.getName()); // Get a UUID from the server's playercache without calling to Mojang. 
 
 		if (uuid != null) { // The player has been online recently enough to be in the cache.
 			if (!offlineModeDetected && uuid.version() == 3) // True offline servers return a v3 UUID instead of v4.
 				offlineModeDetected = true;
 			
 			applyUUID(resident, uuid, "cache"); 
+			return true;
+		}
 
-		} else if (!offlineModeDetected) { // If the server is in true offline mode the following test would result always return 204, wiping the database.
-			try {
-				uuid = BukkitTools.getUUIDFromResident(resident); // This will call mojang for the player's UUID.
-			} catch (IOException e) {
-				// 204 is thrown when the player account no longer exists, they will not be logging in again so they can be deleted.
-				TownyMessaging.sendErrorMsg("HTTP Response Code 204 - Mojang says " + resident.getName() + " no longer has an account. Removing this resident from the database.");
-				Bukkit.getScheduler().runTaskLaterAsynchronously(this.plugin,
-					() -> TownyUniverse.getInstance().getDataSource().removeResident(resident),
-					20);
-				return;	
-			}
+		// If the server is in true offline mode Mojang would report every resident as having no account, wiping the database.
+		return offlineModeDetected;
+	}
+
+	/**
+	 * @param resident Resident to check.
+	 * @return true if the resident was online too recently for their name to have passed to another player.
+	 */
+	private static boolean isNameSafeToBatch(Resident resident) {
+		return resident.getLastOnline() > 0 && System.currentTimeMillis() - resident.getLastOnline() < TimeUnit.DAYS.toMillis(NAME_RELEASE_DAYS);
+	}
+
+	/**
+	 * Look up a batch of residents with the resolver.
+	 * 
+	 * @param resolver UUIDResolver to use.
+	 * @param batch Residents to look up.
+	 * @return false if the resolver failed and the task has been delayed.
+	 */
+	private boolean resolveBatch(UUIDResolver resolver, List<Resident> batch) {
+		List<String> names = new ArrayList<>(batch.size());
+		for (Resident resident : batch)
+			names.add(resident.getName());
+
+		Map<String, UUID> uuids;
+		try {
+			uuids = resolver.resolve(names);
+		} catch (IOException e) {
+			// The resolver could not be reached so lets just shut down the task for a minute.
+			TownyMessaging.sendDebugMsg("Could not resolve UUIDs for " + batch.size() + " residents, sorry! Gather task will try again in a minute.");
+			queue.addAll(batch);
+			restart();
+			return false;
+		}
+
+		for (Resident resident : batch) {
+			UUID uuid = uuids.get(resident.getName().toLowerCase());
 			if (uuid != null)
 				applyUUID(resident, uuid, "Mojang");
-			else {
-				// The mojang API could not be reached so lets just shut down the task for a minute.
-				TownyMessaging.sendDebugMsg("Could not resolve UUID for resident: " + resident.getName() + ", sorry! Gather task will try again in a minute.");
-				queue.add(resident);
-				TownyTimerHandler.toggleGatherResidentUUIDTask(false);
-				TownyTimerHandler.toggleGatherResidentUUIDTask(true);
-			}			
+			else
+				unresolved.add(resident); // The name is no longer in use, the account has been renamed or deleted.
 		}
+		return true;
+	}
+
+	/**
+	 * Look up a resident by the name they used when they were last online.
+	 * 
+	 * @param resident Resident who can't be looked up in a batch, or who the batch found no account for.
+	 * @return false if Mojang could not be reached and the task has been delayed.
+	 */
+	private boolean resolveByLastName(Resident resident) {
+		UUID uuid;
+		try {
+			uuid = BukkitTools.getUUIDFromResident(resident); // This will call mojang for the player's UUID.
+		} catch (IOException e) {
+			// 204 is thrown when the player account no longer exists, they will not be logging in again so they can be deleted.
+			TownyMessaging.sendErrorMsg("HTTP Response Code 204 - Mojang says " + resident.getName() + " no longer has an account. Removing this resident from the database.");
+			Bukkit.getScheduler().runTaskLaterAsynchronously(this.plugin,
+				() -> TownyUniverse.getInstance().getDataSource().removeResident(resident),
+				20);
+			return true;
+		}
+		if (uuid != null) {
+			applyUUID(resident, uuid, "Mojang");
+			return true;
+		}
+		// The mojang API could not be reached so lets just shut down the task for a minute.
+		TownyMessaging.sendDebugMsg("Could not resolve UUID for resident: " + resident.getName() + ", sorry! Gather task will try again in a minute.");
+		unresolved.add(resident);
+		restart();
+		return false;
+	}
+
+	private static void restart() {
+		TownyTimerHandler.toggleGatherResidentUUIDTask(false);
+		TownyTimerHandler.toggleGatherResidentUUIDTask(true);
 	}
 	
 	public static void addResident(Resident resident) {
 		queue.add(resident);
 	}
 
+	/**
+	 * Queue a resident who has not been loaded, they are loaded once the task reaches them.
+	 * 
+	 * @param name Name of the resident.
+	 */
+	public static void addResidentName(String name) {
+		residentNames.add(name);
+	}
+
+	/**
+	 * Replace the resolver used to look up batches of names, ie: with a stub for testing.
+	 * 
+	 * @param uuidResolver UUIDResolver to use.
+	 */
+	public static void setResolver(UUIDResolver uuidResolver) {
+		resolver = uuidResolver;
+	}
+
 	private void applyUUID(Resident resident, UUID uuid, String source) {
 		resident.setUUID(uuid);
 		TownyUniverse.getInstance().getDataSource().saveResident(resident);
 		TownySettings.incrementUUIDCount();
+		if (!source.equals("Towny") && !uuid.equals(cache.put(resident.getName().toLowerCase(), uuid)))
+			cacheChanged = true;
 		TownyMessaging.sendDebugMsg("UUID stored for " + resident.getName() + " received from " + source + ". Progress: " + TownySettings.getUUIDPercent() + ".");
 	}
 	
 	public static void markOfflineMode() {
 		offlineModeDetected = true;
 	}
+
+	private static File getCacheFile() {
+		return new File(TownyUniverse.getInstance().getRootFolder() + File.separator + "data" + File.separator + "uuidcache.txt");
+	}
+
+	private static synchronized void loadCache() {
+		if (cacheLoaded)
+			return;
+		cacheLoaded = true;
+
+		File file = getCacheFile();
+		if (!file.exists())
+			return;
+
+		for (Map.Entry<String, String> entry : FileMgmt.loadFileIntoHashMap(file).entrySet()) {
+			try {
+				cache.put(entry.getKey(), UUID.fromString(entry.getValue()));
+			} catch (IllegalArgumentException ignored) {}
+		}
+		TownyMessaging.sendDebugMsg("Loaded " + cache.size() + " UUIDs from uuidcache.txt.");
+	}
+
+	/**
+	 * Write the names resolved so far to data/uuidcache.txt, if any were added since it was last written.
+	 */
+	public static synchronized void saveCache() {
+		if (!cacheChanged)
+			return;
+		cacheChanged = false;
+
+		List<String> lines = new ArrayList<>(cache.size());
+		for (Map.Entry<String, UUID> entry : cache.entrySet())
+			lines.add(entry.getKey() + "=" + entry.getValue());
+		if (!FileMgmt.listToFile(lines, getCacheFile().getPath()))
+			cacheChanged = true;
+	}
 	
 }
@@ -9,54 +9,131 @@ import com.palmergames.bukkit.towny.exceptions.NotRegisteredException;
 import com.palmergames.bukkit.towny.object.*;
 import com.palmergames.bukkit.towny.utils.EntityTypeUtil;
 
+import com.palmergames.util.TimeTools;
 import net.citizensnpcs.api.CitizensAPI;
 
+import org.bukkit.Chunk;
 import org.bukkit.Location;
 import org.bukkit.Server;
 import org.bukkit.World;
+import org.bukkit.entity.Entity;
 import org.bukkit.entity.EntityType;
 import org.bukkit.entity.LivingEntity;
 import org.bukkit.entity.Rabbit;
 
 import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.HashMap;
 import java.util.List;
-
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Removes mobs which are not allowed where they are.
+ *
+ * A sweep of every loaded chunk is spread over the mob_removal_speed,
+ * each tick checking one bucket of the chunks which were loaded when
+ * the sweep began.
+ */
 public class MobRemovalTimerTask extends TownyTimerTask {
 
 	private final Server server;
 	public static List<Class<?>> classesOfWorldMobsToRemove = new ArrayList<>();
 	public static List<Class<?>> classesOfWildernessMobsToRemove = new ArrayList<>();
 	public static List<Class<?>> classesOfTownMobsToRemove = new ArrayList<>();
+	// The same classes, resolved to the EntityTypes they cover.
+	private static Set<EntityType> worldMobsToRemove = EnumSet.noneOf(EntityType.class);
+	private static Set<EntityType> wildernessMobsToRemove = EnumSet.noneOf(EntityType.class);
+	private static Set<EntityType> townMobsToRemove = EnumSet.noneOf(EntityType.class);
 	private final boolean isRemovingKillerBunny;
 
+	private final int sweepTicks;
+	private final List<List<Chunk>> buckets = new ArrayList<>();
+	private final Map<World, TownyWorld> sweepWorlds = new HashMap<>();
+	private int bucket = 0;
+
 	public MobRemovalTimerTask(Towny plugin, Server server) {
 
 		super(plugin);
 		this.server = server;
 
+		loadEntityTables();
+		isRemovingKillerBunny = TownySettings.isRemovingKillerBunny();
+		sweepTicks = (int) Math.max(1, TimeTools.convertToTicks(TownySettings.getMobRemovalSpeed()));
+	}
+
+	/**
+	 * Read which mobs are removed from the config.
+	 */
+	public static void loadEntityTables() {
+
 		classesOfWorldMobsToRemove = EntityTypeUtil.parseLivingEntityClassNames(TownySettings.getWorldMobRemovalEntities(), "WorldMob: ");
 		classesOfWildernessMobsToRemove = EntityTypeUtil.parseLivingEntityClassNames(TownySettings.getWildernessMobRemovalEntities(),"WildernessMob: ");
 		classesOfTownMobsToRemove = EntityTypeUtil.parseLivingEntityClassNames(TownySettings.getTownMobRemovalEntities(), "TownMob: ");
-		isRemovingKillerBunny = TownySettings.isRemovingKillerBunny();
+		worldMobsToRemove = EntityTypeUtil.getEntityTypesOfAny(classesOfWorldMobsToRemove);
+		wildernessMobsToRemove = EntityTypeUtil.getEntityTypesOfAny(classesOfWildernessMobsToRemove);
+		townMobsToRemove = EntityTypeUtil.getEntityTypesOfAny(classesOfTownMobsToRemove);
 	}
 
 	public static boolean isRemovingWorldEntity(LivingEntity livingEntity) {
-		return EntityTypeUtil.isInstanceOfAny(classesOfWorldMobsToRemove, livingEntity);
+		return isRemoving(worldMobsToRemove, classesOfWorldMobsToRemove, livingEntity);
 	}
-	
+
 	public static boolean isRemovingWildernessEntity(LivingEntity livingEntity) {
-		return  EntityTypeUtil.isInstanceOfAny(classesOfWildernessMobsToRemove, livingEntity);
+		return isRemoving(wildernessMobsToRemove, classesOfWildernessMobsToRemove, livingEntity);
 	}
 
 	public static boolean isRemovingTownEntity(LivingEntity livingEntity) {
-		return EntityTypeUtil.isInstanceOfAny(classesOfTownMobsToRemove, livingEntity);
+		return isRemoving(townMobsToRemove, classesOfTownMobsToRemove, livingEntity);
+	}
+
+	private static boolean isRemoving(Set<EntityType> types, List<Class<?>> classes, LivingEntity livingEntity) {
+		// Entities without a class of their own (modded entities) are still checked against the classes.
+		EntityType type = livingEntity.getType();
+		if (type.getEntityClass() == null)
+			return EntityTypeUtil.isInstanceOfAny(classes, livingEntity);
+		return types.contains(type);
 	}
 
 	@Override
 	public void run() {
+
+		if (bucket >= buckets.size())
+			startSweep();
+
 		// Build a list of mobs to be removed
 		List<LivingEntity> livingEntitiesToRemove = new ArrayList<>();
 
+		for (Chunk chunk : buckets.get(bucket++)) {
+			if (!chunk.isLoaded())
+				continue;
+			TownyWorld townyWorld = sweepWorlds.get(chunk.getWorld());
+			if (townyWorld != null)
+				sweepChunk(chunk, townyWorld, livingEntitiesToRemove);
+		}
+
+		MobRemovalEvent mobRemovalEvent;
+		for (LivingEntity livingEntity : livingEntitiesToRemove) {
+			mobRemovalEvent = new MobRemovalEvent(livingEntity);
+			plugin.getServer().getPluginManager().callEvent(mobRemovalEvent);
+			if (!mobRemovalEvent.isCancelled()) {
+				livingEntity.remove();
+			}
+		}
+	}
+
+	/*
+	 * Shares the loaded chunks of every world needing a sweep out between the buckets.
+	 */
+	private void startSweep() {
+
+		bucket = 0;
+		buckets.clear();
+		sweepWorlds.clear();
+		for (int i = 0; i < sweepTicks; i++)
+			buckets.add(new ArrayList<>());
+
+		int next = 0;
 		for (World world : server.getWorlds()) {
 			TownyWorld townyWorld;
 
@@ -67,8 +144,8 @@ public class MobRemovalTimerTask extends TownyTimerTask {
 				// World was not registered by Towny, so we skip all mobs in it.
 				continue;
 			} // Spigot has unloaded this world.
-			
-			
+
+
 			// Filter worlds not using towny.
 			if (!townyWorld.isUsingTowny())
 				continue;
@@ -77,66 +154,71 @@ public class MobRemovalTimerTask extends TownyTimerTask {
 			if (townyWorld.isForceTownMobs() && townyWorld.hasWorldMobs())
 				continue;
 
-			//
-			for (LivingEntity livingEntity : world.getLivingEntities()) {
-				Location livingEntityLoc = livingEntity.getLocation();
-				if (!world.isChunkLoaded(livingEntityLoc.getBlockX() >> 4, livingEntityLoc.getBlockZ() >> 4))
-					continue;
+			sweepWorlds.put(world, townyWorld);
+			for (Chunk chunk : world.getLoadedChunks())
+				buckets.get(next++ % sweepTicks).add(chunk);
+		}
+	}
 
-				// Check if entity is a Citizens NPC
-				if (plugin.isCitizens2()) {
-					if (CitizensAPI.getNPCRegistry().isNPC(livingEntity))
-						continue;
-				}
-				
-				// Handles entities Globally.
-				if (!townyWorld.hasWorldMobs() && isRemovingWorldEntity(livingEntity)) {
-					livingEntitiesToRemove.add(livingEntity);
-					continue;
-				}
-				
-				// Handles entities in the wilderness.
-				if (TownyAPI.getInstance().isWilderness(livingEntityLoc)) {
-					if (townyWorld.hasWildernessMobs())
-						continue;
-					if (!isRemovingWildernessEntity(livingEntity))
-						continue;
-					
-					livingEntitiesToRemove.add(livingEntity);
-					continue;
-				}
+	private void sweepChunk(Chunk chunk, TownyWorld townyWorld, List<LivingEntity> livingEntitiesToRemove) {
 
-				// The entity is inside of a town.
-				TownBlock townBlock = TownyAPI.getInstance().getTownBlock(livingEntityLoc);
+		// When a chunk lies inside of a single townblock it is only looked up once.
+		boolean chunkInOneCell = Coord.getCellSize() % 16 == 0;
+		TownBlock chunkTownBlock = null;
+		if (chunkInOneCell)
+			chunkTownBlock = TownyAPI.getInstance().getTownBlock(new Location(chunk.getWorld(), chunk.getX() << 4, 0, chunk.getZ() << 4));
 
-				// Check if mobs are always allowed inside towns in this world.
-				if (townyWorld.isForceTownMobs() || townBlock.getPermissions().mobs)
-					continue;
+		for (Entity entity : chunk.getEntities()) {
+			if (!(entity instanceof LivingEntity))
+				continue;
+			LivingEntity livingEntity = (LivingEntity) entity;
 
-				// Check that Towny is removing this type of entity inside towns.
-				if (!isRemovingTownEntity(livingEntity))
+			// Check if entity is a Citizens NPC
+			if (plugin.isCitizens2()) {
+				if (CitizensAPI.getNPCRegistry().isNPC(livingEntity))
 					continue;
+			}
 
-				if (TownySettings.isSkippingRemovalOfNamedMobs() && livingEntity.getCustomName() != null)
+			// Handles entities Globally.
+			if (!townyWorld.hasWorldMobs() && isRemovingWorldEntity(livingEntity)) {
+				livingEntitiesToRemove.add(livingEntity);
+				continue;
+			}
+
+			TownBlock townBlock = chunkInOneCell ? chunkTownBlock : TownyAPI.getInstance().getTownBlock(livingEntity.getLocation());
+
+			// Handles entities in the wilderness.
+			if (townBlock == null || !townBlock.hasTown()) {
+				if (townyWorld.hasWildernessMobs())
+					continue;
+				if (!isRemovingWildernessEntity(livingEntity))
 					continue;
 
-				// Special check if it's a rabbit, for the Killer Bunny variant.
-				if (livingEntity.getType().equals(EntityType.RABBIT))
-					if (isRemovingKillerBunny && ((Rabbit) livingEntity).getRabbitType().equals(Rabbit.Type.THE_KILLER_BUNNY)) {
-						livingEntitiesToRemove.add(livingEntity);							
-						continue;						
-					}
-				
 				livingEntitiesToRemove.add(livingEntity);
+				continue;
 			}
-		}
-		MobRemovalEvent mobRemovalEvent;
-		for (LivingEntity livingEntity : livingEntitiesToRemove) {
-			mobRemovalEvent = new MobRemovalEvent(livingEntity);
-			plugin.getServer().getPluginManager().callEvent(mobRemovalEvent);
-			if (!mobRemovalEvent.isCancelled()) {
-				livingEntity.remove();
-			}
+
+			// The entity is inside of a town.
+
+			// Check if mobs are always allowed inside towns in this world.
+			if (townyWorld.isForceTownMobs() || townBlock.getPermissions().mobs)
+				continue;
+
+			// Check that Towny is removing this type of entity inside towns.
+			if (!isRemovingTownEntity(livingEntity))
+				continue;
+
+			if (TownySettings.isSkippingRemovalOfNamedMobs() && livingEntity.getCustomName() != null)
+				continue;
+
+			// Special check if it's a rabbit, for the Killer Bunny variant.
+			if (livingEntity.getType().equals(EntityType.RABBIT))
+				if (isRemovingKillerBunny && ((Rabbit) livingEntity).getRabbitType().equals(Rabbit.Type.THE_KILLER_BUNNY)) {
+					livingEntitiesToRemove.add(livingEntity);
+					continue;
+				}
+
+			livingEntitiesToRemove.add(livingEntity);
 		}
 	}
 }
@@ -0,0 +1,266 @@
+package com.palmergames.bukkit.towny.tasks;
+
+import com.palmergames.bukkit.towny.Towny;
+import com.palmergames.bukkit.towny.TownySettings;
+import com.palmergames.bukkit.towny.TownyUniverse;
+import com.palmergames.bukkit.towny.exceptions.EconomyException;
+import com.palmergames.bukkit.towny.exceptions.NotRegisteredException;
+import com.palmergames.bukkit.towny.object.Nation;
+import com.palmergames.bukkit.towny.object.Resident;
+import com.palmergames.bukkit.towny.object.Town;
+import com.palmergames.bukkit.towny.object.TownBlock;
+import com.palmergames.bukkit.towny.object.economy.Account;
+import com.palmergames.bukkit.towny.object.economy.BankAccount;
+import com.palmergames.bukkit.towny.permissions.TownyPerms;
+import com.palmergames.bukkit.towny.utils.MoneyUtil;
+import org.bukkit.scheduler.BukkitRunnable;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The towns and nations as they were when a new day began, taken on the
+ * main thread so that the new day can be planned on another thread
+ * without touching the live objects.
+ *
+ * The accounts and their balances are taken as well, so the planning
+ * thread never asks the economy plugin for anything. Asking the economy
+ * plugin for every balance can take a while, so the balances are read
+ * over the ticks after the towns and nations are taken.
+ */
+public class NewDaySnapshot {
+
+	// Time the main thread may spend reading balances each tick.
+	private static final long BALANCE_BUDGET_NANOS = TimeUnit.MILLISECONDS.toNanos(10);
+
+	private final Map<Town, TownSnapshot> towns = new LinkedHashMap<>();
+	private final List<NationSnapshot> nations = new ArrayList<>();
+	private final Set<Account> accounts = new LinkedHashSet<>();
+	private final Map<Account, Double> balances = new HashMap<>();
+	private long mainThreadNanos = 0;
+
+	public static class ResidentSnapshot {
+		public final Resident resident;
+		public final Account account;
+		public final Town town;
+		public final boolean taxExempt;
+		public final boolean mayor;
+
+		ResidentSnapshot(Resident resident) {
+			this.resident = resident;
+			this.account = resident.getAccount();
+			Town town = null;
+			try {
+				town = resident.getTown();
+			} catch (NotRegisteredException ignored) {
+			}
+			this.town = town;
+			this.taxExempt = resident.isNPC() || TownyPerms.getResidentPerms(resident).containsKey("towny.tax_exempt");
+			this.mayor = resident.isMayor();
+		}
+	}
+
+	public static class PlotSnapshot {
+		public final TownBlock townBlock;
+		public final ResidentSnapshot owner;
+		public final double tax;
+
+		PlotSnapshot(TownBlock townBlock, ResidentSnapshot owner, double tax) {
+			this.townBlock = townBlock;
+			this.owner = owner;
+			this.tax = tax;
+		}
+	}
+
+	public static class TownSnapshot {
+		public final Town town;
+		public final String name;
+		public final BankAccount account;
+		public final Nation nation;
+		public final boolean capital;
+		public final boolean hasUpkeep;
+		public final double taxes;
+		public final boolean taxPercentage;
+		public final double maxPercentTaxAmount;
+		public final double upkeep;
+		// The debt cap given to the account when the plan is applied, and the cap it then has.
+		public final double estimatedValue;
+		public final double debtCap;
+		public final double balanceCap;
+		public final int townBlockCount;
+		public final List<ResidentSnapshot> residents;
+		public final List<PlotSnapshot> plots;
+
+		TownSnapshot(Town town, Map<Resident, ResidentSnapshot> residentSnapshots) {
+			this.town = town;
+			this.name = town.getName();
+			this.account = town.getAccount();
+			Nation nation = null;
+			try {
+				nation = town.getNation();
+			} catch (NotRegisteredException ignored) {
+			}
+			this.nation = nation;
+			this.capital = town.isCapital();
+			this.hasUpkeep = town.hasUpkeep();
+			this.taxes = town.getTaxes();
+			this.taxPercentage = town.isTaxPercentage();
+			this.maxPercentTaxAmount = town.getMaxPercentTaxAmount();
+			this.townBlockCount = town.getTownBlocks().size();
+
+			double upkeep = 0;
+			if (hasUpkeep) {
+				upkeep = TownySettings.getTownUpkeepCost(town);
+				double upkeepPenalty = TownySettings.getTownPenaltyUpkeepCost(town);
+				if (upkeepPenalty > 0 && upkeep > 0)
+					upkeep = upkeep + upkeepPenalty;
+			}
+			this.upkeep = upkeep;
+
+			if (TownySettings.isTownBankruptcyEnabled()) {
+				this.estimatedValue = MoneyUtil.getEstimatedValueOfTown(town);
+				this.debtCap = account.getDebtCap(estimatedValue);
+			} else {
+				this.estimatedValue = 0;
+				this.debtCap = 0;
+			}
+			this.balanceCap = account.getBalanceCap();
+
+			List<ResidentSnapshot> residents = new ArrayList<>();
+			if (taxes > 0)
+				for (Resident resident : town.getResidents())
+					residents.add(residentSnapshots.computeIfAbsent(resident, ResidentSnapshot::new));
+			this.residents = Collections.unmodifiableList(residents);
+
+			List<PlotSnapshot> plots = new ArrayList<>();
+			if (town.getPlotTax() > 0 || town.getCommercialPlotTax() > 0 || town.getEmbassyPlotTax() > 0) {
+				for (TownBlock townBlock : town.getTownBlocks()) {
+					if (!townBlock.hasResident())
+						continue;
+					try {
+						Resident owner = townBlock.getResident();
+						plots.add(new PlotSnapshot(townBlock, residentSnapshots.computeIfAbsent(owner, ResidentSnapshot::new), townBlock.getType().getTax(town)));
+					} catch (NotRegisteredException ignored) {
+					}
+				}
+			}
+			this.plots = Collections.unmodifiableList(plots);
+		}
+	}
+
+	public static class NationSnapshot {
+		public final Nation nation;
+		public final String name;
+		public final BankAccount account;
+		public final double taxes;
+		public final double upkeep;
+		public final boolean neutral;
+		public final List<TownSnapshot> towns;
+
+		NationSnapshot(Nation nation, Map<Town, TownSnapshot> townSnapshots) {
+			this.nation = nation;
+			this.name = nation.getName();
+			this.account = nation.getAccount();
+			this.taxes = nation.getTaxes();
+			this.upkeep = TownySettings.getNationUpkeepCost(nation);
+			this.neutral = nation.isNeutral();
+
+			List<TownSnapshot> towns = new ArrayList<>();
+			for (Town town : nation.getTowns()) {
+				TownSnapshot townSnapshot = townSnapshots.get(town);
+				if (townSnapshot != null)
+					towns.add(townSnapshot);
+			}
+			this.towns = Collections.unmodifiableList(towns);
+		}
+	}
+
+	private NewDaySnapshot(TownyUniverse universe) {
+		Map<Resident, ResidentSnapshot> residentSnapshots = new HashMap<>();
+		for (Town town : universe.getDataSource().getTowns())
+			towns.put(town, new TownSnapshot(town, residentSnapshots));
+		for (Nation nation : universe.getDataSource().getNations())
+			nations.add(new NationSnapshot(nation, towns));
+
+		for (TownSnapshot town : towns.values())
+			accounts.add(town.account);
+		for (NationSnapshot nation : nations)
+			accounts.add(nation.account);
+		for (ResidentSnapshot resident : residentSnapshots.values())
+			accounts.add(resident.account);
+	}
+
+	/**
+	 * Take a snapshot of every town and nation on the main thread, then read
+	 * the balances of their accounts, as many as fit in each tick.
+	 *
+	 * @param plugin - Towny.
+	 * @param universe - The TownyUniverse.
+	 * @return the snapshot, completed on the main thread once every balance has been read,
+	 * or completed exceptionally with an EconomyException if a balance could not be read.
+	 */
+	public static CompletableFuture<NewDaySnapshot> take(Towny plugin, TownyUniverse universe) {
+		CompletableFuture<NewDaySnapshot> future = new CompletableFuture<>();
+		new BukkitRunnable() {
+			NewDaySnapshot snapshot = null;
+			Iterator<Account> unread = null;
+
+			@Override
+			public void run() {
+				long sliceStart = System.nanoTime();
+				try {
+					if (snapshot == null) {
+						snapshot = new NewDaySnapshot(universe);
+						unread = snapshot.accounts.iterator();
+					}
+					while (unread.hasNext() && System.nanoTime() - sliceStart < BALANCE_BUDGET_NANOS) {
+						Account account = unread.next();
+						snapshot.balances.put(account, account.getHoldingBalance());
+					}
+				} catch (EconomyException | RuntimeException e) {
+					cancel();
+					future.completeExceptionally(e);
+					return;
+				}
+				snapshot.mainThreadNanos += System.nanoTime() - sliceStart;
+
+				if (!unread.hasNext()) {
+					cancel();
+					future.complete(snapshot);
+				}
+			}
+		}.runTaskTimer(plugin, 0, 1);
+		return future;
+	}
+
+	public List<TownSnapshot> getTowns() {
+		return Collections.unmodifiableList(new ArrayList<>(towns.values()));
+	}
+
+	public List<NationSnapshot> getNations() {
+		return Collections.unmodifiableList(nations);
+	}
+
+	/**
+	 * @return the nanoseconds the main thread spent taking the snapshot, over every tick it was taken in.
+	 */
+	public long getMainThreadNanos() {
+		return mainThreadNanos;
+	}
+
+	/**
+	 * @return the balance of every account in the snapshot, when the day began.
+	 */
+	public Map<Account, Double> getBalances() {
+		return Collections.unmodifiableMap(balances);
+	}
+}
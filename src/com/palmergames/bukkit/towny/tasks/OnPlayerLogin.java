@@ -112,6 +112,11 @@ public class OnPlayerLogin implements Runnable {
 			}
 		}
 
+		if (resident != null) {
+			// Keep the resident for the rest of this session.
+			universe.addOnlineResident(player, resident);
+		}
+
 		if (resident != null)
 			
 			TownyPerms.assignPermissions(resident, player);
@@ -21,15 +21,20 @@ import com.palmergames.bukkit.util.BukkitTools;
 
 import org.bukkit.entity.Player;
 
-import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Set;
 
 /**
+ * Claims or unclaims plots for a resident, run by the {@link ClaimExecutor}.
+ * 
+ * Everything changed by the claim is saved once when the claim is done.
+ * 
  * @author ElgarL
  * 
  */
-public class PlotClaim extends Thread {
+public class PlotClaim implements Runnable {
 
 	Towny plugin;
 	private final Player player;
@@ -38,6 +43,10 @@ public class PlotClaim extends Thread {
 	private final boolean claim;
 	private final boolean admin;
 	private final boolean groupClaim;
+	// Objects changed by this claim, saved together once the selection is done.
+	private final Set<TownBlock> townBlocksToSave = new LinkedHashSet<>();
+	private final Set<Resident> residentsToSave = new LinkedHashSet<>();
+	private final Set<PlotGroup> plotGroupsToSave = new LinkedHashSet<>();
 
 	/**
 	 * @param plugin reference to towny
@@ -50,7 +59,6 @@ public class PlotClaim extends Thread {
 	 */
 	public PlotClaim(Towny plugin, Player player, Resident resident, List<WorldCoord> selection, boolean claim, boolean admin, boolean groupClaim) {
 
-		super();
 		this.plugin = plugin;
 		this.player = player;
 		this.resident = resident;
@@ -58,7 +66,24 @@ public class PlotClaim extends Thread {
 		this.claim = claim;
 		this.admin = admin;
 		this.groupClaim = groupClaim;
-		this.setPriority(MIN_PRIORITY);
+	}
+
+	/**
+	 * @return the town the plots are in, or the resident's town when unclaiming all of their plots.
+	 */
+	public Town getTown() {
+		try {
+			if (selection != null) {
+				for (WorldCoord worldCoord : selection) {
+					TownBlock townBlock = TownyUniverse.getInstance().getTownBlockOrNull(worldCoord);
+					if (townBlock != null && townBlock.hasTown())
+						return townBlock.getTown();
+				}
+			}
+			return resident.hasTown() ? resident.getTown() : null;
+		} catch (NotRegisteredException e) {
+			return null;
+		}
 	}
 
 	@Override
@@ -117,7 +142,7 @@ public class PlotClaim extends Thread {
 							worldCoord.getTownBlock().getPlotObjectGroup().setPrice(-1);
 							TownyMessaging.sendPrefixedTownMessage(worldCoord.getTownBlock().getTown(), Translation.of("msg_player_successfully_bought_group_x", player.getName(), worldCoord.getTownBlock().getPlotObjectGroup().getName()));
 							
-							TownyUniverse.getInstance().getDataSource().savePlotGroup(worldCoord.getTownBlock().getPlotObjectGroup());
+							plotGroupsToSave.add(worldCoord.getTownBlock().getPlotObjectGroup());
 							break;
 						}
 					}
@@ -178,11 +203,27 @@ public class PlotClaim extends Thread {
 			}
 		}
 		
-		TownyUniverse.getInstance().getDataSource().saveResident(resident);
+		residentsToSave.add(resident);
+		save();
 		plugin.resetCache();
 
 	}
 
+	/*
+	 * Saves everything this claim has changed, each object once.
+	 */
+	private void save() {
+
+		TownyUniverse townyUniverse = TownyUniverse.getInstance();
+		for (TownBlock townBlock : townBlocksToSave)
+			townyUniverse.getDataSource().saveTownBlock(townBlock);
+		for (PlotGroup plotGroup : plotGroupsToSave)
+			townyUniverse.getDataSource().savePlotGroup(plotGroup);
+		for (Resident resident : residentsToSave)
+			townyUniverse.getDataSource().saveResident(resident);
+
+	}
+
 	/**
 	 * A similar function to {@link #residentClaim(WorldCoord)}, that deals
 	 * with group member, or more specifically updates plot group values, to
@@ -207,7 +248,6 @@ public class PlotClaim extends Thread {
 
 				if ((resident.hasTown() && (resident.getTown() != town) && (!townBlock.getType().equals(TownBlockType.EMBASSY))) || ((!resident.hasTown()) && (!townBlock.getType().equals(TownBlockType.EMBASSY))))
 					throw new TownyException(Translation.of("msg_err_not_part_town"));
-				TownyUniverse townyUniverse = TownyUniverse.getInstance();
 				try {
 					Resident owner = townBlock.getPlotObjectGroup().getResident();
 
@@ -233,9 +273,9 @@ public class PlotClaim extends Thread {
 						// TODO: Plot types for groups.
 						//group.setType(townBlock.getType());
 
-						townyUniverse.getDataSource().saveResident(owner);
-						townyUniverse.getDataSource().savePlotGroup(group);
-						townyUniverse.getDataSource().saveTownBlock(townBlock);
+						residentsToSave.add(owner);
+						plotGroupsToSave.add(group);
+						townBlocksToSave.add(townBlock);
 
 						if (i >= worldCoords.size() - 2) {
 							TownyMessaging.sendPrefixedTownMessage(town, Translation.of("msg_player_successfully_bought_group_x", resident.getName(), group.getName()));
@@ -255,10 +295,10 @@ public class PlotClaim extends Thread {
 						// Set the plot permissions to mirror the towns.
 						//townBlock.setType(townBlock.getType());
 
-						townyUniverse.getDataSource().saveResident(owner);
-						townyUniverse.getDataSource().savePlotGroup(group);
+						residentsToSave.add(owner);
+						plotGroupsToSave.add(group);
 						// Update the townBlock data file so it's no longer using custom settings.
-						townyUniverse.getDataSource().saveTownBlock(townBlock);
+						townBlocksToSave.add(townBlock);
 						
 					} else {
 						//Should never reach here.
@@ -276,7 +316,7 @@ public class PlotClaim extends Thread {
 
 					// Set the plot permissions to mirror the new owners.
 					townBlock.setType(townBlock.getType());
-					townyUniverse.getDataSource().saveTownBlock(townBlock);
+					townBlocksToSave.add(townBlock);
 					
 				}
 			} catch (NotRegisteredException e) {
@@ -295,7 +335,6 @@ public class PlotClaim extends Thread {
 			Town town = townBlock.getTown();
 			if ((resident.hasTown() && (resident.getTown() != town) && (!townBlock.getType().equals(TownBlockType.EMBASSY))) || ((!resident.hasTown()) && (!townBlock.getType().equals(TownBlockType.EMBASSY))))
 				throw new TownyException(Translation.of("msg_err_not_part_town"));
-			TownyUniverse townyUniverse = TownyUniverse.getInstance();
 
 			try {
 				Resident owner = townBlock.getResident();
@@ -324,8 +363,8 @@ public class PlotClaim extends Thread {
 					// Set the plot permissions to mirror the new owners.
 					townBlock.setType(townBlock.getType());
 					
-					townyUniverse.getDataSource().saveResident(owner);
-					townyUniverse.getDataSource().saveTownBlock(townBlock);
+					residentsToSave.add(owner);
+					townBlocksToSave.add(townBlock);
 
 					// Update any caches for this WorldCoord
 					plugin.updateCache(worldCoord);
@@ -343,9 +382,9 @@ public class PlotClaim extends Thread {
 					// Set the plot permissions to mirror the towns.
 					townBlock.setType(townBlock.getType());
 					
-					townyUniverse.getDataSource().saveResident(owner);
+					residentsToSave.add(owner);
 					// Update the townBlock data file so it's no longer using custom settings.
-					townyUniverse.getDataSource().saveTownBlock(townBlock);
+					townBlocksToSave.add(townBlock);
 
 					return true;
 				} else {
@@ -373,7 +412,7 @@ public class PlotClaim extends Thread {
 
 				// Set the plot permissions to mirror the new owners.
 				townBlock.setType(townBlock.getType());
-				townyUniverse.getDataSource().saveTownBlock(townBlock);
+				townBlocksToSave.add(townBlock);
 
 				return true;
 			}
@@ -392,7 +431,7 @@ public class PlotClaim extends Thread {
 
 			// Set the plot permissions to mirror the towns.
 			townBlock.setType(townBlock.getType());
-			TownyUniverse.getInstance().getDataSource().saveTownBlock(townBlock);
+			townBlocksToSave.add(townBlock);
 
 			plugin.updateCache(worldCoord);
 
@@ -405,9 +444,7 @@ public class PlotClaim extends Thread {
 
 	private void residentUnclaimAll() {
 
-		List<TownBlock> selection = new ArrayList<>(resident.getTownBlocks());
-
-		for (TownBlock townBlock : selection) {
+		for (TownBlock townBlock : resident.getTownBlocks()) {
 			try {
 				residentUnclaim(townBlock.getWorldCoord());
 			} catch (TownyException e) {
@@ -430,12 +467,11 @@ public class PlotClaim extends Thread {
 			TownBlock townBlock = worldCoord.getTownBlock();
 			@SuppressWarnings("unused") // Used to make sure a plot/town is here.
 			Town town = townBlock.getTown();
-			TownyUniverse townyUniverse = TownyUniverse.getInstance();
 			
 			townBlock.setPlotPrice(-1);
 			townBlock.setResident(resident);
 			townBlock.setType(townBlock.getType());
-			townyUniverse.getDataSource().saveTownBlock(townBlock);
+			townBlocksToSave.add(townBlock);
 			
 			TownyMessaging.sendMessage(BukkitTools.getPlayer(resident.getName()), Translation.of("msg_admin_has_given_you_a_plot", worldCoord.toString()));
 		} catch (NotRegisteredException e) {
@@ -3,22 +3,50 @@ package com.palmergames.bukkit.towny.tasks;
 import com.palmergames.bukkit.towny.Towny;
 import com.palmergames.bukkit.towny.TownyMessaging;
 import com.palmergames.bukkit.towny.TownyUniverse;
+import com.palmergames.bukkit.towny.exceptions.NotRegisteredException;
 import com.palmergames.bukkit.towny.object.Resident;
+import com.palmergames.bukkit.towny.object.Town;
+import com.palmergames.bukkit.towny.object.Translation;
 import com.palmergames.bukkit.util.BukkitTools;
 import org.bukkit.command.CommandSender;
+import org.bukkit.entity.Player;
+import org.bukkit.scheduler.BukkitRunnable;
 
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
 
 /**
+ * Purges old residents and, optionally, towns without any claims.
+ *
+ * Everything to delete is worked out up front, then removed on the
+ * main thread a batch at a time, so that towns and residents which
+ * referred to the purged residents are only cleaned up and saved once
+ * per batch instead of once per purged resident. Each resident is
+ * checked again as its batch is removed, in case they have logged in
+ * or joined a town since the purge began.
+ *
  * @author ElgarL
- * 
+ *
  */
-public class ResidentPurge extends Thread {
+public class ResidentPurge {
+
+	private static final int RESIDENTS_PER_TICK = 500;
+	private static final int TOWNS_PER_TICK = 20;
+	private static final long PROGRESS_INTERVAL_MILLIS = 5000;
 
 	final Towny plugin;
 	private final CommandSender sender;
 	final long deleteTime;
 	final boolean townless;
+	private boolean purgingResidents = true;
+	private boolean purgingEmptyTowns = false;
+	private boolean dryRun = false;
 
 	/**
 	 * @param plugin reference to Towny
@@ -28,34 +56,213 @@ public class ResidentPurge extends Thread {
 	 */
 	public ResidentPurge(Towny plugin, CommandSender sender, long deleteTime, boolean townless) {
 
-		super();
 		this.plugin = plugin;
 		this.deleteTime = deleteTime;
-		this.setPriority(NORM_PRIORITY);
 		this.townless = townless;
 		this.sender = sender;
 	}
 
-	@Override
-	public void run() {
+	/**
+	 * @param purgingResidents whether old residents are purged.
+	 * @return this purge.
+	 */
+	public ResidentPurge setPurgingResidents(boolean purgingResidents) {
+		this.purgingResidents = purgingResidents;
+		return this;
+	}
 
-		int count = 0;
+	/**
+	 * @param purgingEmptyTowns whether towns with no claims are deleted.
+	 * @return this purge.
+	 */
+	public ResidentPurge setPurgingEmptyTowns(boolean purgingEmptyTowns) {
+		this.purgingEmptyTowns = purgingEmptyTowns;
+		return this;
+	}
+
+	/**
+	 * @param dryRun when true, only report what would be deleted.
+	 * @return this purge.
+	 */
+	public ResidentPurge setDryRun(boolean dryRun) {
+		this.dryRun = dryRun;
+		return this;
+	}
+
+	/**
+	 * Start the purge on the main thread.
+	 */
+	public void start() {
+
+		BukkitTools.scheduleSyncDelayedTask(this::run, 0);
+	}
+
+	public void run() {
 
 		message("Scanning for old residents...");
-		TownyUniverse townyUniverse = TownyUniverse.getInstance();
-		for (Resident resident : new ArrayList<>(townyUniverse.getDataSource().getResidents())) {
-			if (!resident.isNPC() && (System.currentTimeMillis() - resident.getLastOnline() > (this.deleteTime)) && !BukkitTools.isOnline(resident.getName())) {
-				if (townless && resident.hasTown()) {
-					continue;
+		List<Resident> loaded = purgingResidents ? findOldResidents() : Collections.emptyList();
+		if (!purgingResidents) {
+			purge(loaded, Collections.emptyList());
+			return;
+		}
+
+		// Residents a database loading them lazily has not loaded are read off the main thread, without loading them.
+		BukkitTools.scheduleAsyncDelayedTask(() -> {
+			List<Resident> unloaded = TownyUniverse.getInstance().getDataSource().getOldUnloadedResidents(System.currentTimeMillis() - deleteTime, townless);
+			BukkitTools.scheduleSyncDelayedTask(() -> purge(loaded, unloaded), 0);
+		}, 0);
+	}
+
+	private void purge(List<Resident> loaded, List<Resident> unloaded) {
+
+		List<Resident> residents = new ArrayList<>(loaded);
+		residents.addAll(unloaded);
+		Set<Resident> notLoaded = new HashSet<>(unloaded);
+
+		if (dryRun) {
+			List<Town> towns = purgingEmptyTowns ? findEmptyTowns() : Collections.emptyList();
+			message("Dry run: " + residents.size() + " residents and " + towns.size() + " towns without claims would be deleted.");
+			if (!residents.isEmpty())
+				message("Residents: " + summarise(residents));
+			if (!towns.isEmpty())
+				message("Towns: " + summarise(towns));
+			return;
+		}
+
+		if (purgingResidents)
+			message("Found " + residents.size() + " residents to purge.");
+
+		new BukkitRunnable() {
+			int residentIndex = 0;
+			int deleted = 0;
+			long lastProgress = System.currentTimeMillis();
+			List<Town> towns = null;
+			int townIndex = 0;
+			final List<String> deletedTowns = new ArrayList<>();
+
+			@Override
+			public void run() {
+
+				TownyUniverse townyUniverse = TownyUniverse.getInstance();
+
+				if (residentIndex < residents.size()) {
+					int end = Math.min(residentIndex + RESIDENTS_PER_TICK, residents.size());
+					List<Resident> batch = new ArrayList<>();
+					List<Resident> unloadedBatch = new ArrayList<>();
+					long now = System.currentTimeMillis();
+					for (Resident resident : residents.subList(residentIndex, end)) {
+						if (BukkitTools.isOnline(resident.getName()))
+							continue;
+						// Only looked up in memory, a resident which isn't loaded is removed without loading it.
+						Resident registered = townyUniverse.getResidentMap().get(resident.getName().toLowerCase());
+						if (registered != null) {
+							if (isOld(registered, now))
+								batch.add(registered);
+						} else if (notLoaded.contains(resident))
+							unloadedBatch.add(resident);
+					}
+					// Who refers to the batch is looked up for each batch, as friends and outlaws may have been added since the last.
+					if (!batch.isEmpty())
+						deleted += townyUniverse.getDataSource().removeResidents(batch, townyUniverse.getDataSource().getResidentReferences());
+					deleted += townyUniverse.getDataSource().removeUnloadedResidents(unloadedBatch, now - deleteTime, townless);
+					residentIndex = end;
+
+					if (residentIndex == residents.size()) {
+						message("Resident purge complete: " + deleted + " deleted.");
+					} else if (System.currentTimeMillis() - lastProgress >= PROGRESS_INTERVAL_MILLIS) {
+						lastProgress = System.currentTimeMillis();
+						message("Resident purge: " + residentIndex + "/" + residents.size() + " processed, " + deleted + " deleted.");
+					}
+					return;
+				}
+
+				if (purgingEmptyTowns) {
+					// Looked for only now, as purging residents may already have deleted some towns.
+					if (towns == null)
+						towns = findEmptyTowns();
+
+					int end = Math.min(townIndex + TOWNS_PER_TICK, towns.size());
+					for (Town town : towns.subList(townIndex, end)) {
+						if (townyUniverse.getDataSource().hasTown(town.getName()) && town.getTownBlocks().isEmpty()) {
+							deletedTowns.add(town.getName());
+							townyUniverse.getDataSource().removeTown(town);
+						}
+					}
+					townIndex = end;
+
+					if (townIndex < towns.size())
+						return;
+
+					if (!deletedTowns.isEmpty())
+						TownyMessaging.sendGlobalMessage(Translation.of("msg_the_following_towns_were_deleted_for_having_0_claims", String.join(", ", deletedTowns)));
 				}
-				count++;
-				message("Deleting resident: " + resident.getName());
-				townyUniverse.getDataSource().removeResident(resident);
+
+				cancel();
 			}
+		}.runTaskTimer(plugin, 1, 1);
+	}
+
+	/**
+	 * @return the loaded residents old enough to be purged, grouped by town.
+	 */
+	private List<Resident> findOldResidents() {
+
+		Set<String> online = new HashSet<>();
+		for (Player player : BukkitTools.getOnlinePlayers())
+			online.add(player.getName().toLowerCase());
+
+		long now = System.currentTimeMillis();
+		List<Resident> residents = new ArrayList<>();
+		Map<Resident, String> townNames = new HashMap<>();
+		for (Resident resident : TownyUniverse.getInstance().getDataSource().getResidents()) {
+			if (!isOld(resident, now) || online.contains(resident.getName().toLowerCase()))
+				continue;
+			residents.add(resident);
+			townNames.put(resident, townName(resident));
+		}
+
+		// Keep residents of the same town in the same batch, so each town is saved as few times as possible.
+		residents.sort(Comparator.comparing(townNames::get));
+		return residents;
+	}
+
+	/*
+	 * Whether a loaded resident is still one to purge.
+	 */
+	private boolean isOld(Resident resident, long now) {
+
+		return !resident.isNPC() && now - resident.getLastOnline() > this.deleteTime && !(townless && resident.hasTown());
+	}
+
+	private static String townName(Resident resident) {
+
+		if (!resident.hasTown())
+			return "";
+		try {
+			return resident.getTown().getName();
+		} catch (NotRegisteredException e) {
+			return "";
 		}
+	}
+
+	private List<Town> findEmptyTowns() {
+
+		List<Town> towns = new ArrayList<>();
+		for (Town town : TownyUniverse.getInstance().getDataSource().getTowns())
+			if (town.getTownBlocks().isEmpty())
+				towns.add(town);
+		return towns;
+	}
 
-		message("Resident purge complete: " + count + " deleted.");
+	private String summarise(List<?> objects) {
 
+		final int shown = 20;
+		StringBuilder builder = new StringBuilder();
+		for (int i = 0; i < Math.min(shown, objects.size()); i++)
+			builder.append(i == 0 ? "" : ", ").append(objects.get(i));
+		if (objects.size() > shown)
+			builder.append(" and ").append(objects.size() - shown).append(" more");
+		return builder.toString();
 	}
 
 	private void message(String msg) {
@@ -28,12 +28,21 @@ import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
 import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
 
 /**
+ * Claims or unclaims a selection for one town, run by the {@link ClaimExecutor}.
+ * 
+ * The whole selection is checked before any of it is changed, and the
+ * townblocks, towns and worlds are saved once when the claim is done.
+ * 
  * @author ElgarL
  * 
  */
-public class TownClaim extends Thread {
+public class TownClaim implements Runnable {
 
 	Towny plugin;
 	private final Player player;
@@ -43,6 +52,10 @@ public class TownClaim extends Thread {
 	private boolean outpost;
 	private final boolean claim;
 	private final boolean forced;
+	// TownBlocks claimed by this task, saved together once the selection is done.
+	private final List<TownBlock> claimedTownBlocks = new ArrayList<>();
+	// TownBlocks unclaimed by this task, removed together on the main thread.
+	private final List<TownBlock> unclaimedTownBlocks = new ArrayList<>();
 
 	/**
 	 * @param plugin reference to towny
@@ -55,7 +68,6 @@ public class TownClaim extends Thread {
 	 */
 	public TownClaim(Towny plugin, Player player, Town town, List<WorldCoord> selection, boolean isOutpost, boolean claim, boolean forced) {
 
-		super();
 		this.plugin = plugin;
 		this.player = player;
 		if (this.player != null)
@@ -65,7 +77,13 @@ public class TownClaim extends Thread {
 		this.outpost = isOutpost;
 		this.claim = claim;
 		this.forced = forced;
-		this.setPriority(MIN_PRIORITY);
+	}
+
+	/**
+	 * @return the town claiming, or null when an admin unclaims land of any town.
+	 */
+	public Town getTown() {
+		return town;
 	}
 
 	@Override
@@ -80,7 +98,7 @@ public class TownClaim extends Thread {
 
 		if (selection != null) {
 
-			for (WorldCoord worldCoord : selection) {
+			for (WorldCoord worldCoord : validateSelection()) {
 
 				try {
 					world = worldCoord.getTownyWorld();
@@ -111,11 +129,21 @@ public class TownClaim extends Thread {
 				}
 
 			}
+
+			// Save and remove the selection's townblocks together.
+			for (TownBlock townBlock : claimedTownBlocks)
+				townyUniverse.getDataSource().saveTownBlock(townBlock);
+			if (!removeUnclaimedTownBlocks()) {
+				// Nothing was unclaimed, so there is nothing to refund or save.
+				TownyMessaging.sendErrorMsg(player, "The unclaim could not be finished, nothing has been unclaimed.");
+				return;
+			}
 		
-			if (!claim && TownySettings.getClaimRefundPrice() > 0.0) {
+			if (!claim && town != null && !unclaimedTownBlocks.isEmpty() && TownySettings.getClaimRefundPrice() > 0.0) {
+				int unclaimed = unclaimedTownBlocks.size();
 				try {
-					town.getAccount().deposit(TownySettings.getClaimRefundPrice()*selection.size(), "Town Unclaim Refund");
-					TownyMessaging.sendMsg(player, Translation.of("refund_message", TownySettings.getClaimRefundPrice()*selection.size(), selection.size()));
+					town.getAccount().deposit(TownySettings.getClaimRefundPrice()*unclaimed, "Town Unclaim Refund");
+					TownyMessaging.sendMsg(player, Translation.of("refund_message", TownySettings.getClaimRefundPrice()*unclaimed, unclaimed));
 				} catch (EconomyException e) {
 					e.printStackTrace();
 				}
@@ -137,20 +165,8 @@ public class TownClaim extends Thread {
 			if (resident == null) {
 				return;
 			}
-			int townSize = town.getTownBlocks().size() - 1; // size() - 1 because the homeblock will not be unclaimed.
-			double refund = TownySettings.getClaimRefundPrice() * townSize;
-			// Send confirmation message,
-			Confirmation.runOnAccept(() -> { 
-				TownClaim.townUnclaimAll(plugin, town);
-				if (TownySettings.isUsingEconomy() && refund > 0.0) {
-					try {
-						town.getAccount().deposit(TownySettings.getClaimRefundPrice()*townSize - 1, "Town Unclaim Refund"); 
-						TownyMessaging.sendMsg(player, Translation.of("refund_message", TownySettings.getClaimRefundPrice()*townSize, townSize));
-					} catch (EconomyException e) {
-						e.printStackTrace();
-					}
-				}
-			})
+			// Send confirmation message, the townblocks actually removed are refunded once they are gone.
+			Confirmation.runOnAccept(() -> TownClaim.townUnclaimAll(plugin, town, player))
 			.sendTo(player);
 		}
 
@@ -181,12 +197,83 @@ public class TownClaim extends Thread {
 		}
 	}
 
+	/*
+	 * Drops the WorldCoords which cannot be claimed/unclaimed, before any of the selection is changed.
+	 */
+	private List<WorldCoord> validateSelection() {
+
+		TownyUniverse townyUniverse = TownyUniverse.getInstance();
+		List<WorldCoord> validated = new ArrayList<>(selection.size());
+		for (WorldCoord worldCoord : selection) {
+			try {
+				worldCoord.getTownyWorld();
+			} catch (NotRegisteredException e) {
+				// Invalid world
+				TownyMessaging.sendMsg(player, Translation.of("msg_err_not_configured"));
+				continue;
+			}
+
+			TownBlock townBlock = townyUniverse.getTownBlockOrNull(worldCoord);
+			if (claim && townBlock != null) {
+				TownyMessaging.sendErrorMsg(player, Translation.of("msg_already_claimed", "some town"));
+				continue;
+			}
+			if (!claim && townBlock == null) {
+				TownyMessaging.sendErrorMsg(player, Translation.of("msg_not_claimed_1"));
+				continue;
+			}
+			validated.add(worldCoord);
+		}
+		return validated;
+	}
+
+	/*
+	 * Removes the unclaimed townblocks on the main thread, waiting for it so that
+	 * the next claim of this town sees the land as unclaimed.
+	 * Returns false if they could not be removed.
+	 */
+	private boolean removeUnclaimedTownBlocks() {
+
+		if (unclaimedTownBlocks.isEmpty())
+			return true;
+
+		Callable<Void> removal = () -> {
+			for (TownBlock townBlock : unclaimedTownBlocks)
+				TownyUniverse.getInstance().getDataSource().removeTownBlock(townBlock);
+			return null;
+		};
+
+		try {
+			if (!ClaimExecutor.isShuttingDown()) {
+				Future<Void> future = Bukkit.getScheduler().callSyncMethod(plugin, removal);
+				// Once Towny is being disabled the main thread is waiting for this claim, and won't run the removal.
+				while (!ClaimExecutor.isShuttingDown() || !future.cancel(false)) {
+					try {
+						future.get(1, TimeUnit.SECONDS);
+						return true;
+					} catch (TimeoutException ignored) {
+					}
+				}
+			}
+
+			// Nothing else changes the townblocks while the main thread waits for the claims to finish.
+			removal.call();
+			return true;
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		} catch (Exception e) {
+			e.printStackTrace();
+		}
+		return false;
+	}
+
 	private void townClaim(Town town, WorldCoord worldCoord, boolean isOutpost, Player player) throws TownyException {
 
-		if (TownyUniverse.getInstance().hasTownBlock(worldCoord))
+		TownBlock townBlock = new TownBlock(worldCoord.getX(), worldCoord.getZ(), worldCoord.getTownyWorld());
+		// Reserve the WorldCoord, another town's claim may have taken it since the selection was checked.
+		if (!TownyUniverse.getInstance().reserveTownBlock(townBlock))
 				throw new AlreadyRegisteredException(Translation.of("msg_already_claimed", "some town"));
 		else {
-			TownBlock townBlock = new TownBlock(worldCoord.getX(), worldCoord.getZ(), worldCoord.getTownyWorld());
 			townBlock.setTown(town);
 			// Set the plot permissions to mirror the towns.
 			townBlock.setType(townBlock.getType());
@@ -207,7 +294,7 @@ public class TownClaim extends Thread {
 				}
 			}
 			
-			TownyUniverse.getInstance().getDataSource().saveTownBlock(townBlock);
+			claimedTownBlocks.add(townBlock);
 			
 			// Raise an event for the claim
 			BukkitTools.getPluginManager().callEvent(new TownClaimEvent(townBlock, player));
@@ -217,7 +304,6 @@ public class TownClaim extends Thread {
 
 	// Unclaim event comes later in removeTownBlock().
 	private void townUnclaim(final Town town, final WorldCoord worldCoord, boolean force) throws TownyException {
-		TownyUniverse townyUniverse = TownyUniverse.getInstance();
 		
 		try {
 			final TownBlock townBlock = worldCoord.getTownBlock();
@@ -230,13 +316,7 @@ public class TownClaim extends Thread {
 				}
 			}
 
-			Bukkit.getScheduler().scheduleSyncDelayedTask(plugin, () -> {
-
-				
-				townyUniverse.getDataSource().removeTownBlock(townBlock);
-				
-			}, 1);
-			
+			unclaimedTownBlocks.add(townBlock);
 
 		} catch (NotRegisteredException e) {
 			throw new TownyException(Translation.of("msg_not_claimed_1"));
@@ -246,14 +326,24 @@ public class TownClaim extends Thread {
 	// Unclaim event comes later in removeTownBlock().
 	public static void townUnclaimAll(Towny plugin, final Town town) {
 
+		townUnclaimAll(plugin, town, null);
+	}
+
+	/*
+	 * Unclaims everything but the homeblock, refunding the player's town for each townblock removed.
+	 */
+	private static void townUnclaimAll(Towny plugin, final Town town, Player player) {
+
 		Bukkit.getScheduler().scheduleSyncDelayedTask(plugin, () -> {
 
 			// Prevent removing the homeblock
 			Collection<TownBlock> townBlocks = new ArrayList<>(town.getTownBlocks());
+			int removed = 0;
 			for (TownBlock townBlock : townBlocks) {
 				try {
 					if (!town.hasHomeBlock() || !townBlock.equals(town.getHomeBlock())) {
 						TownyUniverse.getInstance().getDataSource().removeTownBlock(townBlock);
+						removed++;
 					}
 				} catch (TownyException ignore) {
 				}
@@ -261,6 +351,15 @@ public class TownClaim extends Thread {
 			
 			TownyMessaging.sendPrefixedTownMessage(town, Translation.of("msg_abandoned_area_1"));
 
+			if (player != null && removed > 0 && TownySettings.isUsingEconomy() && TownySettings.getClaimRefundPrice() > 0.0) {
+				try {
+					town.getAccount().deposit(TownySettings.getClaimRefundPrice() * removed, "Town Unclaim Refund");
+					TownyMessaging.sendMsg(player, Translation.of("refund_message", TownySettings.getClaimRefundPrice() * removed, removed));
+				} catch (EconomyException e) {
+					e.printStackTrace();
+				}
+			}
+
 		}, 1);
 
 	}
@@ -7,7 +7,6 @@ import com.palmergames.bukkit.towny.TownyUniverse;
 import com.palmergames.bukkit.towny.event.DisallowedPVPEvent;
 import com.palmergames.bukkit.towny.event.executors.TownyActionEventExecutor;
 import com.palmergames.bukkit.towny.exceptions.NotRegisteredException;
-import com.palmergames.bukkit.towny.exceptions.TownyException;
 import com.palmergames.bukkit.towny.object.Coord;
 import com.palmergames.bukkit.towny.object.Nation;
 import com.palmergames.bukkit.towny.object.Resident;
@@ -360,18 +359,11 @@ public class CombatUtil {
 
 		if ((attacker != null) && (defender != null))
 			if (!world.isFriendlyFireEnabled() && CombatUtil.isAlly(attacker.getName(), defender.getName())) {
-				try {
-					TownBlock townBlock = new WorldCoord(defender.getWorld().getName(), Coord.parseCoord(defender)).getTownBlock();
-					if (!townBlock.getType().equals(TownBlockType.ARENA))
-						attacker.sendMessage(Translation.of("msg_err_friendly_fire_disable"));
-						return true;
-				} catch (TownyException x) {
-					// World or TownBlock failure
-					// But we are configured to prevent friendly fire in the
-					// wilderness too.					
+				TownBlock townBlock = TownyAPI.getInstance().getTownBlock(defender.getLocation());
+				// We are configured to prevent friendly fire in the wilderness too.
+				if (townBlock == null || !townBlock.getType().equals(TownBlockType.ARENA))
 					attacker.sendMessage(Translation.of("msg_err_friendly_fire_disable"));
-					return true;
-				}
+				return true;
 			}		
 		return false;
 	}
@@ -386,15 +378,11 @@ public class CombatUtil {
 	public static boolean isPvPPlot(Player attacker, Player defender) {
 
 		if ((attacker != null) && (defender != null)) {
-			TownBlock attackerTB, defenderTB;
-			try {
-				attackerTB = new WorldCoord(attacker.getWorld().getName(), Coord.parseCoord(attacker)).getTownBlock();
-				defenderTB = new WorldCoord(defender.getWorld().getName(), Coord.parseCoord(defender)).getTownBlock();
+			TownBlock attackerTB = TownyAPI.getInstance().getTownBlock(attacker.getLocation());
+			TownBlock defenderTB = TownyAPI.getInstance().getTownBlock(defender.getLocation());
 
-				if (defenderTB.getType().equals(TownBlockType.ARENA) && attackerTB.getType().equals(TownBlockType.ARENA))
-					return true;
-
-			} catch (NotRegisteredException ignored) {}
+			if (attackerTB != null && defenderTB != null && defenderTB.getType().equals(TownBlockType.ARENA) && attackerTB.getType().equals(TownBlockType.ARENA))
+				return true;
 		}
 		return false;
 	}
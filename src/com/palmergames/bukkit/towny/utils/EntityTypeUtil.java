@@ -2,7 +2,9 @@ package com.palmergames.bukkit.towny.utils;
 
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.EnumSet;
 import java.util.List;
+import java.util.Set;
 
 import org.bukkit.Material;
 import org.bukkit.entity.EntityType;
@@ -33,6 +35,29 @@ public class EntityTypeUtil {
 		return false;
 	}
 
+	/**
+	 * Resolves a list of entity classes to every EntityType they cover,
+	 * so that entities can be tested against an EnumSet instead of every class.
+	 * 
+	 * @param classes - Classes to resolve.
+	 * @return Every EntityType whose entity class is one of, or extends one of, the classes.
+	 */
+	public static Set<EntityType> getEntityTypesOfAny(List<Class<?>> classes) {
+
+		Set<EntityType> entityTypes = EnumSet.noneOf(EntityType.class);
+		for (EntityType entityType : EntityType.values()) {
+			Class<?> entityClass = entityType.getEntityClass();
+			if (entityClass == null)
+				continue;
+			for (Class<?> c : classes)
+				if (c.isAssignableFrom(entityClass)) {
+					entityTypes.add(entityType);
+					break;
+				}
+		}
+		return entityTypes;
+	}
+
 	public static List<Class<?>> parseLivingEntityClassNames(List<String> mobClassNames, String errorPrefix) {
 
 		List<Class<?>> livingEntityClasses = new ArrayList<Class<?>>();
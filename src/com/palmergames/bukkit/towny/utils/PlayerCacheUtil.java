@@ -4,6 +4,7 @@ import com.palmergames.bukkit.towny.Towny;
 import com.palmergames.bukkit.towny.TownyAPI;
 import com.palmergames.bukkit.towny.TownyMessaging;
 import com.palmergames.bukkit.towny.TownySettings;
+import com.palmergames.bukkit.towny.TownyTimings;
 import com.palmergames.bukkit.towny.TownyUniverse;
 import com.palmergames.bukkit.towny.exceptions.EconomyException;
 import com.palmergames.bukkit.towny.exceptions.NotRegisteredException;
@@ -79,11 +80,14 @@ public class PlayerCacheUtil {
 			PlayerCache cache = plugin.getCache(player);
 			cache.updateCoord(worldCoord);
 
-			TownyMessaging.sendDebugMsg("Cache permissions for " + action.toString() + " : " + cache.getCachePermission(material, action));
-			return cache.getCachePermission(material, action); // Throws NullPointerException if the cache is empty
+			boolean permission = cache.getCachePermission(material, action); // Throws NullPointerException if the cache is empty
+			TownyMessaging.sendDebugMsg("Cache permissions for " + action.toString() + " : " + permission);
+			TownyTimings.recordCacheHit();
+			return permission;
 
 		} catch (NullPointerException e) {
 			// New or old cache permission was null, update it
+			TownyTimings.recordCacheMiss();
 
 			// Test required for portalCreateEvent in WorldListener, player hasn't changed worlds yet.
 			if (location.getWorld().equals(player.getWorld())) 
@@ -287,10 +291,8 @@ public class PlayerCacheUtil {
 		/*
 		 * Find the resident data for this player.
 		 */
-		Resident resident = null;
-		try {
-			resident = TownyUniverse.getInstance().getDataSource().getResident(player.getName());
-		} catch (TownyException e) {
+		Resident resident = TownyUniverse.getInstance().getResident(player);
+		if (resident == null) {
 			// Check if entity is a Citizens NPC
 			if (plugin.isCitizens2()) {
 				if (CitizensAPI.getNPCRegistry().isNPC(player))
@@ -421,11 +423,7 @@ public class PlayerCacheUtil {
 			return false;
 		}
 
-		Town playersTown = null;
-		try {
-			playersTown = townyUniverse.getDataSource().getResident(player.getName()).getTown();
-		} catch (NotRegisteredException e) {
-		}
+		Town playersTown = townyUniverse.getResidentTown(player);
 
 		try {
 			if(townBlock == null)
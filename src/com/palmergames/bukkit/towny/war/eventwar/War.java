@@ -42,15 +42,27 @@ import org.bukkit.scheduler.BukkitRunnable;
 import org.bukkit.scheduler.BukkitScheduler;
 
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.Hashtable;
 import java.util.List;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
 
 //TODO: Extend a new class called TownyEvent
 public class War {
 	
 	// War Data
-	private static Hashtable<WorldCoord, Integer> warZone = new Hashtable<>();
-	private Hashtable<Town, Integer> townScores = new Hashtable<>();
+	private static Map<WorldCoord, Integer> warZone = new ConcurrentHashMap<>();
+	// The cells of each town's war zone which can be attacked when only edges may be attacked.
+	private static Map<Town, Set<WorldCoord>> townEdges = new ConcurrentHashMap<>();
+	private Map<Town, Integer> townScores = new ConcurrentHashMap<>();
+	// The towns ordered by score, kept up to date as towns score so the top towns never have to be sorted.
+	private final NavigableSet<Ranking> townRankings = new TreeSet<>();
+	private final Map<Town, Ranking> rankingsByTown = new HashMap<>();
+	private long joinedTowns = 0;
 	public static List<Town> warringTowns = new ArrayList<>();
 	public static List<Nation> warringNations = new ArrayList<>();
 	private WarSpoils warSpoils = new WarSpoils();
@@ -59,6 +71,28 @@ public class War {
 	private boolean warTime = false;
 	private List<Integer> warTaskIds = new ArrayList<>();
 
+	/**
+	 * A town's place in the score ranking. Highest score first, towns with
+	 * the same score are kept in the order they joined the war.
+	 */
+	private static class Ranking implements Comparable<Ranking> {
+		final Town town;
+		final int score;
+		final long joined;
+
+		Ranking(Town town, int score, long joined) {
+			this.town = town;
+			this.score = score;
+			this.joined = joined;
+		}
+
+		@Override
+		public int compareTo(Ranking other) {
+			int compare = Integer.compare(other.score, score);
+			return compare != 0 ? compare : Long.compare(joined, other.joined);
+		}
+	}
+
 	/**
 	 * Creates a new War instance.
 	 * @param plugin - {@link Towny}
@@ -115,16 +149,25 @@ public class War {
 		return warSpoils;
 	}
 
-	public Hashtable<Town, Integer> getTownScores()
+	public Map<Town, Integer> getTownScores()
 	{
 		return townScores;
 	}
 
-	public Hashtable<WorldCoord, Integer> getWarZone()
+	public Map<WorldCoord, Integer> getWarZone()
 	{
 		return warZone;
 	}
 
+	/**
+	 * @param town - the {@link Town} to get the edge of.
+	 * @return the cells of the town's war zone which border land that is not part of it.
+	 */
+	public Set<WorldCoord> getEdgeCells(Town town)
+	{
+		return townEdges.getOrDefault(town, ConcurrentHashMap.newKeySet());
+	}
+
 	public List<Town> getWarringTowns()
 	{
 		return warringTowns;
@@ -135,6 +178,26 @@ public class War {
 		return warZone.containsKey(worldCoord);
 	}
 
+	/**
+	 * Is a cell of the war zone on the edge of its town, next to land which
+	 * is not in the war zone or not owned by the same town.
+	 * 
+	 * @param worldCoord - the {@link WorldCoord} to test.
+	 * @return true if the cell can be attacked when only edges may be attacked.
+	 */
+	public static boolean isOnEdgeOfTown(WorldCoord worldCoord) {
+
+		TownBlock townBlock = TownyUniverse.getInstance().getTownBlockOrNull(worldCoord);
+		if (townBlock == null || !townBlock.hasTown())
+			return false;
+		try {
+			Set<WorldCoord> edgeCells = townEdges.get(townBlock.getTown());
+			return edgeCells != null && edgeCells.contains(worldCoord);
+		} catch (NotRegisteredException e) {
+			return false;
+		}
+	}
+
 	public boolean isWarringNation(Nation nation) {
 
 		return warringNations.contains(nation);
@@ -188,9 +251,14 @@ public class War {
 	public void start() {
 		
 		warZone.clear();
+		townEdges.clear();
 		warringNations.clear();
 		warringTowns.clear();
-		townScores.clear();
+		synchronized (townRankings) {
+			townScores.clear();
+			townRankings.clear();
+			rankingsByTown.clear();
+		}
 		warTaskIds.clear();
 		
 		EventWarPreStartEvent preEvent = new EventWarPreStartEvent();
@@ -307,6 +375,7 @@ public class War {
 		warringNations.clear();
 		warringTowns.clear();
 		warZone.clear();
+		townEdges.clear();
 		
 		double halfWinnings;
 		double nationWinnings = 0;
@@ -381,11 +450,40 @@ public class War {
 		}
 		if (numTownBlocks > 0) {
 			TownyMessaging.sendPrefixedTownMessage(town, Translation.of("msg_war_join", town.getName()));
-			townScores.put(town, 0);
+			addScore(town, 0);
 			warringTowns.add(town);
+
+			// With the whole town in the war zone its edge can be found.
+			Set<WorldCoord> edgeCells = ConcurrentHashMap.newKeySet();
+			for (TownBlock townBlock : town.getTownBlocks())
+				if (warZone.containsKey(townBlock.getWorldCoord()) && isEdgeCell(townBlock.getWorldCoord(), town))
+					edgeCells.add(townBlock.getWorldCoord());
+			townEdges.put(town, edgeCells);
 		}			
 	}
 
+	private static final int[][] EDGE_OFFSETS = { { -1, 0 }, { 1, 0 }, { 0, -1 }, { 0, 1 } };
+
+	/*
+	 * A cell is on the edge when a neighbouring cell is wilderness, another town's or has fallen.
+	 */
+	private static boolean isEdgeCell(WorldCoord worldCoord, Town town) {
+
+		for (int[] offset : EDGE_OFFSETS) {
+			WorldCoord neighbour = worldCoord.add(offset[0], offset[1]);
+			TownBlock edgeTownBlock = TownyUniverse.getInstance().getTownBlockOrNull(neighbour);
+			if (edgeTownBlock == null || !edgeTownBlock.hasTown() || !warZone.containsKey(neighbour))
+				return true;
+			try {
+				if (edgeTownBlock.getTown() != town)
+					return true;
+			} catch (NotRegisteredException e) {
+				return true;
+			}
+		}
+		return false;
+	}
+
 	/**
 	 * A town has scored.
 	 * @param town - the scoring town
@@ -408,10 +506,10 @@ public class War {
 				pointMessage = Translation.of("MSG_WAR_SCORE_TOWNBLOCK_ELIM", town.getName(), n, townBlockName);
 		}
 
-		townScores.put(town, townScores.get(town) + n);
+		int score = addScore(town, n);
 		TownyMessaging.sendGlobalMessage(pointMessage);
 
-		TownScoredEvent event = new TownScoredEvent(town, townScores.get(town));
+		TownScoredEvent event = new TownScoredEvent(town, score);
 		Bukkit.getServer().getPluginManager().callEvent(event);
 	}
 
@@ -435,13 +533,49 @@ public class War {
 		else
 			pointMessage = Translation.of("MSG_WAR_SCORE_PLAYER_KILL", attackerPlayer.getName(), defenderPlayer.getName(), n, attackerTown.getName());
 
-		townScores.put(attackerTown, townScores.get(attackerTown) + n);
+		int score = addScore(attackerTown, n);
 		TownyMessaging.sendGlobalMessage(pointMessage);
 
-		TownScoredEvent event = new TownScoredEvent(attackerTown, townScores.get(attackerTown));
+		TownScoredEvent event = new TownScoredEvent(attackerTown, score);
 		Bukkit.getServer().getPluginManager().callEvent(event);
 	}
 
+	/**
+	 * Add to a town's score, moving the town to its new place in the ranking.
+	 * 
+	 * @param town - the scoring town
+	 * @param n - the score to be added
+	 * @return the town's new score
+	 */
+	private int addScore(Town town, int n) {
+		synchronized (townRankings) {
+			Ranking old = rankingsByTown.get(town);
+			if (old != null)
+				townRankings.remove(old);
+			Ranking ranking = new Ranking(town, (old == null ? 0 : old.score) + n, old == null ? joinedTowns++ : old.joined);
+			townRankings.add(ranking);
+			rankingsByTown.put(town, ranking);
+			townScores.put(town, ranking.score);
+			return ranking.score;
+		}
+	}
+
+	/**
+	 * @param count - the number of towns wanted, -1 for every town.
+	 * @return the towns with the highest scores, highest first.
+	 */
+	private List<Ranking> getTopRankings(int count) {
+		synchronized (townRankings) {
+			List<Ranking> top = new ArrayList<>();
+			for (Ranking ranking : townRankings) {
+				if (count != -1 && top.size() >= count)
+					break;
+				top.add(ranking);
+			}
+			return top;
+		}
+	}
+
 	/**
 	 * Update a plot given the WarZoneData on the TownBlock
 	 * @param townBlock - {@link TownBlock}
@@ -578,7 +712,7 @@ public class War {
 	 */
 	private int getHealth(TownBlock townBlock, int healthChange) {
 		WorldCoord worldCoord = townBlock.getWorldCoord();
-		int hp = warZone.get(worldCoord) + healthChange;
+		int hp = warZone.getOrDefault(worldCoord, 0) + healthChange;
 		boolean isHomeBlock = townBlock.isHomeBlock();
 		if (isHomeBlock && hp > TownySettings.getWarzoneHomeBlockHealth())
 			return TownySettings.getWarzoneHomeBlockHealth();
@@ -789,11 +923,25 @@ public class War {
 	}
 
 	/**
-	 * Removes one WorldCoord from the warZone hashtable.
+	 * Removes one WorldCoord from the warZone map.
+	 * The cells of the war zone around it become edges of their towns.
 	 * @param worldCoord WorldCoord being removed from the war.
 	 */
 	private void remove(WorldCoord worldCoord) {	
 		warZone.remove(worldCoord);
+		for (Set<WorldCoord> edgeCells : townEdges.values())
+			edgeCells.remove(worldCoord);
+
+		for (int[] offset : EDGE_OFFSETS) {
+			WorldCoord neighbour = worldCoord.add(offset[0], offset[1]);
+			if (!warZone.containsKey(neighbour))
+				continue;
+			TownBlock townBlock = TownyUniverse.getInstance().getTownBlockOrNull(neighbour);
+			try {
+				if (townBlock != null && townBlock.hasTown())
+					townEdges.computeIfAbsent(townBlock.getTown(), k -> ConcurrentHashMap.newKeySet()).add(neighbour);
+			} catch (NotRegisteredException ignored) {}
+		}
 	}
 	
 	private void sendEliminateMessage(String name) {
@@ -879,16 +1027,9 @@ public class War {
 
 		List<String> output = new ArrayList<>();
 		output.add(ChatTools.formatTitle("War - Top Scores"));
-		KeyValueTable<Town, Integer> kvTable = new KeyValueTable<>(townScores);
-		kvTable.sortByValue();
-		kvTable.reverse();
-		int n = 0;
-		for (KeyValue<Town, Integer> kv : kvTable.getKeyValues()) {
-			n++;
-			if (maxListing != -1 && n > maxListing)
-				break;
-			Town town = kv.key;
-			int score = kv.value;
+		for (Ranking ranking : getTopRankings(maxListing)) {
+			Town town = ranking.town;
+			int score = ranking.score;
 			if (score > 0)
 				output.add(String.format(Colors.Blue + "%40s " + Colors.Gold + "|" + Colors.LightGray + " %4d", town.getFormattedName(), score));
 		}
@@ -896,23 +1037,18 @@ public class War {
 	}
 
 	public String[] getTopThree() {
-		KeyValueTable<Town, Integer> kvTable = new KeyValueTable<>(townScores);
-		kvTable.sortByValue();
-		kvTable.reverse();
+		List<Ranking> rankings = getTopRankings(3);
 		String[] top = new String[3];
-		top[0] = kvTable.getKeyValues().size() >= 1 ? kvTable.getKeyValues().get(0).value + "-" + kvTable.getKeyValues().get(0).key : "";
-		top[1] = kvTable.getKeyValues().size() >= 2 ? kvTable.getKeyValues().get(1).value + "-" + kvTable.getKeyValues().get(1).key : "";
-		top[2] = kvTable.getKeyValues().size() >= 3 ? kvTable.getKeyValues().get(2).value + "-" + kvTable.getKeyValues().get(2).key : "";
+		for (int i = 0; i < top.length; i++)
+			top[i] = rankings.size() > i ? rankings.get(i).score + "-" + rankings.get(i).town : "";
 		return top;
 	}
 
 	public KeyValue<Town, Integer> getWinningTownScore() throws TownyException {
 
-		KeyValueTable<Town, Integer> kvTable = new KeyValueTable<>(townScores);
-		kvTable.sortByValue();
-		kvTable.reverse();
-		if (kvTable.getKeyValues().size() > 0)
-			return kvTable.getKeyValues().get(0);
+		List<Ranking> rankings = getTopRankings(1);
+		if (rankings.size() > 0)
+			return new KeyValue<>(rankings.get(0).town, rankings.get(0).score);
 		else
 			throw new TownyException();
 	}
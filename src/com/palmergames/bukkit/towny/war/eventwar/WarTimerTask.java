@@ -6,28 +6,43 @@ import com.palmergames.bukkit.towny.TownyMessaging;
 import com.palmergames.bukkit.towny.TownySettings;
 import com.palmergames.bukkit.towny.TownyUniverse;
 import com.palmergames.bukkit.towny.exceptions.NotRegisteredException;
-import com.palmergames.bukkit.towny.object.Coord;
 import com.palmergames.bukkit.towny.object.Nation;
 import com.palmergames.bukkit.towny.object.Resident;
+import com.palmergames.bukkit.towny.object.Town;
 import com.palmergames.bukkit.towny.object.TownBlock;
 import com.palmergames.bukkit.towny.object.WorldCoord;
 import com.palmergames.bukkit.towny.tasks.TownyTimerTask;
 import com.palmergames.bukkit.util.BukkitTools;
 import org.bukkit.entity.Player;
 
-import java.util.Hashtable;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
 
 public class WarTimerTask extends TownyTimerTask {
 
 	private War warEvent;
 
+	// A player of a warring nation standing in the war zone.
+	private static class Combatant {
+		final Player player;
+		final Resident resident;
+		final Nation nation;
+
+		Combatant(Player player, Resident resident, Nation nation) {
+			this.player = player;
+			this.resident = resident;
+			this.nation = nation;
+		}
+	}
+
 	public WarTimerTask(Towny plugin, War warEvent) {
 
 		super(plugin);
 		this.warEvent = warEvent;
 	}
 
-	@SuppressWarnings("static-access")
 	@Override
 	public void run() {
 
@@ -41,106 +56,80 @@ public class WarTimerTask extends TownyTimerTask {
 		}
 
 		int numPlayers = 0;
-		Hashtable<TownBlock, WarZoneData> plotList = new Hashtable<>();
+		// Group the players by the plot they are standing in, so each plot is looked at once.
+		Map<WorldCoord, List<Combatant>> playersByPlot = new HashMap<>();
 		for (Player player : BukkitTools.getOnlinePlayers()) {
 			if (player != null && !player.isFlying()) {
 				numPlayers += 1;
-				TownyMessaging.sendDebugMsg("[War] " + player.getName() + ": ");
 				try {
-					Resident resident = TownyUniverse.getInstance().getDataSource().getResident(player.getName());
-					if (!resident.hasTown() || !warEvent.isWarringTown(resident.getTown()))
+					Resident resident = TownyUniverse.getInstance().getResident(player);
+					if (resident == null || !resident.hasTown() || !War.isWarringTown(resident.getTown()) || !resident.hasNation())
 						continue;
-					
-					if (resident.hasNation()) {
-						Nation nation = resident.getTown().getNation();
-						TownyMessaging.sendDebugMsg("[War]   hasNation");
-						if (nation.isNeutral()) {
-							if (warEvent.isWarringNation(nation))
-								warEvent.nationLeave(nation);
-							continue;
-						}
-						TownyMessaging.sendDebugMsg("[War]   notPeaceful");
-						if (!warEvent.isWarringNation(nation))
-							continue;
-						TownyMessaging.sendDebugMsg("[War]   warringNation");
-
-						WorldCoord worldCoord = plugin.getCache(player).getLastTownBlock();
-						if (!warEvent.isWarZone(worldCoord))
-							continue;
-						TownyMessaging.sendDebugMsg("[War]   warZone");
-						if (player.getLocation().getBlockY() < TownySettings.getMinWarHeight())
-							continue;
-						TownyMessaging.sendDebugMsg("[War]   aboveMinHeight");
-						TownBlock townBlock = worldCoord.getTownBlock(); //universe.getWorld(player.getWorld().getName()).getTownBlock(worldCoord);
-						boolean healablePlots = TownySettings.getPlotsHealableInWar();
-						if (healablePlots && (nation == townBlock.getTown().getNation() || townBlock.getTown().getNation().hasAlly(nation))) {
-							if (plotList.containsKey(townBlock))
-								plotList.get(townBlock).addDefender(player);
-							else {
-								WarZoneData wzd = new WarZoneData();
-								wzd.addDefender(player);
-								plotList.put(townBlock, wzd);
-							}
-							TownyMessaging.sendDebugMsg("[War]   healed");
-							continue;
-						}
-						
-						if (!resident.getTown().getNation().hasEnemy(townBlock.getTown().getNation()))
-							continue;
-						TownyMessaging.sendDebugMsg("[War]   notAlly");
-						//Enemy nation
-						
-						if (resident.isJailed())
-							continue;
-
-						boolean edgesOnly = TownySettings.getOnlyAttackEdgesInWar();
-						if (edgesOnly && !isOnEdgeOfTown(townBlock, worldCoord, warEvent))
-							continue;
-						if (edgesOnly)
-							TownyMessaging.sendDebugMsg("[War]   onEdge");
-
-						//warEvent.damage(player, townBlock);
-						if (plotList.containsKey(townBlock))
-							plotList.get(townBlock).addAttacker(player);
-						else {
-							WarZoneData wzd = new WarZoneData();
-							wzd.addAttacker(player);
-							plotList.put(townBlock, wzd);
-						}
-						TownyMessaging.sendDebugMsg("[War]   damaged");
 
+					Nation nation = resident.getTown().getNation();
+					if (nation.isNeutral()) {
+						if (warEvent.isWarringNation(nation))
+							warEvent.nationLeave(nation);
+						continue;
 					}
+					if (!warEvent.isWarringNation(nation))
+						continue;
+
+					WorldCoord worldCoord = plugin.getCache(player).getLastTownBlock();
+					if (!War.isWarZone(worldCoord))
+						continue;
+					if (player.getLocation().getBlockY() < TownySettings.getMinWarHeight())
+						continue;
+
+					playersByPlot.computeIfAbsent(worldCoord, k -> new ArrayList<>()).add(new Combatant(player, resident, nation));
 				} catch (NotRegisteredException ignored) {
 				}
 			}
 		}
 
-		//Send health updates
-		for (TownBlock tb : plotList.keySet()) {
+		boolean healablePlots = TownySettings.getPlotsHealableInWar();
+		boolean edgesOnly = TownySettings.getOnlyAttackEdgesInWar();
+		for (Map.Entry<WorldCoord, List<Combatant>> plot : playersByPlot.entrySet()) {
+			WorldCoord worldCoord = plot.getKey();
+			TownBlock townBlock = TownyUniverse.getInstance().getTownBlockOrNull(worldCoord);
+			if (townBlock == null || !townBlock.hasTown())
+				continue;
+
 			try {
-				warEvent.updateWarZone(tb, plotList.get(tb));
+				Town town = townBlock.getTown();
+				Nation plotNation = town.getNation();
+				boolean attackable = !edgesOnly || War.isOnEdgeOfTown(worldCoord);
+
+				WarZoneData wzd = new WarZoneData();
+				boolean involved = false;
+				for (Combatant combatant : plot.getValue()) {
+					if (healablePlots && (combatant.nation == plotNation || plotNation.hasAlly(combatant.nation))) {
+						wzd.addDefender(combatant.player);
+						involved = true;
+						continue;
+					}
+
+					//Enemy nation
+					if (!combatant.nation.hasEnemy(plotNation) || combatant.resident.isJailed() || !attackable)
+						continue;
+
+					wzd.addAttacker(combatant.player);
+					involved = true;
+				}
+
+				//Send health updates
+				if (involved)
+					warEvent.updateWarZone(townBlock, wzd);
 			} catch (NotRegisteredException e) {
 				TownyMessaging.sendDebugMsg("[War]   WarZone Update Failed");
 			}
 		}
 
-		TownyMessaging.sendDebugMsg("[War] # Players: " + numPlayers);
-	}	
+		TownyMessaging.sendDebugMsg("[War] # Players: " + numPlayers + ", # Plots: " + playersByPlot.size());
+	}
 
-	@SuppressWarnings("static-access")
 	public static boolean isOnEdgeOfTown(TownBlock townBlock, WorldCoord worldCoord, War warEvent) {
 
-		int[][] offset = { { -1, 0 }, { 1, 0 }, { 0, -1 }, { 0, 1 } };
-		for (int i = 0; i < 4; i++)
-			try {
-				TownBlock edgeTownBlock = worldCoord.getTownyWorld().getTownBlock(new Coord(worldCoord.getX() + offset[i][0], worldCoord.getZ() + offset[i][1]));
-				boolean sameTown = edgeTownBlock.getTown() == townBlock.getTown();
-				if (!sameTown || (sameTown && !warEvent.isWarZone(edgeTownBlock.getWorldCoord()))) {
-					return true;
-				}
-			} catch (NotRegisteredException e) {
-				return true;
-			}
-		return false;
+		return War.isOnEdgeOfTown(worldCoord);
 	}
-}
\ No newline at end of file
+}
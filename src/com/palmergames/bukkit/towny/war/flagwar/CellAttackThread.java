@@ -2,6 +2,10 @@ package com.palmergames.bukkit.towny.war.flagwar;
 
 import java.util.TimerTask;
 
+/**
+ * @deprecated Attacks are advanced by the {@link FlagWarTimerTask}, this is no longer scheduled.
+ */
+@Deprecated
 public class CellAttackThread extends TimerTask {
 
 	CellUnderAttack cell;
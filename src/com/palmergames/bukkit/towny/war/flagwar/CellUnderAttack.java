@@ -1,7 +1,7 @@
 package com.palmergames.bukkit.towny.war.flagwar;
 
-import java.util.ArrayList;
-import java.util.List;
+import java.util.LinkedHashSet;
+import java.util.Set;
 
 import org.bukkit.Material;
 import org.bukkit.World;
@@ -14,12 +14,13 @@ public class CellUnderAttack extends Cell {
 
 	private Towny plugin;
 	private String nameOfFlagOwner;
-	private List<Block> beaconFlagBlocks;
-	private List<Block> beaconWireframeBlocks;
+	private Set<Block> beaconFlagBlocks;
+	private Set<Block> beaconWireframeBlocks;
 	private Block flagBaseBlock, flagBlock, flagLightBlock;
 	private int flagColorId;
-	private int thread;
 	private long timeBetweenColorChange;
+	// The FlagWarTimerTask tick of the next flag colour change.
+	private long nextPhaseTick;
 
 	/**
 	 * Old CellUnderAttack class constructor, marked for eventual removal.
@@ -50,7 +51,6 @@ public class CellUnderAttack extends Cell {
 		this.nameOfFlagOwner = nameOfFlagOwner;
 		this.flagBaseBlock = flagBaseBlock;
 		this.flagColorId = 0;
-		this.thread = -1;
 
 		World world = flagBaseBlock.getWorld();
 		this.flagBlock = world.getBlockAt(flagBaseBlock.getX(), flagBaseBlock.getY() + 1, flagBaseBlock.getZ());
@@ -61,8 +61,8 @@ public class CellUnderAttack extends Cell {
 
 	public void loadBeacon() {
 
-		beaconFlagBlocks = new ArrayList<Block>();
-		beaconWireframeBlocks = new ArrayList<Block>();
+		beaconFlagBlocks = new LinkedHashSet<>();
+		beaconWireframeBlocks = new LinkedHashSet<>();
 
 		if (!FlagWarConfig.isDrawingBeacon())
 			return;
@@ -148,8 +148,34 @@ public class CellUnderAttack extends Cell {
 
 	public void changeFlag() {
 
+		changeFlag(true);
+	}
+
+	/**
+	 * Move the flag on to its next colour.
+	 * 
+	 * @param draw whether to set the flag and beacon blocks to the new colour.
+	 */
+	public void changeFlag(boolean draw) {
+
 		flagColorId += 1;
-		updateFlag();
+		if (draw)
+			updateFlag();
+	}
+
+	public long getTimeBetweenColorChange() {
+
+		return timeBetweenColorChange;
+	}
+
+	long getNextPhaseTick() {
+
+		return nextPhaseTick;
+	}
+
+	void setNextPhaseTick(long nextPhaseTick) {
+
+		this.nextPhaseTick = nextPhaseTick;
 	}
 
 	public void drawFlag() {
@@ -171,8 +197,9 @@ public class CellUnderAttack extends Cell {
 			
 			flagBlock.setType(woolColors[flagColorId]);
 			
+			// Wool needs no physics, so the beacon is recoloured without block updates.
 			for (Block block : beaconFlagBlocks)
-				block.setType(woolColors[flagColorId]);
+				block.setType(woolColors[flagColorId], false);
 			
 		}
 	}
@@ -191,14 +218,12 @@ public class CellUnderAttack extends Cell {
 	public void begin() {
 
 		drawFlag();
-		thread = plugin.getServer().getScheduler().scheduleSyncRepeatingTask(plugin, new CellAttackThread(this), this.timeBetweenColorChange, this.timeBetweenColorChange);
+		FlagWar.getTimerTask(plugin).schedule(this);
 	}
 
 	public void cancel() {
 
-		if (thread != -1)
-			plugin.getServer().getScheduler().cancelTask(thread);
-
+		// The FlagWarTimerTask drops the attack once it is no longer registered.
 		destroyFlag();
 	}
 
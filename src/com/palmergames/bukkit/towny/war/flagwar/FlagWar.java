@@ -21,26 +21,29 @@ import com.palmergames.bukkit.towny.war.flagwar.events.CellAttackEvent;
 import com.palmergames.bukkit.towny.war.flagwar.events.CellDefendedEvent;
 import com.palmergames.bukkit.towny.war.flagwar.events.CellWonEvent;
 import org.bukkit.Bukkit;
+import org.bukkit.Chunk;
 import org.bukkit.block.Block;
 import org.bukkit.entity.Player;
 import org.bukkit.event.Cancellable;
 
 import java.util.ArrayList;
-import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
 
 public class FlagWar {
 
 	private static Map<Cell, CellUnderAttack> cellsUnderAttack;
 	private static Map<String, List<CellUnderAttack>> cellsUnderAttackByPlayer;
 	private static Map<Town, Long> lastFlag;
+	private static FlagWarTimerTask timerTask;
 
 	public static void onEnable() {
 
-		cellsUnderAttack = new HashMap<>();
-		cellsUnderAttackByPlayer = new HashMap<>();
-		lastFlag = new HashMap<>();
+		cellsUnderAttack = new ConcurrentHashMap<>();
+		cellsUnderAttackByPlayer = new ConcurrentHashMap<>();
+		lastFlag = new ConcurrentHashMap<>();
 	}
 
 	public static void onDisable() {
@@ -52,6 +55,34 @@ public class FlagWar {
 			}
 		} catch (NullPointerException ignored) {
 		}
+
+		if (timerTask != null)
+			timerTask.cancel();
+		timerTask = null;
+	}
+
+	/**
+	 * Get the task which advances every attack, creating it on first use.
+	 * 
+	 * @param plugin Instance of {@link Towny}
+	 * @return the {@link FlagWarTimerTask}
+	 */
+	public static FlagWarTimerTask getTimerTask(Towny plugin) {
+
+		if (timerTask == null)
+			timerTask = new FlagWarTimerTask(plugin);
+		return timerTask;
+	}
+
+	/**
+	 * Redraw any flag in a chunk which changed colour while the chunk was unloaded.
+	 * 
+	 * @param chunk the chunk which has loaded.
+	 */
+	public static void chunkLoaded(Chunk chunk) {
+
+		if (timerTask != null)
+			timerTask.chunkLoaded(chunk);
 	}
 
 	public static void registerAttack(CellUnderAttack cell) throws Exception {
@@ -95,6 +126,13 @@ public class FlagWar {
 		return new ArrayList<>(cellsUnderAttack.values());
 	}
 
+	/**
+	 * @return true if any cell is currently under attack
+	 */
+	public static boolean hasCellsUnderAttack() {
+		return cellsUnderAttack != null && !cellsUnderAttack.isEmpty();
+	}
+
 	/**
 	 * Get all cells currently under attack in the specified town
 	 * 
@@ -195,25 +233,15 @@ public class FlagWar {
 
 	private static void addFlagToPlayerCount(String playerName, CellUnderAttack cell) {
 
-		List<CellUnderAttack> activeFlags = getCellsUnderAttackByPlayer(playerName);
-		if (activeFlags == null)
-			activeFlags = new ArrayList<>();
-
-		activeFlags.add(cell);
-		cellsUnderAttackByPlayer.put(playerName, activeFlags);
+		cellsUnderAttackByPlayer.computeIfAbsent(playerName, k -> new CopyOnWriteArrayList<>()).add(cell);
 	}
 
 	private static void removeFlagFromPlayerCount(String playerName, Cell cell) {
 
-		List<CellUnderAttack> activeFlags = cellsUnderAttackByPlayer.get(playerName);
-		if (activeFlags != null) {
-			if (activeFlags.size() <= 1)
-				cellsUnderAttackByPlayer.remove(playerName);
-			else {
-				activeFlags.remove(cell);
-				cellsUnderAttackByPlayer.put(playerName, activeFlags);
-			}
-		}
+		cellsUnderAttackByPlayer.computeIfPresent(playerName, (k, activeFlags) -> {
+			activeFlags.remove(cell);
+			return activeFlags.isEmpty() ? null : activeFlags;
+		});
 	}
 
 	public static void checkBlock(Player player, Block block, Cancellable event) {
@@ -395,16 +423,10 @@ public class FlagWar {
 	}
 
 	public static long lastFlagged(Town town) {
-		if (lastFlag.containsKey(town))
-			return lastFlag.get(town);
-		else
-			return 0;
+		return lastFlag.getOrDefault(town, 0L);
 	}
 
 	public static void townFlagged(Town town) {
-		if (lastFlag.containsKey(town))
-			lastFlag.replace(town, System.currentTimeMillis());
-		else
-			lastFlag.put(town, System.currentTimeMillis());
+		lastFlag.put(town, System.currentTimeMillis());
 	}
 }
@@ -0,0 +1,131 @@
+package com.palmergames.bukkit.towny.war.flagwar;
+
+import com.palmergames.bukkit.towny.Towny;
+import com.palmergames.bukkit.towny.tasks.TownyTimerTask;
+import org.bukkit.Chunk;
+import org.bukkit.block.Block;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.Set;
+
+/**
+ * Advances every FlagWar attack from one repeating task.
+ *
+ * The attacks wait in a queue ordered by the tick of their next flag colour
+ * change. Each tick the attacks which are due are changed together, chunk by
+ * chunk, and the task stops itself when there are no attacks left. A flag
+ * whose chunk is unloaded when it changes colour is redrawn when the chunk
+ * loads again.
+ */
+public class FlagWarTimerTask extends TownyTimerTask {
+
+	// Orders attacks by world and chunk, so the blocks of one chunk are changed one after another.
+	private static final Comparator<CellUnderAttack> BY_CHUNK = Comparator
+		.comparing(CellUnderAttack::getWorldName)
+		.thenComparingInt(cell -> cell.getFlagBaseBlock().getX() >> 4)
+		.thenComparingInt(cell -> cell.getFlagBaseBlock().getZ() >> 4);
+
+	private final PriorityQueue<CellUnderAttack> attacks = new PriorityQueue<>(Comparator.comparingLong(CellUnderAttack::getNextPhaseTick));
+	// Attacks whose flag changed colour while its chunk was unloaded, by identity as a new attack on the cell is equal to an old one.
+	private final Set<CellUnderAttack> staleFlags = Collections.newSetFromMap(new IdentityHashMap<>());
+	private long tick = 0;
+	private int taskId = -1;
+
+	public FlagWarTimerTask(Towny plugin) {
+
+		super(plugin);
+	}
+
+	/**
+	 * Queue an attack's next flag colour change, starting the task if it is not running.
+	 *
+	 * @param cell the attack which has begun.
+	 */
+	public void schedule(CellUnderAttack cell) {
+
+		cell.setNextPhaseTick(tick + Math.max(1, cell.getTimeBetweenColorChange()));
+		attacks.add(cell);
+		if (taskId == -1)
+			taskId = plugin.getServer().getScheduler().scheduleSyncRepeatingTask(plugin, this, 1, 1);
+	}
+
+	/**
+	 * Stop the task and forget every queued attack.
+	 */
+	public void cancel() {
+
+		if (taskId != -1)
+			plugin.getServer().getScheduler().cancelTask(taskId);
+		taskId = -1;
+		attacks.clear();
+		staleFlags.clear();
+	}
+
+	/**
+	 * Redraw the flags which changed colour while a chunk was unloaded.
+	 *
+	 * @param chunk the chunk which has loaded.
+	 */
+	public void chunkLoaded(Chunk chunk) {
+
+		if (staleFlags.isEmpty())
+			return;
+
+		Iterator<CellUnderAttack> iterator = staleFlags.iterator();
+		while (iterator.hasNext()) {
+			CellUnderAttack cell = iterator.next();
+			if (FlagWar.getAttackData(cell) != cell) {
+				iterator.remove();
+				continue;
+			}
+			Block flagBase = cell.getFlagBaseBlock();
+			if (flagBase.getWorld().equals(chunk.getWorld()) && flagBase.getX() >> 4 == chunk.getX() && flagBase.getZ() >> 4 == chunk.getZ()) {
+				cell.updateFlag();
+				iterator.remove();
+			}
+		}
+	}
+
+	@Override
+	public void run() {
+
+		tick++;
+
+		List<CellUnderAttack> due = new ArrayList<>();
+		while (!attacks.isEmpty() && attacks.peek().getNextPhaseTick() <= tick) {
+			CellUnderAttack cell = attacks.poll();
+			// Skip attacks which were defended or canceled since they were queued.
+			if (FlagWar.getAttackData(cell) == cell)
+				due.add(cell);
+		}
+		due.sort(BY_CHUNK);
+
+		for (CellUnderAttack cell : due) {
+			Block flagBase = cell.getFlagBaseBlock();
+			// A flag in an unloaded chunk keeps counting down without loading the chunk to recolour it.
+			boolean loaded = flagBase.getWorld().isChunkLoaded(flagBase.getX() >> 4, flagBase.getZ() >> 4);
+			cell.changeFlag(loaded);
+			if (loaded)
+				staleFlags.remove(cell);
+			else
+				staleFlags.add(cell);
+
+			if (cell.hasEnded()) {
+				staleFlags.remove(cell);
+				FlagWar.attackWon(cell);
+			} else {
+				cell.setNextPhaseTick(tick + Math.max(1, cell.getTimeBetweenColorChange()));
+				attacks.add(cell);
+			}
+		}
+
+		if (attacks.isEmpty())
+			cancel();
+	}
+}
@@ -0,0 +1,84 @@
+package com.palmergames.bukkit.util;
+
+import org.bukkit.Material;
+
+import java.util.Collection;
+
+/**
+ * Classifies Materials into the groups Towny tests while players interact.
+ *
+ * The configured switch and item_use lists and the {@link ItemLists} groups
+ * are turned into one set of flags per Material when the config is loaded,
+ * so a test is an array lookup instead of scanning a list of names.
+ *
+ * Names which are not a Material on the running server are skipped, which
+ * keeps {@link ItemLists} usable across versions of MC.
+ */
+public class MaterialClassifier {
+
+	public static final int SWITCH = 1;
+	public static final int ITEM_USE = 1 << 1;
+	public static final int AXE = 1 << 2;
+	public static final int DYE = 1 << 3;
+	public static final int POTTED_PLANT = 1 << 4;
+	public static final int REDSTONE_INTERACTABLE = 1 << 5;
+	public static final int PROJECTILE_TRIGGERED_REDSTONE = 1 << 6;
+
+	// Flags per Material, indexed by Material#ordinal(). Replaced as a whole on reload.
+	private static volatile int[] flags = build(null, null);
+
+	/**
+	 * Rebuild the flags from the configured switch and item_use materials.
+	 * Groups must already have been replaced with the contents of the group.
+	 *
+	 * @param switches - Material names which are switches.
+	 * @param itemUse - Material names which are item_use items.
+	 */
+	public static void load(Collection<String> switches, Collection<String> itemUse) {
+
+		flags = build(switches, itemUse);
+	}
+
+	private static int[] build(Collection<String> switches, Collection<String> itemUse) {
+
+		int[] built = new int[Material.values().length];
+		mark(built, ItemLists.AXES, AXE);
+		mark(built, ItemLists.DYES, DYE);
+		mark(built, ItemLists.POTTED_PLANTS, POTTED_PLANT);
+		mark(built, ItemLists.REDSTONE_INTERACTABLES, REDSTONE_INTERACTABLE);
+		mark(built, ItemLists.PROJECTILE_TRIGGERED_REDSTONE, PROJECTILE_TRIGGERED_REDSTONE);
+		if (switches != null)
+			mark(built, switches, SWITCH);
+		if (itemUse != null)
+			mark(built, itemUse, ITEM_USE);
+		return built;
+	}
+
+	private static void mark(int[] built, Collection<String> names, int flag) {
+
+		for (String name : names) {
+			Material material = Material.getMaterial(name);
+			if (material != null)
+				built[material.ordinal()] |= flag;
+		}
+	}
+
+	/**
+	 * @param material - Material to look up.
+	 * @return every flag set for this material.
+	 */
+	public static int getFlags(Material material) {
+
+		return material == null ? 0 : flags[material.ordinal()];
+	}
+
+	/**
+	 * @param material - Material to test.
+	 * @param flag - One or more flags, ie: {@link #SWITCH}.
+	 * @return true if the material has any of the given flags.
+	 */
+	public static boolean is(Material material, int flag) {
+
+		return (getFlags(material) & flag) != 0;
+	}
+}
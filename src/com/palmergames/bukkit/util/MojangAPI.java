@@ -1,13 +1,20 @@
 package com.palmergames.bukkit.util;
 
+import org.json.simple.JSONArray;
 import org.json.simple.JSONObject;
 import org.json.simple.JSONValue;
 
 import java.io.BufferedReader;
 import java.io.IOException;
 import java.io.InputStreamReader;
+import java.io.OutputStream;
 import java.net.HttpURLConnection;
 import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.UUID;
 import java.util.regex.Pattern;
 
 /**
@@ -16,12 +23,38 @@ import java.util.regex.Pattern;
  */
 public class MojangAPI {
 
+	static final int MAX_PROFILES_PER_REQUEST = 10;
 	static final Pattern uuidCreator = Pattern.compile("(\\w{8})(\\w{4})(\\w{4})(\\w{4})(\\w{12})");
 
 	static JSONObject send(String url) throws IOException {
 		return (JSONObject) JSONValue.parse(sendGetRequest(url));
 	}
 
+	/**
+	 * Look up the UUIDs of many names with one call to the Mojang profiles endpoint.
+	 * Mojang accepts at most {@link #MAX_PROFILES_PER_REQUEST} names per call.
+	 * 
+	 * @param names - Player names to look up.
+	 * @return Map of lower case names to UUIDs, names without an account are left out.
+	 * @throws IOException when Mojang could not be reached.
+	 */
+	@SuppressWarnings("unchecked")
+	static Map<String, UUID> getUUIDs(Collection<String> names) throws IOException {
+		JSONArray request = new JSONArray();
+		request.addAll(names);
+		Object response = JSONValue.parse(sendPostRequest("https://api.mojang.com/profiles/minecraft", request.toJSONString()));
+		if (!(response instanceof JSONArray))
+			throw new IOException("Unexpected response from Mojang.");
+
+		Map<String, UUID> uuids = new HashMap<>();
+		for (Object profile : (JSONArray) response) {
+			JSONObject object = (JSONObject) profile;
+			if (object.containsKey("id") && object.containsKey("name"))
+				uuids.put(object.get("name").toString().toLowerCase(), UUID.fromString(dashUUID(object.get("id").toString())));
+		}
+		return uuids;
+	}
+
 	static String dashUUID(String undashed) {
 		return undashed.replaceAll(uuidCreator.pattern(), "$1-$2-$3-$4-$5");
 	}
@@ -49,4 +82,27 @@ public class MojangAPI {
 		}
 		return builder.toString();
 	}
+
+	private static String sendPostRequest(String URL, String body) throws IOException {
+		StringBuilder builder = new StringBuilder();
+
+		HttpURLConnection connection = (HttpURLConnection) new URL(URL).openConnection();
+		connection.setRequestMethod("POST");
+		connection.setRequestProperty("Content-Type", "application/json");
+		connection.setDoOutput(true);
+		try (OutputStream out = connection.getOutputStream()) {
+			out.write(body.getBytes(StandardCharsets.UTF_8));
+		}
+
+		if (connection.getResponseCode() != 200)
+			throw new IOException("HTTP Response Code " + connection.getResponseCode());
+
+		try (BufferedReader reader = new BufferedReader(new InputStreamReader(connection.getInputStream(), StandardCharsets.UTF_8))) {
+			String response;
+			while ((response = reader.readLine()) != null) {
+				builder.append(response);
+			}
+		}
+		return builder.toString();
+	}
 }
\ No newline at end of file
@@ -0,0 +1,24 @@
+package com.palmergames.bukkit.util;
+
+import java.io.IOException;
+import java.util.Collection;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Resolves UUIDs using the Mojang profiles endpoint, which looks up several names per request.
+ */
+public class MojangUUIDResolver implements UUIDResolver {
+
+	@Override
+	public int getMaxBatchSize() {
+
+		return MojangAPI.MAX_PROFILES_PER_REQUEST;
+	}
+
+	@Override
+	public Map<String, UUID> resolve(Collection<String> names) throws IOException {
+
+		return MojangAPI.getUUIDs(names);
+	}
+}
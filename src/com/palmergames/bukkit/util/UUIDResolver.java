@@ -0,0 +1,30 @@
+package com.palmergames.bukkit.util;
+
+import java.io.IOException;
+import java.util.Collection;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Looks up the UUIDs of players by name, in batches.
+ * 
+ * Towny uses {@link MojangUUIDResolver} unless another resolver is set with
+ * {@link com.palmergames.bukkit.towny.tasks.GatherResidentUUIDTask#setResolver(UUIDResolver)},
+ * ie: a stub which answers from a local list.
+ */
+public interface UUIDResolver {
+
+	/**
+	 * @return the most names which can be passed to {@link #resolve(Collection)} at once.
+	 */
+	int getMaxBatchSize();
+
+	/**
+	 * Look up the UUIDs of some names.
+	 * 
+	 * @param names - Player names, no more than {@link #getMaxBatchSize()}.
+	 * @return Map of lower case names to UUIDs. Names without an account are left out.
+	 * @throws IOException when the names could not be looked up, they will be tried again later.
+	 */
+	Map<String, UUID> resolve(Collection<String> names) throws IOException;
+}